@@ -0,0 +1,2 @@
+!function(r){var n=window.webpackJsonp;window.webpackJsonp=function(o,u,c){for(var f,p,i,l=0,a=[];l<o.length;l++)p=o[l],e[p]&&a.push(e[p][0]),e[p]=0;for(f in u)Object.prototype.hasOwnProperty.call(u,f)&&(r[f]=u[f]);for(n&&n(o,u,c);a.length;)a.shift()();if(c)for(l=0;l<c.length;l++)i=t(t.s=c[l]);return i};var o={},e={2:0};function t(n){if(o[n])return o[n].exports;var e=o[n]={i:n,l:!1,exports:{}};return r[n].call(e.exports,e,e.exports,t),e.l=!0,e.exports}t.m=r,t.c=o,t.d=function(r,n,o){t.o(r,n)||Object.defineProperty(r,n,{configurable:!1,enumerable:!0,get:o})},t.n=function(r){var n=r&&r.__esModule?function(){return r.default}:function(){return r};return t.d(n,"a",n),n},t.o=function(r,n){return Object.prototype.hasOwnProperty.call(r,n)},t.p="/playground/logs/",t.oe=function(r){throw console.error(r),r}}([]);
+//# sourceMappingURL=manifest.723916051c3aaf674d10.js.map
\ No newline at end of file
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cache.impls.local;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A stripe of the local cache.
+ *
+ * Reads are lock free, they only record the access in a lossy buffer which is replayed on the policy by
+ * the next thread holding the lock. Writes and evictions are done under the segment lock.
+ *
+ * Eviction policy (W-TinyLFU): new entries land in a small LRU window, entries leaving the window 
+ * compete with the main space's probation victim and the one seen less frequently is evicted. 
+ * Entries accessed while in probation are promoted to the protected space.
+ */
+class CacheSegment {
+
+	private static final int 	ReadBufferSize 	= 32;
+	private static final int 	ReadBufferMask 	= ReadBufferSize - 1;
+	private static final int 	DrainThreshold 	= 16;
+
+	private static final int 	Window 		= 0;
+	private static final int 	Probation 	= 1;
+	private static final int 	Protected 	= 2;
+
+	private ConcurrentHashMap<String, Node> 	data;
+
+	private ReentrantLock 						lock 		= new ReentrantLock ();
+
+	private FrequencySketch 					sketch;
+
+	private Queue 								window 		= new Queue ();
+	private Queue 								probation 	= new Queue ();
+	private Queue 								protect 	= new Queue ();
+
+	private int 								maxEntries;
+	private long 								maxBytes;
+	private int 								maxWindow;
+	private int 								maxProtected;
+
+	// written under the lock, read by describe
+	private volatile long 						bytes;
+
+	private AtomicReferenceArray<Node> 			reads 		= new AtomicReferenceArray<Node> (ReadBufferSize);
+	private AtomicInteger 						readCount 	= new AtomicInteger ();
+
+	private CacheStats 							stats;
+
+	CacheSegment (int maxEntries, long maxBytes, CacheStats stats) {
+		this.maxEntries 	= maxEntries;
+		this.maxBytes 		= maxBytes;
+		this.maxWindow 		= Math.max (1, maxEntries / 100);
+		this.maxProtected 	= (int)((maxEntries - maxWindow) * 0.8);
+		this.stats 			= stats;
+
+		data 	= new ConcurrentHashMap<String, Node> (Math.min (maxEntries, 1024));
+		sketch 	= new FrequencySketch (maxEntries);
+	}
+
+	Node get (String key, int hash) {
+		Node node = data.get (key);
+		if (node == null) {
+			return null;
+		}
+		if (node.isExpired (System.currentTimeMillis ())) {
+			lock.lock ();
+			try {
+				if (data.get (key) == node) {
+					remove (node);
+					stats.expired ();
+				}
+			} finally {
+				lock.unlock ();
+			}
+			return null;
+		}
+		recordRead (node);
+		return node;
+	}
+
+	void put (String key, int hash, Object value, long weight, long expiresAt) {
+		lock.lock ();
+		try {
+			drainReads ();
+			Node node = data.get (key);
+			if (node != null) {
+				bytes += weight - node.weight;
+				node.weight 	= weight;
+				node.value 		= value;
+				node.expiresAt 	= expiresAt;
+				onAccess (node);
+			} else {
+				add (new Node (key, hash, value, weight, expiresAt));
+			}
+			sketch.increment (hash);
+			evict ();
+		} finally {
+			lock.unlock ();
+		}
+	}
+
+	Node remove (String key) {
+		lock.lock ();
+		try {
+			Node node = data.get (key);
+			if (node != null) {
+				remove (node);
+			}
+			return node;
+		} finally {
+			lock.unlock ();
+		}
+	}
+
+	long increment (String key, int hash, int increment, long dValue, long weight, long expiresAt) {
+		lock.lock ();
+		try {
+			drainReads ();
+			sketch.increment (hash);
+			Node node = data.get (key);
+			if (node != null && node.isExpired (System.currentTimeMillis ())) {
+				remove (node);
+				stats.expired ();
+				node = null;
+			}
+			if (node == null) {
+				add (new Node (key, hash, dValue, weight, expiresAt));
+				evict ();
+				return dValue;
+			}
+			long value = toLong (node.value) + increment;
+			// same as memcached, counters don't go below 0
+			if (value < 0) {
+				value = 0;
+			}
+			node.value = value;
+			onAccess (node);
+			return value;
+		} finally {
+			lock.unlock ();
+		}
+	}
+
+	int size () {
+		return data.size ();
+	}
+
+	long bytes () {
+		return bytes;
+	}
+
+	void clear () {
+		lock.lock ();
+		try {
+			data.clear ();
+			window.clear ();
+			probation.clear ();
+			protect.clear ();
+			bytes = 0;
+		} finally {
+			lock.unlock ();
+		}
+	}
+
+	private void add (Node node) {
+		data.put (node.key, node);
+		node.queue = Window;
+		window.addFirst (node);
+		bytes += node.weight;
+	}
+
+	private void remove (Node node) {
+		data.remove (node.key);
+		queue (node).remove (node);
+		bytes -= node.weight;
+	}
+
+	private void recordRead (Node node) {
+		int index = readCount.getAndIncrement ();
+		reads.lazySet (index & ReadBufferMask, node);
+		if ((index & (DrainThreshold - 1)) == DrainThreshold - 1 && lock.tryLock ()) {
+			try {
+				drainReads ();
+			} finally {
+				lock.unlock ();
+			}
+		}
+	}
+
+	private void drainReads () {
+		for (int i = 0; i < ReadBufferSize; i++) {
+			Node node = reads.getAndSet (i, null);
+			if (node == null) {
+				continue;
+			}
+			sketch.increment (node.hash);
+			// evicted or removed since read
+			if (data.get (node.key) != node) {
+				continue;
+			}
+			onAccess (node);
+		}
+	}
+
+	private void onAccess (Node node) {
+		switch (node.queue) {
+			case Window:
+				window.moveToFirst (node);
+				break;
+			case Probation:
+				probation.remove (node);
+				node.queue = Protected;
+				protect.addFirst (node);
+				// demote the overflow of the protected space
+				while (protect.count > maxProtected) {
+					Node demoted = protect.last ();
+					protect.remove (demoted);
+					demoted.queue = Probation;
+					probation.addFirst (demoted);
+				}
+				break;
+			case Protected:
+				protect.moveToFirst (node);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void evict () {
+		// entries leaving the window become candidates in probation
+		while (window.count > maxWindow) {
+			Node candidate = window.last ();
+			window.remove (candidate);
+			candidate.queue = Probation;
+			probation.addFirst (candidate);
+		}
+
+		while (data.size () > maxEntries || bytes > maxBytes) {
+			Node victim = probation.last ();
+			if (victim == null) {
+				victim = protect.last ();
+			}
+			if (victim == null) {
+				victim = window.last ();
+			}
+			if (victim == null) {
+				break;
+			}
+			Node candidate = probation.first ();
+			if (candidate != null && candidate != victim && victim.queue == Probation &&
+					sketch.frequency (candidate.hash) <= sketch.frequency (victim.hash)) {
+				victim = candidate;
+			}
+			remove (victim);
+			stats.evicted ();
+		}
+	}
+
+	private Queue queue (Node node) {
+		switch (node.queue) {
+			case Probation:
+				return probation;
+			case Protected:
+				return protect;
+			default:
+				return window;
+		}
+	}
+
+	private static long toLong (Object value) {
+		if (value instanceof Number) {
+			return ((Number)value).longValue ();
+		}
+		try {
+			return Long.parseLong (String.valueOf (value).trim ());
+		} catch (NumberFormatException nfex) {
+			return 0;
+		}
+	}
+
+	static class Node {
+
+		final String 	key;
+		final int 		hash;
+
+		volatile Object value;
+		volatile long 	expiresAt;
+		long 			weight;
+
+		int 			queue;
+		Node 			prev;
+		Node 			next;
+
+		Node (String key, int hash, Object value, long weight, long expiresAt) {
+			this.key 		= key;
+			this.hash 		= hash;
+			this.value 		= value;
+			this.weight 	= weight;
+			this.expiresAt 	= expiresAt;
+		}
+
+		boolean isExpired (long now) {
+			return expiresAt > 0 && now >= expiresAt;
+		}
+
+	}
+
+	// access ordered doubly linked list, most recent first
+	static class Queue {
+
+		private Node 	head;
+		private Node 	tail;
+		int 			count;
+
+		void addFirst (Node node) {
+			node.prev = null;
+			node.next = head;
+			if (head != null) {
+				head.prev = node;
+			} else {
+				tail = node;
+			}
+			head = node;
+			count++;
+		}
+
+		void remove (Node node) {
+			if (node.prev != null) {
+				node.prev.next = node.next;
+			} else if (head == node) {
+				head = node.next;
+			} else {
+				return;
+			}
+			if (node.next != null) {
+				node.next.prev = node.prev;
+			} else {
+				tail = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+			count--;
+		}
+
+		void moveToFirst (Node node) {
+			if (head == node) {
+				return;
+			}
+			remove (node);
+			addFirst (node);
+		}
+
+		Node first () {
+			return head;
+		}
+
+		Node last () {
+			return tail;
+		}
+
+		void clear () {
+			head 	= null;
+			tail 	= null;
+			count 	= 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cache.impls.local;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.bluenimble.platform.json.JsonObject;
+
+class CacheStats {
+
+	interface Describe {
+		String Hits 		= "hits";
+		String Misses 		= "misses";
+		String HitRatio 	= "hitRatio";
+		String Evictions 	= "evictions";
+		String Expirations 	= "expirations";
+	}
+
+	private LongAdder hits 			= new LongAdder ();
+	private LongAdder misses 		= new LongAdder ();
+	private LongAdder evictions 	= new LongAdder ();
+	private LongAdder expirations 	= new LongAdder ();
+
+	void hit () {
+		hits.increment ();
+	}
+
+	void miss () {
+		misses.increment ();
+	}
+
+	void evicted () {
+		evictions.increment ();
+	}
+
+	void expired () {
+		expirations.increment ();
+	}
+
+	void describe (JsonObject describe) {
+		long lHits 		= hits.sum ();
+		long lMisses 	= misses.sum ();
+		describe.set (Describe.Hits, lHits);
+		describe.set (Describe.Misses, lMisses);
+		describe.set (Describe.HitRatio, lHits + lMisses == 0 ? 0 : (double)lHits / (lHits + lMisses));
+		describe.set (Describe.Evictions, evictions.sum ());
+		describe.set (Describe.Expirations, expirations.sum ());
+	}
+
+}
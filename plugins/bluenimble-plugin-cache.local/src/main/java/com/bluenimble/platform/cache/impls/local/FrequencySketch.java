@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cache.impls.local;
+
+/**
+ * Count-min sketch of 4 bit counters estimating how often a key was seen recently.
+ * Counters are halved every 'sampleSize' increments so the history ages.
+ *
+ * Not thread safe, used under the lock of its segment.
+ */
+class FrequencySketch {
+
+	private static final int [] Seeds 	= { 0x97CB3127, 0xB2A1D3C5, 0x6A09E667, 0xBB67AE85 };
+	private static final int 	Depth 	= Seeds.length;
+	private static final int 	Max 	= 15;
+
+	private byte [] table;
+	private int 	mask;
+	private int 	width;
+
+	private int 	sampleSize;
+	private int 	added;
+
+	FrequencySketch (int capacity) {
+		width 		= tableSize (capacity);
+		mask 		= width - 1;
+		table 		= new byte [width * Depth];
+		sampleSize 	= Math.max (10 * capacity, 16);
+	}
+
+	void increment (int hash) {
+		boolean incremented = false;
+		for (int i = 0; i < Depth; i++) {
+			int index = index (hash, i);
+			if (table [index] < Max) {
+				table [index]++;
+				incremented = true;
+			}
+		}
+		if (incremented && ++added >= sampleSize) {
+			reset ();
+		}
+	}
+
+	int frequency (int hash) {
+		int frequency = Max;
+		for (int i = 0; i < Depth; i++) {
+			frequency = Math.min (frequency, table [index (hash, i)]);
+		}
+		return frequency;
+	}
+
+	private void reset () {
+		for (int i = 0; i < table.length; i++) {
+			table [i] = (byte)(table [i] >>> 1);
+		}
+		added = added >>> 1;
+	}
+
+	private int index (int hash, int row) {
+		int h = hash * Seeds [row];
+		h += h >>> 16;
+		return row * width + (h & mask);
+	}
+
+	private static int tableSize (int capacity) {
+		int size = 16;
+		while (size < capacity && size < (1 << 26)) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+}
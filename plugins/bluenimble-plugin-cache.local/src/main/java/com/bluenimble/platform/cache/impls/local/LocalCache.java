@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cache.impls.local;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.Iterator;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.cache.Cache;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * In-process cache, bounded by entries and by estimated bytes.
+ * 
+ * Values are copied on put and on get, as a remote cache would do. Json values are duplicated, 
+ * other serializable objects are kept in their serialized form.
+ *
+ * "spec": {
+ * 		"maxEntries": 10000, "maxBytes": 67108864, "segments": 16
+ * }
+ */
+public class LocalCache implements Cache {
+
+	private static final long serialVersionUID = -2376541260934311752L;
+
+	public interface Spec {
+		String MaxEntries 	= "maxEntries";
+		String MaxBytes 	= "maxBytes";
+		String Segments 	= "segments";
+	}
+
+	interface Describe {
+		String Entries 		= "entries";
+		String Bytes 		= "bytes";
+	}
+
+	// key, node and map slot overhead
+	private static final int 	EntryOverhead 	= 96;
+	private static final int 	DefaultWeight 	= 64;
+
+	private CacheSegment [] 			segments;
+	private CacheStats 					stats = new CacheStats ();
+
+	private int 						mask;
+
+	private int 						maxEntries;
+	private long 						maxBytes;
+
+	public LocalCache (JsonObject spec) {
+		maxEntries 	= Json.getInteger (spec, Spec.MaxEntries, 10000);
+		maxBytes 	= Json.getLong (spec, Spec.MaxBytes, 64 * 1024 * 1024);
+
+		int count = 1;
+		int requested = Json.getInteger (spec, Spec.Segments, 16);
+		while (count < requested) {
+			count <<= 1;
+		}
+		mask = count - 1;
+
+		segments = new CacheSegment [count];
+		for (int i = 0; i < count; i++) {
+			segments [i] = new CacheSegment (Math.max (1, maxEntries / count), Math.max (1, maxBytes / count), stats);
+		}
+	}
+
+	@Override
+	public void put (String key, Object value, int ttl) {
+		if (key == null) {
+			return;
+		}
+		if (value == null) {
+			delete (key);
+			return;
+		}
+		value = copyIn (value);
+		int hash = hash (key);
+		segment (hash).put (key, hash, value, weigh (key, value), expiresAt (ttl));
+	}
+
+	@Override
+	public Object get (String key, boolean remove) {
+		if (key == null) {
+			return null;
+		}
+		int hash = hash (key);
+		CacheSegment segment = segment (hash);
+
+		CacheSegment.Node node = segment.get (key, hash);
+		if (node != null && remove) {
+			node = segment.remove (key);
+		}
+		if (node == null) {
+			stats.miss ();
+			return null;
+		}
+		stats.hit ();
+		return copyOut (node.value);
+	}
+
+	@Override
+	public void delete (String key) {
+		if (key == null) {
+			return;
+		}
+		segment (hash (key)).remove (key);
+	}
+
+	@Override
+	public void increment (String key, int increment, long dValue, int ttl, boolean async) {
+		if (key == null || increment == 0) {
+			return;
+		}
+		int hash = hash (key);
+		segment (hash).increment (key, hash, increment, dValue, weigh (key, dValue), expiresAt (ttl));
+	}
+
+	@Override
+	public JsonObject describe () {
+		int 	entries = 0;
+		long 	bytes 	= 0;
+		for (CacheSegment segment : segments) {
+			entries += segment.size ();
+			bytes 	+= segment.bytes ();
+		}
+		JsonObject describe = new JsonObject ();
+		describe.set (Spec.MaxEntries, maxEntries);
+		describe.set (Spec.MaxBytes, maxBytes);
+		describe.set (Describe.Entries, entries);
+		describe.set (Describe.Bytes, bytes);
+		stats.describe (describe);
+		return describe;
+	}
+
+	public void clear () {
+		for (CacheSegment segment : segments) {
+			segment.clear ();
+		}
+	}
+
+	private CacheSegment segment (int hash) {
+		return segments [(hash >>> 16) & mask];
+	}
+
+	private static int hash (String key) {
+		int h = key.hashCode () * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static long expiresAt (int ttl) {
+		if (ttl <= 0) {
+			return 0;
+		}
+		return System.currentTimeMillis () + ttl * 1000L;
+	}
+
+	private static Object copyIn (Object value) {
+		if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+			return value;
+		} else if (value instanceof JsonObject) {
+			return ((JsonObject)value).duplicate ();
+		} else if (value instanceof JsonArray) {
+			return duplicate ((JsonArray)value);
+		} else if (value instanceof byte []) {
+			return ((byte [])value).clone ();
+		} else if (value instanceof Serializable) {
+			return new Serialized (value);
+		}
+		throw new IllegalArgumentException ("non serializable value " + value.getClass ().getName ());
+	}
+
+	private static Object copyOut (Object value) {
+		if (value instanceof JsonObject) {
+			return ((JsonObject)value).duplicate ();
+		} else if (value instanceof JsonArray) {
+			return duplicate ((JsonArray)value);
+		} else if (value instanceof byte []) {
+			return ((byte [])value).clone ();
+		} else if (value instanceof Serialized) {
+			return ((Serialized)value).read ();
+		}
+		return value;
+	}
+
+	private static JsonArray duplicate (JsonArray array) {
+		JsonArray copy = new JsonArray ();
+		for (int i = 0; i < array.count (); i++) {
+			Object item = array.get (i);
+			if (item instanceof JsonObject) {
+				item = ((JsonObject)item).duplicate ();
+			} else if (item instanceof JsonArray) {
+				item = duplicate ((JsonArray)item);
+			}
+			copy.add (item);
+		}
+		return copy;
+	}
+
+	// rough estimate of the retained size of an entry
+	private static long weigh (String key, Object value) {
+		return EntryOverhead + 2L * key.length () + weigh (value);
+	}
+
+	private static long weigh (Object value) {
+		if (value instanceof String) {
+			return 40 + 2L * ((String)value).length ();
+		} else if (value instanceof byte []) {
+			return 16 + ((byte [])value).length;
+		} else if (value instanceof Number || value instanceof Boolean) {
+			return 16;
+		} else if (value instanceof Serialized) {
+			return 16 + ((Serialized)value).bytes.length;
+		} else if (value instanceof JsonObject) {
+			JsonObject object = (JsonObject)value;
+			long weight = DefaultWeight;
+			Iterator<String> keys = object.keys ();
+			while (keys != null && keys.hasNext ()) {
+				String key = keys.next ();
+				weight += 40 + 2L * key.length () + weigh (object.get (key));
+			}
+			return weight;
+		} else if (value instanceof JsonArray) {
+			JsonArray array = (JsonArray)value;
+			long weight = DefaultWeight;
+			for (int i = 0; i < array.count (); i++) {
+				weight += 8 + weigh (array.get (i));
+			}
+			return weight;
+		}
+		return DefaultWeight;
+	}
+
+	private static class Serialized {
+		
+		byte [] bytes;
+		
+		Serialized (Object value) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream ();
+			try (ObjectOutputStream oos = new ObjectOutputStream (out)) {
+				oos.writeObject (value);
+			} catch (IOException ioex) {
+				throw new IllegalArgumentException (ioex.getMessage (), ioex);
+			}
+			bytes = out.toByteArray ();
+		}
+		
+		// only reads back what put serialized in-process. Api classes are visible through the context class loader only
+		Object read () {
+			try (ObjectInputStream ois = new ObjectInputStream (new ByteArrayInputStream (bytes)) {
+				@Override
+				protected Class<?> resolveClass (ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+					ClassLoader loader = Thread.currentThread ().getContextClassLoader ();
+					if (loader != null) {
+						try {
+							return Class.forName (desc.getName (), false, loader);
+						} catch (ClassNotFoundException cnfex) {
+							// fall back to the plugin class loader
+						}
+					}
+					return super.resolveClass (desc);
+				}
+			}) {
+				return ois.readObject ();
+			} catch (Exception ex) {
+				throw new IllegalStateException (ex.getMessage (), ex);
+			}
+		}
+		
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.plugins.cache.local;
+
+import java.util.Iterator;
+
+import com.bluenimble.platform.Feature;
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.Recyclable;
+import com.bluenimble.platform.api.ApiSpace;
+import com.bluenimble.platform.api.Manageable;
+import com.bluenimble.platform.cache.Cache;
+import com.bluenimble.platform.cache.impls.local.LocalCache;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.plugins.Plugin;
+import com.bluenimble.platform.plugins.PluginRegistryException;
+import com.bluenimble.platform.plugins.impls.AbstractPlugin;
+import com.bluenimble.platform.server.ApiServer;
+import com.bluenimble.platform.server.ApiServer.Event;
+import com.bluenimble.platform.server.ServerFeature;
+
+public class LocalCachePlugin extends AbstractPlugin {
+
+	private static final long serialVersionUID = -6210397553829464471L;
+	
+	private String 		feature;
+	
+	@Override
+	public void init (final ApiServer server) throws Exception {
+		
+		Feature aFeature = Cache.class.getAnnotation (Feature.class);
+		if (aFeature == null || Lang.isNullOrEmpty (aFeature.name ())) {
+			return;
+		}
+		feature = aFeature.name ();
+		
+		server.addFeature (new ServerFeature () {
+			private static final long serialVersionUID = -1832714598047296437L;
+			@Override
+			public String id () {
+				return null;
+			}
+			@Override
+			public Class<?> type () {
+				return Cache.class;
+			}
+			@Override
+			public Object get (ApiSpace space, String name) {
+				RecyclableLocalCache recyclable = (RecyclableLocalCache)space.getRecyclable (createKey (name));
+				if (recyclable == null) {
+					return null;
+				}
+				return recyclable.cache ();
+			}
+			@Override
+			public String provider () {
+				return LocalCachePlugin.this.getNamespace ();
+			}
+			@Override
+			public Plugin implementor () {
+				return LocalCachePlugin.this;
+			}
+		});
+	}
+
+	@Override
+	public void onEvent (Event event, Manageable target, Object... args) throws PluginRegistryException {
+		if (!ApiSpace.class.isAssignableFrom (target.getClass ())) {
+			return;
+		}
+		
+		ApiSpace space = (ApiSpace)target;
+		
+		switch (event) {
+			case Create:
+				createCaches (space);
+				break;
+			case AddFeature:
+				createCache (space, Json.getObject (space.getFeatures (), feature), (String)args [0], (Boolean)args [1]);
+				break;
+			case DeleteFeature:
+				removeCache ((ApiSpace)target, (String)args [0]);
+				break;
+			default:
+				break;
+		}
+	}
+	
+	private void createCaches (ApiSpace space) throws PluginRegistryException {
+		JsonObject allFeatures = Json.getObject (space.getFeatures (), feature);
+		if (Json.isNullOrEmpty (allFeatures)) {
+			return;
+		}
+		
+		Iterator<String> keys = allFeatures.keys ();
+		while (keys.hasNext ()) {
+			createCache (space, allFeatures, keys.next (), false);
+		}
+	}
+	
+	private void createCache (ApiSpace space, JsonObject allFeatures, String name, boolean overwrite) throws PluginRegistryException {
+		
+		JsonObject feature = Json.getObject (allFeatures, name);
+		
+		if (Json.isNullOrEmpty (feature)) {
+			return;
+		}
+		
+		if (!this.getNamespace ().equalsIgnoreCase (Json.getString (feature, ApiSpace.Features.Provider))) {
+			return;
+		}
+		
+		String key = createKey (name);
+		if (!overwrite && space.containsRecyclable (key)) {
+			return;
+		}
+		
+		if (overwrite) {
+			removeCache (space, name);
+		}
+		
+		space.addRecyclable (key, new RecyclableLocalCache (new LocalCache (Json.getObject (feature, ApiSpace.Features.Spec))));
+		
+		feature.set (ApiSpace.Spec.Installed, true);
+		
+	}
+	
+	private void removeCache (ApiSpace space, String featureName) {
+		String key = createKey (featureName);
+		Recyclable recyclable = space.getRecyclable (key);
+		if (recyclable == null) {
+			return;
+		}
+		// remove from recyclables
+		space.removeRecyclable (key);
+		// recycle
+		recyclable.recycle ();
+	}
+	
+	private String createKey (String name) {
+		return feature + Lang.DOT + getNamespace () + Lang.DOT + name;
+	}
+	
+	class RecyclableLocalCache implements Recyclable {
+		private static final long serialVersionUID = 2795148342457785610L;
+
+		private LocalCache cache;
+		
+		public RecyclableLocalCache (LocalCache cache) {
+			this.cache = cache;
+		}
+		
+		@Override
+		public void finish () {
+		}
+
+		@Override
+		public void recycle () {
+			cache.clear ();
+		}
+
+		public LocalCache cache () {
+			return cache;
+		}
+		
+	}
+	
+}
@@ -18,37 +18,67 @@
 // REF: https://github.com/fusesource/stompjms 
 package com.bluenimble.platform.cache.impls.memcached;
 
+import java.net.SocketAddress;
+import java.util.Map;
+
 import com.bluenimble.platform.cache.Cache;
+import com.bluenimble.platform.json.JsonObject;
 
 import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.OperationCompletionListener;
+import net.spy.memcached.internal.OperationFuture;
 
 public class MemCachedCache implements Cache {
 
 	private static final long serialVersionUID = 1782531142979435163L;
 	
+	private static final String Near = "near";
+	
 	private MemcachedClient client;
+	private NearCache 		near;
 	
 	public MemCachedCache (MemcachedClient client) {
+		this (client, null);
+	}
+	
+	public MemCachedCache (MemcachedClient client, NearCache near) {
 		this.client = client;
+		this.near 	= near;
 	}
 
 	@Override
 	public void put (String key, Object value, int ttl) {
-		client.set (key, ttl, value);
+		if (near != null) {
+			near.invalidate (key);
+		}
+		invalidateOnComplete (key, client.set (key, ttl, value));
 	}
 
 	@Override
 	public Object get (String key, boolean remove) {
 		if (remove) {
+			if (near != null) {
+				near.invalidate (key);
+			}
 			return client.getAndTouch (key, 200).getValue ();
-		} else {
+		} 
+		if (near == null) {
 			return client.get (key);
 		}
+		return near.get (key, new NearCache.Loader () {
+			@Override
+			public Object load (String key) {
+				return client.get (key);
+			}
+		});
 	}
 
 	@Override
 	public void delete (String key) {
-		client.delete (key);
+		if (near != null) {
+			near.invalidate (key);
+		}
+		invalidateOnComplete (key, client.delete (key));
 	}
 
 	@Override
@@ -56,12 +86,15 @@ public class MemCachedCache implements Cache {
 		if (increment == 0) {
 			return;
 		}
+		if (near != null) {
+			near.invalidate (key);
+		}
 		if (increment < 0) {
 			if (async) {
 				if (ttl > 0) { 
-					client.asyncDecr (key, increment, dValue, ttl);
+					invalidateOnComplete (key, client.asyncDecr (key, increment, dValue, ttl));
 				} else {
-					client.asyncDecr (key, increment, dValue);
+					invalidateOnComplete (key, client.asyncDecr (key, increment, dValue));
 				}
 			} else {
 				if (ttl > 0) { 
@@ -73,9 +106,9 @@ public class MemCachedCache implements Cache {
 		} else {
 			if (async) {
 				if (ttl > 0) { 
-					client.asyncIncr (key, increment, dValue, ttl);
+					invalidateOnComplete (key, client.asyncIncr (key, increment, dValue, ttl));
 				} else {
-					client.asyncIncr (key, increment, dValue);
+					invalidateOnComplete (key, client.asyncIncr (key, increment, dValue));
 				}
 			} else {
 				if (ttl > 0) { 
@@ -85,6 +118,40 @@ public class MemCachedCache implements Cache {
 				}
 			}
 		}
+		if (near != null && !async) {
+			near.invalidate (key);
+		}
+	}
+
+	// a read racing the write may have cached the old value, drop it once the server acknowledged the write
+	private void invalidateOnComplete (final String key, OperationFuture<?> future) {
+		if (near == null || future == null) {
+			return;
+		}
+		future.addListener (new OperationCompletionListener () {
+			@Override
+			public void onComplete (OperationFuture<?> future) throws Exception {
+				near.invalidate (key);
+			}
+		});
+	}
+
+	@Override
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		if (near != null) {
+			describe.set (Near, near.describe ());
+		}
+		Map<SocketAddress, Map<String, String>> stats = client.getStats ();
+		if (stats == null) {
+			return describe;
+		}
+		for (Map.Entry<SocketAddress, Map<String, String>> node : stats.entrySet ()) {
+			JsonObject oNode = new JsonObject ();
+			oNode.putAll (node.getValue ());
+			describe.set (String.valueOf (node.getKey ()), oNode);
+		}
+		return describe;
 	}
 
 }
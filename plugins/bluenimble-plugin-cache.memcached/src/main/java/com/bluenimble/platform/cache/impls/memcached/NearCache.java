@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cache.impls.memcached;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Short lived local copy of hot memcached keys.
+ *
+ * - concurrent misses on the same key are coalesced into a single remote fetch
+ * - misses can be cached too (negativeTtl), so absent keys don't hit the network on every call
+ * - writes done through this node invalidate the local copy, once when issued and once when acknowledged
+ * - a failed fetch fails every coalesced caller
+ * - values are copied when stored and when read, callers never share an instance
+ *
+ * "near": {
+ * 		"enabled": true, "maxEntries": 10000, "ttl": 5, "negativeTtl": 1
+ * }
+ */
+public class NearCache {
+
+	public interface Spec {
+		String Enabled 		= "enabled";
+		String MaxEntries 	= "maxEntries";
+		// seconds
+		String Ttl 			= "ttl";
+		String NegativeTtl 	= "negativeTtl";
+	}
+
+	interface Describe {
+		String Entries 		= "entries";
+		String Hits 		= "hits";
+		String Misses 		= "misses";
+		String Coalesced 	= "coalesced";
+	}
+
+	public interface Loader {
+		Object load (String key);
+	}
+
+	private static final Object 		Absent 		= new Object ();
+
+	// entries inspected to pick a victim when the near cache is full
+	private static final int 			EvictionSample = 8;
+
+	private static final int 			Stripes 	= 64;
+
+	private Map<String, Entry> 			entries 	= new ConcurrentHashMap<String, Entry> ();
+	private Map<String, Flight> 		flights 	= new ConcurrentHashMap<String, Flight> ();
+
+	// bumped on every local write to a key of the stripe, a fetch started before a write isn't cached
+	private AtomicLongArray 			writes 		= new AtomicLongArray (Stripes);
+
+	private int 						maxEntries;
+	private long 						ttl;
+	private long 						negativeTtl;
+
+	private LongAdder 					hits 		= new LongAdder ();
+	private LongAdder 					misses 		= new LongAdder ();
+	private LongAdder 					coalesced 	= new LongAdder ();
+
+	public static NearCache create (JsonObject spec) {
+		if (Json.isNullOrEmpty (spec) || !Json.getBoolean (spec, Spec.Enabled, true)) {
+			return null;
+		}
+		return new NearCache (spec);
+	}
+
+	public NearCache (JsonObject spec) {
+		maxEntries 	= Json.getInteger (spec, Spec.MaxEntries, 10000);
+		ttl 		= Json.getLong (spec, Spec.Ttl, 5) * 1000;
+		negativeTtl = Json.getLong (spec, Spec.NegativeTtl, 0) * 1000;
+	}
+
+	public Object get (String key, Loader loader) {
+		long now = System.currentTimeMillis ();
+
+		Entry entry = entries.get (key);
+		if (entry != null) {
+			if (entry.expiresAt > now) {
+				hits.increment ();
+				return entry.value == Absent ? null : copyOut (entry.value);
+			}
+			entries.remove (key, entry);
+		}
+
+		misses.increment ();
+
+		Flight flight = new Flight ();
+		Flight current = flights.putIfAbsent (key, flight);
+		if (current != null) {
+			// another thread is fetching this key
+			coalesced.increment ();
+			return copyOut (current.await ());
+		}
+
+		int stripe = stripe (key);
+		long stamp = writes.get (stripe);
+		Object value = null;
+		try {
+			value = loader.load (key);
+			Object copy = copyIn (value);
+			if (stamp == writes.get (stripe)) {
+				store (key, copy, now);
+			}
+			flight.done (copy);
+		} catch (RuntimeException | Error err) {
+			flight.fail (err);
+			throw err;
+		} finally {
+			flights.remove (key, flight);
+		}
+		return value;
+	}
+
+	public void invalidate (String key) {
+		writes.incrementAndGet (stripe (key));
+		entries.remove (key);
+	}
+
+	public void clear () {
+		for (int i = 0; i < Stripes; i++) {
+			writes.incrementAndGet (i);
+		}
+		entries.clear ();
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Spec.MaxEntries, maxEntries);
+		describe.set (Describe.Entries, entries.size ());
+		describe.set (Describe.Hits, hits.sum ());
+		describe.set (Describe.Misses, misses.sum ());
+		describe.set (Describe.Coalesced, coalesced.sum ());
+		return describe;
+	}
+
+	private static int stripe (String key) {
+		int h = key.hashCode ();
+		return (h ^ (h >>> 16)) & (Stripes - 1);
+	}
+
+	private static Object copyIn (Object value) {
+		if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+			return value;
+		} else if (value instanceof JsonObject) {
+			return ((JsonObject)value).duplicate ();
+		} else if (value instanceof JsonArray) {
+			return duplicate ((JsonArray)value);
+		} else if (value instanceof byte []) {
+			return ((byte [])value).clone ();
+		} else if (value instanceof Serializable) {
+			return new Serialized (value);
+		}
+		// not from the memcached transcoder
+		return value;
+	}
+
+	private static Object copyOut (Object value) {
+		if (value instanceof JsonObject) {
+			return ((JsonObject)value).duplicate ();
+		} else if (value instanceof JsonArray) {
+			return duplicate ((JsonArray)value);
+		} else if (value instanceof byte []) {
+			return ((byte [])value).clone ();
+		} else if (value instanceof Serialized) {
+			return ((Serialized)value).read ();
+		}
+		return value;
+	}
+
+	private static JsonArray duplicate (JsonArray array) {
+		JsonArray copy = new JsonArray ();
+		for (int i = 0; i < array.count (); i++) {
+			Object item = array.get (i);
+			if (item instanceof JsonObject) {
+				item = ((JsonObject)item).duplicate ();
+			} else if (item instanceof JsonArray) {
+				item = duplicate ((JsonArray)item);
+			}
+			copy.add (item);
+		}
+		return copy;
+	}
+
+	private void store (String key, Object value, long now) {
+		long expiresIn = value == null ? negativeTtl : ttl;
+		if (expiresIn <= 0) {
+			return;
+		}
+		if (entries.size () >= maxEntries) {
+			evict (now);
+		}
+		entries.put (key, new Entry (value == null ? Absent : value, now + expiresIn));
+	}
+
+	// evict the entry expiring first among a few, expired entries go first
+	private void evict (long now) {
+		String 	victim 		= null;
+		long 	expiresAt 	= Long.MAX_VALUE;
+
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet ().iterator ();
+		for (int i = 0; i < EvictionSample && iterator.hasNext (); i++) {
+			Map.Entry<String, Entry> e = iterator.next ();
+			if (e.getValue ().expiresAt <= now) {
+				iterator.remove ();
+				return;
+			}
+			if (e.getValue ().expiresAt < expiresAt) {
+				expiresAt 	= e.getValue ().expiresAt;
+				victim 		= e.getKey ();
+			}
+		}
+		if (victim != null) {
+			entries.remove (victim);
+		}
+	}
+
+	private static class Entry {
+		Object 	value;
+		long 	expiresAt;
+		Entry (Object value, long expiresAt) {
+			this.value 		= value;
+			this.expiresAt 	= expiresAt;
+		}
+	}
+
+	private static class Flight {
+		private CountDownLatch 		latch = new CountDownLatch (1);
+		private volatile Object 	value;
+		private volatile Throwable 	failure;
+		void done (Object value) {
+			this.value = value;
+			latch.countDown ();
+		}
+		void fail (Throwable failure) {
+			this.failure = failure;
+			latch.countDown ();
+		}
+		Object await () {
+			try {
+				latch.await ();
+			} catch (InterruptedException iex) {
+				// not a miss, the value is unknown
+				Thread.currentThread ().interrupt ();
+				throw new IllegalStateException ("interrupted while waiting for a coalesced fetch", iex);
+			}
+			if (failure instanceof Error) {
+				throw (Error)failure;
+			} else if (failure != null) {
+				throw (RuntimeException)failure;
+			}
+			return value;
+		}
+	}
+
+	private static class Serialized {
+
+		byte [] bytes;
+
+		Serialized (Object value) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream ();
+			try (ObjectOutputStream oos = new ObjectOutputStream (out)) {
+				oos.writeObject (value);
+			} catch (IOException ioex) {
+				throw new IllegalArgumentException (ioex.getMessage (), ioex);
+			}
+			bytes = out.toByteArray ();
+		}
+
+		// api classes are visible through the context class loader only
+		Object read () {
+			try (ObjectInputStream ois = new ObjectInputStream (new ByteArrayInputStream (bytes)) {
+				@Override
+				protected Class<?> resolveClass (ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+					ClassLoader loader = Thread.currentThread ().getContextClassLoader ();
+					if (loader != null) {
+						try {
+							return Class.forName (desc.getName (), false, loader);
+						} catch (ClassNotFoundException cnfex) {
+							// fall back to the plugin class loader
+						}
+					}
+					return super.resolveClass (desc);
+				}
+			}) {
+				return ois.readObject ();
+			} catch (Exception ex) {
+				throw new IllegalStateException (ex.getMessage (), ex);
+			}
+		}
+
+	}
+
+}
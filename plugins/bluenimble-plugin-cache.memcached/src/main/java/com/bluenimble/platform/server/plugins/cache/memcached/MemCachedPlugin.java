@@ -29,6 +29,7 @@ import com.bluenimble.platform.api.ApiSpace;
 import com.bluenimble.platform.api.Manageable;
 import com.bluenimble.platform.cache.Cache;
 import com.bluenimble.platform.cache.impls.memcached.MemCachedCache;
+import com.bluenimble.platform.cache.impls.memcached.NearCache;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.Plugin;
 import com.bluenimble.platform.plugins.PluginRegistryException;
@@ -53,6 +54,8 @@ public class MemCachedPlugin extends AbstractPlugin {
 		String Auth 		= "auth";
 			String User 	= "user";
 			String Password = "password";
+		
+		String Near 		= "near";
 	}
 	
 	private String 		feature;
@@ -78,7 +81,8 @@ public class MemCachedPlugin extends AbstractPlugin {
 			}
 			@Override
 			public Object get (ApiSpace space, String name) {
-				return new MemCachedCache (((RecyclableCacheClient)(space.getRecyclable (createKey (name)))).client ());
+				RecyclableCacheClient recyclable = (RecyclableCacheClient)space.getRecyclable (createKey (name));
+				return new MemCachedCache (recyclable.client (), recyclable.near ());
 			}
 			@Override
 			public String provider () {
@@ -179,7 +183,7 @@ public class MemCachedPlugin extends AbstractPlugin {
 			removeClient (space, name);
 		}
 		
-		space.addRecyclable (sessionKey, new RecyclableCacheClient (client));
+		space.addRecyclable (sessionKey, new RecyclableCacheClient (client, NearCache.create (Json.getObject (spec, Spec.Near))));
 		
 		feature.set (ApiSpace.Spec.Installed, true);
 		
@@ -205,9 +209,11 @@ public class MemCachedPlugin extends AbstractPlugin {
 		private static final long serialVersionUID = 50882416501226306L;
 
 		private MemcachedClient client;
+		private NearCache 		near;
 		
-		public RecyclableCacheClient (MemcachedClient client) {
+		public RecyclableCacheClient (MemcachedClient client, NearCache near) {
 			this.client = client;
+			this.near 	= near;
 		}
 		
 		@Override
@@ -217,11 +223,18 @@ public class MemCachedPlugin extends AbstractPlugin {
 		@Override
 		public void recycle () {
 			client.shutdown (2, TimeUnit.SECONDS);
+			if (near != null) {
+				near.clear ();
+			}
 		}
 
 		public MemcachedClient client () {
 			return client;
 		}
+
+		public NearCache near () {
+			return near;
+		}
 		
 	}
 	
@@ -31,6 +31,8 @@ import com.bluenimble.platform.Recyclable;
 import com.bluenimble.platform.api.ApiSpace;
 import com.bluenimble.platform.api.Manageable;
 import com.bluenimble.platform.db.Database;
+import com.bluenimble.platform.db.query.impls.QueryCache;
+import com.bluenimble.platform.db.query.impls.ResultCache;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.Plugin;
 import com.bluenimble.platform.plugins.PluginRegistryException;
@@ -74,6 +76,11 @@ public class MongoDatabasePlugin extends AbstractPlugin {
 			
 		String AllowProprietaryAccess
 						= "allowProprietaryAccess";
+		
+		String QueryCache
+						= "queryCache";
+		String ResultCache
+						= "resultCache";
 	}
 	
 	enum AuthType {
@@ -112,7 +119,8 @@ public class MongoDatabasePlugin extends AbstractPlugin {
 					Json.find (space.getFeatures (), feature, name, ApiSpace.Features.Spec, Spec.AllowProprietaryAccess);
 				boolean allowProprietaryAccess = 
 						oAllowProprietaryAccess == null || String.valueOf (oAllowProprietaryAccess).equalsIgnoreCase (Lang.TRUE);
-				return new MongoDatabaseImpl (MongoDatabasePlugin.this.acquire (space, name), tracer (), allowProprietaryAccess);
+				RecyclableClient client = (RecyclableClient)space.getRecyclable (createKey (name));
+				return new MongoDatabaseImpl (client.database (), tracer (), allowProprietaryAccess, client.queries (), client.results ());
 				
 			}
 			@Override
@@ -244,7 +252,11 @@ public class MongoDatabasePlugin extends AbstractPlugin {
 			removeClient (space, name);
 		}
 		
-		space.addRecyclable (factoryKey, new RecyclableClient (client, database));
+		space.addRecyclable (factoryKey, new RecyclableClient (
+			client, database, 
+			QueryCache.create (Json.getObject (spec, Spec.QueryCache)), 
+			ResultCache.create (Json.getObject (spec, Spec.ResultCache))
+		));
 		
 		feature.set (ApiSpace.Spec.Installed, true);
 		
@@ -341,10 +353,14 @@ public class MongoDatabasePlugin extends AbstractPlugin {
 
 		private MongoClient client;
 		private String 		database;
+		private QueryCache 	queries;
+		private ResultCache results;
 		
-		public RecyclableClient (MongoClient client, String database) {
+		public RecyclableClient (MongoClient client, String database, QueryCache queries, ResultCache results) {
 			this.client 	= client;
 			this.database 	= database;
+			this.queries 	= queries;
+			this.results 	= results;
 		}
 		
 		@Override
@@ -364,5 +380,13 @@ public class MongoDatabasePlugin extends AbstractPlugin {
 			return client.getDatabase (database);
 		}
 		
+		public QueryCache queries () {
+			return queries;
+		}
+		
+		public ResultCache results () {
+			return results;
+		}
+		
 	}
 }
@@ -440,6 +440,8 @@ public class DatabaseObjectImpl implements DatabaseObject {
 			persistent = true;
 		}
 		
+		db.invalidate (entity);
+		
 		// restore 1-1 refs
 		if (refs != null) {
 			for (String ref : refs) {
@@ -19,11 +19,11 @@ package com.bluenimble.platform.plugins.database.mongodb.impls;
 import static com.mongodb.client.model.Filters.eq;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -45,6 +45,9 @@ import com.bluenimble.platform.db.query.Query;
 import com.bluenimble.platform.db.query.Query.Operator;
 import com.bluenimble.platform.db.query.Select;
 import com.bluenimble.platform.db.query.Where;
+import com.bluenimble.platform.db.query.impls.QueryCache;
+import com.bluenimble.platform.db.query.impls.QueryShape;
+import com.bluenimble.platform.db.query.impls.ResultCache;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.database.mongodb.impls.filters.BetweenFilterAppender;
@@ -55,10 +58,12 @@ import com.bluenimble.platform.plugins.database.mongodb.impls.filters.NilFilterA
 import com.bluenimble.platform.plugins.database.mongodb.impls.filters.RegexFilterAppender;
 import com.bluenimble.platform.plugins.database.mongodb.impls.filters.TextFilterAppender;
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.Sorts;
 import com.mongodb.client.result.DeleteResult;
@@ -81,6 +86,8 @@ public class MongoDatabaseImpl implements Database {
 		String Entities 	= "entities";
 			String Name 	= "name";
 			String Count 	= "count";
+		String QueryCache 	= "queryCache";
+		String ResultCache 	= "resultCache";
 	}
 	
 	interface SpiDescribe {
@@ -114,16 +121,22 @@ public class MongoDatabaseImpl implements Database {
 		//FilterAppenders.put (Operator.within, "");
 	}
 	
-	private Map<String, BasicDBObject> QueriesCache = new ConcurrentHashMap<String, BasicDBObject> ();
-	
 	private MongoDatabase		db;
 	private Tracer				tracer;
 	private boolean 			allowProprietaryAccess;
+	private QueryCache 			queries;
+	private ResultCache 		results;
 	
 	public MongoDatabaseImpl (MongoDatabase db, Tracer tracer, boolean allowProprietaryAccess) {
+		this (db, tracer, allowProprietaryAccess, null, null);
+	}
+	
+	public MongoDatabaseImpl (MongoDatabase db, Tracer tracer, boolean allowProprietaryAccess, QueryCache queries, ResultCache results) {
 		this.db 					= db;
 		this.tracer 				= tracer;
 		this.allowProprietaryAccess = allowProprietaryAccess;
+		this.queries 				= queries;
+		this.results 				= results;
 	}
 
 	@Override
@@ -192,6 +205,21 @@ public class MongoDatabaseImpl implements Database {
 	@Override
 	public List<DatabaseObject> find (String entity, Query query, Visitor visitor) throws DatabaseException {
 		
+		String key = results == null || query == null ? null : results.key (query);
+		
+		String target 	= null;
+		long generation = 0;
+		
+		if (key != null) {
+			target = entity (entity, query);
+			List<Document> documents = (List<Document>)results.get (target, key);
+			if (documents != null) {
+				tracer.log (Tracer.Level.Debug, "Query {0} results loaded from cache", query.name ());
+				return toList (entity, copy (documents), visitor, query.select () != null);
+			}
+			generation = results.generation (target);
+		}
+		
 		FindIterable<Document> result;
 		try {
 			result = (FindIterable<Document>)_query (entity, Query.Construct.select, query);
@@ -202,6 +230,12 @@ public class MongoDatabaseImpl implements Database {
 			return null;
 		}
 		
+		if (key != null) {
+			List<Document> documents = result.into (new ArrayList<Document> ());
+			results.put (target, key, copy (documents), generation);
+			return toList (entity, documents, visitor, query.select () != null);
+		}
+		
 		return toList (entity, result, visitor, query.select () != null);
 	}
 
@@ -235,6 +269,8 @@ public class MongoDatabaseImpl implements Database {
 		
 		DeleteResult result = collection.deleteOne (eq (DatabaseObjectImpl.ObjectIdKey, new ObjectId (String.valueOf (id))));
 		
+		invalidate (entity);
+		
 		return (int)result.getDeletedCount ();
 		
 	}
@@ -249,6 +285,8 @@ public class MongoDatabaseImpl implements Database {
 		}
 		
 		collection.deleteMany (new Document ());
+		
+		invalidate (entity);
 	}
 
 	@Override
@@ -272,6 +310,9 @@ public class MongoDatabaseImpl implements Database {
 		}
 		
 		Object result = _query (entity, Query.Construct.delete, query);
+		
+		invalidate (entity (entity, query));
+		
 		if (result == null) {
 			return 0;
 		}
@@ -299,6 +340,13 @@ public class MongoDatabaseImpl implements Database {
 		
 		describe.set (Describe.Size, 0);
 		
+		if (queries != null) {
+			describe.set (Describe.QueryCache, queries.describe ());
+		}
+		if (results != null) {
+			describe.set (Describe.ResultCache, results.describe ());
+		}
+		
 		MongoIterable<String> collections = db.listCollectionNames ();
 		
 		if (collections == null) {
@@ -336,16 +384,69 @@ public class MongoDatabaseImpl implements Database {
 	@Override
 	public JsonObject bulk (JsonObject data) throws DatabaseException {
 		
-		JsonObject result = (JsonObject)new JsonObject ().set (Database.Fields.Total, 0);
+		JsonObject result = (JsonObject)new JsonObject ().set (Database.Fields.Total, 0).set (Database.Fields.Failed, 0);
 		
 		if (data == null || data.isEmpty ()) {
 			return result;
 		}
+		
+		Iterator<String> entities = data.keys ();
+		while (entities.hasNext ()) {
+			String entityName = entities.next ();
+			Object oRecords = data.get (entityName);
+			if (!(oRecords instanceof JsonArray)) {
+				continue;
+			}
+			
+			int count 	= 0;
+			int failed 	= 0;
+			
+			JsonArray records = (JsonArray)oRecords;
+			
+			List<Document> documents = new ArrayList<Document> (records.count ());
+			for (int i = 0; i < records.count (); i++) {
+				Object oRec = records.get (i);
+				if (!(oRec instanceof JsonObject)) {
+					continue;
+				}
+				try {
+					DatabaseObjectImpl entity = new DatabaseObjectImpl (this, entityName);
+					entity.load ((JsonObject)oRec);
+					if (entity.refs != null) {
+						// references are saved first, can't be part of the batch
+						entity.save ();
+						count++;
+					} else {
+						documents.add (entity.document);
+					}
+				} catch (Exception ex) {
+					failed++;
+					tracer.log (Tracer.Level.Error, "Bulk record of {0} failed due to {1}", entityName, ex.getMessage ());
+				}
+			}
+			
+			if (!documents.isEmpty ()) {
+				try {
+					db.getCollection (entityName).insertMany (documents, new InsertManyOptions ().ordered (false));
+					count += documents.size ();
+				} catch (MongoBulkWriteException bwex) {
+					int errors = bwex.getWriteErrors ().size ();
+					count 	+= documents.size () - errors;
+					failed 	+= errors;
+					tracer.log (Tracer.Level.Error, "Bulk insert of {0} failed for {1} records due to {2}", entityName, errors, bwex.getMessage ());
+				} catch (Exception ex) {
+					failed 	+= documents.size ();
+					tracer.log (Tracer.Level.Error, "Bulk insert of {0} failed due to {1}", entityName, ex.getMessage ());
+				}
+				invalidate (entityName);
+			}
 			
-		// TODO
-		throw new UnsupportedOperationException ("MongoDB - bulk not supported");
+			result.set (entityName, count);
+			result.set (Database.Fields.Total, Json.getInteger (result, Database.Fields.Total, 0) + count);
+			result.set (Database.Fields.Failed, Json.getInteger (result, Database.Fields.Failed, 0) + failed);
+		}
 		
-		// return result;
+		return result;
 		
 	}
 
@@ -366,10 +467,13 @@ public class MongoDatabaseImpl implements Database {
 		delete (entity, query);
 		return list;
 	}
-	private List<DatabaseObject> toList (String entity, FindIterable<Document> documents, Visitor visitor, boolean partial) {
+	@SuppressWarnings("unchecked")
+	private List<DatabaseObject> toList (String entity, Iterable<Document> documents, Visitor visitor, boolean partial) {
 		
 		if (visitor == null) {
-			return new DatabaseObjectList<DatabaseObject> (this, documents.into (new ArrayList<Document> ()), entity, partial);
+			List<Document> list = documents instanceof List ? 
+				(List<Document>)documents : ((FindIterable<Document>)documents).into (new ArrayList<Document> ());
+			return new DatabaseObjectList<DatabaseObject> (this, list, entity, partial);
 		}
 		
 		DatabaseObjectImpl dbo = null;
@@ -397,11 +501,7 @@ public class MongoDatabaseImpl implements Database {
 			return null;
 		}
 		
-		boolean queryHasEntity = true;
-		
-		if (Lang.isNullOrEmpty (query.entity ())) {
-			queryHasEntity = false;
-		} else {
+		if (!Lang.isNullOrEmpty (query.entity ())) {
 			entity = query.entity ();
 		}
 		
@@ -409,15 +509,16 @@ public class MongoDatabaseImpl implements Database {
 		
 		tracer.log (Tracer.Level.Debug, "Query Entity {0}", entity);
 		
-		String cacheKey = construct.name () + query.name ();
-		
 		BasicDBObject 		mQuery 		= null;
 		Map<String, Object> bindings 	= query.bindings ();
 		
-		boolean cacheable = queryHasEntity && query.caching ().cache (Target.meta) && !Lang.isNullOrEmpty (query.name ());
+		boolean cacheable = queries != null && query.caching ().cache (Target.meta);
+		
+		// condition values are part of the compiled query, they're kept in the shape
+		String cacheKey = cacheable ? (String)new QueryShape (construct, entity, false, false).compile (query).query () : null;
 		
 		if (cacheable) {
-			mQuery 		= (BasicDBObject)QueriesCache.get (cacheKey);
+			mQuery 		= (BasicDBObject)queries.get (cacheKey);
 			tracer.log (Tracer.Level.Debug, "Query meta loaded from cache {0}", mQuery);
 		} 
 		
@@ -429,7 +530,7 @@ public class MongoDatabaseImpl implements Database {
 			bindings	= cQuery.bindings 	();
 			
 			if (cacheable && mQuery != null) {
-				QueriesCache.put (cacheKey, mQuery);
+				queries.put (cacheKey, mQuery);
 				tracer.log (Tracer.Level.Debug, "Query meta stored in cache {0}", mQuery);
 			} 
 		}
@@ -562,6 +663,39 @@ public class MongoDatabaseImpl implements Database {
 		
 	}
 	
+	// drops the cached query results of the entity
+	void invalidate (String entity) {
+		if (results != null) {
+			results.invalidate (entity);
+		}
+	}
+	
+	private String entity (String entity, Query query) {
+		return Lang.isNullOrEmpty (query.entity ()) ? entity : query.entity ();
+	}
+	
+	// cached documents are never handed out, callers may change them
+	@SuppressWarnings("unchecked")
+	private static <T> T copy (T value) {
+		if (value instanceof Document) {
+			Document copy = new Document ();
+			for (Map.Entry<String, Object> entry : ((Document)value).entrySet ()) {
+				copy.put (entry.getKey (), copy (entry.getValue ()));
+			}
+			return (T)copy;
+		} else if (value instanceof List) {
+			List<Object> list = (List<Object>)value;
+			List<Object> copy = new ArrayList<Object> (list.size ());
+			for (Object item : list) {
+				copy.add (copy (item));
+			}
+			return (T)copy;
+		} else if (value instanceof Date) {
+			return (T)new Date (((Date)value).getTime ());
+		}
+		return value;
+	}
+	
 	private void checkNotNull (String entity) throws DatabaseException {
 		if (Lang.isNullOrEmpty (entity)) {
 			throw new DatabaseException ("entity name is null");
@@ -25,6 +25,8 @@ import com.bluenimble.platform.Recyclable;
 import com.bluenimble.platform.api.ApiSpace;
 import com.bluenimble.platform.api.Manageable;
 import com.bluenimble.platform.db.Database;
+import com.bluenimble.platform.db.query.impls.QueryCache;
+import com.bluenimble.platform.db.query.impls.ResultCache;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.Plugin;
 import com.bluenimble.platform.plugins.PluginRegistryException;
@@ -55,6 +57,11 @@ public class OrientDatabasePlugin extends AbstractPlugin {
 			
 		String AllowProprietaryAccess
 						= "allowProprietaryAccess";	
+		
+		String QueryCache
+						= "queryCache";	
+		String ResultCache
+						= "resultCache";	
 	}
 	
 	interface Protocol {
@@ -90,7 +97,8 @@ public class OrientDatabasePlugin extends AbstractPlugin {
 					Json.find (space.getFeatures (), feature, name, ApiSpace.Features.Spec, Spec.AllowProprietaryAccess);
 				boolean allowProprietaryAccess = 
 						oAllowProprietaryAccess == null || String.valueOf (oAllowProprietaryAccess).equalsIgnoreCase (Lang.TRUE);
-				return new OrientDatabase (OrientDatabasePlugin.this.acquire (space, name), tracer (), allowProprietaryAccess);
+				RecyclablePool pool = (RecyclablePool)space.getRecyclable (createKey (name));
+				return new OrientDatabase (pool.pool ().acquire (), tracer (), allowProprietaryAccess, pool.queries (), pool.results ());
 				
 			}
 			@Override
@@ -195,7 +203,11 @@ public class OrientDatabasePlugin extends AbstractPlugin {
 			removeClient (space, name);
 		}
 		
-		space.addRecyclable (factoryKey, new RecyclablePool (pool));
+		space.addRecyclable (factoryKey, new RecyclablePool (
+			pool, 
+			QueryCache.create (Json.getObject (spec, Spec.QueryCache)), 
+			ResultCache.create (Json.getObject (spec, Spec.ResultCache))
+		));
 		
 		feature.set (ApiSpace.Spec.Installed, true);
 		
@@ -219,9 +231,13 @@ public class OrientDatabasePlugin extends AbstractPlugin {
 		private static final long serialVersionUID = 50882416501226306L;
 
 		private OPartitionedDatabasePool pool;
+		private QueryCache 				queries;
+		private ResultCache 			results;
 		
-		public RecyclablePool (OPartitionedDatabasePool pool) {
-			this.pool = pool;
+		public RecyclablePool (OPartitionedDatabasePool pool, QueryCache queries, ResultCache results) {
+			this.pool 		= pool;
+			this.queries 	= queries;
+			this.results 	= results;
 		}
 		
 		@Override
@@ -241,5 +257,13 @@ public class OrientDatabasePlugin extends AbstractPlugin {
 			return pool;
 		}
 
+		public QueryCache queries () {
+			return queries;
+		}
+
+		public ResultCache results () {
+			return results;
+		}
+
 	}
 }
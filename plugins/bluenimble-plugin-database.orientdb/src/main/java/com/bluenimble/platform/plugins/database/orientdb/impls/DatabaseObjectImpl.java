@@ -246,6 +246,7 @@ public class DatabaseObjectImpl implements DatabaseObject {
 		} catch (Exception ex) {
 			throw new DatabaseException (ex.getMessage (), ex);
 		}
+		invalidate ();
 	}
 
 	@Override
@@ -260,6 +261,13 @@ public class DatabaseObjectImpl implements DatabaseObject {
 		} catch (Exception ex) {
 			throw new DatabaseException (ex.getMessage (), ex);
 		}
+		invalidate ();
+	}
+	
+	private void invalidate () {
+		if (database instanceof OrientDatabase) {
+			((OrientDatabase)database).invalidate (entity ());
+		}
 	}
 	
 	private void setDefaults () {
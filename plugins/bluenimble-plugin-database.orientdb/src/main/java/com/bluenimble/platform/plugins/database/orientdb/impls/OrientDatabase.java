@@ -16,14 +16,15 @@
  */
 package com.bluenimble.platform.plugins.database.orientdb.impls;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.bluenimble.platform.Json;
 import com.bluenimble.platform.Lang;
@@ -37,6 +38,9 @@ import com.bluenimble.platform.db.query.Query;
 import com.bluenimble.platform.db.query.Query.Operator;
 import com.bluenimble.platform.db.query.QueryCompiler;
 import com.bluenimble.platform.db.query.Select;
+import com.bluenimble.platform.db.query.impls.QueryCache;
+import com.bluenimble.platform.db.query.impls.QueryShape;
+import com.bluenimble.platform.db.query.impls.ResultCache;
 import com.bluenimble.platform.db.query.impls.SqlQueryCompiler;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
@@ -134,21 +138,32 @@ public class OrientDatabase implements Database {
 		String Entities 	= "entities";
 			String Name 	= "name";
 			String Count 	= "count";
+		String QueryCache 	= "queryCache";
+		String ResultCache 	= "resultCache";
 	}
 	
-	private Map<String, String> QueriesCache = new ConcurrentHashMap<String, String> ();
-	
 	private ODatabaseDocumentTx db;
 	private Tracer				tracer;
 	private boolean				allowProprietaryAccess;
 	
 	private boolean 			isTransaction;
 	
+	private QueryCache 			queries;
+	private ResultCache 		results;
+	// entities written by the running transaction
+	private Set<String> 		dirty;
+	
 	public OrientDatabase (ODatabaseDocumentTx db, Tracer tracer, boolean allowProprietaryAccess) {
+		this (db, tracer, allowProprietaryAccess, null, null);
+	}
+	
+	public OrientDatabase (ODatabaseDocumentTx db, Tracer tracer, boolean allowProprietaryAccess, QueryCache queries, ResultCache results) {
 		this.db 		= db;
 		this.tracer 	= tracer;
 		this.db.getStorage ().getConfiguration ().dateTimeFormat = DateFormat;
 		this.allowProprietaryAccess = allowProprietaryAccess;
+		this.queries 	= queries;
+		this.results 	= results;
 	}
 
 	@Override
@@ -184,12 +199,16 @@ public class OrientDatabase implements Database {
 		tracer.log (Tracer.Level.Info, "Commit Transaction {0}", db);
 		db.commit ();
 		isTransaction = false;
+		// results read by other instances while the transaction was running
+		invalidateDirty ();
 		return this;
 	}
 
 	@Override
 	public OrientDatabase rollback () throws DatabaseException {
 		db.rollback ();
+		isTransaction = false;
+		invalidateDirty ();
 		return this;
 	}
 
@@ -205,6 +224,8 @@ public class OrientDatabase implements Database {
 		
 		OResultSet<ODocument> result = db.command (new OCommandSQL (query)).execute (params);
 		
+		invalidate (doc.getClassName ());
+		
 		ODocument document = (ODocument)result.get (0);
 		
 		return document.field (field);
@@ -230,12 +251,37 @@ public class OrientDatabase implements Database {
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<DatabaseObject> find (String entity, Query query, Visitor visitor) throws DatabaseException {
+		
+		// results read within a transaction may hold its uncommitted changes, they aren't shared
+		String key = results == null || query == null || isTransaction ? null : results.key (query);
+		
+		String target 	= null;
+		long generation = 0;
+		
+		if (key != null) {
+			target = target (Lang.isNullOrEmpty (query.entity ()) ? entity : query.entity ());
+			List<ODocument> documents = (List<ODocument>)results.get (target, key);
+			if (documents != null) {
+				tracer.log (Tracer.Level.Debug, "Query {0} results loaded from cache", query.name ());
+				if (documents.isEmpty ()) {
+					return null;
+				}
+				return toList (entity, copy (documents), visitor);
+			}
+			generation = results.generation (target);
+		}
+		
 		List<ODocument> result;
 		try {
 			result = (List<ODocument>)_query (entity, Query.Construct.select, query, false);
 		} catch (Exception e) {
 			throw new DatabaseException (e.getMessage (), e);
 		}
+		
+		if (key != null) {
+			results.put (target, key, result == null ? Collections.emptyList () : copy (result), generation);
+		}
+		
 		if (result == null || result.isEmpty ()) {
 			return null;
 		}
@@ -274,7 +320,11 @@ public class OrientDatabase implements Database {
 		Map<String, Object> params = new HashMap<String, Object> ();
 		params.put (Fields.Id, id);
 		
-		return db.command (command).execute (params);
+		int deleted = db.command (command).execute (params);
+		
+		invalidate (entity);
+		
+		return deleted;
 		
 	}
 
@@ -293,6 +343,8 @@ public class OrientDatabase implements Database {
 			throw new DatabaseException (ex.getMessage (), ex);
 		}
 		
+		invalidate (entity);
+		
 	}
 
 	@Override
@@ -313,6 +365,7 @@ public class OrientDatabase implements Database {
 			return 0;
 		}
 		Object result = _query (entity, Query.Construct.delete, query, false);
+		invalidate (Lang.isNullOrEmpty (query.entity ()) ? entity : query.entity ());
 		if (result == null) {
 			return 0;
 		}
@@ -350,6 +403,13 @@ public class OrientDatabase implements Database {
 		
 		describe.set (Describe.Size, db.getSize ());
 		
+		if (queries != null) {
+			describe.set (Describe.QueryCache, queries.describe ());
+		}
+		if (results != null) {
+			describe.set (Describe.ResultCache, results.describe ());
+		}
+		
 		Collection<OClass> entities = db.getMetadata ().getSchema ().getClasses ();
 		if (entities == null || entities.isEmpty ()) {
 			return describe;
@@ -409,7 +469,7 @@ public class OrientDatabase implements Database {
 	@Override
 	public JsonObject bulk (JsonObject data) throws DatabaseException {
 		
-		JsonObject result = (JsonObject)new JsonObject ().set (Database.Fields.Total, 0);
+		JsonObject result = (JsonObject)new JsonObject ().set (Database.Fields.Total, 0).set (Database.Fields.Failed, 0);
 		
 		if (data == null || data.isEmpty ()) {
 			return result;
@@ -420,7 +480,8 @@ public class OrientDatabase implements Database {
 		try {
 			Iterator<String> entities = data.keys ();
 			while (entities.hasNext ()) {
-				int count = 0;
+				int count 	= 0;
+				int failed 	= 0;
 				String entityName = entities.next ();
 				Object oRecords = data.get (entityName);
 				if (!(oRecords instanceof JsonArray)) {
@@ -434,21 +495,26 @@ public class OrientDatabase implements Database {
 						continue;
 					}
 					
-					// TODO: Reuse object
-					DatabaseObject entity = create (entityName);
-					// TODO: REVIEW
-					
-					// set data
-					entity.load ((JsonObject)oRec);
-					// put record
-					entity.save ();
-					// clear object
-					entity.clear ();
-					
-					count++;
+					// a failed record doesn't fail the rest of the batch
+					try {
+						DatabaseObject entity = create (entityName);
+						
+						// set data
+						entity.load ((JsonObject)oRec);
+						// put record
+						entity.save ();
+						// clear object
+						entity.clear ();
+						
+						count++;
+					} catch (Exception ex) {
+						failed++;
+						tracer.log (Tracer.Level.Error, "Bulk record of {0} failed due to {1}", entityName, ex.getMessage ());
+					}
 				}
 				result.set (entityName, count);
 				result.set (Database.Fields.Total, Json.getInteger (result, Database.Fields.Total, 0) + count);
+				result.set (Database.Fields.Failed, Json.getInteger (result, Database.Fields.Failed, 0) + failed);
 			}
 		} finally {
 			db.declareIntent (null);
@@ -479,6 +545,7 @@ public class OrientDatabase implements Database {
 			return null;
 		}
 		List<ODocument> result = (List<ODocument>)_query (null, Query.Construct.delete, query, true);
+		invalidate (query.entity ());
 		if (result == null || result.isEmpty ()) {
 			return null;
 		}
@@ -528,11 +595,7 @@ public class OrientDatabase implements Database {
 			returnBefore = false;
 		}
 		
-		boolean queryHasEntity = true;
-		
-		if (Lang.isNullOrEmpty (query.entity ())) {
-			queryHasEntity = false;
-		} else {
+		if (!Lang.isNullOrEmpty (query.entity ())) {
 			entity = query.entity ();
 		}
 		
@@ -545,13 +608,19 @@ public class OrientDatabase implements Database {
 			return null;
 		}
 		
-		String cacheKey = construct.name () + query.name ();
-		
 		String 				sQuery 		= null;
 		Map<String, Object> bindings 	= query.bindings ();
 		
-		if (queryHasEntity && query.caching ().cache (Target.meta) && !Lang.isNullOrEmpty (query.name ())) {
-			sQuery 		= (String)QueriesCache.get (cacheKey);
+		String 				cacheKey 	= null;
+		
+		if (queries != null && query.caching ().cache (Target.meta)) {
+			CompiledQuery shape = new QueryShape (construct, entity, true, true).compile (query);
+			cacheKey 	= (String)shape.query ();
+			if (returnBefore) {
+				cacheKey += Lang.SPACE + ODBSql.ReturnBefore;
+			}
+			bindings 	= shape.bindings ();
+			sQuery 		= (String)queries.get (cacheKey);
 			tracer.log (Tracer.Level.Debug, "Query meta loaded from cache {0}", sQuery);
 		} 
 		
@@ -562,8 +631,8 @@ public class OrientDatabase implements Database {
 			sQuery 		= (String)cQuery.query 		();
 			bindings	= cQuery.bindings 	();
 			
-			if (queryHasEntity && query.caching ().cache (Target.meta) && !Lang.isNullOrEmpty (query.name ())) {
-				QueriesCache.put (cacheKey, sQuery);
+			if (cacheKey != null) {
+				queries.put (cacheKey, sQuery);
 				tracer.log (Tracer.Level.Debug, "Query meta stored in cache {0}", sQuery);
 			} 
 		}
@@ -633,6 +702,45 @@ public class OrientDatabase implements Database {
 		
 	}
 
+	// drops the cached query results of the entity
+	void invalidate (String entity) {
+		if (results == null || entity == null) {
+			return;
+		}
+		entity = target (entity);
+		results.invalidate (entity);
+		if (isTransaction) {
+			if (dirty == null) {
+				dirty = new HashSet<String> ();
+			}
+			dirty.add (entity);
+		}
+	}
+	
+	private void invalidateDirty () {
+		if (dirty == null) {
+			return;
+		}
+		for (String entity : dirty) {
+			invalidate (entity);
+		}
+		dirty = null;
+	}
+	
+	// orient class names are case insensitive, 'users' and 'Users' share their cached results
+	private static String target (String entity) {
+		return entity.toLowerCase ();
+	}
+	
+	// cached documents are never handed out, callers may change them
+	private List<ODocument> copy (List<ODocument> documents) {
+		List<ODocument> copy = new ArrayList<ODocument> (documents.size ());
+		for (ODocument document : documents) {
+			copy.add (document.copy ());
+		}
+		return copy;
+	}
+	
 	private String format (String query, String type) {
 		return Lang.replace (query, Tokens.Type, type);
 	}
@@ -774,6 +882,8 @@ public class OrientDatabase implements Database {
 		);
 		
 		db.command (new OCommandSQL (query)).execute ();
+		
+		invalidate (parentDoc.getClassName ());
 	}
 
 	@Override
@@ -880,6 +990,17 @@ public class OrientDatabase implements Database {
         
         _import.importDatabase ();
         _import.close ();
+        
+        if (results == null) {
+        	return;
+        }
+        if (entities != null && !entities.isEmpty ()) {
+        	for (String entity : entities) {
+        		invalidate (entity);
+        	}
+        } else {
+        	results.clear ();
+        }
 	}
 
 	private String format (String query, String parent, String collection, String child) {
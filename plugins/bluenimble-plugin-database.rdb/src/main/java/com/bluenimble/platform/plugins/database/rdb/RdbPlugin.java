@@ -43,6 +43,7 @@ import com.bluenimble.platform.api.ApiSpace;
 import com.bluenimble.platform.api.Manageable;
 import com.bluenimble.platform.api.tracing.Tracer;
 import com.bluenimble.platform.db.Database;
+import com.bluenimble.platform.db.query.impls.QueryCache;
 import com.bluenimble.platform.encoding.Base64;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
@@ -133,6 +134,8 @@ public class RdbPlugin extends AbstractPlugin {
 		String AllowProprietaryAccess
 							= "allowProprietaryAccess";
 		
+		String QueryCache 	= "queryCache";
+		
 	}
 	
 	private Map<String, DataSourceVendor> vendors = new HashMap<String, DataSourceVendor> ();
@@ -564,6 +567,7 @@ public class RdbPlugin extends AbstractPlugin {
 		
 		private EntityManagerFactory 	factory;
 		private JpaMetadata 			metadata;
+		private QueryCache 				queries;
 
 		private ApiSpace 				space;
 		private	ClassLoader 			classLoader;
@@ -578,6 +582,9 @@ public class RdbPlugin extends AbstractPlugin {
 			this.dataSource 	= dataSource;
 			this.space 			= api.space ();
 			this.classLoader 	= api.getClassLoader ();
+			this.queries 		= QueryCache.create (
+				(JsonObject)Json.find (space.getFeatures (), feature, dataSource, ApiSpace.Features.Spec, Spec.QueryCache)
+			);
 			
 			create ();
 		}
@@ -620,6 +627,10 @@ public class RdbPlugin extends AbstractPlugin {
 		public JpaMetadata metadata () {
 			return metadata;
 		}
+
+		public QueryCache queries () {
+			return queries;
+		}
 		
 		@SuppressWarnings({ "rawtypes", "unchecked" })
 		public void create () {
@@ -689,7 +700,7 @@ public class RdbPlugin extends AbstractPlugin {
 		
 		EntityManager em = factory.createEntityManager ();
 		
-		return new JpaDatabase (this.tracer (), em, recyclable.metadata (), allowProprietaryAccess);
+		return new JpaDatabase (this.tracer (), em, recyclable.metadata (), allowProprietaryAccess, recyclable.queries ());
 	}
 	
 	private void printDescriptors (EntityManagerFactory factory) {
@@ -1,9 +1,9 @@
 package com.bluenimble.platform.plugins.database.rdb.impls;
 
 import java.sql.Connection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
@@ -12,6 +12,7 @@ import javax.persistence.Table;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 
+import com.bluenimble.platform.Json;
 import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.api.tracing.Tracer;
 import com.bluenimble.platform.db.Database;
@@ -23,7 +24,10 @@ import com.bluenimble.platform.db.query.Query;
 import com.bluenimble.platform.db.query.Query.Operator;
 import com.bluenimble.platform.db.query.QueryCompiler;
 import com.bluenimble.platform.db.query.Select;
+import com.bluenimble.platform.db.query.impls.QueryCache;
+import com.bluenimble.platform.db.query.impls.QueryShape;
 import com.bluenimble.platform.db.query.impls.SqlQueryCompiler;
+import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.reflect.beans.BeanMetadata;
 
@@ -34,6 +38,8 @@ public class JpaDatabase implements Database {
 	private static final String 	Regexp 				= "REGEXP";
 	private static final String 	QueryEntity 		= "e";
 	
+	private static final int 		BulkBatch 			= 100;
+	
 	interface Queries {
 		String Truncate = "TRUNCATE TABLE ";
 	}
@@ -43,21 +49,25 @@ public class JpaDatabase implements Database {
 		String Connection 		= "connection";
 	}
 	
-	private Map<String, String> QueriesCache = new ConcurrentHashMap<String, String> ();
-	
 	private JpaMetadata 		metadata;
 	
 	EntityManager 				entityManager;
 	Tracer						tracer;
 	private boolean 			allowProprietaryAccess;
+	private QueryCache 			queries;
 
 	private EntityTransaction 	transaction;
 	
 	public JpaDatabase (Tracer tracer, EntityManager entityManager, JpaMetadata metadata, boolean allowProprietaryAccess) {
+		this (tracer, entityManager, metadata, allowProprietaryAccess, null);
+	}
+	
+	public JpaDatabase (Tracer tracer, EntityManager entityManager, JpaMetadata metadata, boolean allowProprietaryAccess, QueryCache queries) {
 		this.tracer 				= tracer;
 		this.entityManager 			= entityManager;
 		this.metadata 				= metadata;
 		this.allowProprietaryAccess = allowProprietaryAccess;
+		this.queries 				= queries;
 	}
 
 	@Override
@@ -244,8 +254,79 @@ public class JpaDatabase implements Database {
 
 	@Override
 	public JsonObject bulk (JsonObject data) throws DatabaseException {
-		// TODO 
-		return null;
+		
+		JsonObject result = (JsonObject)new JsonObject ().set (Database.Fields.Total, 0).set (Database.Fields.Failed, 0);
+		
+		if (data == null || data.isEmpty ()) {
+			return result;
+		}
+		
+		// outside of a caller transaction, each batch is committed on its own. 
+		// inside one, batches are flushed and the caller decides 
+		boolean ownTransaction = transaction == null || !transaction.isActive ();
+		
+		Iterator<String> entities = data.keys ();
+		while (entities.hasNext ()) {
+			String entityName = entities.next ();
+			Object oRecords = data.get (entityName);
+			if (!(oRecords instanceof JsonArray)) {
+				continue;
+			}
+			
+			int count 	= 0;
+			int failed 	= 0;
+			
+			JsonArray records = (JsonArray)oRecords;
+			int i = 0;
+			while (i < records.count ()) {
+				int end = Math.min (i + BulkBatch, records.count ());
+				
+				EntityTransaction batchTransaction = null;
+				if (ownTransaction) {
+					batchTransaction = entityManager.getTransaction ();
+					batchTransaction.begin ();
+				}
+				
+				int persisted = 0;
+				for (; i < end; i++) {
+					Object oRec = records.get (i);
+					if (!(oRec instanceof JsonObject)) {
+						continue;
+					}
+					try {
+						JpaObject entity = (JpaObject)create (entityName);
+						entity.load ((JsonObject)oRec);
+						entityManager.persist (entity.bean);
+						persisted++;
+					} catch (Exception ex) {
+						failed++;
+						tracer.log (Tracer.Level.Error, "Bulk record of {0} failed due to {1}", entityName, ex.getMessage ());
+					}
+				}
+				
+				try {
+					if (batchTransaction != null) {
+						batchTransaction.commit ();
+						entityManager.clear ();
+					} else {
+						entityManager.flush ();
+					}
+					count += persisted;
+				} catch (Exception ex) {
+					if (batchTransaction != null && batchTransaction.isActive ()) {
+						batchTransaction.rollback ();
+					}
+					failed += persisted;
+					tracer.log (Tracer.Level.Error, "Bulk batch of {0} failed due to {1}", entityName, ex.getMessage ());
+				}
+			}
+			
+			result.set (entityName, count);
+			result.set (Database.Fields.Total, Json.getInteger (result, Database.Fields.Total, 0) + count);
+			result.set (Database.Fields.Failed, Json.getInteger (result, Database.Fields.Failed, 0) + failed);
+		}
+		
+		return result;
 	}
 
 	@Override
@@ -309,11 +390,7 @@ public class JpaDatabase implements Database {
 			return null;
 		}
 		
-		boolean queryHasEntity = true;
-		
-		if (Lang.isNullOrEmpty (query.entity ())) {
-			queryHasEntity = false;
-		} else {
+		if (!Lang.isNullOrEmpty (query.entity ())) {
 			entity = query.entity ();
 		}
 		
@@ -321,13 +398,17 @@ public class JpaDatabase implements Database {
 		
 		tracer.log (Tracer.Level.Debug, "Query Entity {0}", entity);
 		
-		String cacheKey = construct.name () + query.name ();
-		
 		String 				sQuery 		= null;
 		Map<String, Object> bindings 	= query.bindings ();
 		
-		if (queryHasEntity && query.caching ().cache (Target.meta) && !Lang.isNullOrEmpty (query.name ())) {
-			sQuery 		= (String)QueriesCache.get (cacheKey);
+		String 				cacheKey 	= null;
+		
+		if (queries != null && query.caching ().cache (Target.meta)) {
+			// start and count are set on the jpa query, not part of the shape
+			CompiledQuery shape = new QueryShape (construct, entity, true, false).compile (query);
+			cacheKey 	= (String)shape.query ();
+			bindings 	= shape.bindings ();
+			sQuery 		= (String)queries.get (cacheKey);
 			tracer.log (Tracer.Level.Debug, "Query meta loaded from cache {0}", sQuery);
 		} 
 		
@@ -338,8 +419,8 @@ public class JpaDatabase implements Database {
 			sQuery 		= (String)cQuery.query 		();
 			bindings	= cQuery.bindings 	();
 			
-			if (queryHasEntity && query.caching ().cache (Target.meta) && !Lang.isNullOrEmpty (query.name ())) {
-				QueriesCache.put (cacheKey, sQuery);
+			if (cacheKey != null) {
+				queries.put (cacheKey, sQuery);
 				tracer.log (Tracer.Level.Debug, "Query meta stored in cache {0}", sQuery);
 			} 
 		}
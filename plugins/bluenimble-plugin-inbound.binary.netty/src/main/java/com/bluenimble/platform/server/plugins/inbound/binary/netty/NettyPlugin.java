@@ -31,7 +31,9 @@ public class NettyPlugin extends AbstractPlugin {
 	private static final long serialVersionUID = 3203657740159783537L;
 
 	private int 		port = 7070;
+	private String 		protocol = NettyServer.Protocol.Frame;
 	private JsonObject	options;
+	private JsonObject	transport;
 	
 	@SuppressWarnings("unchecked")
 	@Override
@@ -43,7 +45,10 @@ public class NettyPlugin extends AbstractPlugin {
 			@Override
 			public ApiResponse process (ApiRequest request) throws Exception {
 				ApiResponse response = 
-					new NettyResponse (request.getId (), request.getNode (), (ChannelHandlerContext)request.get (NettyServer.Context));
+					new NettyResponse (
+						request.getId (), request.getNode (), 
+						(ChannelHandlerContext)request.get (NettyServer.Context), (Integer)request.get (NettyServer.Stream)
+					);
 				
 				request.getNode ().set (ApiRequest.Fields.Node.Id, server.id ());
     			request.getNode ().set (ApiRequest.Fields.Node.Type, server.type ());
@@ -60,6 +65,9 @@ public class NettyPlugin extends AbstractPlugin {
 			nettyServer.setOptions (options);
 		}
 		
+		nettyServer.setProtocol (protocol);
+		nettyServer.setTransport (transport);
+		
 		nettyServer.setLogLevel (LogLevel.INFO);
 		nettyServer.start ();
 
@@ -72,6 +80,20 @@ public class NettyPlugin extends AbstractPlugin {
 		this.port = port;
 	}
 	
+	public String getProtocol () {
+		return protocol;
+	}
+	public void setProtocol (String protocol) {
+		this.protocol = protocol;
+	}
+	
+	public JsonObject getTransport () {
+		return transport;
+	}
+	public void setTransport (JsonObject transport) {
+		this.transport = transport;
+	}
+	
 	public JsonObject getOptions () {
 		return options;
 	}
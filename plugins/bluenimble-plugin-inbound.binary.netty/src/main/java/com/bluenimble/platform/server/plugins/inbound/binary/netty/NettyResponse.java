@@ -9,6 +9,7 @@ import com.bluenimble.platform.IOUtils;
 import com.bluenimble.platform.api.ApiResponse;
 import com.bluenimble.platform.api.impls.AbstractApiResponse;
 import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.tools.binary.protocol.Frame;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -18,19 +19,27 @@ public class NettyResponse extends AbstractApiResponse {
 	
 	private ChannelHandlerContext 	context;
 	
+	// null if the client talks the serialization protocol
+	private Integer					stream;
+	
 	private boolean					headersWritten;
 	
 	private OutputStream			out;
 	private Writer					writer;
 	
 	public NettyResponse (String id, JsonObject node, ChannelHandlerContext context) {
+		this (id, node, context, null);
+	}
+
+	public NettyResponse (String id, JsonObject node, ChannelHandlerContext context, Integer stream) {
 		super (id, node);
-		this.context = context;
+		this.context 	= context;
+		this.stream 	= stream;
 	}
 
 	@Override
 	protected ApiResponse append (byte [] buff, int offset, int length) throws IOException {
-		context.write (buff);
+		chunk (buff, offset, length);
 		return this;
 	}
 
@@ -41,11 +50,11 @@ public class NettyResponse extends AbstractApiResponse {
 			out = new OutputStream () {
 				@Override
 			    public void write (byte [] bytes, int off, int len) throws IOException {
-			    	context.write (Arrays.copyOfRange (bytes, off, len - off -1));
+			    	chunk (bytes, off, len);
 			    }
 				@Override
 			    public void write (byte [] bytes) throws IOException {
-			    	context.write (bytes);
+			    	chunk (bytes, 0, bytes.length);
 			    }
 				@Override
 				public void write (int b) throws IOException {
@@ -68,12 +77,14 @@ public class NettyResponse extends AbstractApiResponse {
 			writer = new Writer () {
 				@Override
 				public void write (char cbuf []) throws IOException {
-					context.write (IOUtils.charsToBytes (cbuf));
+					byte [] bytes = IOUtils.charsToBytes (cbuf);
+					chunk (bytes, 0, bytes.length);
 				}
 				
 				@Override
 				public void write (char [] cbuf, int off, int len) throws IOException {
-					context.write (IOUtils.charsToBytes (Arrays.copyOfRange (cbuf, off, len - off -1)));
+					byte [] bytes = IOUtils.charsToBytes (Arrays.copyOfRange (cbuf, off, off + len));
+					chunk (bytes, 0, bytes.length);
 				}
 	
 			    @Override
@@ -107,7 +118,7 @@ public class NettyResponse extends AbstractApiResponse {
 		}
 		
 		if (status != null) {
-			context.write (status.getCode ());
+			context.write (stream == null ? status.getCode () : Frame.status (stream, status.getCode ()));
 			status = null;
 		}
 		
@@ -115,15 +126,24 @@ public class NettyResponse extends AbstractApiResponse {
 			return;
 		}
 		
-		context.write (headers);
+		context.write (stream == null ? headers : Frame.headers (stream, headers));
 		
 		headersWritten = true;
 	}
 
 	@Override
 	public void close () throws IOException {
+		if (stream != null && !committed) {
+			context.write (Frame.end (stream));
+		}
 		context.flush ();
 		commit ();
 	}
+	
+	private void chunk (byte [] buff, int offset, int length) {
+		// the write is asynchronous, the caller may reuse its buffer
+		byte [] chunk = (offset == 0 && length == buff.length) ? buff : Arrays.copyOfRange (buff, offset, offset + length);
+		context.write (stream == null ? chunk : Frame.chunk (stream, chunk));
+	}
 
 }
@@ -16,20 +16,26 @@
  */
 package com.bluenimble.platform.server.plugins.inbound.binary.netty;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.security.SslUtils;
 import com.bluenimble.platform.security.SslUtils.StoreSource;
+import com.bluenimble.platform.tools.binary.impls.netty.NettyTransport;
+import com.bluenimble.platform.tools.binary.protocol.FrameDecoder;
+import com.bluenimble.platform.tools.binary.protocol.FrameEncoder;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.serialization.ClassResolver;
 import io.netty.handler.codec.serialization.ClassResolvers;
 import io.netty.handler.codec.serialization.ObjectDecoder;
 import io.netty.handler.codec.serialization.ObjectEncoder;
@@ -43,9 +49,32 @@ import io.netty.handler.ssl.util.SelfSignedCertificate;
 public final class NettyServer {
 	
 	public static final String 	Context = "Netty.Context";
+	public static final String 	Stream 	= "Netty.Stream";
 	public static final String 	Channel	= "bnbp";
 	
-	private EventLoopGroup bossGroup;;
+	public interface Protocol {
+		// length prefixed frames
+		String Frame 			= "frame";
+		// java serialization, kept for old clients
+		String Serialization 	= "serialization";
+	}
+	
+	private static final FrameEncoder Encoder = new FrameEncoder ();
+	
+	// old clients send their requests as byte arrays, nothing else is deserialized.
+	// a ClassNotFoundException would make netty fall back to an unfiltered lookup, so rejections are unchecked
+	private static final ClassResolver LegacyClasses = new ClassResolver () {
+		private final ClassResolver delegate = ClassResolvers.cacheDisabled (null);
+		@Override
+		public Class<?> resolve (String className) throws ClassNotFoundException {
+			if (!byte [].class.getName ().equals (className)) {
+				throw new SecurityException (className + " is not allowed to be deserialized");
+			}
+			return delegate.resolve (className);
+		}
+	};
+	
+	private EventLoopGroup bossGroup;
 	private EventLoopGroup workerGroup;
 
 	protected int 			port;
@@ -56,6 +85,10 @@ public final class NettyServer {
 	
 	protected int			maxPayloadSize = 20*1024*1024;
 	
+	protected String		protocol = Protocol.Frame;
+	
+	protected JsonObject	transport;
+	
 	protected LogLevel		logLevel;
 	
 	protected Map<String, Object>		
@@ -77,12 +110,14 @@ public final class NettyServer {
 		
 		final SslContext sslCtx = createSslContext ();
 		
-		bossGroup = new NioEventLoopGroup (1);
-		workerGroup = new NioEventLoopGroup ();
+		NettyTransport nettyTransport = new NettyTransport (transport);
+		
+		// one acceptor thread per server channel bound to the port
+		bossGroup = nettyTransport.group (nettyTransport.acceptors ());
+		workerGroup = nettyTransport.workers ();
 		
 		try {
-			ServerBootstrap b = new ServerBootstrap ()
-				.group (bossGroup, workerGroup).channel (NioServerSocketChannel.class);
+			ServerBootstrap b = nettyTransport.configure (new ServerBootstrap ().group (bossGroup, workerGroup));
 			
 			if (options != null && !options.isEmpty ()) {
 				Set<String> keys = options.keySet ();
@@ -102,16 +137,30 @@ public final class NettyServer {
 					if (sslCtx != null) {
 						p.addLast (sslCtx.newHandler(ch.alloc()));
 					}
-					p.addLast (
-						new ObjectEncoder (), 
-						new ObjectDecoder (maxPayloadSize, ClassResolvers.cacheDisabled (null)),
-						new NettyServerHandler (processor)
-					);
+					if (Protocol.Serialization.equalsIgnoreCase (protocol)) {
+						p.addLast (
+							new ObjectEncoder (), 
+							new ObjectDecoder (maxPayloadSize, LegacyClasses),
+							new NettyServerHandler (processor)
+						);
+					} else {
+						p.addLast (
+							Encoder, 
+							new FrameDecoder (maxPayloadSize),
+							new NettyServerHandler (processor)
+						);
+					}
 				}
 			});
 
-			// Bind and start to accept incoming connections.
-			b.bind (port).sync ().channel ().closeFuture ().sync ();
+			// Bind and start to accept incoming connections. With SO_REUSEPORT, each acceptor binds the same port
+			List<ChannelFuture> closeFutures = new ArrayList<ChannelFuture> ();
+			for (int i = 0; i < nettyTransport.acceptors (); i++) {
+				closeFutures.add (b.bind (port).sync ().channel ().closeFuture ());
+			}
+			for (ChannelFuture closeFuture : closeFutures) {
+				closeFuture.sync ();
+			}
 		} finally {
 			bossGroup.shutdownGracefully ();
 			workerGroup.shutdownGracefully ();
@@ -161,6 +210,20 @@ public final class NettyServer {
 		this.maxPayloadSize = maxPayloadSize;
 	}
 
+	public String getProtocol () {
+		return protocol;
+	}
+	public void setProtocol (String protocol) {
+		this.protocol = protocol;
+	}
+
+	public JsonObject getTransport () {
+		return transport;
+	}
+	public void setTransport (JsonObject transport) {
+		this.transport = transport;
+	}
+
 	public Map<String, Object> getOptions () {
 		return options;
 	}
@@ -22,6 +22,7 @@ import com.bluenimble.platform.Json;
 import com.bluenimble.platform.api.ApiRequest;
 import com.bluenimble.platform.api.impls.SimpleApiRequest;
 import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.tools.binary.protocol.Frame;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -39,7 +40,19 @@ public class NettyServerHandler extends ChannelInboundHandlerAdapter {
     @Override
     public void channelRead (ChannelHandlerContext ctx, Object msg) {
     	try {
-    		JsonObject data = new JsonObject (new String ((byte [])msg));
+    		Integer stream = null;
+    		
+    		JsonObject data = null;
+    		if (msg instanceof Frame) {
+    			Frame frame = (Frame)msg;
+    			if (frame.type () != Frame.Type.Request) {
+    				return;
+    			}
+    			stream 	= frame.stream ();
+    			data 	= (JsonObject)frame.value ();
+    		} else {
+    			data = new JsonObject (new String ((byte [])msg));
+    		}
     		
     		// set bnb channel
     		data.set (ApiRequest.Fields.Channel, NettyServer.Channel);
@@ -58,6 +71,9 @@ public class NettyServerHandler extends ChannelInboundHandlerAdapter {
         	ApiRequest request = new SimpleApiRequest (data);
         	
         	request.set (NettyServer.Context, ctx);
+        	if (stream != null) {
+        		request.set (NettyServer.Stream, stream);
+        	}
         	
 			proessor.process (request);
 			
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.plugins.inbound.http.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import com.bluenimble.platform.IOUtils;
+
+/**
+ * Reads a request body without blocking the container threads.
+ * The body is kept in memory up to 'threshold' bytes, then spilled to a temporary file.
+ */
+public class AsyncRequestBody implements ReadListener {
+
+	private static final String TempPrefix = "bnb-body-";
+
+	public interface Callback {
+		void onRead 	(InputStream body);
+		void onError 	(Throwable th);
+	}
+
+	private ServletInputStream 	in;
+	private int 				threshold;
+	private Callback 			callback;
+
+	private byte [] 			chunk = new byte [IOUtils.DEFAULT_BUFFER_SIZE * 2];
+
+	private Memory 				memory = new Memory ();
+	private File 				file;
+	private OutputStream 		fileOut;
+
+	public AsyncRequestBody (ServletInputStream in, int threshold, Callback callback) {
+		this.in 		= in;
+		this.threshold 	= threshold;
+		this.callback 	= callback;
+	}
+
+	@Override
+	public void onDataAvailable () throws IOException {
+		int read;
+		while (in.isReady () && (read = in.read (chunk)) != IOUtils.EOF) {
+			write (read);
+		}
+	}
+
+	@Override
+	public void onAllDataRead () throws IOException {
+		InputStream body = null;
+		if (fileOut != null) {
+			fileOut.close ();
+			body = new TempFileInputStream (file);
+		} else {
+			body = new ByteArrayInputStream (memory.buffer (), 0, memory.size ());
+		}
+		memory = null;
+		chunk = null;
+		callback.onRead (body);
+	}
+
+	@Override
+	public void onError (Throwable th) {
+		IOUtils.closeQuietly (fileOut);
+		if (file != null) {
+			file.delete ();
+		}
+		memory = null;
+		callback.onError (th);
+	}
+
+	private void write (int length) throws IOException {
+		if (fileOut != null) {
+			fileOut.write (chunk, 0, length);
+			return;
+		}
+		if (memory.size () + length <= threshold) {
+			memory.write (chunk, 0, length);
+			return;
+		}
+		// spill to disk
+		file = File.createTempFile (TempPrefix, null);
+		fileOut = new FileOutputStream (file);
+		memory.writeTo (fileOut);
+		memory.reset ();
+		fileOut.write (chunk, 0, length);
+	}
+
+	class Memory extends ByteArrayOutputStream {
+		byte [] buffer () {
+			return buf;
+		}
+	}
+
+	class TempFileInputStream extends FileInputStream {
+		private File file;
+		TempFileInputStream (File file) throws IOException {
+			super (file);
+			this.file = file;
+		}
+		@Override
+		public void close () throws IOException {
+			try {
+				super.close ();
+			} finally {
+				file.delete ();
+			}
+		}
+	}
+
+}
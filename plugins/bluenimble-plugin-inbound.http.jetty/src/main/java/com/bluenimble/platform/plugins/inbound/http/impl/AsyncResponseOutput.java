@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.plugins.inbound.http.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+/**
+ * Non blocking response output.
+ *
+ * Bytes are written straight to the container while it's ready, otherwise they are queued and drained by onWritePossible.
+ * The writing thread waits once more than 'maxPending' bytes are queued (slow client backpressure).
+ * Closing the stream completes the async context as soon as the queue is drained.
+ */
+public class AsyncResponseOutput extends OutputStream implements WriteListener {
+
+	private AsyncContext 		context;
+	private ServletOutputStream out;
+	private int 				maxPending;
+
+	private LinkedList<byte []> pending = new LinkedList<byte []> ();
+	private long 				pendingBytes;
+
+	private boolean 			listening;
+	private boolean 			closed;
+	private boolean 			completed;
+	private Throwable 			failure;
+
+	public AsyncResponseOutput (AsyncContext context, ServletOutputStream out, int maxPending) {
+		this.context 	= context;
+		this.out 		= out;
+		this.maxPending = maxPending;
+	}
+
+	@Override
+	public void write (int b) throws IOException {
+		write (new byte [] { (byte)b }, 0, 1);
+	}
+
+	@Override
+	public synchronized void write (byte [] buff, int offset, int length) throws IOException {
+		check ();
+		if (length == 0) {
+			return;
+		}
+		listen ();
+		if (pending.isEmpty () && out.isReady ()) {
+			out.write (buff, offset, length);
+			return;
+		}
+		pending.add (Arrays.copyOfRange (buff, offset, offset + length));
+		pendingBytes += length;
+		while (pendingBytes > maxPending && failure == null) {
+			try {
+				wait ();
+			} catch (InterruptedException e) {
+				Thread.currentThread ().interrupt ();
+				throw new InterruptedIOException ();
+			}
+		}
+		check ();
+	}
+
+	@Override
+	public synchronized void flush () throws IOException {
+		check ();
+		if (listening && pending.isEmpty () && out.isReady ()) {
+			out.flush ();
+		}
+	}
+
+	@Override
+	public synchronized void close () throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (!listening || (pending.isEmpty () && out.isReady ())) {
+			complete ();
+		}
+	}
+
+	@Override
+	public synchronized void onWritePossible () throws IOException {
+		while (!pending.isEmpty () && out.isReady ()) {
+			byte [] chunk = pending.removeFirst ();
+			pendingBytes -= chunk.length;
+			out.write (chunk);
+		}
+		notifyAll ();
+		if (closed && pending.isEmpty () && out.isReady ()) {
+			complete ();
+		}
+	}
+
+	@Override
+	public void onError (Throwable th) {
+		abort (th);
+	}
+
+	// called on write errors and async timeouts, wakes up a waiting writer and releases the context
+	public synchronized void abort (Throwable th) {
+		failure = th;
+		closed 	= true;
+		pending.clear ();
+		pendingBytes = 0;
+		notifyAll ();
+		complete ();
+	}
+
+	private void listen () {
+		if (listening) {
+			return;
+		}
+		listening = true;
+		out.setWriteListener (this);
+	}
+
+	private void check () throws IOException {
+		if (failure != null) {
+			throw new IOException ("response aborted", failure);
+		}
+		if (closed) {
+			throw new IOException ("response closed");
+		}
+	}
+
+	private void complete () {
+		if (completed) {
+			return;
+		}
+		completed = true;
+		try {
+			context.complete ();
+		} catch (IllegalStateException isex) {
+			// already completed by the container
+		}
+	}
+
+}
@@ -16,6 +16,8 @@
  */
 package com.bluenimble.platform.plugins.inbound.http.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -32,6 +34,7 @@ import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.fileupload.servlet.ServletRequestContext;
 
+import com.bluenimble.platform.IOUtils;
 import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.api.ApiContentTypes;
 import com.bluenimble.platform.api.ApiHeaders;
@@ -76,10 +79,19 @@ public class HttpApiRequest extends AbstractApiRequest {
 	private 	Map<String, ApiStreamSource> 	streams;
 	private 	Map<String, Object> 			fields;
 	
+	private 	InputStream 					body;
+	
 	public HttpApiRequest (HttpServletRequest proxy, JettyPlugin plugin) throws Exception {
+		this (proxy, plugin, null);
+	}
+	
+	// body, if not null, was already read from the proxy (async mode)
+	public HttpApiRequest (HttpServletRequest proxy, JettyPlugin plugin, final InputStream body) throws Exception {
 		
 		super ();
 		
+		this.body = body;
+		
 		Tracer tracer = plugin.tracer ();
 		
 		this.proxy = proxy;
@@ -104,11 +116,18 @@ public class HttpApiRequest extends AbstractApiRequest {
 		if (!ApiVerb.POST.equals (verb) && !ApiVerb.PUT.equals (verb)) {
 			return;
 		}
-		if (FileUploadBase.isMultipartContent (new ServletRequestContext (proxy))) {
+		ServletRequestContext context = new ServletRequestContext (proxy) {
+			@Override
+			public InputStream getInputStream () throws IOException {
+				return body != null ? body : super.getInputStream ();
+			}
+		};
+		
+		if (FileUploadBase.isMultipartContent (context)) {
 			ServletFileUpload upload = new ServletFileUpload (Factory);
 			streams = new HashMap<String, ApiStreamSource> ();
 			fields 	= new HashMap<String, Object> ();
-			List<FileItem> items = upload.parseRequest (proxy);
+			List<FileItem> items = upload.parseRequest (context);
 			Iterator<FileItem> iter = items.iterator ();
 			while (iter.hasNext ()) {
 			    FileItem item = iter.next ();
@@ -142,7 +161,7 @@ public class HttpApiRequest extends AbstractApiRequest {
 			if (reader == null) {
 				reader = plugin.getReader (ApiContentTypes.Stream);
 			}
-			set (Payload, reader.read (proxy.getInputStream (), contentType), Scope.Parameter);
+			set (Payload, reader.read (context.getInputStream (), contentType), Scope.Parameter);
 		}
 	}
 
@@ -194,6 +213,10 @@ public class HttpApiRequest extends AbstractApiRequest {
 	public void destroy () {
 		super.destroy ();
 		proxy = null;
+		if (body != null) {
+			IOUtils.closeQuietly (body);
+			body = null;
+		}
 		if (streams != null) {
 			Iterator<String> sKeys = streams.keySet ().iterator ();
 			while (sKeys.hasNext ()) {
@@ -18,10 +18,12 @@ package com.bluenimble.platform.plugins.inbound.http.impl;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.Iterator;
 import java.util.List;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.http.HttpServletResponse;
 
 import com.bluenimble.platform.api.ApiResponse;
@@ -37,6 +39,7 @@ public class HttpApiResponse extends AbstractApiResponse {
 	protected 	HttpServletResponse 	proxy;
 	protected 	OutputStream 			out;
 	protected 	Writer 					writer;
+	protected 	AsyncResponseOutput		async;
 	
 	private 	boolean					headersWritten;
 	
@@ -45,6 +48,11 @@ public class HttpApiResponse extends AbstractApiResponse {
 		this.proxy 	= proxy;
 	}
 	
+	public HttpApiResponse (JsonObject node, String id, HttpServletResponse proxy, AsyncContext context, int maxPending) throws IOException {
+		this (node, id, proxy);
+		this.async 	= new AsyncResponseOutput (context, proxy.getOutputStream (), maxPending);
+	}
+	
 	@Override
 	public ApiResponse append (byte [] buff, int offset, int length) throws IOException {
 		
@@ -58,7 +66,7 @@ public class HttpApiResponse extends AbstractApiResponse {
 			written = true;
 		}
 		if (!written) {
-			out = proxy.getOutputStream ();
+			out = async != null ? async : proxy.getOutputStream ();
 			out.write (buff, offset, length);
 		}
 		return this;
@@ -67,6 +75,13 @@ public class HttpApiResponse extends AbstractApiResponse {
 	@Override
 	public void close () throws IOException {
 		super.close ();
+		if (async != null) {
+			if (writer != null) {
+				writer.flush ();
+			}
+			async.close ();
+			return;
+		}
 		if (out != null) {
 			out.flush ();
 			out.close ();
@@ -93,7 +108,7 @@ public class HttpApiResponse extends AbstractApiResponse {
 			return null;
 		}
 		if (out == null) {
-			out = proxy.getOutputStream ();
+			out = async != null ? async : proxy.getOutputStream ();
 		}
 		return out;
 	}
@@ -104,7 +119,7 @@ public class HttpApiResponse extends AbstractApiResponse {
 			return null;
 		}
 		if (writer == null) {
-			writer = proxy.getWriter ();
+			writer = async != null ? new OutputStreamWriter (async, proxy.getCharacterEncoding ()) : proxy.getWriter ();
 		}
 		return writer;
 	}
@@ -145,6 +160,13 @@ public class HttpApiResponse extends AbstractApiResponse {
 		
 	}
 
+	public void abort (Throwable th) {
+		if (async == null) {
+			return;
+		}
+		async.abort (th);
+	}
+
 	public HttpServletResponse getProxy () {
 		return proxy;
 	}
@@ -25,7 +25,11 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeoutException;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.DispatcherType;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -53,6 +57,7 @@ import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import com.bluenimble.platform.IOUtils;
 import com.bluenimble.platform.Json;
 import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.ApiContentTypes;
 import com.bluenimble.platform.api.ApiHeaders;
 import com.bluenimble.platform.api.ApiRequest;
 import com.bluenimble.platform.api.ApiRequestBodyReader;
@@ -66,6 +71,7 @@ import com.bluenimble.platform.api.tracing.Tracer.Level;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.impls.AbstractPlugin;
+import com.bluenimble.platform.plugins.inbound.http.impl.AsyncRequestBody;
 import com.bluenimble.platform.plugins.inbound.http.impl.HttpApiRequest;
 import com.bluenimble.platform.plugins.inbound.http.impl.HttpApiResponse;
 import com.bluenimble.platform.plugins.inbound.http.readers.YamlApiRequestBodyReader;
@@ -101,6 +107,17 @@ public class JettyPlugin extends AbstractPlugin {
 		}
 	}
 	
+	// servlet 3.1 non blocking io
+	interface NonBlocking {
+		String Enabled 			= "enabled";
+		// timeout in seconds
+		String Timeout 			= "timeout";
+		// request body bytes kept in memory before spilling to a temp file
+		String BodyThreshold 	= "bodyThreshold";
+		// response bytes queued for a slow client before the worker waits
+		String MaxPending 		= "maxPending";
+	}
+	
 	interface Cors {
         String Origins 			= "origins";
         String Methods 			= "methods";
@@ -160,6 +177,8 @@ public class JettyPlugin extends AbstractPlugin {
 	private JsonObject	ssl;
 	
 	private JsonObject	cors;
+	
+	private JsonObject	nonBlocking;
 
 	private Server 		httpServer;
 	
@@ -317,10 +336,14 @@ public class JettyPlugin extends AbstractPlugin {
 					
 					ApiRequest apiRequest = execute (req, resp);
 					
-					if (apiRequest.get (ApiRequest.Bypass) != null) {
+					if (apiRequest != null && apiRequest.get (ApiRequest.Bypass) != null) {
 						super.doOptions (req, resp);
 					}
 					
+					if (req.isAsyncStarted ()) {
+						req.getAsyncContext ().complete ();
+					}
+					
 				}
 				
 				@Override
@@ -341,10 +364,12 @@ public class JettyPlugin extends AbstractPlugin {
 				protected ApiRequest execute (HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 	        		try {
 	        			
+	        			if (Json.getBoolean (nonBlocking, NonBlocking.Enabled, false)) {
+	        				return new Exchange (req, resp, server).start ();
+	        			}
+	        			
 	        			ApiRequest request = new HttpApiRequest (req, JettyPlugin.this);
-	        			request.getNode ().set (ApiRequest.Fields.Node.Id, server.id ());
-	        			request.getNode ().set (ApiRequest.Fields.Node.Type, server.type ());
-	        			request.getNode ().set (ApiRequest.Fields.Node.Version, server.version ());
+	        			stamp (request, server);
 	        			
 	        			server.execute (request, new HttpApiResponse (request.getNode (), request.getId (), resp), CodeExecutor.Mode.Async);
 	        			
@@ -356,12 +381,15 @@ public class JettyPlugin extends AbstractPlugin {
 	        	}
 	        	
 	        });
+		
+		apiHolder.setAsyncSupported (true);
 
         sContext.addServlet (apiHolder, Lang.SLASH + Lang.STAR);
         
         // cross origin
         FilterHolder holder = new FilterHolder (CrossOriginFilter.class);
         holder.setName ("CORS");
+        holder.setAsyncSupported (true);
         holder.setInitParameter ("allowedOrigins", Json.getString (cors, Cors.Origins, Lang.STAR));
         holder.setInitParameter ("allowedMethods", Json.getString (cors, Cors.Methods, "GET,POST,HEAD,PUT,DELETE,PATCH,OPTIONS"));
         
@@ -447,6 +475,13 @@ public class JettyPlugin extends AbstractPlugin {
 		this.cors = cors;
 	}
 
+	public JsonObject getNonBlocking () {
+		return nonBlocking;
+	}
+	public void setNonBlocking (JsonObject nonBlocking) {
+		this.nonBlocking = nonBlocking;
+	}
+
 	public String getContext () {
 		return context;
 	}
@@ -510,6 +545,134 @@ public class JettyPlugin extends AbstractPlugin {
 		}
 	}
 	
+	private void stamp (ApiRequest request, ApiServer server) {
+		request.getNode ().set (ApiRequest.Fields.Node.Id, server.id ());
+		request.getNode ().set (ApiRequest.Fields.Node.Type, server.type ());
+		request.getNode ().set (ApiRequest.Fields.Node.Version, server.version ());
+	}
+	
+	/*
+	 * Non blocking exchange. The body is read by the container using a ReadListener, 
+	 * then the request is handed to the space executor and the container thread is released.
+	 * The response is written through a WriteListener and the async context is completed when the response is closed.
+	 */
+	class Exchange implements AsyncListener, AsyncRequestBody.Callback {
+		
+		private HttpServletRequest 	req;
+		private HttpServletResponse resp;
+		private ApiServer 			server;
+		
+		private AsyncContext 		context;
+		private HttpApiResponse 	response;
+		
+		Exchange (HttpServletRequest req, HttpServletResponse resp, ApiServer server) {
+			this.req 	= req;
+			this.resp 	= resp;
+			this.server = server;
+		}
+		
+		ApiRequest start () throws Exception {
+			context = req.startAsync ();
+			context.setTimeout (Json.getLong (nonBlocking, NonBlocking.Timeout, 60) * 1000);
+			context.addListener (this);
+			
+			if (!hasBody ()) {
+				return dispatch (null);
+			}
+			
+			req.getInputStream ().setReadListener (
+				new AsyncRequestBody (req.getInputStream (), Json.getInteger (nonBlocking, NonBlocking.BodyThreshold, 64 * 1024), this)
+			);
+			return null;
+		}
+		
+		// form bodies are left to the container, it parses them when parameters are requested
+		private boolean hasBody () {
+			String method = req.getMethod ();
+			if (!ApiVerb.POST.name ().equalsIgnoreCase (method) && !ApiVerb.PUT.name ().equalsIgnoreCase (method)) {
+				return false;
+			}
+			if (req.getContentLengthLong () <= 0 && req.getHeader (ApiHeaders.TransferEncoding) == null) {
+				return false;
+			}
+			String contentType = req.getContentType ();
+			return contentType == null || !contentType.toLowerCase ().startsWith (ApiContentTypes.Form);
+		}
+		
+		private ApiRequest dispatch (InputStream body) throws Exception {
+			ApiRequest request = new HttpApiRequest (req, JettyPlugin.this, body);
+			stamp (request, server);
+			
+			response = new HttpApiResponse (
+				request.getNode (), request.getId (), resp, context, 
+				Json.getInteger (nonBlocking, NonBlocking.MaxPending, 256 * 1024)
+			);
+			
+			server.execute (request, response, CodeExecutor.Mode.Async);
+			
+			// bypassed requests are not sent back by the server. Options are completed by doOptions 
+			if (request.get (ApiRequest.Bypass) != null && !ApiVerb.OPTIONS.equals (request.getVerb ())) {
+				complete ();
+			}
+			
+			return request;
+		}
+
+		@Override
+		public void onRead (InputStream body) {
+			try {
+				dispatch (body);
+			} catch (Exception ex) {
+				IOUtils.closeQuietly (body);
+				fail (HttpServletResponse.SC_BAD_REQUEST, ex);
+			}
+		}
+
+		@Override
+		public void onError (Throwable th) {
+			fail (HttpServletResponse.SC_BAD_REQUEST, th);
+		}
+
+		@Override
+		public void onTimeout (AsyncEvent event) throws IOException {
+			fail (HttpServletResponse.SC_SERVICE_UNAVAILABLE, new TimeoutException ("request " + req.getRequestURI () + " timed out"));
+		}
+
+		@Override
+		public void onError (AsyncEvent event) throws IOException {
+			fail (HttpServletResponse.SC_INTERNAL_SERVER_ERROR, event.getThrowable ());
+		}
+
+		@Override
+		public void onComplete (AsyncEvent event) throws IOException {
+		}
+
+		@Override
+		public void onStartAsync (AsyncEvent event) throws IOException {
+		}
+		
+		private void fail (int status, Throwable th) {
+			tracer ().log (Tracer.Level.Error, Lang.BLANK, th);
+			if (!resp.isCommitted ()) {
+				resp.setStatus (status);
+			}
+			if (response != null) {
+				response.abort (th);
+			} else {
+				complete ();
+			}
+		}
+		
+		private void complete () {
+			try {
+				context.complete ();
+			} catch (IllegalStateException isex) {
+				// already completed
+			}
+		}
+		
+	}
+	
 	private void addReader (ApiRequestBodyReader reader) {
 		if (reader.mediaTypes () == null || reader.mediaTypes ().length == 0) {
 			return;
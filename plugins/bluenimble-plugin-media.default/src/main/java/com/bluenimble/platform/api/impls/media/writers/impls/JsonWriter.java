@@ -1,7 +1,10 @@
 package com.bluenimble.platform.api.impls.media.writers.impls;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
+import com.bluenimble.platform.Encodings;
 import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.api.ApiOutput;
 import com.bluenimble.platform.api.ApiResponse;
@@ -9,6 +12,7 @@ import com.bluenimble.platform.api.media.DataWriter;
 import com.bluenimble.platform.json.AbstractEmitter;
 import com.bluenimble.platform.json.JsonEmitter;
 import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.json.StreamEmitter;
 
 public class JsonWriter implements DataWriter {
 
@@ -28,6 +32,31 @@ public class JsonWriter implements DataWriter {
 			return;
 		} 
 		
+		OutputStream out = null;
+		if (Encodings.UTF8.equalsIgnoreCase (charset (output))) {
+			out = response.toOutput ();
+		}
+		
+		// no byte stream available, write chunks through the response
+		if (out == null) {
+			write (json, response);
+			return;
+		}
+		
+		response.flushHeaders ();
+		
+		StreamEmitter emitter = new StreamEmitter (out);
+		try {
+			json.write (emitter);
+		} catch (UncheckedIOException ioex) {
+			throw ioex.getCause ();
+		} finally {
+			emitter.close ();
+		}
+		
+	}
+	
+	private void write (JsonObject json, final ApiResponse response) {
 		json.write (new AbstractEmitter () {
 			@Override
 			public JsonEmitter write (String chunk) {
@@ -39,7 +68,14 @@ public class JsonWriter implements DataWriter {
 				return this;
 			}
 		});
-		
+	}
+	
+	private String charset (ApiOutput output) {
+		String charset = (String)output.get (ApiOutput.Defaults.Charset);
+		if (Lang.isNullOrEmpty (charset)) {
+			return Encodings.UTF8;
+		}
+		return charset;
 	}
 
 }
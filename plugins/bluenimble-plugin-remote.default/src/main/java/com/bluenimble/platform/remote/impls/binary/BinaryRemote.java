@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import com.bluenimble.platform.Json;
 import com.bluenimble.platform.Lang;
@@ -206,6 +207,10 @@ public class BinaryRemote extends BaseRemote {
 				}
 			}
 			@Override
+			public void onError (Throwable th) throws IOException {
+				callback.onError (th instanceof TimeoutException ? Error.Timeout : Error.Other, th.getMessage ());
+			}
+			@Override
 			public void onFinish () throws IOException {
 				if (status.get () > errorCodeLimit) {
 					callback.onError (status.get (), new String (error.get ().toByteArray ()));
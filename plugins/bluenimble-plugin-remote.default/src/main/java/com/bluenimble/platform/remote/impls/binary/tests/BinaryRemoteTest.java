@@ -6,7 +6,6 @@ import java.util.Map;
 
 import com.bluenimble.platform.ValueHolder;
 import com.bluenimble.platform.json.JsonObject;
-import com.bluenimble.platform.pooling.PoolConfig;
 import com.bluenimble.platform.remote.Remote;
 import com.bluenimble.platform.remote.Remote.Callback;
 import com.bluenimble.platform.remote.impls.binary.BinaryRemote;
@@ -20,11 +19,9 @@ public class BinaryRemoteTest {
 		
 		BinaryClientFactory factory = new NettyBinaryClientFactory (
 			"localhost", 7070, 
-			new PoolConfig ()
-				.setPartitionSize (5)
-				.setMinSize (5)
-				.setMaxSize (10)
-				.setMaxIdleMilliseconds(60 * 1000 * 5)
+			(JsonObject)new JsonObject ()
+				.set (NettyBinaryClientFactory.Spec.Connections, 2)
+				.set (NettyBinaryClientFactory.Spec.Timeout, 5000)
 		);
 	
 		ValueHolder<ByteArrayOutputStream> stream = new ValueHolder<ByteArrayOutputStream> (new ByteArrayOutputStream ());
@@ -25,6 +25,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import com.bluenimble.platform.IOUtils;
 import com.bluenimble.platform.Json;
@@ -38,10 +40,14 @@ import com.bluenimble.platform.http.utils.ContentTypes;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.remote.Serializer;
 import com.bluenimble.platform.remote.impls.BaseRemote;
+import com.bluenimble.platform.remote.impls.RemoteFuture;
 import com.bluenimble.platform.remote.impls.http.bnb.AccessSecretKeysBasedHttpRequestSigner;
 import com.bluenimble.platform.remote.impls.http.oauth.OkHttpOAuthConsumer;
+import com.bluenimble.platform.remote.impls.http.policy.PolicyException;
+import com.bluenimble.platform.remote.impls.http.policy.RemotePolicy;
 import com.bluenimble.platform.templating.SimpleVariableResolver;
 
+import okhttp3.Call;
 import okhttp3.FormBody;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
@@ -61,6 +67,8 @@ public class HttpRemote extends BaseRemote {
 	public interface Pool {
 		String MaxIdleConnections = "maxIdleConnections";
 		String KeepAliveDuration = "keepAliveDuration";
+		String MaxRequests = "maxRequests";
+		String MaxRequestsPerHost = "maxRequestsPerHost";
 	}
 	
 	protected static final Map<String, MediaType> MediaTypes 	= new HashMap<String, MediaType> ();
@@ -77,15 +85,110 @@ public class HttpRemote extends BaseRemote {
 	
 	private OkHttpClient http;
 	
-	private JsonObject 	featureSpec;
+	private RequestTemplate template;
 	
-	public HttpRemote (ApiSpace space, String feature, JsonObject featureSpec, OkHttpClient http) {
-		this.featureSpec 	= featureSpec;
+	private RemotePolicy policy;
+	
+	public HttpRemote (ApiSpace space, String feature, RequestTemplate template, OkHttpClient http, RemotePolicy policy) {
+		this.template 		= template;
 		this.http 			= http;
+		this.policy 		= policy;
 	}
  
 	@Override
 	public void request (ApiVerb verb, JsonObject spec, Callback callback, ApiStreamSource... attachments) {
+		Exchange exchange = exchange (verb, spec, callback, attachments);
+		if (exchange == null) {
+			return;
+		}
+		try {
+			if (policy == null) {
+				exchange.respond (http.newCall (exchange.request).execute ());
+			} else {
+				exchange.respond (policy.execute (http, exchange.request).get ());
+			}
+		} catch (ExecutionException eex) {
+			exchange.fail (eex.getCause ());
+		} catch (Exception ex) {
+			exchange.fail (ex);
+		}
+	}
+	
+	@Override
+	public CompletableFuture<Result> postAsync (JsonObject spec, ApiStreamSource... attachments) {
+		return requestAsync (ApiVerb.POST, spec, attachments);
+	}
+
+	@Override
+	public CompletableFuture<Result> putAsync (JsonObject spec, ApiStreamSource... attachments) {
+		return requestAsync (ApiVerb.PUT, spec, attachments);
+	}
+
+	@Override
+	public CompletableFuture<Result> getAsync (JsonObject spec) {
+		return requestAsync (ApiVerb.GET, spec);
+	}
+
+	@Override
+	public CompletableFuture<Result> deleteAsync (JsonObject spec) {
+		return requestAsync (ApiVerb.DELETE, spec);
+	}
+
+	@Override
+	public CompletableFuture<Result> headAsync (JsonObject spec) {
+		return requestAsync (ApiVerb.HEAD, spec);
+	}
+
+	@Override
+	public CompletableFuture<Result> patchAsync (JsonObject spec) {
+		return requestAsync (ApiVerb.PATCH, spec);
+	}
+	
+	// enqueued on the client dispatcher, no thread is held while waiting for the response
+	private CompletableFuture<Result> requestAsync (ApiVerb verb, JsonObject spec, ApiStreamSource... attachments) {
+		RemoteFuture future = new RemoteFuture ();
+		
+		Exchange exchange = exchange (verb, spec, future, attachments);
+		if (exchange == null) {
+			return future;
+		}
+		
+		if (policy != null) {
+			policy.execute (http, exchange.request).whenComplete ((response, error) -> {
+				if (error != null) {
+					exchange.fail (error);
+					return;
+				}
+				try {
+					exchange.respond (response);
+				} catch (Exception ex) {
+					exchange.fail (ex);
+				}
+			});
+			return future;
+		}
+		
+		// the response is handled by the client dispatcher threads
+		http.newCall (exchange.request).enqueue (new okhttp3.Callback () {
+			@Override
+			public void onFailure (Call call, IOException ioex) {
+				exchange.fail (ioex);
+			}
+			@Override
+			public void onResponse (Call call, Response response) {
+				try {
+					exchange.respond (response);
+				} catch (Exception ex) {
+					exchange.fail (ex);
+				}
+			}
+		});
+		
+		return future;
+	}
+	
+	// resolves the spec and builds the signed request, null if an error was reported to the callback
+	private Exchange exchange (ApiVerb verb, JsonObject spec, Callback callback, ApiStreamSource... attachments) {
 	
 		if (http == null) {
 			try {
@@ -93,14 +196,15 @@ public class HttpRemote extends BaseRemote {
 			} catch (IOException e) {
 				throw new RuntimeException (e.getMessage (), e);
 			}
+			return null;
 		}
 		
 		JsonObject rdata = Json.getObject (spec, Spec.Data);
 		
-		if (!Json.isNullOrEmpty (featureSpec)) {
-			JsonObject master = featureSpec.duplicate ();
-			
-			Json.resolve (master, ECompiler, new SimpleVariableResolver () {
+		JsonObject callHeaders = Json.getObject (spec, Spec.Headers);
+		
+		if (template != null) {
+			JsonObject master = template.bind (new SimpleVariableResolver () {
 				private static final long serialVersionUID = 1L;
 				@Override
 				public Object resolve (String namespace, String... property) {
@@ -131,10 +235,6 @@ public class HttpRemote extends BaseRemote {
 		
 		Serializer serializer = Serializers.get (serName);
 		
-		Request request = null;
-		
-		Response response = null;
-		
 		try {
 			
 			// contentType
@@ -143,13 +243,36 @@ public class HttpRemote extends BaseRemote {
 			// resole and add headers
 			JsonObject headers = Json.getObject (spec, Spec.Headers);
 			if (!Json.isNullOrEmpty (headers)) {
-				Json.resolve (headers, ECompiler, new SimpleVariableResolver () {
-					private static final long serialVersionUID = 1L;
-					@Override
-					public Object resolve (String namespace, String... property) {
-						return Json.find (rdata, property);
+				// feature headers are already bound by the template, resolve the ones of this call
+				if (!Json.isNullOrEmpty (callHeaders)) {
+					SimpleVariableResolver vr = new SimpleVariableResolver () {
+						private static final long serialVersionUID = 1L;
+						@Override
+						public Object resolve (String namespace, String... property) {
+							return Json.find (rdata, property);
+						}
+					};
+					// headers resolving to null aren't sent
+					List<String> unresolved = null;
+					Iterator<String> hnames = callHeaders.keys ();
+					while (hnames.hasNext ()) {
+						String hn = hnames.next ();
+						Object hv = Json.resolve (headers.get (hn), ECompiler, vr);
+						if (hv != null) {
+							headers.set (hn, hv);
+						} else {
+							if (unresolved == null) {
+								unresolved = new ArrayList<String> ();
+							}
+							unresolved.add (hn);
+						}
+					}
+					if (unresolved != null) {
+						for (String hn : unresolved) {
+							headers.remove (hn);
+						}
 					}
-				});
+				}
 				Iterator<String> hnames = headers.keys ();
 				while (hnames.hasNext ()) {
 					String hn = hnames.next ();
@@ -187,7 +310,7 @@ public class HttpRemote extends BaseRemote {
 						builder.addFormDataPart (ss.name (), ss.name (), RequestBody.create (MediaType.parse (contentType), IOUtils.toByteArray (ss.stream ())));
 					} catch (Exception ex) {
 						callback.onError (Error.Other, ex.getMessage ());
-						return;
+						return null;
 					}
 				}
 			} else if (contentType.startsWith (ContentTypes.Json)) {
@@ -267,59 +390,13 @@ public class HttpRemote extends BaseRemote {
 			}
 
 			// build then sign
-			request = sign (rBuilder.build (), spec, parameters);
-			
-			response = http.newCall (request).execute ();
+			Request request = sign (rBuilder.build (), spec, parameters);
 			
-			Headers rHttpHeaders = response.headers ();
-			Set<String> hNames = rHttpHeaders.names ();
-			if (hNames != null && !hNames.isEmpty ()) {
-				Map<String, Object> cHeaders = new HashMap<String, Object> ();
-				for (String hn : hNames) {
-					cHeaders.put (hn, rHttpHeaders.get (hn));
-				}
-				callback.onStatus (response.code (), false, cHeaders);
-			}
-						
-			if (response.code () > Json.getInteger (spec, Spec.SuccessCode, 399)) {
-				callback.onError (
-					response.code (), 
-					response.body ().string ()
-				);
-				return;
-			} else {
-				callback.onDone (
-					response.code (), 
-					serializer.serialize (response.body ().byteStream ())
-				);
-				return;
-			}
+			return new Exchange (request, endpoint, serializer, Json.getInteger (spec, Spec.SuccessCode, 399), callback);
 			
-		} catch (UnknownHostException uhex) {
-			try {
-				callback.onError (Error.UnknownHost, "Endpoint " + endpoint + " can't be resolved. Check your internet connection and make sure the endpoint is correct");
-			} catch (IOException e) {
-				throw new RuntimeException (e.getMessage (), e);
-			}
-			return;
-		} catch (SocketTimeoutException stoex) {
-			try {
-				callback.onError (Error.Timeout, "Endpoint " + endpoint + " was found but " + stoex.getMessage ());
-			} catch (IOException e) {
-				throw new RuntimeException (e.getMessage (), e);
-			}
-			return;
 		} catch (Exception ex) {
-			try {
-				callback.onError (Error.Other, Lang.toError (ex));
-			} catch (IOException e) {
-				throw new RuntimeException (e.getMessage (), e);
-			}
-			return;
-		} finally {
-			if (response != null) {
-				response.close ();
-			}
+			new Exchange (null, endpoint, serializer, 0, callback).fail (ex);
+			return null;
 		}
 	}
 	
@@ -396,6 +473,68 @@ public class HttpRemote extends BaseRemote {
 		
 	}
 
+	private static class Exchange {
+		
+		private Request 	request;
+		private String 		endpoint;
+		private Serializer 	serializer;
+		private int 		successCode;
+		private Callback 	callback;
+		
+		Exchange (Request request, String endpoint, Serializer serializer, int successCode, Callback callback) {
+			this.request 		= request;
+			this.endpoint 		= endpoint;
+			this.serializer 	= serializer;
+			this.successCode 	= successCode;
+			this.callback 		= callback;
+		}
+		
+		void respond (Response response) throws Exception {
+			try {
+				Headers rHttpHeaders = response.headers ();
+				Set<String> hNames = rHttpHeaders.names ();
+				if (hNames != null && !hNames.isEmpty ()) {
+					Map<String, Object> cHeaders = new HashMap<String, Object> ();
+					for (String hn : hNames) {
+						cHeaders.put (hn, rHttpHeaders.get (hn));
+					}
+					callback.onStatus (response.code (), false, cHeaders);
+				}
+							
+				if (response.code () > successCode) {
+					callback.onError (
+						response.code (), 
+						response.body ().string ()
+					);
+				} else {
+					callback.onDone (
+						response.code (), 
+						serializer.serialize (response.body ().byteStream ())
+					);
+				}
+			} finally {
+				response.close ();
+			}
+		}
+		
+		void fail (Throwable ex) {
+			try {
+				if (ex instanceof PolicyException) {
+					callback.onError (((PolicyException)ex).code (), ex.getMessage ());
+				} else if (ex instanceof UnknownHostException) {
+					callback.onError (Error.UnknownHost, "Endpoint " + endpoint + " can't be resolved. Check your internet connection and make sure the endpoint is correct");
+				} else if (ex instanceof SocketTimeoutException) {
+					callback.onError (Error.Timeout, "Endpoint " + endpoint + " was found but " + ex.getMessage ());
+				} else {
+					callback.onError (Error.Other, Lang.toError (ex));
+				}
+			} catch (IOException e) {
+				throw new RuntimeException (e.getMessage (), e);
+			}
+		}
+		
+	}
+
 	@Override
 	public void finish () {
 	}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.remote.impls.http;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.templating.Expression;
+import com.bluenimble.platform.templating.ExpressionCompiler;
+import com.bluenimble.platform.templating.ScriptNode;
+import com.bluenimble.platform.templating.VariableNode;
+import com.bluenimble.platform.templating.VariableResolver;
+import com.bluenimble.platform.templating.impls.DefaultExpressionCompiler;
+
+/**
+ * A remote feature spec compiled once. 
+ * 
+ * Values without variables are evaluated at compile time, the others keep their compiled expression. 
+ * Binding builds a fresh spec (objects and arrays, values are shared) the same way Json.resolve does on a copy of the feature spec.
+ */
+public class RequestTemplate {
+
+	private static final ExpressionCompiler Compiler 		= new DefaultExpressionCompiler ().cacheSize (0);
+	
+	private static final String 			CastSeparator 	= ">>";
+	
+	private JsonObject 	source;
+	private Slot 		root;
+	
+	public RequestTemplate (JsonObject source) {
+		this.source = source;
+		this.root 	= compile (source);
+	}
+	
+	public JsonObject source () {
+		return source;
+	}
+	
+	public JsonObject bind (VariableResolver vr) {
+		return (JsonObject)root.bind (vr);
+	}
+	
+	private static Slot compile (Object value) {
+		if (value instanceof JsonObject) {
+			JsonObject object = (JsonObject)value;
+			Map<String, Slot> slots = new LinkedHashMap<String, Slot> ();
+			Iterator<String> keys = object.keys ();
+			while (keys.hasNext ()) {
+				String key = keys.next ();
+				slots.put (key, compile (object.get (key)));
+			}
+			return new ObjectSlot (slots);
+		} 
+		if (value instanceof JsonArray) {
+			JsonArray array = (JsonArray)value;
+			List<Slot> slots = new ArrayList<Slot> (array.count ());
+			for (int i = 0; i < array.count (); i++) {
+				slots.add (compile (array.get (i)));
+			}
+			return new ArraySlot (slots);
+		}
+		
+		String text = String.valueOf (value);
+		if (Lang.isNullOrEmpty (text)) {
+			return new ValueSlot (value);
+		}
+		
+		Expression expression = Compiler.compile (text, null);
+		
+		// casts build new values (json), keep them per call
+		if (text.contains (CastSeparator)) {
+			return new ExpressionSlot (expression);
+		}
+		for (int i = 0; i < expression.nodes (); i++) {
+			if (expression.node (i) instanceof VariableNode || expression.node (i) instanceof ScriptNode) {
+				return new ExpressionSlot (expression);
+			}
+		}
+		return new ValueSlot (expression.eval (null));
+	}
+	
+	interface Slot {
+		Object bind (VariableResolver vr);
+	}
+	
+	static class ValueSlot implements Slot {
+		private Object value;
+		ValueSlot (Object value) {
+			this.value = value;
+		}
+		@Override
+		public Object bind (VariableResolver vr) {
+			return value;
+		}
+	}
+	
+	static class ExpressionSlot implements Slot {
+		private Expression expression;
+		ExpressionSlot (Expression expression) {
+			this.expression = expression;
+		}
+		@Override
+		public Object bind (VariableResolver vr) {
+			return expression.eval (vr);
+		}
+	}
+	
+	static class ObjectSlot implements Slot {
+		private Map<String, Slot> slots;
+		ObjectSlot (Map<String, Slot> slots) {
+			this.slots = slots;
+		}
+		@Override
+		public Object bind (VariableResolver vr) {
+			JsonObject object = new JsonObject ();
+			for (Map.Entry<String, Slot> entry : slots.entrySet ()) {
+				Object value = entry.getValue ().bind (vr);
+				if (value != null) {
+					object.set (entry.getKey (), value);
+				}
+			}
+			return object;
+		}
+	}
+	
+	static class ArraySlot implements Slot {
+		private List<Slot> slots;
+		ArraySlot (List<Slot> slots) {
+			this.slots = slots;
+		}
+		@Override
+		public Object bind (VariableResolver vr) {
+			JsonArray array = new JsonArray ();
+			for (Slot slot : slots) {
+				array.add (slot.bind (vr));
+			}
+			return array;
+		}
+	}
+	
+}
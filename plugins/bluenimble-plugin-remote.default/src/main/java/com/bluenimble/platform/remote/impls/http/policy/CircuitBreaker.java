@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.remote.impls.http.policy;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Per endpoint circuit breaker.
+ * 
+ * Opens after 'failures' consecutive failed calls and rejects calls for 'openFor' milliseconds.
+ * Then it lets up to 'probes' calls through (half open), the first success closes it, a failure opens it again.
+ */
+public class CircuitBreaker {
+
+	interface Spec {
+		String Failures = "failures";
+		String OpenFor 	= "openFor";
+		String Probes 	= "probes";
+	}
+	
+	enum State {
+		Closed,
+		Open,
+		HalfOpen
+	}
+	
+	private int 	threshold;
+	private long 	openFor;
+	private int 	probes;
+	
+	// guarded by this
+	private State 	state = State.Closed;
+	private int 	failures;
+	private long 	openedAt;
+	private int 	probing;
+	
+	public CircuitBreaker (JsonObject spec) {
+		threshold 	= Json.getInteger (spec, Spec.Failures, 5);
+		openFor 	= Json.getLong (spec, Spec.OpenFor, 30000);
+		probes 		= Json.getInteger (spec, Spec.Probes, 1);
+	}
+	
+	public synchronized boolean allow () {
+		switch (state) {
+			case Closed:
+				return true;
+			case Open:
+				if (System.currentTimeMillis () - openedAt < openFor) {
+					return false;
+				}
+				state 	= State.HalfOpen;
+				probing = 0;
+			case HalfOpen:
+				if (probing >= probes) {
+					return false;
+				}
+				probing++;
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	public synchronized boolean isClosed () {
+		return state == State.Closed;
+	}
+	
+	public synchronized void success () {
+		failures 	= 0;
+		state 		= State.Closed;
+	}
+	
+	public synchronized void failure () {
+		failures++;
+		if (state == State.HalfOpen || (state == State.Closed && failures >= threshold)) {
+			state 		= State.Open;
+			openedAt 	= System.currentTimeMillis ();
+		}
+	}
+	
+}
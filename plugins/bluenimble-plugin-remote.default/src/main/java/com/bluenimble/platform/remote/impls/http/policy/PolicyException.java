@@ -14,35 +14,23 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.bluenimble.platform.tools.binary.impls.netty.pool;
+package com.bluenimble.platform.remote.impls.http.policy;
 
-import com.bluenimble.platform.pooling.ObjectFactory;
-import com.bluenimble.platform.tools.binary.BinaryClient;
-import com.bluenimble.platform.tools.binary.impls.netty.NettyBinaryClient;
+import java.io.IOException;
 
-public class BinaryClientPoolFactory implements ObjectFactory<BinaryClient> {
-	
-	private String 	host;
-	private int 	port;
+public class PolicyException extends IOException {
+
+	private static final long serialVersionUID = 6425817739581650171L;
+
+	private int code;
 	
-	public BinaryClientPoolFactory (String host, int port) {
-		this.host = host;
-		this.port = port;
+	public PolicyException (int code, String message) {
+		super (message);
+		this.code = code;
 	}
 	
-	@Override
-	public BinaryClient create () {
-		return new NettyBinaryClient (host, port);
-	}
-
-	@Override
-	public void destroy (BinaryClient client) {
-		((NettyBinaryClient)client).destroy ();
+	public int code () {
+		return code;
 	}
-
-	@Override
-	public boolean validate (BinaryClient client) {
-		return true;
-	}
-
+	
 }
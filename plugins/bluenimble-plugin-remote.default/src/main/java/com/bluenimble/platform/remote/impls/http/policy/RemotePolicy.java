@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.remote.impls.http.policy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.api.ApiVerb;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.remote.Remote;
+import com.bluenimble.platform.server.metrics.LatencyHistogram;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Resilience policy of an http remote feature. Each block is optional.
+ * 
+ * "policy": {
+ * 		"idempotent": ["GET", "HEAD", "PUT", "DELETE", "OPTIONS"],
+ * 		"retry": { "max": 2, "backoff": 100, "maxBackoff": 2000, "on": [502, 503, 504] },
+ * 		"hedge": { "percentile": 95, "minDelay": 20 },
+ * 		"breaker": { "failures": 5, "openFor": 30000, "probes": 1 },
+ * 		"bulkhead": { "limit": 32, "wait": 0 }
+ * }
+ * 
+ * Retries (full jitter exponential backoff) and hedged requests apply to idempotent verbs only. 
+ * A hedged request is sent if the first one didn't respond after the 'percentile' latency of the endpoint, the first response wins.
+ * The circuit breaker is per endpoint (scheme, host and port), the bulkhead limits the in-flight calls of the feature.
+ */
+public class RemotePolicy {
+
+	interface Spec {
+		String Enabled 		= "enabled";
+		String Idempotent 	= "idempotent";
+		
+		String Retry 		= "retry";
+			String Max 			= "max";
+			String Backoff 		= "backoff";
+			String MaxBackoff 	= "maxBackoff";
+			String On 			= "on";
+			
+		String Hedge 		= "hedge";
+			String Percentile 	= "percentile";
+			String MinDelay 	= "minDelay";
+			
+		String Breaker 		= "breaker";
+		
+		String Bulkhead 	= "bulkhead";
+			String Limit 		= "limit";
+			String Wait 		= "wait";
+	}
+	
+	private static final int 	HedgeWindow 	= 1000;
+	private static final long 	HedgeRefresh 	= 1000;
+	
+	private Set<String> 			idempotent 	= new HashSet<String> ();
+	
+	private int 					retries;
+	private long 					backoff;
+	private long 					maxBackoff;
+	private Set<Integer> 			retryOn 	= new HashSet<Integer> ();
+	
+	private boolean 				hedge;
+	private double 					percentile;
+	private long 					minDelay;
+	
+	private JsonObject 				breaker;
+	
+	private Semaphore 				bulkhead;
+	private long 					bulkheadWait;
+	
+	private Map<String, Endpoint> 	endpoints 	= new ConcurrentHashMap<String, Endpoint> ();
+	
+	private ScheduledExecutorService scheduler;
+	
+	public static RemotePolicy create (JsonObject spec) {
+		if (Json.isNullOrEmpty (spec) || !Json.getBoolean (spec, Spec.Enabled, true)) {
+			return null;
+		}
+		return new RemotePolicy (spec);
+	}
+	
+	public RemotePolicy (JsonObject spec) {
+		
+		JsonArray aIdempotent = Json.getArray (spec, Spec.Idempotent);
+		if (aIdempotent == null) {
+			for (ApiVerb verb : new ApiVerb [] { ApiVerb.GET, ApiVerb.HEAD, ApiVerb.PUT, ApiVerb.DELETE, ApiVerb.OPTIONS }) {
+				idempotent.add (verb.name ());
+			}
+		} else {
+			for (int i = 0; i < aIdempotent.count (); i++) {
+				idempotent.add (String.valueOf (aIdempotent.get (i)).toUpperCase ());
+			}
+		}
+		
+		JsonObject oRetry = section (spec, Spec.Retry);
+		if (oRetry != null) {
+			retries 	= Json.getInteger (oRetry, Spec.Max, 2);
+			backoff 	= Json.getLong (oRetry, Spec.Backoff, 100);
+			maxBackoff 	= Json.getLong (oRetry, Spec.MaxBackoff, 2000);
+			JsonArray aOn = Json.getArray (oRetry, Spec.On);
+			if (aOn == null) {
+				retryOn.add (502);
+				retryOn.add (503);
+				retryOn.add (504);
+			} else {
+				for (int i = 0; i < aOn.count (); i++) {
+					retryOn.add (Integer.valueOf (String.valueOf (aOn.get (i))));
+				}
+			}
+		}
+		
+		JsonObject oHedge = section (spec, Spec.Hedge);
+		if (oHedge != null) {
+			hedge 		= true;
+			percentile 	= Json.getDouble (oHedge, Spec.Percentile, 95);
+			minDelay 	= Json.getLong (oHedge, Spec.MinDelay, 20);
+		}
+		
+		breaker = section (spec, Spec.Breaker);
+		
+		JsonObject oBulkhead = section (spec, Spec.Bulkhead);
+		if (oBulkhead != null) {
+			bulkhead 		= new Semaphore (Json.getInteger (oBulkhead, Spec.Limit, 32));
+			bulkheadWait 	= Json.getLong (oBulkhead, Spec.Wait, 0);
+		}
+		
+		if (retries > 0 || hedge) {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor (1, r -> {
+				Thread thread = new Thread (r, "remote-policy");
+				thread.setDaemon (true);
+				return thread;
+			});
+			executor.setRemoveOnCancelPolicy (true);
+			scheduler = executor;
+		}
+	}
+	
+	// the bulkhead permit is taken on the calling thread, waiting at most 'wait' milliseconds
+	public CompletableFuture<Response> execute (OkHttpClient http, Request request) {
+		CompletableFuture<Response> result = new CompletableFuture<Response> ();
+		
+		if (bulkhead != null) {
+			boolean acquired = false;
+			try {
+				acquired = bulkheadWait > 0 ? bulkhead.tryAcquire (bulkheadWait, TimeUnit.MILLISECONDS) : bulkhead.tryAcquire ();
+			} catch (InterruptedException iex) {
+				Thread.currentThread ().interrupt ();
+			}
+			if (!acquired) {
+				result.completeExceptionally (new PolicyException (Remote.Error.Rejected, "too many concurrent calls to " + key (request.url ())));
+				return result;
+			}
+			result.whenComplete ((response, error) -> bulkhead.release ());
+		}
+		
+		new Attempt (http, request, endpoint (request.url ()), idempotent.contains (request.method ()), 0, result).start ();
+		
+		return result;
+	}
+	
+	public void shutdown () {
+		if (scheduler != null) {
+			scheduler.shutdownNow ();
+		}
+	}
+	
+	private Endpoint endpoint (HttpUrl url) {
+		return endpoints.computeIfAbsent (key (url), k -> new Endpoint ());
+	}
+	
+	private String key (HttpUrl url) {
+		return url.scheme () + "://" + url.host () + ":" + url.port ();
+	}
+	
+	private long backoff (int attempt) {
+		long ceiling = Math.min (maxBackoff, backoff << Math.min (attempt, 20));
+		return ThreadLocalRandom.current ().nextLong (ceiling + 1);
+	}
+	
+	private static JsonObject section (JsonObject spec, String name) {
+		JsonObject section = Json.getObject (spec, name);
+		if (Json.isNullOrEmpty (section) || !Json.getBoolean (section, Spec.Enabled, true)) {
+			return null;
+		}
+		return section;
+	}
+	
+	class Endpoint {
+		
+		CircuitBreaker 		breaker 	= RemotePolicy.this.breaker == null ? null : new CircuitBreaker (RemotePolicy.this.breaker);
+		LatencyHistogram 	latencies 	= hedge ? new LatencyHistogram () : null;
+		
+		volatile long 		hedgeDelay 	= -1;
+		volatile long 		refreshedAt;
+		
+		boolean allow () {
+			return breaker == null || breaker.allow ();
+		}
+		
+		void record (long nanos) {
+			if (latencies != null) {
+				latencies.record (nanos);
+			}
+		}
+		
+		void outcome (boolean success) {
+			if (breaker == null) {
+				return;
+			}
+			if (success) {
+				breaker.success ();
+			} else {
+				breaker.failure ();
+			}
+		}
+		
+		// no hedging until the endpoint has enough samples, the percentile is recomputed every second over a sliding window
+		long hedgeDelay () {
+			long now = System.currentTimeMillis ();
+			if (now - refreshedAt >= HedgeRefresh) {
+				refreshedAt = now;
+				long count = latencies.count ();
+				hedgeDelay = count < 20 ? -1 : Math.max (minDelay, (long)Math.ceil (latencies.percentile (percentile)));
+				if (count > HedgeWindow) {
+					latencies.reset ();
+				}
+			}
+			return hedgeDelay;
+		}
+		
+	}
+	
+	class Attempt {
+		
+		private OkHttpClient 				http;
+		private Request 					request;
+		private Endpoint 					endpoint;
+		private boolean 					idempotent;
+		private int 						attempt;
+		private CompletableFuture<Response> result;
+		
+		// guarded by this
+		private List<Call> 					calls 		= new ArrayList<Call> (2);
+		private int 						pending;
+		private boolean 					settled;
+		private ScheduledFuture<?> 			hedging;
+		
+		Attempt (OkHttpClient http, Request request, Endpoint endpoint, boolean idempotent, int attempt, CompletableFuture<Response> result) {
+			this.http 		= http;
+			this.request 	= request;
+			this.endpoint 	= endpoint;
+			this.idempotent = idempotent;
+			this.attempt 	= attempt;
+			this.result 	= result;
+		}
+		
+		void start () {
+			if (!endpoint.allow ()) {
+				result.completeExceptionally (new PolicyException (Remote.Error.CircuitOpen, "circuit open for " + key (request.url ())));
+				return;
+			}
+			launch ();
+			if (!hedge || !idempotent) {
+				return;
+			}
+			long delay = endpoint.hedgeDelay ();
+			if (delay < 0) {
+				return;
+			}
+			synchronized (this) {
+				if (!settled) {
+					hedging = scheduler.schedule (() -> {
+						if (endpoint.breaker == null || endpoint.breaker.isClosed ()) {
+							launch ();
+						}
+					}, delay, TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+		
+		private synchronized void launch () {
+			if (settled) {
+				return;
+			}
+			Call call = http.newCall (request);
+			calls.add (call);
+			pending++;
+			final long start = System.nanoTime ();
+			call.enqueue (new Callback () {
+				@Override
+				public void onFailure (Call call, IOException ioex) {
+					failed (call, ioex);
+				}
+				@Override
+				public void onResponse (Call call, Response response) throws IOException {
+					endpoint.record (System.nanoTime () - start);
+					responded (call, response);
+				}
+			});
+		}
+		
+		private void failed (Call call, IOException ioex) {
+			synchronized (this) {
+				pending--;
+				if (settled || pending > 0) {
+					// a hedged call is still running
+					return;
+				}
+				settle (call);
+			}
+			endpoint.outcome (false);
+			if (idempotent && attempt < retries) {
+				retry ();
+				return;
+			}
+			result.completeExceptionally (ioex);
+		}
+		
+		private void responded (Call call, Response response) {
+			synchronized (this) {
+				pending--;
+				if (settled) {
+					response.close ();
+					return;
+				}
+				settle (call);
+			}
+			endpoint.outcome (response.code () < 500);
+			if (idempotent && attempt < retries && retryOn.contains (response.code ())) {
+				response.close ();
+				retry ();
+				return;
+			}
+			result.complete (response);
+		}
+		
+		// first outcome wins, cancel the other calls
+		private void settle (Call winner) {
+			settled = true;
+			if (hedging != null) {
+				hedging.cancel (false);
+			}
+			for (Call call : calls) {
+				if (call != winner) {
+					call.cancel ();
+				}
+			}
+		}
+		
+		private void retry () {
+			Attempt next = new Attempt (http, request, endpoint, idempotent, attempt + 1, result);
+			try {
+				scheduler.schedule (next::start, backoff (attempt), TimeUnit.MILLISECONDS);
+			} catch (Exception ex) {
+				// policy shutdown
+				result.completeExceptionally (ex);
+			}
+		}
+		
+	}
+	
+}
@@ -44,11 +44,12 @@ import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.Plugin;
 import com.bluenimble.platform.plugins.PluginRegistryException;
 import com.bluenimble.platform.plugins.impls.AbstractPlugin;
-import com.bluenimble.platform.pooling.PoolConfig;
 import com.bluenimble.platform.remote.Remote;
 import com.bluenimble.platform.remote.Remote.Spec;
 import com.bluenimble.platform.remote.impls.binary.BinaryRemote;
 import com.bluenimble.platform.remote.impls.http.HttpRemote;
+import com.bluenimble.platform.remote.impls.http.RequestTemplate;
+import com.bluenimble.platform.remote.impls.http.policy.RemotePolicy;
 import com.bluenimble.platform.security.SslUtils;
 import com.bluenimble.platform.security.SslUtils.StoreSource;
 import com.bluenimble.platform.server.ApiServer;
@@ -59,6 +60,7 @@ import com.bluenimble.platform.tools.binary.BinaryClientFactory;
 import com.bluenimble.platform.tools.binary.impls.netty.NettyBinaryClientFactory;
 
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 
 public class RemotePlugin extends AbstractPlugin {
@@ -132,7 +134,8 @@ public class RemotePlugin extends AbstractPlugin {
 					);
 				} else {
 					JsonObject featureSpec = (JsonObject)Json.find (space.getFeatures (), feature, name, ApiSpace.Features.Spec);
-					return new HttpRemote (space, name, featureSpec, (OkHttpClient)((RecyclableHttpClient)recyclable).client ());
+					RecyclableHttpClient client = (RecyclableHttpClient)recyclable;
+					return new HttpRemote (space, name, client.template (featureSpec), client.client (), client.policy ());
 				}
 				
 			}
@@ -247,6 +250,12 @@ public class RemotePlugin extends AbstractPlugin {
 			)
 		);
 		
+		// concurrent async requests
+		Dispatcher dispatcher = new Dispatcher ();
+		dispatcher.setMaxRequests (Json.getInteger (pool, HttpRemote.Pool.MaxRequests, 64));
+		dispatcher.setMaxRequestsPerHost (Json.getInteger (pool, HttpRemote.Pool.MaxRequestsPerHost, 16));
+		builder.dispatcher (dispatcher);
+		
 		// ssl
 		JsonObject oSsl = Json.getObject (spec, Remote.Spec.KeyStore);
 		
@@ -267,7 +276,7 @@ public class RemotePlugin extends AbstractPlugin {
 		
 		if (Json.isNullOrEmpty (oProxy)) {
 			http = builder.build ();
-			space.addRecyclable (recyclableKey, new RecyclableHttpClient (http));
+			space.addRecyclable (recyclableKey, new RecyclableHttpClient (http, spec));
 			return;
 		}
 		
@@ -282,7 +291,7 @@ public class RemotePlugin extends AbstractPlugin {
 		int port 	= Json.getInteger 	(oProxy, Spec.ProxyPort, 0);
 		if (Lang.isNullOrEmpty (host) || port == 0) {
 			http = builder.build ();
-			space.addRecyclable (recyclableKey, new RecyclableHttpClient (http));
+			space.addRecyclable (recyclableKey, new RecyclableHttpClient (http, spec));
 			return;
 		}
 		
@@ -292,7 +301,7 @@ public class RemotePlugin extends AbstractPlugin {
 			removeClient (space, name);
 		}
 		
-		space.addRecyclable (recyclableKey, new RecyclableHttpClient (http));
+		space.addRecyclable (recyclableKey, new RecyclableHttpClient (http, spec));
 		
 	}
 	
@@ -315,7 +324,7 @@ public class RemotePlugin extends AbstractPlugin {
 		space.addRecyclable (
 			recyclableKey, 
 			new RecyclableBinaryClientFactory (
-				new NettyBinaryClientFactory (host, port, new PoolConfig (Json.getObject (spec, Remote.Spec.Pool)))
+				new NettyBinaryClientFactory (host, port, Json.getObject (spec, Remote.Spec.Pool))
 			)
 		);
 	}
@@ -419,9 +428,14 @@ public class RemotePlugin extends AbstractPlugin {
 		private static final long serialVersionUID = 50882416501226306L;
 
 		private OkHttpClient httpClient;
+		private RemotePolicy policy;
+		
+		private volatile RequestTemplate template;
 		
-		public RecyclableHttpClient (OkHttpClient httpClient) {
+		public RecyclableHttpClient (OkHttpClient httpClient, JsonObject spec) {
 			this.httpClient = httpClient;
+			this.policy 	= RemotePolicy.create (Json.getObject (spec, Remote.Spec.Policy));
+			this.template 	= template (spec);
 		}
 		
 		@Override
@@ -430,6 +444,9 @@ public class RemotePlugin extends AbstractPlugin {
 
 		@Override
 		public void recycle () {
+			if (policy != null) {
+				policy.shutdown ();
+			}
 			try {
 				httpClient.dispatcher ().executorService ().shutdown ();
 				httpClient.connectionPool().evictAll ();
@@ -443,6 +460,23 @@ public class RemotePlugin extends AbstractPlugin {
 			return httpClient;
 		}
 		
+		public RemotePolicy policy () {
+			return policy;
+		}
+		
+		// compiled once, recompiled only if the feature spec was replaced
+		public RequestTemplate template (JsonObject featureSpec) {
+			if (Json.isNullOrEmpty (featureSpec)) {
+				return null;
+			}
+			RequestTemplate template = this.template;
+			if (template == null || template.source () != featureSpec) {
+				template = new RequestTemplate (featureSpec);
+				this.template = template;
+			}
+			return template;
+		}
+		
 	}
 	
 }
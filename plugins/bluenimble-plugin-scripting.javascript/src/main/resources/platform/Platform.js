@@ -78,6 +78,8 @@ var JC_Messenger_Callback	= Java.type ('com.bluenimble.platform.messaging.Callba
 var JC_Sender_Callbacks		= Java.type ('com.bluenimble.platform.messaging.Sender.Callbacks');
 
 var JC_Remote_Callback		= Java.type ('com.bluenimble.platform.remote.Remote.Callback');
+var JC_CompletableFuture	= Java.type ('java.util.concurrent.CompletableFuture');
+var JC_TimeUnit				= Java.type ('java.util.concurrent.TimeUnit');
 
 var JC_Converters 			= Java.type ('com.bluenimble.platform.server.plugins.scripting.utils.Converters');
 
@@ -216,6 +216,79 @@ var Remote = function (proxy) {
 		);
 	};
 	
+	/**	
+	  Send a request without waiting for the response. Each verb has an async variant 
+	  (getAsync, postAsync, putAsync, deleteAsync, headAsync and patchAsync) returning a future to pass to Remote.all
+	  @param {Object} - request spec
+	  @param {Array} - attachments (postAsync and putAsync only)
+	  @example
+	  
+	  var remote = api.remote (request);
+	  
+	  var results = remote.all ([
+	  	remote.getAsync ({ endpoint: 'https://users.myserver.com/123456789' }),
+	  	remote.getAsync ({ endpoint: 'https://orders.myserver.com/?user=123456789' })
+	  ], 5000);
+	  
+	  if (!results [0].failed) {
+	  	api.logger.info (results [0].status + ': ' + results [0].data);
+	  }
+	*/
+	this.getAsync = function (spec) {
+		return proxy.getAsync (JC_Converters.convert (spec));
+	};
+	
+	this.postAsync = function (spec, attachments) {
+		return proxy.postAsync (JC_Converters.convert (spec), toJavaAttachments (attachments));
+	};
+	
+	this.putAsync = function (spec, attachments) {
+		return proxy.putAsync (JC_Converters.convert (spec), toJavaAttachments (attachments));
+	};
+	
+	this.deleteAsync = function (spec) {
+		return proxy.deleteAsync (JC_Converters.convert (spec));
+	};
+	
+	this.headAsync = function (spec) {
+		return proxy.headAsync (JC_Converters.convert (spec));
+	};
+	
+	this.patchAsync = function (spec) {
+		return proxy.patchAsync (JC_Converters.convert (spec));
+	};
+	
+	/**	
+	  Wait for all the futures returned by the async calls, the requests run in parallel
+	  @param {Array} - futures
+	  @param {Number} - optional timeout in milliseconds
+	  @returns {Array} results in the order of the futures, each having status, headers, data and failed
+	*/
+	this.all = function (futures, timeout) {
+		var results = [];
+		if (!futures || !futures.length || futures.length <= 0) {
+			return results;
+		}
+		
+		var all = JC_CompletableFuture.allOf (Java.to (futures, 'java.util.concurrent.CompletableFuture[]'));
+		if (timeout) {
+			all.get (timeout, JC_TimeUnit.MILLISECONDS);
+		} else {
+			all.get ();
+		}
+		
+		for (var i = 0; i < futures.length; i++) {
+			var result = futures [i].get ();
+			results.push ({
+				status: result.status (),
+				headers: result.headers (),
+				data: result.data (),
+				failed: result.failed ()
+			});
+		}
+		return results;
+	};
+	
 	this._callback = function (callback) {
 		if (!callback) {
 			callback = NoCallback;
@@ -57,7 +57,7 @@ public class DefaultTracer implements Tracer {
 	@Override
 	public void log (Level level, Object o, Throwable th) {
 		
-		if (Log4JTracerPlugin.ShuttingDown) {
+		if (Log4JTracerPlugin.ShuttingDown || !isEnabled (level)) {
 			return;
 		}
 		
@@ -93,7 +93,7 @@ public class DefaultTracer implements Tracer {
 	@Override
 	public void log (Level level, Object o, Object... args) {
 		
-		if (Log4JTracerPlugin.ShuttingDown) {
+		if (Log4JTracerPlugin.ShuttingDown || !isEnabled (level)) {
 			return;
 		}
 		
@@ -197,12 +197,10 @@ public class DefaultTracer implements Tracer {
 		// add namespace, reques and api to the context
 		ThreadContext.put (Fields.Namespace, namespace);
 		
-		if (Thread.currentThread () instanceof SpaceThread) {
-			ApiRequest request = ((SpaceThread)Thread.currentThread ()).getRequest ();
-			if (request != null) {
-				ThreadContext.put (Fields.Api, request.getApi ());
-				ThreadContext.put (Fields.Request, request.getId ());
-			}
+		ApiRequest request = SpaceThread.current ();
+		if (request != null) {
+			ThreadContext.put (Fields.Api, request.getApi ());
+			ThreadContext.put (Fields.Request, request.getId ());
 		}
 	}
 	
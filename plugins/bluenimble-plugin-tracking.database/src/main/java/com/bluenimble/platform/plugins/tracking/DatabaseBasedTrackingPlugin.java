@@ -17,6 +17,7 @@
 package com.bluenimble.platform.plugins.tracking;
 
 import com.bluenimble.platform.Json;
+import com.bluenimble.platform.api.tracing.Tracer;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.impls.AbstractPlugin;
 import com.bluenimble.platform.server.ApiServer;
@@ -29,23 +30,38 @@ public class DatabaseBasedTrackingPlugin extends AbstractPlugin {
 	interface Spec {
 		String Name 			= "name";
 		String Capacity 		= "capacity";
-		String MinThreads 		= "minThreads";
-		String MaxThreads 		= "maxThreads";
-		String KeepAliveTime 	= "keepAliveTime";
+		String BatchSize 		= "batchSize";
+		// milliseconds
+		String FlushInterval 	= "flushInterval";
+		// milliseconds a request thread waits for room in a full buffer
+		String OfferTimeout 	= "offerTimeout";
+		String Flushers 		= "flushers";
 	}
 	
 	private JsonObject tracker;
+	
+	private DatabaseApiRequestTracker rTracker;
 
 	@Override
 	public void init (ApiServer server) throws Exception {
-		DatabaseApiRequestTracker rTracker = new DatabaseApiRequestTracker (
-			Json.getInteger (tracker, Spec.Capacity, 100),
-			Json.getInteger (tracker, Spec.MinThreads, 5),
-			Json.getInteger (tracker, Spec.MaxThreads, 10),
-			Json.getInteger (tracker, Spec.KeepAliveTime, 30)
+		rTracker = new DatabaseApiRequestTracker (
+			Json.getInteger (tracker, Spec.Capacity, 10000),
+			Json.getInteger (tracker, Spec.BatchSize, 500),
+			Json.getLong (tracker, Spec.FlushInterval, 1000),
+			Json.getLong (tracker, Spec.OfferTimeout, 0),
+			Json.getInteger (tracker, Spec.Flushers, 1)
 		);
 		server.addRequestTracker (Json.getString (tracker, Spec.Name), rTracker);
 	}
+	
+	@Override
+	public void kill () {
+		if (rTracker != null) {
+			rTracker.shutdown ();
+			tracer ().log (Tracer.Level.Info, "Request tracker stopped {0}", rTracker.describe ());
+		}
+		super.kill ();
+	}
 
 	public JsonObject getTracker () {
 		return tracker;
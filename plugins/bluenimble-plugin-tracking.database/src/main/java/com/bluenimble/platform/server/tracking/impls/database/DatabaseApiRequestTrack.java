@@ -25,12 +25,7 @@ import com.bluenimble.platform.api.Api;
 import com.bluenimble.platform.api.ApiRequest;
 import com.bluenimble.platform.api.ApiResponse;
 import com.bluenimble.platform.api.ApiService;
-import com.bluenimble.platform.api.ApiSpace;
 import com.bluenimble.platform.api.security.ApiConsumer;
-import com.bluenimble.platform.api.tracing.Tracer;
-import com.bluenimble.platform.db.Database;
-import com.bluenimble.platform.db.DatabaseException;
-import com.bluenimble.platform.db.DatabaseObject;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.server.tracking.ServerRequestTrack;
 import com.sun.management.ThreadMXBean;
@@ -42,13 +37,6 @@ public class DatabaseApiRequestTrack implements ServerRequestTrack {
 	
 	private static final ThreadMXBean 	MX = (ThreadMXBean)ManagementFactory.getThreadMXBean ();
 	
-	private static final String 		DefaultEntity 	= "ApiRequests";
-
-	interface Spec {
-		String Entity 	= "entity";
-		String Feature 	= "feature";
-	}
-	
 	interface Fields {
 		String Service = "service";
 		interface Time {
@@ -158,49 +146,11 @@ public class DatabaseApiRequestTrack implements ServerRequestTrack {
 		    metrics.set (Fields.Metrics.Memory, MX.getThreadAllocatedBytes (Thread.currentThread ().getId ()));
 	    }
 
-	    try {
-		    tracker.executor ().execute (
-				new Runnable () {
-					@Override
-					public void run () {
-					    // shrink
-						track.shrink ();
-						
-						JsonObject oTracking = api.getTracking ();
-						
-						// put
-						Database db = null;
-						try {
-							
-							db = api.space ().feature (
-								Database.class, 
-								Json.getString (oTracking, Spec.Feature, ApiSpace.Features.Default), 
-								tracker.context ()
-							);
-							
-							if (db == null) {
-								api.tracer ().log (Tracer.Level.Error, "CantStore[{0}] due to database declared in the api is not defined at the space level", track.toString ());
-								return;
-							}
-							
-							// put
-							
-							DatabaseObject entity = db.create (Json.getString (oTracking, Spec.Entity, DefaultEntity));
-							entity.load (track);
-							entity.save ();
-							
-						} catch (DatabaseException e) {
-							api.tracer ().log (Tracer.Level.Error, "CantStore[{0}] due to {1}", track.toString (), e.getMessage ());
-							api.tracer ().log (Tracer.Level.Error, Lang.BLANK, e);
-						} finally {
-							if (db != null) { db.recycle ();}
-						}
-					}
-				}	
-			);
-		} catch (Exception ex) {
-			api.tracer ().log (Tracer.Level.Error, Lang.BLANK, ex);
-	    }
+	    // shrink
+	    track.shrink ();
+	    
+	    // buffered, written in bulk by the tracker. dropped if the buffer stays full
+	    tracker.writer ().offer (api, track);
 
 	}
 
@@ -16,14 +16,9 @@
  */
 package com.bluenimble.platform.server.tracking.impls.database;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-
 import com.bluenimble.platform.api.Api;
-import com.bluenimble.platform.api.ApiContext;
 import com.bluenimble.platform.api.ApiRequest;
+import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.server.tracking.ServerRequestTrack;
 import com.bluenimble.platform.server.tracking.ServerRequestTracker;
 
@@ -31,34 +26,13 @@ public class DatabaseApiRequestTracker implements ServerRequestTracker {
 
 	private static final long serialVersionUID = 393416228007740651L;
 	
-	protected int capacity 		= 100;
-	protected int minThreads 	= 5;
-	protected int maxThreads 	= 10;
-	protected int keepAliveTime = 30;
-	
 	private ThreadGroup threadGroup = new ThreadGroup ("RequestTracker");
 	
-	private TrackingExecutor executor;
+	private transient DatabaseTrackWriter writer;
 
-	public DatabaseApiRequestTracker (int capacity, int minThreads, int maxThreads, int keepAliveTime) {
+	public DatabaseApiRequestTracker (int capacity, int batchSize, long flushInterval, long offerTimeout, int flushers) {
 		threadGroup.setMaxPriority (Thread.MIN_PRIORITY);
-		this.capacity 		= capacity;
-		this.minThreads 	= minThreads;
-		this.maxThreads 	= maxThreads;
-		this.keepAliveTime 	= keepAliveTime;
-		
-		executor = new TrackingExecutor ();
-	}
-	
-	class TrackingExecutor extends ThreadPoolExecutor {
-		public TrackingExecutor () {
-			super (minThreads, maxThreads, keepAliveTime, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable> (capacity), new ThreadFactory () {
-				@Override
-				public Thread newThread (Runnable r) {
-					return new Thread (threadGroup, r);
-				}
-			});
-		}
+		writer = new DatabaseTrackWriter (threadGroup, capacity, batchSize, flushInterval, offerTimeout, flushers);
 	}
 	
 	@Override
@@ -66,12 +40,16 @@ public class DatabaseApiRequestTracker implements ServerRequestTracker {
 		return new DatabaseApiRequestTrack (this, api, request);
 	}
 	
-	TrackingExecutor executor () {
-		return executor;
+	public void shutdown () {
+		writer.shutdown ();
+	}
+	
+	public JsonObject describe () {
+		return writer.describe ();
 	}
 	
-	ApiContext context () {
-		return ApiContext.Instance;
+	DatabaseTrackWriter writer () {
+		return writer;
 	}
 
 }
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.tracking.impls.database;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.Api;
+import com.bluenimble.platform.api.ApiContext;
+import com.bluenimble.platform.api.ApiSpace;
+import com.bluenimble.platform.api.tracing.Tracer;
+import com.bluenimble.platform.db.Database;
+import com.bluenimble.platform.db.DatabaseObject;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Collects finished tracks in a bounded buffer and writes them in bulk,
+ * once 'batchSize' tracks are pending or every 'flushInterval' milliseconds.
+ *
+ * A request thread waits at most 'offerTimeout' milliseconds for room in the buffer, then the track is dropped.
+ */
+public class DatabaseTrackWriter {
+
+	private static final String 	DefaultEntity 	= "ApiRequests";
+
+	interface Spec {
+		String Entity 	= "entity";
+		String Feature 	= "feature";
+	}
+
+	interface Describe {
+		String Pending 	= "pending";
+		String Accepted = "accepted";
+		String Written 	= "written";
+		String Dropped 	= "dropped";
+		String Failed 	= "failed";
+		String Batches 	= "batches";
+	}
+
+	private ArrayBlockingQueue<Entry> 	buffer;
+
+	private int 						batchSize;
+	private long 						flushInterval;
+	private long 						offerTimeout;
+
+	private Thread [] 					flushers;
+	private volatile boolean 			running = true;
+
+	private AtomicLong 					accepted 	= new AtomicLong ();
+	private AtomicLong 					written 	= new AtomicLong ();
+	private AtomicLong 					dropped 	= new AtomicLong ();
+	private AtomicLong 					failed 		= new AtomicLong ();
+	private AtomicLong 					batches 	= new AtomicLong ();
+
+	public DatabaseTrackWriter (ThreadGroup group, int capacity, int batchSize, long flushInterval, long offerTimeout, int flushers) {
+		this.buffer 		= new ArrayBlockingQueue<Entry> (capacity);
+		this.batchSize 		= batchSize;
+		this.flushInterval 	= flushInterval;
+		this.offerTimeout 	= offerTimeout;
+
+		this.flushers = new Thread [flushers];
+		for (int i = 0; i < flushers; i++) {
+			Thread flusher = new Thread (group, new Runnable () {
+				@Override
+				public void run () {
+					flush ();
+				}
+			}, group.getName () + Lang.DASH + i);
+			flusher.setDaemon (true);
+			this.flushers [i] = flusher;
+			flusher.start ();
+		}
+	}
+
+	public boolean offer (Api api, JsonObject track) {
+		boolean added = false;
+		try {
+			if (offerTimeout <= 0) {
+				added = buffer.offer (new Entry (api, track));
+			} else {
+				added = buffer.offer (new Entry (api, track), offerTimeout, TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException iex) {
+			Thread.currentThread ().interrupt ();
+		}
+		if (added) {
+			accepted.incrementAndGet ();
+		} else {
+			dropped.incrementAndGet ();
+		}
+		return added;
+	}
+
+	public void shutdown () {
+		running = false;
+		for (Thread flusher : flushers) {
+			flusher.interrupt ();
+		}
+		for (Thread flusher : flushers) {
+			try {
+				flusher.join (flushInterval * 2);
+			} catch (InterruptedException iex) {
+				Thread.currentThread ().interrupt ();
+				break;
+			}
+		}
+		// write what's left
+		List<Entry> batch = new ArrayList<Entry> (batchSize);
+		while (buffer.drainTo (batch, batchSize) > 0) {
+			write (batch);
+			batch.clear ();
+		}
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Describe.Pending, buffer.size ());
+		describe.set (Describe.Accepted, accepted.get ());
+		describe.set (Describe.Written, written.get ());
+		describe.set (Describe.Dropped, dropped.get ());
+		describe.set (Describe.Failed, failed.get ());
+		describe.set (Describe.Batches, batches.get ());
+		return describe;
+	}
+
+	private void flush () {
+		List<Entry> batch = new ArrayList<Entry> (batchSize);
+		while (running) {
+			try {
+				long deadline = System.currentTimeMillis () + flushInterval;
+				while (batch.size () < batchSize) {
+					long remaining = deadline - System.currentTimeMillis ();
+					if (remaining <= 0) {
+						break;
+					}
+					Entry entry = buffer.poll (remaining, TimeUnit.MILLISECONDS);
+					if (entry == null) {
+						break;
+					}
+					batch.add (entry);
+					buffer.drainTo (batch, batchSize - batch.size ());
+				}
+			} catch (InterruptedException iex) {
+				// shutdown, pending tracks are written by the caller
+			}
+			if (!batch.isEmpty ()) {
+				write (batch);
+				batch.clear ();
+			}
+		}
+	}
+
+	private void write (List<Entry> batch) {
+		// group by target database (space + feature)
+		Map<String, Target> targets = new LinkedHashMap<String, Target> ();
+		for (Entry entry : batch) {
+			JsonObject oTracking = entry.api.getTracking ();
+			String feature = Json.getString (oTracking, Spec.Feature, ApiSpace.Features.Default);
+			String key = entry.api.space ().getNamespace () + Lang.SLASH + feature;
+			Target target = targets.get (key);
+			if (target == null) {
+				target = new Target (entry.api, feature);
+				targets.put (key, target);
+			}
+			target.add (Json.getString (oTracking, Spec.Entity, DefaultEntity), entry.track);
+		}
+		for (Target target : targets.values ()) {
+			write (target);
+		}
+		batches.incrementAndGet ();
+	}
+
+	private void write (Target target) {
+		Api api = target.api;
+
+		Database db = null;
+		try {
+			db = api.space ().feature (Database.class, target.feature, ApiContext.Instance);
+			if (db == null) {
+				failed.addAndGet (target.count);
+				api.tracer ().log (Tracer.Level.Error, "CantStore[{0} tracks] due to database declared in the api is not defined at the space level", target.count);
+				return;
+			}
+
+			JsonObject result = null;
+			try {
+				result = db.bulk (target.data);
+			} catch (UnsupportedOperationException uoex) {
+				// fallback to record by record
+			}
+
+			if (result == null) {
+				result = save (api, db, target.data);
+			}
+
+			long stored = Json.getLong (result, Database.Fields.Total, 0);
+			long lost 	= Json.getLong (result, Database.Fields.Failed, 0);
+			written.addAndGet (stored);
+			// records the database didn't report on are counted as failed
+			failed.addAndGet (Math.max (lost, target.count - stored));
+			if (lost > 0) {
+				api.tracer ().log (Tracer.Level.Error, "CantStore[{0} of {1} tracks]", lost, target.count);
+			}
+
+		} catch (Exception ex) {
+			failed.addAndGet (target.count);
+			api.tracer ().log (Tracer.Level.Error, "CantStore[{0} tracks] due to {1}", target.count, ex.getMessage ());
+			api.tracer ().log (Tracer.Level.Error, Lang.BLANK, ex);
+		} finally {
+			if (db != null) { db.recycle (); }
+		}
+	}
+
+	private JsonObject save (Api api, Database db, JsonObject data) {
+		int count 	= 0;
+		int failed 	= 0;
+		Iterator<String> entities = data.keys ();
+		while (entities.hasNext ()) {
+			String entityName = entities.next ();
+			JsonArray records = Json.getArray (data, entityName);
+			for (int i = 0; i < records.count (); i++) {
+				try {
+					DatabaseObject entity = db.create (entityName);
+					entity.load ((JsonObject)records.get (i));
+					entity.save ();
+					count++;
+				} catch (Exception ex) {
+					if (failed == 0) {
+						api.tracer ().log (Tracer.Level.Error, "CantStore[{0}] due to {1}", entityName, ex.getMessage ());
+					}
+					failed++;
+				}
+			}
+		}
+		return (JsonObject)new JsonObject ().set (Database.Fields.Total, count).set (Database.Fields.Failed, failed);
+	}
+
+	private static class Entry {
+		Api 		api;
+		JsonObject 	track;
+		Entry (Api api, JsonObject track) {
+			this.api 	= api;
+			this.track 	= track;
+		}
+	}
+
+	private static class Target {
+		Api 		api;
+		String 		feature;
+		JsonObject 	data = new JsonObject ();
+		int 		count;
+		Target (Api api, String feature) {
+			this.api 		= api;
+			this.feature 	= feature;
+		}
+		void add (String entity, JsonObject track) {
+			JsonArray records = Json.getArray (data, entity);
+			if (records == null) {
+				records = new JsonArray ();
+				data.set (entity, records);
+			}
+			records.add (track);
+			count++;
+		}
+	}
+
+}
@@ -57,7 +57,7 @@ public class Json {
 			EncryptionProvider.Default.crypt (stream, out, salt, Mode.Decrypt);
 			stream = new ByteArrayInputStream (out.toByteArray ());
 		}
-		return new JsonObject (IOUtils.toString (stream));
+		return new JsonObject (stream);
 	}
     
 	public static JsonObject load (File file) throws Exception {
@@ -95,7 +95,7 @@ public class Json {
 				is = loader.getResourceAsStream (name);
 			}
 			
-			return new JsonObject (IOUtils.toString (is));
+			return new JsonObject (is);
 			
 		} finally {
 			if (is != null) {
@@ -24,6 +24,7 @@ public interface ApiHeaders {
 	String 	ContentLength		= "Content-Length";
 	String 	ContentDisposition	= "Content-Disposition";
 	String 	ContentEncoding		= "Content-Encoding";
+	String 	TransferEncoding	= "Transfer-Encoding";
 	String 	ContentLanguage		= "Content-Language";
 	String 	AcceptEncoding		= "Accept-Encoding";
 	
@@ -54,6 +55,8 @@ public interface ApiHeaders {
 	String 	SetCookie			= "Set-Cookie";
 
 	String 	Location			= "Location";
+	
+	String 	RetryAfter			= "Retry-After";
 
 	String 	NodeID 				= "BNB-Node-ID";
 	String 	NodeType 			= "BNB-Node-Type";
@@ -33,6 +33,7 @@ public class DescribeOption implements Serializable {
 	public static final DescribeOption Apis 		= new DescribeOption (Option.apis);
 	public static final DescribeOption All 			= new DescribeOption (Option.all);
 	public static final DescribeOption Services 	= new DescribeOption (Option.services);
+	public static final DescribeOption Metrics 		= new DescribeOption (Option.metrics);
 	
 	interface VerboseOptions {
 		DescribeOption Info 		= new DescribeOption (Option.info, true);
@@ -86,7 +87,8 @@ public class DescribeOption implements Serializable {
 		runtime,
 		custom,
 		all,
-		failed
+		failed,
+		metrics
 	}
 	
 	private Option 	option;
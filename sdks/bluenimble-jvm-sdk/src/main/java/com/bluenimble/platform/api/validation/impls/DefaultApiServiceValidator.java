@@ -17,7 +17,6 @@
 package com.bluenimble.platform.api.validation.impls;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 import com.bluenimble.platform.Json;
@@ -59,9 +58,9 @@ public class DefaultApiServiceValidator implements ApiServiceValidator {
 
 	private static final long serialVersionUID = 7521000052639259961L;
 		
-	private static final char ConsumerScope = 'c';
+	static final char ConsumerScope = 'c';
 
-	private static final Map<String, Scope> Scopes 	= new HashMap<String, Scope> ();
+	static final Map<String, Scope> Scopes 	= new HashMap<String, Scope> ();
 	static {
 		// scopes
 		Scopes.put ("h", Scope.Header);
@@ -69,7 +68,7 @@ public class DefaultApiServiceValidator implements ApiServiceValidator {
 		Scopes.put ("s", Scope.Stream);
 	}
 	
-	private static final String DefaultScope = "p";
+	static final String DefaultScope = "p";
 	
 	private Map<String, TypeValidator> validators = new HashMap<String, TypeValidator> ();
 	
@@ -123,60 +122,69 @@ public class DefaultApiServiceValidator implements ApiServiceValidator {
 			return;
 		}
 		
-		JsonObject oFields = Json.getObject (spec, Spec.Fields);
+		validate (context, compile (spec), consumer, request, data);
 		
-		if (oFields == null || oFields.isEmpty ()) {
+	}
+	
+	public ValidationPlan compile (JsonObject spec) {
+		return new ValidationPlan (this, spec);
+	}
+	
+	public void validate (Api context, ValidationPlan plan, ApiConsumer consumer, ApiRequest request) 
+		throws ApiServiceValidatorException {
+		validate (context, plan, consumer, request, null);
+	}
+	
+	public void validate (Api context, ValidationPlan plan, ApiConsumer consumer, ApiRequest request, Map<String, Object> data) 
+		throws ApiServiceValidatorException {
+		
+		if (plan == null || plan.isEmpty ()) {
 			return;
 		}
 		
 		JsonObject feedback = null;
 		
-		Iterator<String> fields = oFields.keys ();
-		while (fields.hasNext ()) {
-			String name = fields.next ();
+		for (ValidationPlan.Step step : plan.steps ()) {
+			String name = step.name;
 			
-			Object oSpec = oFields.get (name);
-			if (! (oSpec instanceof JsonObject) ) {
+			if (step.invalid) {
 				if (feedback == null) {
 					feedback = new JsonObject ();
 				}
 				feedback.set (name, ValidationUtils.feedback (
-					null, spec, Spec.Type, 
+					null, plan.spec (), Spec.Type, 
 					"field definition should be a valid object"
 				));
 				continue;
 			}
 			
-			JsonObject fSpec = (JsonObject)oSpec;
-			
-			String type = fSpec.getString (Spec.Type);
-			if (Lang.isNullOrEmpty (type)) {
-				type = FieldType.String;
-			}
-			
-			if (type.equalsIgnoreCase (FieldType.Raw)) {
-				continue;
-			}
+			Object value = valueOf (step, request, consumer, data);
 			
-			TypeValidator validator = getTypeValidator (type);
-			if (validator == null) {
-				validator = getTypeValidator (FieldType.Object);
+			Object message = null;
+			if (step.fields != null) {
+				message = ((MapValidator)step.validator).validate (
+					context,
+					consumer, 
+					request, 	
+					this,
+					name,
+					step.label,
+					step.spec, 
+					value,
+					step.fields
+				);
+			} else {
+				message = step.validator.validate (
+					context,
+					consumer, 
+					request, 	
+					this,
+					name,
+					step.label,
+					step.spec, 
+					value
+				);
 			}
-			
-			String label = getLabel (name, fSpec.getString (Spec.Title));
-			
-			Object value = valueOf (name, fSpec, request, consumer, data);
-			
-			Object message = validator.validate (
-				context,
-				consumer, 
-				request, 	
-				this,
-				name,
-				label,
-				fSpec, 
-				value
-			);
 						
 			if (message != null) {
 				if (message instanceof JsonObject) {
@@ -207,13 +215,6 @@ public class DefaultApiServiceValidator implements ApiServiceValidator {
 		
 	}
 
-	private String getLabel (String name, String title) {
-		if (Lang.isNullOrEmpty (title)) {
-			return name;
-		}
-		return title;
-	}
-	
 	@Override
 	public void addTypeValidator (String name, TypeValidator validator) {
 		validators.put (name.toLowerCase (), validator);
@@ -276,6 +277,39 @@ public class DefaultApiServiceValidator implements ApiServiceValidator {
 		
 	}
 
+	private Object valueOf (ValidationPlan.Step step, ApiRequest request, ApiConsumer consumer, Map<String, Object> data) {
+		
+		if (data != null) {
+			return data.get (step.name);
+		}
+		
+		Object value = null;
+		
+		for (Scope scope : step.scopes) {
+			if (scope == null) {
+				if (step.consumerPath != null) {
+					value = getFromConsumer (consumer, step.consumerPath);
+				}
+				continue;
+			}
+			value = request.get (step.name, scope);
+			if (value != null) {
+				break;
+			}
+		}
+		
+		if (value == null) {
+			value = step.defaultValue;
+		}
+		
+		if (value != null) {
+			request.set (step.name, value);
+		}
+		
+		return value;
+		
+	}
+
 	@Override
 	public boolean isCustomType (String type) {
 		if (type == null) {
@@ -289,8 +323,10 @@ public class DefaultApiServiceValidator implements ApiServiceValidator {
 			return null;
 		}
 		
-		String [] accessors = Lang.split (property, Lang.DOT);
-		
+		return getFromConsumer (consumer, Lang.split (property, Lang.DOT));
+	}
+	
+	private Object getFromConsumer (ApiConsumer consumer, String [] accessors) {
 		Object value = consumer.get (accessors [0]);
 
 		if (accessors.length == 1) {
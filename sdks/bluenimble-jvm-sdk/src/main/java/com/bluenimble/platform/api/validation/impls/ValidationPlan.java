@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.api.validation.impls;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.ApiRequest.Scope;
+import com.bluenimble.platform.api.validation.ApiServiceValidator.Spec;
+import com.bluenimble.platform.api.validation.FieldType;
+import com.bluenimble.platform.api.validation.TypeValidator;
+import com.bluenimble.platform.api.validation.impls.types.MapValidator;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * A service spec compiled once, usually when the service starts.
+ * 
+ * Each field becomes a step holding its resolved type validator, label, scopes and consumer path.
+ * Object fields hold the plan of their own fields, and regex formats are compiled ahead of the first request.
+ */
+public class ValidationPlan implements Serializable {
+
+	private static final long serialVersionUID = -2370848312546651352L;
+	
+	public static final String Helper = ValidationPlan.class.getSimpleName ();
+	
+	private static final Step [] NoSteps = new Step [0];
+
+	private JsonObject 	spec;
+	private Step [] 	steps;
+	
+	ValidationPlan (DefaultApiServiceValidator validator, JsonObject spec) {
+		this.spec = spec;
+		
+		JsonObject oFields = Json.getObject (spec, Spec.Fields);
+		if (Json.isNullOrEmpty (oFields)) {
+			steps = NoSteps;
+			return;
+		}
+		
+		List<Step> list = new ArrayList<Step> (oFields.count ());
+		
+		Iterator<String> fields = oFields.keys ();
+		while (fields.hasNext ()) {
+			String name = fields.next ();
+			
+			Object oSpec = oFields.get (name);
+			if (! (oSpec instanceof JsonObject) ) {
+				list.add (new Step (name));
+				continue;
+			}
+			
+			JsonObject fSpec = (JsonObject)oSpec;
+			
+			String type = fSpec.getString (Spec.Type);
+			if (Lang.isNullOrEmpty (type)) {
+				type = FieldType.String;
+			}
+			
+			if (type.equalsIgnoreCase (FieldType.Raw)) {
+				continue;
+			}
+			
+			TypeValidator tValidator = validator.getTypeValidator (type);
+			if (tValidator == null) {
+				tValidator = validator.getTypeValidator (FieldType.Object);
+			}
+			
+			list.add (new Step (validator, name, fSpec, tValidator));
+		}
+		
+		steps = list.toArray (new Step [list.size ()]);
+	}
+	
+	public boolean isEmpty () {
+		return steps.length == 0;
+	}
+	
+	JsonObject spec () {
+		return spec;
+	}
+	
+	Step [] steps () {
+		return steps;
+	}
+	
+	static class Step implements Serializable {
+		
+		private static final long serialVersionUID = 4907151512004432311L;
+
+		String 			name;
+		String 			label;
+		JsonObject 		spec;
+		
+		TypeValidator 	validator;
+		
+		// object fields
+		ValidationPlan 	fields;
+		
+		// lookup order, a null scope stands for the consumer
+		Scope [] 		scopes;
+		String [] 		consumerPath;
+		
+		Object 			defaultValue;
+		
+		// field definition isn't an object
+		boolean 		invalid;
+		
+		Step (String name) {
+			this.name 		= name;
+			this.invalid 	= true;
+		}
+		
+		Step (DefaultApiServiceValidator validator, String name, JsonObject spec, TypeValidator tValidator) {
+			this.name 		= name;
+			this.spec 		= spec;
+			this.validator 	= tValidator;
+			
+			String title = spec.getString (Spec.Title);
+			this.label = Lang.isNullOrEmpty (title) ? name : title;
+			
+			this.defaultValue = spec.get (Spec.Value);
+			
+			resolveScopes (Json.getString (spec, Spec.Scope));
+			
+			if (tValidator instanceof MapValidator && !Json.isNullOrEmpty (Json.getObject (spec, Spec.Fields))) {
+				fields = validator.compile (spec);
+			}
+			
+			String vType = Json.getString (spec, Spec.VType);
+			if (FieldType.Facets.Regex.equalsIgnoreCase (vType) || FieldType.Facets.Regex.equalsIgnoreCase (Json.getString (spec, Spec.Type))) {
+				String regex = Json.getString (spec, Spec.Format);
+				if (regex != null) {
+					try {
+						ValidationUtils.pattern (regex);
+					} catch (RuntimeException ex) {
+						// reported by the regex validator
+					}
+				}
+			}
+		}
+		
+		private void resolveScopes (String s) {
+			if (Lang.isNullOrEmpty (s)) {
+				s = DefaultApiServiceValidator.DefaultScope;
+			}
+			s = s.trim ();
+			
+			boolean fromConsumer = false;
+			
+			List<Scope> list = new ArrayList<Scope> (s.length ());
+			for (int i = 0; i < s.length (); i++) {
+				char sc = s.charAt (i);
+				if (DefaultApiServiceValidator.ConsumerScope == sc) {
+					list.add (null);
+					fromConsumer = true;
+					continue;
+				}
+				Scope scope = DefaultApiServiceValidator.Scopes.get (String.valueOf (sc));
+				if (scope != null) {
+					list.add (scope);
+				}
+			}
+			scopes = list.toArray (new Scope [list.size ()]);
+			
+			if (fromConsumer && defaultValue != null && !Lang.isNullOrEmpty (defaultValue.toString ())) {
+				consumerPath = Lang.split (defaultValue.toString (), Lang.DOT);
+			}
+		}
+		
+	}
+	
+}
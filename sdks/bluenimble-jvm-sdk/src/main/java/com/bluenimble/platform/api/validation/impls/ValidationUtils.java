@@ -18,6 +18,9 @@ package com.bluenimble.platform.api.validation.impls;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import com.bluenimble.platform.Json;
 import com.bluenimble.platform.Lang;
@@ -34,6 +37,18 @@ import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 
 public class ValidationUtils {
+	
+	// compiled formats of regex fields, shared by all services
+	private static final Map<String, Pattern> Patterns = new ConcurrentHashMap<String, Pattern> ();
+	
+	public static Pattern pattern (String regex) {
+		Pattern pattern = Patterns.get (regex);
+		if (pattern == null) {
+			pattern = Pattern.compile (regex);
+			Patterns.put (regex, pattern);
+		}
+		return pattern;
+	}
 
 	public static JsonObject feedback (JsonObject feedback, JsonObject spec, String facet, String message) {
 		if (Lang.isNullOrEmpty (facet)) {
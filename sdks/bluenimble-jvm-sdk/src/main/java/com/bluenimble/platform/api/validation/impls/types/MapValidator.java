@@ -34,6 +34,7 @@ import com.bluenimble.platform.api.validation.ApiServiceValidatorException;
 import com.bluenimble.platform.api.validation.FieldType;
 import com.bluenimble.platform.api.validation.impls.AbstractTypeValidator;
 import com.bluenimble.platform.api.validation.impls.DefaultApiServiceValidator;
+import com.bluenimble.platform.api.validation.impls.ValidationPlan;
 import com.bluenimble.platform.api.validation.impls.ValidationUtils;
 import com.bluenimble.platform.json.JsonException;
 import com.bluenimble.platform.json.JsonObject;
@@ -52,10 +53,15 @@ public class MapValidator extends AbstractTypeValidator {
 		return FieldType.Object;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public Object validate (Api api, ApiConsumer consumer, ApiRequest request, 
 			ApiServiceValidator validator, String name, String label, JsonObject spec, Object value) {
+		return validate (api, consumer, request, validator, name, label, spec, value, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	public Object validate (Api api, ApiConsumer consumer, ApiRequest request, 
+			ApiServiceValidator validator, String name, String label, JsonObject spec, Object value, ValidationPlan plan) {
 		
 		JsonObject message = isRequired (validator, api, request, label, spec, value);
 		if (message != null) {
@@ -120,7 +126,11 @@ public class MapValidator extends AbstractTypeValidator {
 		
 		
 		try {
-			((DefaultApiServiceValidator)validator).validate (api, spec, consumer, request, object);
+			if (plan == null) {
+				((DefaultApiServiceValidator)validator).validate (api, spec, consumer, request, object);
+			} else {
+				((DefaultApiServiceValidator)validator).validate (api, plan, consumer, request, object);
+			}
 		} catch (ApiServiceValidatorException e) {
 			return e.getFeedback ();
 		}
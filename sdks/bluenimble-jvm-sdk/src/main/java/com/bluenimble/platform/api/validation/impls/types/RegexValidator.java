@@ -54,7 +54,7 @@ public class RegexValidator extends AbstractTypeValidator {
 			return null;
 		}
 		
-		if (!String.valueOf (value).matches (regex)) {
+		if (!ValidationUtils.pattern (regex).matcher (String.valueOf (value)).matches ()) {
 			// custom message
 			String msg = null; 
 			if (spec.containsKey (Spec.ErrMsg)) {
@@ -19,6 +19,7 @@ package com.bluenimble.platform.cache;
 import java.io.Serializable;
 
 import com.bluenimble.platform.Feature;
+import com.bluenimble.platform.json.JsonObject;
 
 @Feature ( name = "cache" )
 public interface Cache extends Serializable {
@@ -28,5 +29,10 @@ public interface Cache extends Serializable {
 	void 		delete 		(String key);
 	
 	void 		increment 	(String key, int increment, long dValue, int ttl, boolean async);
+	
+	// implementations report their own stats
+	default JsonObject describe () {
+		return null;
+	}
 
 }
@@ -75,6 +75,7 @@ public interface Database extends Recyclable {
 		String Id 			= "id";
 		String Timestamp 	= "timestamp";
 		String Total 		= "totalCount";
+		String Failed 		= "failedCount";
 	}
 	
 	Object 					proprietary (String name);
@@ -16,8 +16,10 @@
  */
 package com.bluenimble.platform.db.query.impls;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import com.bluenimble.platform.Json;
@@ -50,9 +52,7 @@ public class JsonFilter implements Filter {
 		this.parentConjuction 	= parentConjuction;
 		conjuction 				= Conjunction.valueOf (Json.getString (source, JsonQuery.Spec.Conjunction, Query.Conjunction.and.name ()));
 		
-		if (source != null) {
-			source.remove (JsonQuery.Spec.Conjunction);
-		}
+		// the source is left as is, a query can be compiled more than once
 		this.source = source;
 	}
 
@@ -66,7 +66,18 @@ public class JsonFilter implements Filter {
 		if (source == null) {
 			return null;
 		}
-		return source.keys ();
+		if (!source.containsKey (JsonQuery.Spec.Conjunction)) {
+			return source.keys ();
+		}
+		List<String> conditions = new ArrayList<String> ();
+		Iterator<String> keys = source.keys ();
+		while (keys.hasNext ()) {
+			String key = keys.next ();
+			if (!JsonQuery.Spec.Conjunction.equals (key)) {
+				conditions.add (key);
+			}
+		}
+		return conditions.iterator ();
 	}
 
 	@Override
@@ -96,15 +107,12 @@ public class JsonFilter implements Filter {
 		if (source == null) {
 			return 0;
 		}
-		return source.size ();
+		return source.containsKey (JsonQuery.Spec.Conjunction) ? source.size () - 1 : source.size ();
 	}
 	
 	@Override
 	public boolean isEmpty () {
-		if (source == null) {
-			return true;
-		}
-		return source.isEmpty ();
+		return count () == 0;
 	}
 
 	@Override
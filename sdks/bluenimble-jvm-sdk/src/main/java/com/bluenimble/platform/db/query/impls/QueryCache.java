@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.db.query.impls;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Compiled queries keyed by their QueryShape, shared by the database instances of a feature. 
+ * The least recently used are evicted beyond 'maxEntries'.
+ * 
+ * "queryCache": { "maxEntries": 500 }
+ */
+public class QueryCache {
+
+	public interface Spec {
+		String Enabled 		= "enabled";
+		String MaxEntries 	= "maxEntries";
+	}
+	
+	interface Describe {
+		String Entries 		= "entries";
+		String Hits 		= "hits";
+		String Misses 		= "misses";
+		String Evictions 	= "evictions";
+	}
+	
+	private int 							maxEntries;
+	
+	// guarded by this
+	private LinkedHashMap<String, Object> 	entries;
+	
+	private AtomicLong 						hits 		= new AtomicLong ();
+	private AtomicLong 						misses 		= new AtomicLong ();
+	private AtomicLong 						evictions 	= new AtomicLong ();
+	
+	public static QueryCache create (JsonObject spec) {
+		if (!Json.getBoolean (spec, Spec.Enabled, true)) {
+			return null;
+		}
+		return new QueryCache (Json.getInteger (spec, Spec.MaxEntries, 500));
+	}
+	
+	public QueryCache (int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.entries 	= new LinkedHashMap<String, Object> (16, 0.75f, true) {
+			private static final long serialVersionUID = -2307424505546414036L;
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<String, Object> eldest) {
+				if (size () <= QueryCache.this.maxEntries) {
+					return false;
+				}
+				evictions.incrementAndGet ();
+				return true;
+			}
+		};
+	}
+	
+	public Object get (String key) {
+		Object query;
+		synchronized (this) {
+			query = entries.get (key);
+		}
+		if (query == null) {
+			misses.incrementAndGet ();
+		} else {
+			hits.incrementAndGet ();
+		}
+		return query;
+	}
+	
+	// compiled queries are shared, they should never be changed once put
+	public void put (String key, Object query) {
+		if (query == null) {
+			return;
+		}
+		synchronized (this) {
+			entries.put (key, query);
+		}
+	}
+	
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		synchronized (this) {
+			describe.set (Describe.Entries, entries.size ());
+		}
+		describe.set (Describe.Hits, hits.get ());
+		describe.set (Describe.Misses, misses.get ());
+		describe.set (Describe.Evictions, evictions.get ());
+		return describe;
+	}
+	
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.db.query.impls;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.db.DatabaseException;
+import com.bluenimble.platform.db.query.CompiledQuery;
+import com.bluenimble.platform.db.query.Condition;
+import com.bluenimble.platform.db.query.Filter;
+import com.bluenimble.platform.db.query.GroupBy;
+import com.bluenimble.platform.db.query.OrderBy;
+import com.bluenimble.platform.db.query.OrderByField;
+import com.bluenimble.platform.db.query.Query;
+import com.bluenimble.platform.db.query.Query.Operator;
+import com.bluenimble.platform.db.query.Select;
+
+/**
+ * Compiles a query into its structure (entity, fields, filters, operators, grouping, ordering), used as a key of the QueryCache.
+ * 
+ * A parameterized shape leaves out the condition values bound as parameters and returns them as bindings, 
+ * named the way SqlQueryCompiler names them. Queries only differing by these values share the same shape.
+ */
+public class QueryShape extends EventedQueryCompiler {
+
+	private static final long serialVersionUID = 5163939207393127736L;
+	
+	private static final String Parameter 	= "?";
+	private static final String Null 		= "null";
+	
+	private StringBuilder 			buff = new StringBuilder ();
+	private Map<String, Object>		bindings;
+	
+	private Query.Construct			construct;
+	private String 					entity;
+	private boolean 				parameterized;
+	private boolean 				paging;
+	
+	private int						counter;
+	private Query 					query;
+
+	public QueryShape (Query.Construct construct, String entity, boolean parameterized, boolean paging) {
+		this (construct, entity, parameterized, paging, -1);
+	}
+	
+	private QueryShape (Query.Construct construct, String entity, boolean parameterized, boolean paging, int counter) {
+		this.construct 		= construct;
+		this.entity 		= entity;
+		this.parameterized 	= parameterized;
+		this.paging 		= paging;
+		this.counter 		= counter;
+	}
+	
+	@Override
+	protected void onQuery (Timing timing, Query query) throws DatabaseException {
+		this.query = query;
+		if (Timing.start.equals (timing)) {
+			buff.append (construct.name ()).append (Lang.SPACE).append (entity);
+			return;
+		}
+		if (paging) {
+			buff.append (Lang.SPACE).append (query.start ()).append (Lang.SPACE).append (query.count ());
+		}
+	}
+
+	@Override
+	protected void onSelect (Timing timing, Select select) throws DatabaseException {
+		if (Timing.start.equals (timing)) {
+			buff.append (Lang.SPACE).append (Lang.ARRAY_OPEN);
+		} else {
+			buff.append (Lang.ARRAY_CLOSE);
+		}
+	}
+
+	@Override
+	protected void onSelectField (String field, int count, int index) throws DatabaseException {
+		buff.append (field).append (Lang.COMMA);
+	}
+
+	@Override
+	protected void onFilter (Timing timing, Filter filter, boolean isWhere) throws DatabaseException {
+		if (filter == null || filter.isEmpty ()) {
+			return;
+		}
+		if (Timing.end.equals (timing)) {
+			buff.append (Lang.PARENTH_CLOSE);
+			return;
+		}
+		buff.append (Lang.SPACE);
+		if (!isWhere) {
+			buff.append (filter.parentConjunction ().name ());
+		}
+		buff.append (Lang.PARENTH_OPEN).append (filter.conjunction ().name ());
+	}
+
+	@Override
+	protected void onCondition (Condition condition, Filter filter, int index) throws DatabaseException {
+		buff.append (Lang.SPACE).append (condition.field ()).append (Lang.SPACE).append (condition.operator ().name ());
+		
+		if (Operator.nil.equals (condition.operator ()) || Operator.nnil.equals (condition.operator ())) {
+			return;
+		}
+		
+		Object value = condition.value ();
+		
+		buff.append (Lang.SPACE);
+		
+		if (value == null) {
+			buff.append (Null);
+			return;
+		}
+		
+		if (Operator.in.equals (condition.operator ()) || Operator.nin.equals (condition.operator ())) {
+			if (List.class.isAssignableFrom (value.getClass ())) {
+				@SuppressWarnings("unchecked")
+				List<Object> values = (List<Object>)value;
+				buff.append (Lang.ARRAY_OPEN);
+				for (Object o : values) {
+					value (o);
+					buff.append (Lang.COMMA);
+				}
+				buff.append (Lang.ARRAY_CLOSE);
+				return;
+			} else if (Query.class.isAssignableFrom (value.getClass ())) {
+				Query subQuery = (Query)value;
+				CompiledQuery shape = 
+					new QueryShape (Query.Construct.select, subQuery.entity (), parameterized, false, counter).compile (subQuery);
+				if (shape.bindings () != null) {
+					bindings ().putAll (shape.bindings ());
+				}
+				buff.append (Lang.PARENTH_OPEN).append (shape.query ()).append (Lang.PARENTH_CLOSE);
+				return;
+			}
+			// never bound by the sql compilers
+			literal (value);
+			return;
+		}
+		
+		value (value);
+	}
+
+	@Override
+	protected void onOrderBy (Timing timing, OrderBy orderBy) throws DatabaseException {
+		if (orderBy == null || orderBy.isEmpty () || Timing.end.equals (timing)) {
+			return;
+		}
+		buff.append (Lang.SPACE).append (Query.Construct.orderBy.name ());
+	}
+
+	@Override
+	protected void onOrderByField (OrderByField orderBy, int count, int index) throws DatabaseException {
+		buff.append (Lang.SPACE).append (orderBy.field ()).append (Lang.SPACE).append (orderBy.direction ().name ());
+	}
+
+	@Override
+	protected void onGroupBy (Timing timing, GroupBy groupBy) throws DatabaseException {
+		if (groupBy == null || groupBy.isEmpty () || Timing.end.equals (timing)) {
+			return;
+		}
+		buff.append (Lang.SPACE).append (Query.Construct.groupBy.name ());
+	}
+
+	@Override
+	protected void onGroupByField (String field, int count, int index) throws DatabaseException {
+		buff.append (Lang.SPACE).append (field);
+	}
+
+	@Override
+	protected CompiledQuery done () throws DatabaseException {
+		final String 				key 		= buff.toString ();
+		final Map<String, Object> 	bindings 	= query.bindings () != null ? query.bindings () : this.bindings;
+		return new CompiledQuery () {
+			@Override
+			public String query () {
+				return key;
+			}
+			@Override
+			public Map<String, Object> bindings () {
+				return bindings;
+			}
+		};
+	}
+	
+	private void value (Object value) {
+		if (parameterized && query.bindings () == null) {
+			counter++;
+			bindings ().put (SqlQueryCompiler.ParamPrefix + counter, value);
+			buff.append (Parameter);
+			return;
+		}
+		literal (value);
+	}
+	
+	private void literal (Object value) {
+		if (value == null) {
+			buff.append (Null);
+			return;
+		}
+		// type and length prefixed, two different values never give the same shape
+		String sValue = String.valueOf (value);
+		buff.append (value.getClass ().getSimpleName ()).append (Lang.COLON)
+			.append (sValue.length ()).append (Lang.COLON).append (sValue);
+	}
+	
+	private Map<String, Object> bindings () {
+		if (bindings == null) {
+			bindings = new HashMap<String, Object> ();
+		}
+		return bindings;
+	}
+	
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.db.query.impls;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.db.query.Caching;
+import com.bluenimble.platform.db.query.Query;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Results of named queries declaring "cache": { "data": true }, shared by the database instances of a feature.
+ * 
+ * Entries are keyed by query name, start, count and bindings, expire after 'ttl' seconds and the least recently used 
+ * are evicted beyond 'maxEntries'. A write to an entity drops its cached results.
+ * 
+ * "resultCache": { "maxEntries": 1000, "ttl": 60 }
+ */
+public class ResultCache {
+
+	private static final String Null = "null";
+	
+	public interface Spec {
+		String Enabled 		= "enabled";
+		String MaxEntries 	= "maxEntries";
+		String Ttl 			= "ttl";
+	}
+	
+	interface Describe {
+		String Entries 		= "entries";
+		String Hits 		= "hits";
+		String Misses 		= "misses";
+		String Evictions 	= "evictions";
+	}
+	
+	private int 							maxEntries;
+	private long 							ttl;
+	
+	// guarded by this
+	private LinkedHashMap<String, Entry> 	entries;
+	
+	// bumped on each write, results read before a write are never served after it
+	private Map<String, AtomicLong> 		generations = new ConcurrentHashMap<String, AtomicLong> ();
+	
+	private AtomicLong 						hits 		= new AtomicLong ();
+	private AtomicLong 						misses 		= new AtomicLong ();
+	private AtomicLong 						evictions 	= new AtomicLong ();
+	
+	public static ResultCache create (JsonObject spec) {
+		if (!Json.getBoolean (spec, Spec.Enabled, true)) {
+			return null;
+		}
+		return new ResultCache (Json.getInteger (spec, Spec.MaxEntries, 1000), Json.getLong (spec, Spec.Ttl, 60));
+	}
+	
+	public ResultCache (int maxEntries, long ttl) {
+		this.maxEntries = maxEntries;
+		this.ttl 		= ttl * 1000;
+		this.entries 	= new LinkedHashMap<String, Entry> (16, 0.75f, true) {
+			private static final long serialVersionUID = 6106469290123446378L;
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<String, Entry> eldest) {
+				if (size () <= ResultCache.this.maxEntries) {
+					return false;
+				}
+				evictions.incrementAndGet ();
+				return true;
+			}
+		};
+	}
+	
+	// null if the query results shouldn't be cached
+	public String key (Query query) {
+		if (Lang.isNullOrEmpty (query.name ()) || !query.caching ().cache (Caching.Target.data)) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder ();
+		encode (key, query.name ());
+		key.append (Lang.SPACE).append (query.start ())
+			.append (Lang.SPACE).append (query.count ());
+		Map<String, Object> bindings = query.bindings ();
+		if (bindings != null && !bindings.isEmpty ()) {
+			key.append (Lang.SPACE);
+			encode (key, bindings);
+		}
+		return key.toString ();
+	}
+	
+	// type and length prefixed like the query shape literals, two different bindings never give the same key
+	private static void encode (StringBuilder key, Object value) {
+		if (value == null) {
+			key.append (Null);
+			return;
+		}
+		if (value instanceof Map) {
+			Map<String, Object> sorted = new TreeMap<String, Object> ();
+			for (Object entry : ((Map<?, ?>)value).entrySet ()) {
+				sorted.put (String.valueOf (((Map.Entry<?, ?>)entry).getKey ()), ((Map.Entry<?, ?>)entry).getValue ());
+			}
+			key.append (Lang.OBJECT_OPEN).append (sorted.size ()).append (Lang.COLON);
+			for (Map.Entry<String, Object> entry : sorted.entrySet ()) {
+				encode (key, entry.getKey ());
+				encode (key, entry.getValue ());
+			}
+			key.append (Lang.OBJECT_CLOSE);
+			return;
+		}
+		if (value instanceof Collection) {
+			Collection<?> items = (Collection<?>)value;
+			key.append (Lang.ARRAY_OPEN).append (items.size ()).append (Lang.COLON);
+			for (Object item : items) {
+				encode (key, item);
+			}
+			key.append (Lang.ARRAY_CLOSE);
+			return;
+		}
+		if (value.getClass ().isArray ()) {
+			int length = Array.getLength (value);
+			key.append (Lang.ARRAY_OPEN).append (length).append (Lang.COLON);
+			for (int i = 0; i < length; i++) {
+				encode (key, Array.get (value, i));
+			}
+			key.append (Lang.ARRAY_CLOSE);
+			return;
+		}
+		String sValue = String.valueOf (value);
+		key.append (value.getClass ().getSimpleName ()).append (Lang.COLON)
+			.append (sValue.length ()).append (Lang.COLON).append (sValue);
+	}
+	
+	public long generation (String entity) {
+		return generation0 (entity).get ();
+	}
+	
+	public Object get (String entity, String key) {
+		long generation = generation (entity);
+		Entry entry;
+		synchronized (this) {
+			entry = entries.get (entity + Lang.SPACE + key);
+		}
+		if (entry == null || entry.generation != generation || entry.expiresAt < System.currentTimeMillis ()) {
+			misses.incrementAndGet ();
+			return null;
+		}
+		hits.incrementAndGet ();
+		return entry.value;
+	}
+	
+	// generation is the one read before running the query
+	public void put (String entity, String key, Object value, long generation) {
+		if (generation != generation (entity)) {
+			return;
+		}
+		Entry entry = new Entry (value, generation, System.currentTimeMillis () + ttl);
+		synchronized (this) {
+			entries.put (entity + Lang.SPACE + key, entry);
+		}
+	}
+	
+	// stale entries are left to the lru eviction
+	public void invalidate (String entity) {
+		if (entity == null) {
+			return;
+		}
+		generation0 (entity).incrementAndGet ();
+	}
+	
+	public void clear () {
+		for (AtomicLong generation : generations.values ()) {
+			generation.incrementAndGet ();
+		}
+		synchronized (this) {
+			entries.clear ();
+		}
+	}
+	
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		synchronized (this) {
+			describe.set (Describe.Entries, entries.size ());
+		}
+		describe.set (Describe.Hits, hits.get ());
+		describe.set (Describe.Misses, misses.get ());
+		describe.set (Describe.Evictions, evictions.get ());
+		return describe;
+	}
+	
+	private AtomicLong generation0 (String entity) {
+		return generations.computeIfAbsent (entity, e -> new AtomicLong ());
+	}
+	
+	static class Entry {
+		Object 	value;
+		long 	generation;
+		long 	expiresAt;
+		Entry (Object value, long generation, long expiresAt) {
+			this.value 		= value;
+			this.generation = generation;
+			this.expiresAt 	= expiresAt;
+		}
+	}
+	
+}
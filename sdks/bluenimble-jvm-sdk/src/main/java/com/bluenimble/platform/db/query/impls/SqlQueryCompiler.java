@@ -36,7 +36,7 @@ public class SqlQueryCompiler extends EventedQueryCompiler {
 
 	private static final long serialVersionUID = -721087118950354168L;
 	
-	private static final String					ParamPrefix		= "p";
+	static final String							ParamPrefix		= "p";
 	
 	protected interface Sql {
 		String OrderBy 	= "order by";
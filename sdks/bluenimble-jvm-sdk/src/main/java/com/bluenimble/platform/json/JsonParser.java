@@ -18,32 +18,59 @@ package com.bluenimble.platform.json;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.Serializable;
 
-import com.bluenimble.platform.IOUtils;
 import com.bluenimble.platform.Lang;
 
+/**
+ * Parses a json text from a string or directly from a stream.
+ * 
+ * Streams are read through a reusable char buffer, the text is never fully loaded in memory. 
+ * The last consumed char is kept across buffer refills so back () is always possible once.
+ */
 public class JsonParser implements Serializable {
 
 	private static final long serialVersionUID = 1434415316242903735L;
+	
+	private static final int BufferSize 		= 8 * 1024;
+	private static final int MaxBuilderSize 	= 64 * 1024;
 
     private int position;
+    
+    private int limit;
+    
+    private char [] buffer;
+    
+    // chars dropped from the buffer, used to report error positions
+    private long consumed;
 
+    // string sources only
     private String source;
+    
+    private transient Reader reader;
+    
+    private transient IOException failure;
+    
+    private StringBuilder sb = new StringBuilder ();
 
 
     public JsonParser (String source) {
         this.position = 0;
         this.source = source;
+        this.buffer = source.toCharArray ();
+        this.limit = buffer.length;
     }
     
     public JsonParser (InputStream stream) throws JsonException {
+    	this (new InputStreamReader (stream));
+    }
+    
+    public JsonParser (Reader reader) {
 	    this.position = 0;
-    	try {
-    	    this.source = IOUtils.toString (stream);
-		} catch (IOException e) {
-			throw new JsonException (e, e.getMessage ());
-		} 
+	    this.reader = reader;
+	    this.buffer = new char [BufferSize];
     }
     
    public static JsonEntity parse (String s) throws JsonException {
@@ -98,7 +125,7 @@ public class JsonParser implements Serializable {
      * @return true if not yet at the end of the source.
      */
     public boolean more() {
-        return this.position < this.source.length();
+        return this.position < this.limit || fill ();
     }
 
 
@@ -108,10 +135,8 @@ public class JsonParser implements Serializable {
      * @return The next character, or 0 if past the end of the source string.
      */
     public char next() {
-        if (more()) {
-            char c = this.source.charAt(this.position);
-            this.position += 1;
-            return c;
+        if (this.position < this.limit || fill ()) {
+            return this.buffer [this.position++];
         }
         return 0;
     }
@@ -144,13 +169,14 @@ public class JsonParser implements Serializable {
      *   n characters remaining in the source string.
      */
      public String next(int n) throws JsonException {
-         int i = this.position;
-         int j = i + n;
-         if (j >= this.source.length()) {
-            throw syntaxError("Substring bounds error");
+         char [] chars = new char [n];
+         for (int i = 0; i < n; i++) {
+        	 if (!more ()) {
+        		 throw syntaxError("Substring bounds error");
+        	 }
+        	 chars [i] = next ();
          }
-         this.position += n;
-         return this.source.substring(i, j);
+         return new String (chars);
      }
 
 
@@ -205,8 +231,21 @@ public class JsonParser implements Serializable {
      * @throws JsonException Unterminated string.
      */
     public String nextString(char quote) throws JsonException {
+    	// fast path, no escapes and the closing quote is in the buffer
+    	for (int i = this.position; i < this.limit; i++) {
+    		char c = this.buffer [i];
+    		if (c == quote) {
+    			String s = new String (this.buffer, this.position, i - this.position);
+    			this.position = i + 1;
+    			return s;
+    		}
+    		if (c == '\\' || c == '\n' || c == '\r') {
+    			break;
+    		}
+    	}
+    	
         char c;
-        StringBuilder sb = new StringBuilder ();
+        StringBuilder sb = builder ();
         for (;;) {
             c = next();
             switch (c) {
@@ -244,10 +283,7 @@ public class JsonParser implements Serializable {
                 break;
             default:
                 if (c == quote) {
-        			String s = sb.toString ();
-        			sb.setLength (0);
-        			sb = null;
-        			return s;
+        			return release (sb);
                 }
                 sb.append(c);
             }
@@ -263,17 +299,14 @@ public class JsonParser implements Serializable {
      * @return   A string.
      */
     public String nextTo(char d) {
-    	StringBuilder sb = new StringBuilder();
+    	StringBuilder sb = builder ();
         for (;;) {
             char c = next();
             if (c == d || c == 0 || c == '\n' || c == '\r') {
                 if (c != 0) {
                     back();
                 }
-    			String s = sb.toString ();
-    			sb.setLength (0);
-    			sb = null;
-    			return s.trim();
+    			return release (sb).trim();
             }
             sb.append(c);
         }
@@ -288,7 +321,7 @@ public class JsonParser implements Serializable {
      */
     public String nextTo(String delimiters) {
         char c;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = builder ();
         for (;;) {
             c = next();
             if (delimiters.indexOf(c) >= 0 || c == 0 ||
@@ -296,10 +329,7 @@ public class JsonParser implements Serializable {
                 if (c != 0) {
                     back();
                 }
-    			String s = sb.toString ();
-    			sb.setLength (0);
-    			sb = null;
-    			return s.trim();
+    			return release (sb).trim();
            }
             sb.append(c);
         }
@@ -339,7 +369,7 @@ public class JsonParser implements Serializable {
          * formatting character.
          */
 
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = builder ();
         char b = c;
         while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
             sb.append(c);
@@ -351,9 +381,7 @@ public class JsonParser implements Serializable {
          * If it is true, false, or null, return the proper value.
          */
 
-        s = sb.toString ().trim();
-		sb.setLength (0);
-		sb = null;
+        s = release (sb).trim();
 
         if (s.equals("")) {
             throw syntaxError("Missing value");
@@ -424,7 +452,10 @@ public class JsonParser implements Serializable {
         do {
             c = next();
             if (c == 0) {
-                this.position = index;
+            	// a stream can't be rewound, it's left at the end 
+            	if (this.reader == null) {
+            		this.position = index;
+            	}
                 return c;
             }
         } while (c != to);
@@ -440,6 +471,9 @@ public class JsonParser implements Serializable {
      * @return true if past
      */
     public boolean skipPast(String to) {
+    	if (this.reader != null) {
+    		return streamSkipPast (to);
+    	}
         this.position = this.source.indexOf(to, this.position);
         if (this.position < 0) {
             this.position = this.source.length();
@@ -468,6 +502,84 @@ public class JsonParser implements Serializable {
      * @return " at character [this.position] of [this.mySource]"
      */
     public String toString () {
+    	if (this.reader != null) {
+    		return " at character " + (this.consumed + this.position) + (this.failure != null ? " (" + this.failure.getMessage () + ")" : Lang.BLANK);
+    	}
         return " at character " + this.position + " of " + this.source;
     }
+    
+    private boolean streamSkipPast (String to) {
+    	int length = to.length ();
+    	if (length == 0) {
+    		return true;
+    	}
+    	// last 'length' chars read
+    	char [] window = new char [length];
+    	long count = 0;
+    	while (more ()) {
+    		window [(int)(count % length)] = next ();
+    		count++;
+    		if (count < length) {
+    			continue;
+    		}
+    		boolean found = true;
+    		for (int i = 0; i < length; i++) {
+    			if (window [(int)((count + i) % length)] != to.charAt (i)) {
+    				found = false;
+    				break;
+    			}
+    		}
+    		if (found) {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+    
+    /*
+     * Refill the buffer from the reader. The last char is moved to the start of the buffer to allow a back ()
+     * An io error is reported as the end of the text, syntaxError will include it in its message
+     */
+    private boolean fill () {
+    	if (this.reader == null || this.failure != null) {
+    		return false;
+    	}
+    	int keep = this.limit > 0 ? 1 : 0;
+    	if (keep > 0) {
+    		this.buffer [0] = this.buffer [this.limit - 1];
+    	}
+    	this.consumed += this.limit - keep;
+    	this.position = keep;
+    	this.limit = keep;
+    	
+    	int read;
+    	try {
+    		do {
+    			read = this.reader.read (this.buffer, keep, this.buffer.length - keep);
+    		} while (read == 0);
+		} catch (IOException e) {
+			this.failure = e;
+			return false;
+		}
+    	if (read < 0) {
+    		return false;
+    	}
+    	this.limit = keep + read;
+    	return true;
+    }
+    
+    private StringBuilder builder () {
+    	sb.setLength (0);
+    	return sb;
+    }
+    
+    private String release (StringBuilder sb) {
+    	String s = sb.toString ();
+    	if (sb.capacity () > MaxBuilderSize) {
+    		this.sb = new StringBuilder ();
+    	} else {
+    		sb.setLength (0);
+    	}
+    	return s;
+    }
 }
\ No newline at end of file
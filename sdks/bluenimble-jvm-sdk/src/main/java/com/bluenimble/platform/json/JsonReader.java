@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import com.bluenimble.platform.Lang;
+
+/**
+ * Pull (cursor) reader over a json stream. 
+ * 
+ * Large documents can be processed entry by entry, materializing only the parts needed:
+ * 
+ * 	JsonReader reader = new JsonReader (stream);
+ * 	reader.next (); 									// StartArray
+ * 	while (reader.next () == JsonReader.Event.StartObject) {
+ * 		JsonObject record = reader.readObject ();
+ * 	}
+ */
+public class JsonReader implements Closeable {
+	
+	public enum Event {
+		StartObject,
+		EndObject,
+		StartArray,
+		EndArray,
+		Name,
+		Value,
+		End
+	}
+	
+	private static final int InObject 	= 0;
+	private static final int InArray 	= 1;
+
+	// container states
+	private static final int ExpectFirst 	= 0;
+	private static final int ExpectNext 	= 1;
+	private static final int ExpectValue = 2;
+	
+	private JsonParser 	parser;
+	private Reader 		reader;
+	
+	private int [] 		containers 	= new int [32];
+	private int [] 		states 		= new int [32];
+	private int 		depth;
+	
+	private boolean 	started;
+	
+	private String 		name;
+	private Object 		value;
+	
+	public JsonReader (InputStream stream) {
+		this (new InputStreamReader (stream));
+	}
+	
+	public JsonReader (Reader reader) {
+		this.reader = reader;
+		this.parser = new JsonParser (reader);
+	}
+	
+	public Event next () throws JsonException {
+		name 	= null;
+		value 	= null;
+		
+		if (depth == 0) {
+			if (started) {
+				return Event.End;
+			}
+			started = true;
+			char c = parser.nextClean ();
+			if (c == 0) {
+				return Event.End;
+			}
+			parser.back ();
+			return nextValue ();
+		}
+		
+		int state = states [depth - 1];
+		
+		if (containers [depth - 1] == InObject) {
+			char c;
+			switch (state) {
+				case ExpectValue:
+					return nextValue ();
+				case ExpectFirst:
+					c = parser.nextClean ();
+					if (c == '}') {
+						return pop (Event.EndObject);
+					}
+					parser.back ();
+					return nextName ();
+				default:
+					c = parser.nextClean ();
+					if (c == ',' || c == ';') {
+						// tolerate a trailing comma
+						if (parser.nextClean () == '}') {
+							return pop (Event.EndObject);
+						}
+						parser.back ();
+						return nextName ();
+					}
+					if (c == '}') {
+						return pop (Event.EndObject);
+					}
+					throw parser.syntaxError ("Expected a ',' or '}'");
+			}
+		}
+		
+		char c = parser.nextClean ();
+		if (state == ExpectFirst) {
+			if (c == ']') {
+				return pop (Event.EndArray);
+			}
+			parser.back ();
+			return nextValue ();
+		}
+		if (c == ',' || c == ';') {
+			if (parser.nextClean () == ']') {
+				return pop (Event.EndArray);
+			}
+			parser.back ();
+			return nextValue ();
+		}
+		if (c == ']') {
+			return pop (Event.EndArray);
+		}
+		throw parser.syntaxError ("Expected a ',' or ']'");
+	}
+	
+	// name of the current field, after a Name event 
+	public String name () {
+		return name;
+	}
+	
+	// scalar value, after a Value event 
+	public Object value () {
+		return value;
+	}
+	
+	public int depth () {
+		return depth;
+	}
+	
+	/**
+	 * Materialize the object just started (call after a StartObject event)
+	 */
+	public JsonObject readObject () throws JsonException {
+		JsonObject object = new JsonObject ();
+		String key = null;
+		while (true) {
+			Event event = next ();
+			switch (event) {
+				case Name:
+					key = name;
+					break;
+				case Value:
+					object.set (key, value);
+					break;
+				case StartObject:
+					object.set (key, readObject ());
+					break;
+				case StartArray:
+					object.set (key, readArray ());
+					break;
+				case EndObject:
+					return object;
+				default:
+					throw parser.syntaxError ("Unexpected " + event);
+			}
+		}
+	}
+	
+	/**
+	 * Materialize the array just started (call after a StartArray event)
+	 */
+	public JsonArray readArray () throws JsonException {
+		JsonArray array = new JsonArray ();
+		while (true) {
+			Event event = next ();
+			switch (event) {
+				case Value:
+					array.add (value);
+					break;
+				case StartObject:
+					array.add (readObject ());
+					break;
+				case StartArray:
+					array.add (readArray ());
+					break;
+				case EndArray:
+					return array;
+				default:
+					throw parser.syntaxError ("Unexpected " + event);
+			}
+		}
+	}
+	
+	/**
+	 * Skip the object or array just started 
+	 */
+	public void skip () throws JsonException {
+		int level = depth;
+		while (depth >= level) {
+			if (next () == Event.End) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void close () throws IOException {
+		reader.close ();
+	}
+	
+	private Event nextName () throws JsonException {
+		Object key = parser.nextValue ();
+		if (key instanceof JsonEntity) {
+			throw parser.syntaxError ("Expected a field name");
+		}
+		name = key.toString ();
+		
+		char c = parser.nextClean ();
+		if (c == '=') {
+			if (parser.next () != '>') {
+				parser.back ();
+			}
+		} else if (c != ':') {
+			throw parser.syntaxError ("Expected a ':' after a key");
+		}
+		states [depth - 1] = ExpectValue;
+		return Event.Name;
+	}
+	
+	private Event nextValue () throws JsonException {
+		if (depth > 0) {
+			states [depth - 1] = ExpectNext;
+		}
+		char c = parser.nextClean ();
+		switch (c) {
+			case '{':
+				push (InObject);
+				return Event.StartObject;
+			case '[':
+			case '(':
+				push (InArray);
+				return Event.StartArray;
+			case 0:
+				throw parser.syntaxError ("Missing value");
+			case ',':
+				if (depth > 0 && containers [depth - 1] == InArray) {
+					// empty element [1,,2]
+					parser.back ();
+					value = Lang.Null;
+					return Event.Value;
+				}
+				break;
+			default:
+				break;
+		}
+		parser.back ();
+		value = parser.nextValue ();
+		return Event.Value;
+	}
+	
+	private void push (int container) {
+		if (depth == containers.length) {
+			int [] c = new int [depth * 2];
+			int [] s = new int [depth * 2];
+			System.arraycopy (containers, 0, c, 0, depth);
+			System.arraycopy (states, 0, s, 0, depth);
+			containers 	= c;
+			states 		= s;
+		}
+		containers [depth] 	= container;
+		states [depth] 		= ExpectFirst;
+		depth++;
+	}
+	
+	private Event pop (Event event) {
+		depth--;
+		return event;
+	}
+	
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.bluenimble.platform.Lang;
+
+/**
+ * Writes json as UTF-8 bytes straight to an output stream.
+ * 
+ * Bytes are encoded into a buffer borrowed from the calling thread and written to the stream when it's full or on flush.
+ * Values are escaped the same way Json.escape does, without creating intermediate strings. 
+ * 
+ * close () flushes and gives back the buffer, it doesn't close the underlying stream.
+ */
+public class StreamEmitter extends AbstractEmitter {
+	
+	private static final int 					BufferSize 	= 8 * 1024;
+	
+	// max bytes a single char can produce (\\uXXXX)
+	private static final int 					MaxCharBytes = 6;
+	
+	private static final byte [] 				Hex 		= "0123456789abcdef".getBytes ();
+	
+	private static final ThreadLocal<byte []> 	Buffers 	= new ThreadLocal<byte []> ();
+	
+	private OutputStream 	out;
+	
+	private byte [] 		buff;
+	private int 			position;
+	private int 			limit;
+	
+	public StreamEmitter (OutputStream out) {
+		super ();
+		this.out = out;
+		buff = Buffers.get ();
+		if (buff == null) {
+			buff = new byte [BufferSize];
+		} else {
+			Buffers.set (null);
+		}
+		limit = buff.length - MaxCharBytes;
+	}
+
+	@Override
+	public JsonEmitter write (String text) {
+		if (text == null) {
+			return this;
+		}
+		int length = text.length ();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt (i);
+			if (position > limit) {
+				drain ();
+			}
+			if (c < 0x80) {
+				buff [position++] = (byte)c;
+			} else {
+				i = encode (text, i, c);
+			}
+		}
+		return this;
+	} 
+	
+	@Override
+	public void onValue (JsonEntity p, String name, Object value) {
+		if (value == null) {
+			write (Lang.NULL);
+			return;
+		}
+		put ('"');
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			writeLong (((Number)value).longValue ());
+		} else if (value instanceof Number || value instanceof Boolean) {
+			// ascii only, nothing to escape
+			write (String.valueOf (value));
+		} else {
+			escape (String.valueOf (value));
+		}
+		put ('"');
+	}
+	
+	public void flush () throws IOException {
+		if (buff == null) {
+			return;
+		}
+		if (position > 0) {
+			out.write (buff, 0, position);
+			position = 0;
+		}
+		out.flush ();
+	}
+	
+	public void close () throws IOException {
+		if (buff == null) {
+			return;
+		}
+		try {
+			flush ();
+		} finally {
+			Buffers.set (buff);
+			buff = null;
+		}
+	}
+	
+	private void escape (String value) {
+		int length = value.length ();
+		char c = 0;
+		for (int i = 0; i < length; i++) {
+			char b = c;
+			c = value.charAt (i);
+			if (position > limit) {
+				drain ();
+			}
+			// fast path, printable ascii
+			if (c >= ' ' && c < 0x80 && c != '"' && c != '\\' && c != '/') {
+				buff [position++] = (byte)c;
+				continue;
+			}
+			switch (c) {
+				case '\\':
+				case '"':
+					buff [position++] = '\\';
+					buff [position++] = (byte)c;
+					break;
+				case '/':
+					if (b == '<') {
+						buff [position++] = '\\';
+					}
+					buff [position++] = '/';
+					break;
+				case '\b':
+					escaped ('b');
+					break;
+				case '\t':
+					escaped ('t');
+					break;
+				case '\n':
+					escaped ('n');
+					break;
+				case '\f':
+					escaped ('f');
+					break;
+				case '\r':
+					escaped ('r');
+					break;
+				default:
+					if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+						buff [position++] = '\\';
+						buff [position++] = 'u';
+						buff [position++] = Hex [(c >> 12) & 0xF];
+						buff [position++] = Hex [(c >> 8) & 0xF];
+						buff [position++] = Hex [(c >> 4) & 0xF];
+						buff [position++] = Hex [c & 0xF];
+					} else {
+						i = encode (value, i, c);
+					}
+			}
+		}
+	}
+	
+	// encodes a non ascii char, returns the index of the last char consumed
+	private int encode (String value, int i, char c) {
+		if (c < 0x800) {
+			buff [position++] = (byte)(0xC0 | (c >> 6));
+			buff [position++] = (byte)(0x80 | (c & 0x3F));
+			return i;
+		}
+		if (!Character.isSurrogate (c)) {
+			buff [position++] = (byte)(0xE0 | (c >> 12));
+			buff [position++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+			buff [position++] = (byte)(0x80 | (c & 0x3F));
+			return i;
+		}
+		if (Character.isHighSurrogate (c) && i + 1 < value.length () && Character.isLowSurrogate (value.charAt (i + 1))) {
+			int cp = Character.toCodePoint (c, value.charAt (i + 1));
+			buff [position++] = (byte)(0xF0 | (cp >> 18));
+			buff [position++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+			buff [position++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+			buff [position++] = (byte)(0x80 | (cp & 0x3F));
+			return i + 1;
+		}
+		// malformed, same replacement as String.getBytes
+		buff [position++] = '?';
+		return i;
+	}
+	
+	private void writeLong (long value) {
+		if (value == Long.MIN_VALUE) {
+			write (String.valueOf (value));
+			return;
+		}
+		if (position + 20 > buff.length) {
+			drain ();
+		}
+		if (value < 0) {
+			buff [position++] = '-';
+			value = -value;
+		}
+		int digits = 1;
+		for (long v = value; v >= 10; v /= 10) {
+			digits++;
+		}
+		int index = position + digits;
+		position = index;
+		do {
+			buff [--index] = (byte)('0' + (value % 10));
+			value /= 10;
+		} while (value > 0);
+	}
+	
+	private void escaped (char c) {
+		buff [position++] = '\\';
+		buff [position++] = (byte)c;
+	}
+	
+	private void put (char c) {
+		if (position >= buff.length) {
+			drain ();
+		}
+		buff [position++] = (byte)c;
+	}
+	
+	private void drain () {
+		try {
+			out.write (buff, 0, position);
+		} catch (IOException ioex) {
+			throw new UncheckedIOException (ioex);
+		}
+		position = 0;
+	}
+	
+}
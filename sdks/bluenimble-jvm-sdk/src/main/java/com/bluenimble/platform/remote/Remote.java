@@ -18,11 +18,13 @@ package com.bluenimble.platform.remote;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.bluenimble.platform.Feature;
 import com.bluenimble.platform.Recyclable;
 import com.bluenimble.platform.api.ApiStreamSource;
 import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.remote.impls.RemoteFuture;
 
 @Feature (name = "remote")
 public interface Remote extends Recyclable {
@@ -30,6 +32,8 @@ public interface Remote extends Recyclable {
 	interface Error {
 		int UnknownHost = 1100;
 		int Timeout 	= 1200;
+		int CircuitOpen = 1300;
+		int Rejected 	= 1400;
 		int Other 		= 5000;
 	}
 	
@@ -90,6 +94,7 @@ public interface Remote extends Recyclable {
 			String ProxyPort	= "port";
 			
 		String  Pool			= "pool";	
+		String  Policy			= "policy";	
 		
 		String SuccessCode	= "successCode";
 		
@@ -101,6 +106,13 @@ public interface Remote extends Recyclable {
 		void onDone 	(int status, Object data) 		throws IOException;
 		void onError 	(int status, Object message) 	throws IOException;
 	}
+	
+	interface Result {
+		int 				status 	();
+		Map<String, Object> headers ();
+		Object 				data 	();
+		boolean 			failed 	();
+	}
 
 	void post 	(JsonObject spec, Callback callback, ApiStreamSource... attachments);
 	void put 	(JsonObject spec, Callback callback, ApiStreamSource... attachments);
@@ -109,4 +121,25 @@ public interface Remote extends Recyclable {
 	void head 	(JsonObject spec, Callback callback);
 	void patch 	(JsonObject spec, Callback callback);
 	
+	// the returned future completes once the response is received. 
+	// By default the call runs on the common pool, remotes with a non blocking client override these
+	default CompletableFuture<Result> postAsync (JsonObject spec, ApiStreamSource... attachments) {
+		return RemoteFuture.supply (callback -> post (spec, callback, attachments));
+	}
+	default CompletableFuture<Result> putAsync (JsonObject spec, ApiStreamSource... attachments) {
+		return RemoteFuture.supply (callback -> put (spec, callback, attachments));
+	}
+	default CompletableFuture<Result> getAsync (JsonObject spec) {
+		return RemoteFuture.supply (callback -> get (spec, callback));
+	}
+	default CompletableFuture<Result> deleteAsync (JsonObject spec) {
+		return RemoteFuture.supply (callback -> delete (spec, callback));
+	}
+	default CompletableFuture<Result> headAsync (JsonObject spec) {
+		return RemoteFuture.supply (callback -> head (spec, callback));
+	}
+	default CompletableFuture<Result> patchAsync (JsonObject spec) {
+		return RemoteFuture.supply (callback -> patch (spec, callback));
+	}
+	
 }
@@ -19,12 +19,12 @@ public abstract class AbstractRemote implements Remote {
 	
 	@Override
 	public void post (JsonObject spec, Callback callback, ApiStreamSource... attachments) {
-		request (ApiVerb.POST, spec, callback);
+		request (ApiVerb.POST, spec, callback, attachments);
 	}
 
 	@Override
 	public void put (JsonObject spec, Callback callback, ApiStreamSource... attachments) {
-		request (ApiVerb.PUT, spec, callback);
+		request (ApiVerb.PUT, spec, callback, attachments);
 	}
 
 	@Override
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.remote.impls;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.bluenimble.platform.remote.Remote;
+
+/**
+ * Adapts a remote callback to a future. 
+ * Errors reported by the remote (status, timeouts, unknown hosts) complete the future normally with a failed result.
+ */
+public class RemoteFuture extends CompletableFuture<Remote.Result> implements Remote.Callback {
+
+	private Map<String, Object> 	headers;
+	private ByteArrayOutputStream 	chunks;
+
+	// runs a callback based call on the common pool, the future completes when the callback does
+	public static CompletableFuture<Remote.Result> supply (Consumer<Remote.Callback> call) {
+		return CompletableFuture.supplyAsync (() -> {
+			RemoteFuture future = new RemoteFuture ();
+			try {
+				call.accept (future);
+			} catch (Exception ex) {
+				future.completeExceptionally (ex);
+			}
+			return future;
+		}).thenCompose (future -> future);
+	}
+
+	@Override
+	public void onStatus (int status, boolean chunked, Map<String, Object> headers) {
+		this.headers 	= headers;
+	}
+
+	@Override
+	public void onData (int status, byte [] chunk) throws IOException {
+		if (chunks == null) {
+			chunks = new ByteArrayOutputStream ();
+		}
+		chunks.write (chunk);
+	}
+
+	@Override
+	public void onDone (int status, Object data) throws IOException {
+		if (data == null && chunks != null) {
+			data = chunks.toByteArray ();
+		}
+		complete (new RemoteResult (status, headers, data, false));
+	}
+
+	@Override
+	public void onError (int status, Object message) throws IOException {
+		complete (new RemoteResult (status, headers, message, true));
+	}
+
+	static class RemoteResult implements Remote.Result {
+		
+		private int 					status;
+		private Map<String, Object> 	headers;
+		private Object 					data;
+		private boolean 				failed;
+		
+		RemoteResult (int status, Map<String, Object> headers, Object data, boolean failed) {
+			this.status 	= status;
+			this.headers 	= headers;
+			this.data 		= data;
+			this.failed 	= failed;
+		}
+
+		@Override
+		public int status () {
+			return status;
+		}
+
+		@Override
+		public Map<String, Object> headers () {
+			return headers;
+		}
+
+		@Override
+		public Object data () {
+			return data;
+		}
+
+		@Override
+		public boolean failed () {
+			return failed;
+		}
+		
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.db.query.impls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.bluenimble.platform.json.JsonObject;
+
+public class ResultCacheTest {
+
+	private ResultCache cache = new ResultCache (100, 60);
+	
+	@Test
+	public void bindingValueLookingLikeTwoBindings () {
+		// {a=1, b=2} for both with a TreeMap.toString key
+		assertNotEquals (
+			key (bindings ("a", "1, b=2")), 
+			key (bindings ("a", "1", "b", "2"))
+		);
+	}
+	
+	@Test
+	public void bindingTypes () {
+		assertNotEquals (key (bindings ("a", "1")), key (bindings ("a", 1)));
+		assertNotEquals (key (bindings ("a", "null")), key (bindings ("a", null)));
+	}
+	
+	@Test
+	public void listBindings () {
+		assertNotEquals (
+			key (bindings ("ids", Arrays.asList ("a, b"))), 
+			key (bindings ("ids", Arrays.asList ("a", "b")))
+		);
+	}
+	
+	@Test
+	public void queryNameAndPaging () {
+		assertNotEquals (key ("q 1", 0, bindings ()), key ("q", 1, bindings ()));
+		assertNotEquals (key ("q", 0, bindings ()), key ("q", 10, bindings ()));
+	}
+	
+	@Test
+	public void bindingsOrderDoesNotMatter () {
+		assertEquals (
+			key (bindings ("a", 1, "b", Arrays.asList (1, 2))), 
+			key (bindings ("b", Arrays.asList (1, 2), "a", 1))
+		);
+	}
+	
+	@Test
+	public void notCached () {
+		JsonObject source = (JsonObject)new JsonObject ().set (JsonQuery.Spec.Name, "q");
+		assertNull (cache.key (new JsonQuery (source, bindings ("a", 1))));
+	}
+	
+	private String key (Map<String, Object> bindings) {
+		return key ("q", 0, bindings);
+	}
+	
+	private String key (String name, int start, Map<String, Object> bindings) {
+		JsonObject source = (JsonObject)new JsonObject ()
+			.set (JsonQuery.Spec.Name, name)
+			.set (JsonQuery.Spec.Start, start)
+			.set (JsonQuery.Spec.Cache, new JsonObject ().set ("data", true));
+		return cache.key (new JsonQuery (source, bindings));
+	}
+	
+	private static Map<String, Object> bindings (Object... pairs) {
+		Map<String, Object> bindings = new LinkedHashMap<String, Object> ();
+		for (int i = 0; i < pairs.length; i += 2) {
+			bindings.put ((String)pairs [i], pairs [i + 1]);
+		}
+		return bindings;
+	}
+
+}
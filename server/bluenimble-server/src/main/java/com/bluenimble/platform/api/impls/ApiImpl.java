@@ -65,6 +65,7 @@ import com.bluenimble.platform.regex.WildcardCompiler;
 import com.bluenimble.platform.regex.WildcardMatcher;
 import com.bluenimble.platform.server.ApiServer.Event;
 import com.bluenimble.platform.server.ApiServer.Resolver;
+import com.bluenimble.platform.server.admission.ConcurrencyLimiter;
 import com.bluenimble.platform.server.impls.ApiClassLoader;
 import com.bluenimble.platform.server.utils.ConfigKeys;
 import com.bluenimble.platform.server.utils.DescribeUtils;
@@ -109,6 +110,8 @@ public class ApiImpl implements Api {
 	private ApiStatus 				status;
 	
 	private Map<String, Object>		helpers;
+	
+	private ConcurrencyLimiter		limiter;
 		
 	public ApiImpl (ApiSpaceImpl space, File home) {
 		this.space 	= space;
@@ -274,6 +277,9 @@ public class ApiImpl implements Api {
 		tracer.onInstall (this);
 		space.tracer ().log (Tracer.Level.Info, "\t     Tracer: {0}", tracer.getClass ().getSimpleName ());
 		
+		// admission control
+		limiter = ConcurrencyLimiter.create (Json.getObject (descriptor, ConfigKeys.Admission));
+		
 		ApiContext context = new DefaultApiContext ();
 		
 		try {
@@ -531,7 +537,11 @@ public class ApiImpl implements Api {
 		
 		String accept = (String)request.get (ApiHeaders.Accept, Scope.Header);
 		
-		space.tracer ().log (Level.Info, ApiHeaders.Accept + " header: {0}", accept);
+		boolean info = space.tracer ().isEnabled (Level.Info);
+		
+		if (info) {
+			space.tracer ().log (Level.Info, ApiHeaders.Accept + " header: {0}", accept);
+		}
 		
 		if (Lang.isNullOrEmpty (accept)) {
 			accept = defaultContentType;
@@ -543,17 +553,23 @@ public class ApiImpl implements Api {
 
 		String processor = (String)Json.find (service.getMedia (), accept, ApiService.Spec.Media.Processor);
 		
-		space.tracer ().log (Level.Info, "Processor: {0}", processor);
+		if (info) {
+			space.tracer ().log (Level.Info, "Processor: {0}", processor);
+		}
 		
 		if (!Lang.isNullOrEmpty (processor)) {
-			space.tracer ().log (Level.Info, "Processor found, Set SelectedMedia to {0}", accept);
+			if (info) {
+				space.tracer ().log (Level.Info, "Processor found, Set SelectedMedia to {0}", accept);
+			}
 			request.set (ApiRequest.SelectedMedia, accept);
 			return space.getServer ().getMediaProcessorRegistry ().lockup (processor);
 		}
 		
 		// if service has no media spec, get default
 		if (Json.isNullOrEmpty (service.getMedia ())) {
-			space.tracer ().log (Level.Info, "service.getMedia not found, Set SelectedMedia to {0}", accept);
+			if (info) {
+				space.tracer ().log (Level.Info, "service.getMedia not found, Set SelectedMedia to {0}", accept);
+			}
 			request.set (ApiRequest.SelectedMedia, accept);
 			return space.getServer ().getMediaProcessorRegistry ().getDefault ();
 		}
@@ -733,6 +749,10 @@ public class ApiImpl implements Api {
 	public ClassLoader getClassLoader () {
 		return classLoader == null ? Api.class.getClassLoader () : classLoader;
 	}
+	
+	public ConcurrencyLimiter limiter () {
+		return limiter;
+	}
 
 	public ApiService lockup (ApiRequest request) {
 		if (request == null) {
@@ -755,6 +775,11 @@ public class ApiImpl implements Api {
 			return null;
 		}
 		
+		// literal endpoints are found in the same walk, no need to join the path for an exact lookup first
+		if (servicesManager instanceof DefaultApiServicesManager) {
+			return ((DefaultApiServicesManager)servicesManager).find (verb, endpoint);
+		}
+		
 		String path = Lang.SLASH;
 		if (endpoint != null && endpoint.length > 0) {
 			path += Lang.join (endpoint, Lang.SLASH);
@@ -790,8 +815,8 @@ public class ApiImpl implements Api {
 			return;
 		}
 		
-		JsonObject accessors = ((ApiServiceImpl)service).accessors ();
-		if (accessors == null || accessors.isEmpty ()) {
+		ApiServiceImpl.Accessor [] parameters = ((ApiServiceImpl)service).parameters ();
+		if (parameters == null || parameters.length == 0) {
 			return;
 		}
 		
@@ -800,19 +825,13 @@ public class ApiImpl implements Api {
 			return;
 		}
 		
-		Iterator<String> keys = accessors.keys ();
-		while (keys.hasNext ()) {
-			String p = keys.next ();
-			JsonObject a = Json.getObject (accessors, p);
-			int 	index 	= Json.getInteger (a, ApiServiceImpl.SpecExt.Index, 0);
-			boolean unary 	= Json.getBoolean (a, ApiServiceImpl.SpecExt.Unary, true);
-			
-			if (!unary) {
-				request.set (p, Lang.join (Lang.moveLeft (resource, index), Lang.SLASH));
+		for (ApiServiceImpl.Accessor a : parameters) {
+			if (!a.unary) {
+				request.set (a.name, Lang.join (Lang.moveLeft (resource, a.index), Lang.SLASH));
 				return;
 			}
 			
-			request.set (p, resource [index]);
+			request.set (a.name, resource [a.index]);
 		}
 	}
 	
@@ -16,6 +16,8 @@
  */
 package com.bluenimble.platform.api.impls;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -45,6 +47,17 @@ public class ApiServiceImpl implements ApiService {
 		String Unary = "unary";
 	}
 	
+	static class Accessor {
+		String 	name;
+		int 	index;
+		boolean unary;
+		Accessor (String name, int index, boolean unary) {
+			this.name 	= name;
+			this.index 	= index;
+			this.unary 	= unary;
+		}
+	}
+	
 	private 	ApiResource 			resource;
 	
 	protected 	JsonObject 				source;
@@ -58,6 +71,7 @@ public class ApiServiceImpl implements ApiService {
 	protected 	ApiServiceSpi			spi 			= DefaultSpi;
 	
 	private   	JsonObject				accessors;
+	private   	Accessor []				parameters;
 	
 	private Map<String, Object>		helpers;
 	
@@ -212,6 +226,10 @@ public class ApiServiceImpl implements ApiService {
 		return accessors;
 	}
 
+	Accessor [] parameters () {
+		return parameters;
+	}
+
 	protected void dettachSpi () {
 		spi = DefaultSpi; 
 	}
@@ -277,6 +295,8 @@ public class ApiServiceImpl implements ApiService {
 		
 		JsonObject oAccessors = new JsonObject ();
 		
+		List<Accessor> lParameters = new ArrayList<Accessor> ();
+		
 		String [] accessors = Lang.split (endpoint, Lang.SLASH);
 		for (int i = 0; i < accessors.length; i++) {
 			String accessor = accessors [i];
@@ -289,14 +309,18 @@ public class ApiServiceImpl implements ApiService {
 				doubleColonFound = true;
 				endpoint = Lang.replace (endpoint, accessor, Lang.STAR + Lang.STAR);
 				oAccessors.set (accessor.substring (2), new JsonObject ().set (SpecExt.Index, i).set (SpecExt.Unary, false));
+				lParameters.add (new Accessor (accessor.substring (2), i, false));
 			} else if (accessor.startsWith (Lang.COLON)) {
 				endpoint = Lang.replace (endpoint, accessor, Lang.STAR);
 				oAccessors.set (accessor.substring (1), new JsonObject ().set (SpecExt.Index, i).set (SpecExt.Unary, true));
+				lParameters.add (new Accessor (accessor.substring (1), i, true));
 			}
 		}
 		
 		this.accessors 	= oAccessors;
 		
+		this.parameters = lParameters.toArray (new Accessor [lParameters.size ()]);
+		
 		this.endpoint 	= Lang.SLASH + endpoint;
 		
 	}
@@ -60,6 +60,7 @@ import com.bluenimble.platform.server.ApiServer;
 import com.bluenimble.platform.server.ApiServer.Event;
 import com.bluenimble.platform.server.FeatureNotFoundException;
 import com.bluenimble.platform.server.StatusManager;
+import com.bluenimble.platform.server.admission.ConcurrencyLimiter;
 import com.bluenimble.platform.server.impls.fs.FileSystemApiServer;
 import com.bluenimble.platform.server.utils.ConfigKeys;
 import com.bluenimble.platform.server.utils.DescribeUtils;
@@ -102,6 +103,8 @@ public class ApiSpaceImpl extends AbstractApiSpace {
 	
 	private CodeExecutor 			executor;
 	
+	private ConcurrencyLimiter		limiter;
+	
 	StatusManager 					statusManager;
 	
 	protected File 					home;
@@ -769,6 +772,9 @@ public class ApiSpaceImpl extends AbstractApiSpace {
 		
 		if (opts.containsKey (DescribeOption.Option.workers) && executor != null) {
 			describe.set (DescribeOption.Option.workers.name (), executor.describe ());
+			if (limiter != null) {
+				describe.set (ConfigKeys.Admission, limiter.describe ());
+			}
 		}
 
 		return describe;		
@@ -898,6 +904,11 @@ public class ApiSpaceImpl extends AbstractApiSpace {
 		if (executor == null) {
 			executor = DefaultCodeExecutor.Instance;
 		}
+		if (executor instanceof DefaultCodeExecutor && ((DefaultCodeExecutor)executor).fallback () != null) {
+			tracer.log (Tracer.Level.Warning, "Space {0} Executor: {1}", getNamespace (), ((DefaultCodeExecutor)executor).fallback ());
+		}
+		
+		limiter = ConcurrencyLimiter.create (Json.getObject (descriptor, ConfigKeys.Admission));
 		
 		return true;
 	}
@@ -997,5 +1008,9 @@ public class ApiSpaceImpl extends AbstractApiSpace {
 	public CodeExecutor executor () {
 		return executor;
 	}
+	
+	public ConcurrencyLimiter limiter () {
+		return limiter;
+	}
 
 }
@@ -39,6 +39,8 @@ import com.bluenimble.platform.api.ApiVerb;
 import com.bluenimble.platform.api.tracing.Tracer;
 import com.bluenimble.platform.api.validation.ApiServiceValidator;
 import com.bluenimble.platform.api.validation.FieldType;
+import com.bluenimble.platform.api.validation.impls.DefaultApiServiceValidator;
+import com.bluenimble.platform.api.validation.impls.ValidationPlan;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.reflect.ClassLoaderRegistry;
@@ -120,6 +122,17 @@ public class DefaultApiServicesManager implements ApiServicesManager {
 		
 	}
 
+	public ApiService find (ApiVerb verb, String [] resource) {
+		
+		ApiServiceSet set = services.get (verb);
+		if (set == null) {
+			return null;
+		}
+		
+		return set.find (resource);
+		
+	}
+
 	@Override
 	public ApiService put (ApiResource resource) throws ApiServicesManagerException {
 		
@@ -279,6 +292,15 @@ public class DefaultApiServicesManager implements ApiServicesManager {
 				context = new DefaultApiContext ();
 			}
 			service.getSpi ().onStart (api, service, context);
+			
+			// compile the validation spec once
+			ApiServiceValidator validator = api.space.getServer ().getServiceValidator ();
+			if (validator instanceof DefaultApiServiceValidator) {
+				service.setHelper (
+					ValidationPlan.Helper, 
+					((DefaultApiServiceValidator)validator).compile (Json.getObject (service.toJson (), ApiService.Spec.Spec))
+				);
+			}
 		} catch (ApiManagementException ex) {
 			sImpl.failed (ex);
 		} finally {
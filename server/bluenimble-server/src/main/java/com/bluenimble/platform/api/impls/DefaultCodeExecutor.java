@@ -17,13 +17,20 @@
 package com.bluenimble.platform.api.impls;
 
 import java.lang.Thread.State;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -55,6 +62,8 @@ public class DefaultCodeExecutor implements CodeExecutor {
 	}
 	
 	interface Spec {
+		String Type 		= "type";
+		
 		String Group 		= "group";
 		String Priority 	= "priority";
 
@@ -67,6 +76,19 @@ public class DefaultCodeExecutor implements CodeExecutor {
 							= "awaitTermination";
 	}
 	
+	interface Type {
+		// bounded thread pool of SpaceThreads 
+		String Pool 		= "pool";
+		// work-stealing pool, maxSize is the parallelism, the queue is unbounded. 
+		// requests run as managed blockers, the pool adds workers while others block on io
+		String ForkJoin 	= "forkjoin";
+		// a virtual thread per request, requires a jvm 21+. Falls back to an io sized pool otherwise
+		String Virtual 		= "virtual";
+	}
+	
+	// threads per cpu of the pool replacing virtual threads on older jvms
+	private static final int 	IoThreadsPerCpu = 16;
+	
 	public static final CodeExecutor 	Instance = new DefaultCodeExecutor (); 
 	
 	private static final Future<Void> 	NoFuture = new Future<Void> () {
@@ -96,6 +118,14 @@ public class DefaultCodeExecutor implements CodeExecutor {
 	protected ThreadGroup		group;
 	protected ExecutorService 	service;
 	
+	// workers of the forkjoin and virtual executors, these don't belong to the space thread group
+	protected Set<Thread>		threads;
+	protected boolean			perTask;
+	protected boolean			blocking;
+	
+	// why the requested executor type couldn't be used, logged by the space
+	protected String			fallback;
+	
 	protected JsonObject		workers;
 	
 	protected long				timeout;
@@ -121,7 +151,17 @@ public class DefaultCodeExecutor implements CodeExecutor {
 			return NoFuture;
 		}
 		
-		Future<Void> future = service.submit (callable);
+		Future<Void> future = null;
+		try {
+			if (perTask) {
+				callable = new TrackedCallable (callable);
+			} else if (blocking) {
+				callable = new BlockingCallable (callable);
+			}
+			future = service.submit (callable);
+		} catch (RejectedExecutionException e) {
+			throw new CodeExecutorException (e.getMessage (), e);
+		}
 		
 		if (mode.equals (Mode.AsyncWait)) {
 			try {
@@ -161,31 +201,28 @@ public class DefaultCodeExecutor implements CodeExecutor {
 			}
 			
 			JsonObject oth = (JsonObject)new JsonObject ().set (Describe.Worker.Id, t.getId ()).set (Describe.Worker.Name, t.getName ()).set (Describe.Worker.Status, status);
-			if (t instanceof SpaceThread) {
-				SpaceThread st = (SpaceThread)t;
-				ApiRequest request = st.getRequest ();
-				if (request != null) {
-					JsonObject oRequest = new JsonObject ();
-					oRequest.set (ApiRequest.Fields.Id, request.getId ());
-					oRequest.set (ApiRequest.Fields.Verb, request.getVerb ().name ());
-					oRequest.set (ApiRequest.Fields.Endpoint, request.getEndpoint ());
-					oRequest.set (ApiRequest.Fields.Timestamp, Lang.toUTC (request.getTimestamp ()));
-					
-					oth.set (Describe.Worker.request.class.getSimpleName (), oRequest);
-					
-					if (request.getService () != null) {
-						JsonObject oService = new JsonObject ();
-						String script = Json.getString (request.getService ().getSpiDef (), Api.Spec.Spi.Function);
-						oService.set (Api.Spec.Spi.Function, script);
-						if (script == null) {
-							oService.set (Api.Spec.Spi.Function, request.getService ().getSpi ().getClass ().getSimpleName ());
-						}
-						oService.set (ApiService.Spec.Endpoint, request.getService ().getEndpoint ());
-						
-						oth.set (Describe.Worker.Service, oService);
+			ApiRequest request = SpaceThread.requestOf (t);
+			if (request != null) {
+				JsonObject oRequest = new JsonObject ();
+				oRequest.set (ApiRequest.Fields.Id, request.getId ());
+				oRequest.set (ApiRequest.Fields.Verb, request.getVerb ().name ());
+				oRequest.set (ApiRequest.Fields.Endpoint, request.getEndpoint ());
+				oRequest.set (ApiRequest.Fields.Timestamp, Lang.toUTC (request.getTimestamp ()));
+				
+				oth.set (Describe.Worker.request.class.getSimpleName (), oRequest);
+				
+				if (request.getService () != null) {
+					JsonObject oService = new JsonObject ();
+					String script = Json.getString (request.getService ().getSpiDef (), Api.Spec.Spi.Function);
+					oService.set (Api.Spec.Spi.Function, script);
+					if (script == null) {
+						oService.set (Api.Spec.Spi.Function, request.getService ().getSpi ().getClass ().getSimpleName ());
 					}
+					oService.set (ApiService.Spec.Endpoint, request.getService ().getEndpoint ());
 					
+					oth.set (Describe.Worker.Service, oService);
 				}
+				
 			}
 			oThreads.set (t.getName (), oth);
 		}
@@ -236,7 +273,9 @@ public class DefaultCodeExecutor implements CodeExecutor {
 			return;
 		}
 		
-		group = new ThreadGroup (Json.getString (workers, Spec.Group, DefaultGroup));
+		this.workers = workers;
+		
+		String groupName = Json.getString (workers, Spec.Group, DefaultGroup);
 	
 		String sPriority = Json.getString (workers, Spec.Priority, DefaultPriority).toLowerCase ();
 		
@@ -244,14 +283,54 @@ public class DefaultCodeExecutor implements CodeExecutor {
 		if (priority == null) {
 			priority = Thread.NORM_PRIORITY;
 		}
-		group.setMaxPriority (priority);
-
-		service = new ThreadPoolExecutor (
-			Json.getInteger (workers, Spec.CoreSize, 10), Json.getInteger (workers, Spec.MaxSize, 10),
-			Json.getLong (workers, Spec.KeepAlive, 0L), TimeUnit.MILLISECONDS,
-			new ArrayBlockingQueue<Runnable> (Json.getInteger (workers, Spec.Queue, 10)), 
-			new SpaceThreadFactory (group)
-		);
+		
+		String type = Json.getString (workers, Spec.Type, Type.Pool).toLowerCase ();
+		
+		if (Type.Virtual.equals (type)) {
+			threads = Collections.newSetFromMap (new ConcurrentHashMap<Thread, Boolean> ());
+			service = newVirtualExecutor (groupName);
+			perTask = service != null;
+			if (service == null) {
+				threads = null;
+				fallback = "virtual threads require a jvm 21+ (running " + System.getProperty ("java.version") + "), falling back to an io sized thread pool";
+			}
+		}
+		
+		if (Type.ForkJoin.equals (type)) {
+			threads = Collections.newSetFromMap (new ConcurrentHashMap<Thread, Boolean> ());
+			service = new ForkJoinPool (
+				Json.getInteger (workers, Spec.MaxSize, Runtime.getRuntime ().availableProcessors ()), 
+				new SpaceForkJoinThreadFactory (groupName, priority, threads), 
+				null, 
+				true
+			);
+			blocking = true;
+		} 
+		
+		if (service == null) {
+			group = new ThreadGroup (groupName);
+			group.setMaxPriority (priority);
+			
+			if (Type.Virtual.equals (type)) {
+				// requests mostly wait on io, size the pool by what they wait for rather than by cpus
+				int size = Json.getInteger (workers, Spec.MaxSize, Runtime.getRuntime ().availableProcessors () * IoThreadsPerCpu);
+				ThreadPoolExecutor pool = new ThreadPoolExecutor (
+					size, size,
+					Json.getLong (workers, Spec.KeepAlive, 60000L), TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable> (Json.getInteger (workers, Spec.Queue, size)), 
+					new SpaceThreadFactory (group)
+				);
+				pool.allowCoreThreadTimeOut (true);
+				service = pool;
+			} else {
+				service = new ThreadPoolExecutor (
+					Json.getInteger (workers, Spec.CoreSize, 10), Json.getInteger (workers, Spec.MaxSize, 10),
+					Json.getLong (workers, Spec.KeepAlive, 0L), TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable> (Json.getInteger (workers, Spec.Queue, 10)), 
+					new SpaceThreadFactory (group)
+				);
+			}
+		}
 		
 		timeout 			= Json.getLong (workers, Spec.Timeout, 10000);
 		awaitTermination 	= Json.getLong (workers, Spec.AwaitTermination, 60000);
@@ -261,8 +340,15 @@ public class DefaultCodeExecutor implements CodeExecutor {
 	public JsonObject getWorkers () {
 		return workers;
 	}
+	
+	public String fallback () {
+		return fallback;
+	}
 
 	private Thread [] listThreads () {
+		if (threads != null) {
+			return threads.toArray (new Thread [threads.size ()]);
+		}
 		if (group == null) {
 			return null;
 		}
@@ -270,5 +356,84 @@ public class DefaultCodeExecutor implements CodeExecutor {
 		group.enumerate (threads, false);
 		return threads;
 	}
+	
+	private ExecutorService newVirtualExecutor (String prefix) {
+		try {
+			Class<?> builderType = Class.forName ("java.lang.Thread$Builder");
+			
+			Object builder = Thread.class.getMethod ("ofVirtual").invoke (null);
+			builder = builderType.getMethod ("name", String.class, long.class).invoke (builder, prefix + Lang.DASH, 0L);
+			
+			ThreadFactory factory = (ThreadFactory)builderType.getMethod ("factory").invoke (builder);
+			
+			return (ExecutorService)Executors.class.getMethod ("newThreadPerTaskExecutor", ThreadFactory.class).invoke (null, factory);
+		} catch (Exception ex) {
+			// virtual threads not supported by this jvm
+			return null;
+		}
+	}
+	
+	class TrackedCallable implements Callable<Void> {
+		
+		private Callable<Void> callable;
+		
+		TrackedCallable (Callable<Void> callable) {
+			this.callable = callable;
+		}
+		
+		@Override
+		public Void call () throws Exception {
+			Thread thread = Thread.currentThread ();
+			threads.add (thread);
+			try {
+				return callable.call ();
+			} finally {
+				threads.remove (thread);
+			}
+		}
+		
+	}
+	
+	// lets the forkjoin pool compensate a worker blocked by the request with a spare one
+	static class BlockingCallable implements Callable<Void>, ForkJoinPool.ManagedBlocker {
+		
+		private Callable<Void> 	callable;
+		
+		private boolean 		done;
+		private Exception 		failure;
+		
+		BlockingCallable (Callable<Void> callable) {
+			this.callable = callable;
+		}
+		
+		@Override
+		public Void call () throws Exception {
+			ForkJoinPool.managedBlock (this);
+			if (failure != null) {
+				throw failure;
+			}
+			return null;
+		}
+
+		@Override
+		public boolean block () throws InterruptedException {
+			try {
+				callable.call ();
+			} catch (InterruptedException iex) {
+				throw iex;
+			} catch (Exception ex) {
+				failure = ex;
+			} finally {
+				done = true;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isReleasable () {
+			return done;
+		}
+		
+	}
 
 }
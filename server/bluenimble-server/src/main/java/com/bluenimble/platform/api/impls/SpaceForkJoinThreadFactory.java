@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.api.impls;
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import com.bluenimble.platform.Lang;
+
+public class SpaceForkJoinThreadFactory implements ForkJoinWorkerThreadFactory {
+
+	private String 		prefix;
+	private int 		priority;
+	private Set<Thread> workers;
+
+	public SpaceForkJoinThreadFactory (String prefix, int priority, Set<Thread> workers) {
+		this.prefix 	= prefix;
+		this.priority 	= priority;
+		this.workers 	= workers;
+	}
+
+	@Override
+	public ForkJoinWorkerThread newThread (ForkJoinPool pool) {
+		return new Worker (pool);
+	}
+
+	class Worker extends ForkJoinWorkerThread {
+
+		Worker (ForkJoinPool pool) {
+			super (pool);
+			setName (prefix + Lang.DASH + getId ());
+			setPriority (priority);
+		}
+
+		@Override
+		protected void onStart () {
+			super.onStart ();
+			workers.add (this);
+		}
+
+		@Override
+		protected void onTermination (Throwable exception) {
+			workers.remove (this);
+			super.onTermination (exception);
+		}
+
+	}
+
+}
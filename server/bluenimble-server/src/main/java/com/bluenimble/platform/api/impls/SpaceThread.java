@@ -16,11 +16,17 @@
  */
 package com.bluenimble.platform.api.impls;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.api.ApiRequest;
 
 public class SpaceThread extends Thread {
 	
+	// requests bound to workers which can't be SpaceThreads (fork-join and virtual workers)
+	private static final Map<Thread, ApiRequest> Bindings = new ConcurrentHashMap<Thread, ApiRequest> ();
+	
 	private ApiRequest request;
 	
 	private String originalName; 
@@ -43,4 +49,28 @@ public class SpaceThread extends Thread {
 	public ApiRequest getRequest () {
     	return request;
     }
+	
+	public static void bind (ApiRequest request) {
+		Thread thread = Thread.currentThread ();
+		if (thread instanceof SpaceThread) {
+			((SpaceThread)thread).setRequest (request);
+			return;
+		}
+		if (request == null) {
+			Bindings.remove (thread);
+		} else {
+			Bindings.put (thread, request);
+		}
+	}
+	
+	public static ApiRequest requestOf (Thread thread) {
+		if (thread instanceof SpaceThread) {
+			return ((SpaceThread)thread).getRequest ();
+		}
+		return Bindings.get (thread);
+	}
+	
+	public static ApiRequest current () {
+		return requestOf (Thread.currentThread ());
+	}
 }
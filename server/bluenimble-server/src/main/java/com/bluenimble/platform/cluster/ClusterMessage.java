@@ -25,4 +25,9 @@ public interface ClusterMessage extends Serializable {
 	ClusterSerializer 	serializer 	();
 	ClusterTask 		task 		();
 	
+	// an idempotent message can be dropped when the same one is already the last queued for a member
+	default boolean coalescable () {
+		return false;
+	}
+	
 }
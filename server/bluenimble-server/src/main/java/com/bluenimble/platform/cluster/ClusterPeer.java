@@ -17,6 +17,7 @@
 package com.bluenimble.platform.cluster;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import com.bluenimble.platform.json.JsonObject;
 
@@ -31,7 +32,12 @@ public interface ClusterPeer extends Serializable {
 	
 	JsonObject 	describe 	();
 
+	// ids of the live members, this peer excluded
+	Collection<String>
+				members 	();
+
 	void 		send 		(ClusterMessage message) throws ClusterException;
+	void 		send 		(String member, ClusterMessage message) throws ClusterException;
 	
 	void		disconnect 	();
 	
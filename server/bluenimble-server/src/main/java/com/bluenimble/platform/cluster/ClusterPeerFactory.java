@@ -18,8 +18,10 @@ package com.bluenimble.platform.cluster;
 
 import java.io.Serializable;
 
+import com.bluenimble.platform.server.ApiServer;
+
 public interface ClusterPeerFactory extends Serializable {
 	
-	ClusterPeer	create 	() throws ClusterException;
+	ClusterPeer	create 	(ApiServer server) throws ClusterException;
 	
 }
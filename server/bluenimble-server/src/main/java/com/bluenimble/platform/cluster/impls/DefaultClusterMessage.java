@@ -28,11 +28,17 @@ public class DefaultClusterMessage implements ClusterMessage {
 	private Object 				object;
 	private ClusterSerializer 	serializer;
 	private ClusterTask 		task;
+	private boolean 			coalescable;
 	
 	public DefaultClusterMessage (ApiServer server, Object object, String serializer, String task) {
+		this (server, object, serializer, task, false);
+	}
+	
+	public DefaultClusterMessage (ApiServer server, Object object, String serializer, String task, boolean coalescable) {
 		this.object 		= object;
 		this.serializer 	= server.getSerializer (serializer);
 		this.task 			= server.getTask (task);
+		this.coalescable 	= coalescable;
 	}
 	
 	@Override
@@ -50,4 +56,9 @@ public class DefaultClusterMessage implements ClusterMessage {
 		return task;
 	}
 
+	@Override
+	public boolean coalescable () {
+		return coalescable;
+	}
+
 }
@@ -16,6 +16,9 @@
  */
 package com.bluenimble.platform.cluster.impls;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import com.bluenimble.platform.Json;
 import com.bluenimble.platform.cluster.ClusterMessage;
 import com.bluenimble.platform.cluster.ClusterPeer;
@@ -43,11 +46,21 @@ public class DefaultClusterPeer implements ClusterPeer {
 		return source;
 	}
 
+	@Override
+	public Collection<String> members () {
+		return Collections.emptyList ();
+	}
+
 	@Override
 	public void send (ClusterMessage message) {
 		
 	}
 
+	@Override
+	public void send (String member, ClusterMessage message) {
+		
+	}
+
 	@Override
 	public void disconnect () {
 	}
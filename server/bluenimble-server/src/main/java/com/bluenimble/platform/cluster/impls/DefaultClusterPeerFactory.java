@@ -18,14 +18,16 @@ package com.bluenimble.platform.cluster.impls;
 
 import com.bluenimble.platform.cluster.ClusterPeer;
 import com.bluenimble.platform.cluster.ClusterPeerFactory;
+import com.bluenimble.platform.server.ApiServer;
 
 public class DefaultClusterPeerFactory implements ClusterPeerFactory {
 
 	private static final long serialVersionUID = -5209362174715980509L;
 
 	@Override
-	public ClusterPeer create () {
-		return null;
+	public ClusterPeer create (ApiServer server) {
+		// standalone node
+		return new DefaultClusterPeer (server.id ());
 	}
 
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Java deserialization restricted to an allowlist of classes. 
+ * 
+ * Entries are class names or packages ending with '.*'. Strings, boxed primitives, numbers, dates, json values and the 
+ * common collections are always accepted, arrays are checked on their component type and proxies are rejected.
+ */
+public class FilteredObjectInputStream extends ObjectInputStream {
+
+	private static final Set<String> Safe = new HashSet<String> (Arrays.asList (
+		"java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Byte", "java.lang.Short", 
+		"java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Number", "java.lang.Enum",
+		"java.math.BigDecimal", "java.math.BigInteger", "java.util.Date",
+		"java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap", "java.util.LinkedHashMap", "java.util.HashSet", "java.util.LinkedHashSet",
+		"com.bluenimble.platform.json.JsonAbstractEntity", "com.bluenimble.platform.json.JsonObject", "com.bluenimble.platform.json.JsonArray"
+	));
+	
+	private Collection<String> allowed;
+	
+	public FilteredObjectInputStream (InputStream in, Collection<String> allowed) throws IOException {
+		super (in);
+		this.allowed = allowed;
+	}
+
+	@Override
+	protected Class<?> resolveClass (ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+		if (!isAllowed (desc.getName (), allowed)) {
+			throw new InvalidClassException (desc.getName (), "not allowed to be deserialized");
+		}
+		return super.resolveClass (desc);
+	}
+
+	@Override
+	protected Class<?> resolveProxyClass (String [] interfaces) throws IOException, ClassNotFoundException {
+		throw new InvalidClassException ("proxy classes are not allowed to be deserialized");
+	}
+	
+	public static boolean isAllowed (String name, Collection<String> allowed) {
+		int dimensions = 0;
+		while (dimensions < name.length () && name.charAt (dimensions) == '[') {
+			dimensions++;
+		}
+		if (dimensions > 0) {
+			// arrays of primitives
+			if (name.charAt (dimensions) != 'L') {
+				return true;
+			}
+			name = name.substring (dimensions + 1, name.length () - 1);
+		}
+		if (Safe.contains (name)) {
+			return true;
+		}
+		if (allowed == null) {
+			return false;
+		}
+		for (String entry : allowed) {
+			if (entry.endsWith (".*") ? name.startsWith (entry.substring (0, entry.length () - 1)) : name.equals (entry)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
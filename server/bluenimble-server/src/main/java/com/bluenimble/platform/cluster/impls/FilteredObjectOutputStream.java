@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+
+/**
+ * Java serialization of the classes a FilteredObjectInputStream with the same allowlist accepts. 
+ * A value the receiving side would reject fails on the sending side, before anything is sent.
+ */
+public class FilteredObjectOutputStream extends ObjectOutputStream {
+
+	private Collection<String> allowed;
+	
+	public FilteredObjectOutputStream (OutputStream out, Collection<String> allowed) throws IOException {
+		super (out);
+		this.allowed = allowed;
+		enableReplaceObject (true);
+	}
+
+	@Override
+	protected Object replaceObject (Object o) throws IOException {
+		if (o == null || o instanceof String) {
+			return o;
+		}
+		Class<?> type = o instanceof Enum ? ((Enum<?>)o).getDeclaringClass () : o.getClass ();
+		if (Proxy.isProxyClass (type)) {
+			throw new InvalidClassException (type.getName (), "proxy classes are not allowed to be deserialized");
+		}
+		// the reader resolves each serializable class of the hierarchy
+		while (type != null && Serializable.class.isAssignableFrom (type)) {
+			if (!FilteredObjectInputStream.isAllowed (type.getName (), allowed)) {
+				throw new InvalidClassException (type.getName (), "not allowed to be deserialized");
+			}
+			type = type.getSuperclass ();
+		}
+		return o;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+
+import com.bluenimble.platform.cluster.ClusterSerializer;
+
+/**
+ * Java serialization, only the allowed classes are serialized and deserialized (see FilteredObjectInputStream). 
+ * Not registered by default, the server registers it when its 'serializable' allowlist is set.
+ */
+public class JavaSerializer implements ClusterSerializer {
+
+	public static final String Name = "java";
+	
+	private static final OutputStream Discard = new OutputStream () {
+		@Override
+		public void write (int b) {
+		}
+		@Override
+		public void write (byte [] b, int off, int len) {
+		}
+	};
+	
+	private String 				name;
+	private Collection<String> 	allowed;
+	
+	public JavaSerializer (Collection<String> allowed) {
+		this (Name, allowed);
+	}
+	
+	public JavaSerializer (String name, Collection<String> allowed) {
+		this.name 		= name;
+		this.allowed 	= allowed;
+	}
+	
+	@Override
+	public String name () {
+		return name;
+	}
+
+	@Override
+	public Object toObject (byte [] bytes, int pos, int len) {
+		ObjectInputStream in = null;
+		try {
+			in = new FilteredObjectInputStream (new ByteArrayInputStream (bytes, pos, len), allowed);
+			return in.readObject ();
+		} catch (IOException | ClassNotFoundException ex) {
+			throw new IllegalArgumentException (ex.getMessage (), ex);
+		}
+	}
+
+	@Override
+	public byte [] toBytes (Object o) {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream ();
+		write (o, buffer);
+		return buffer.toByteArray ();
+	}
+	
+	// fails if 'o' holds a class the receiving side won't deserialize
+	public void check (Object o) {
+		write (o, Discard);
+	}
+	
+	private void write (Object o, OutputStream stream) {
+		try {
+			ObjectOutputStream out = new FilteredObjectOutputStream (stream, allowed);
+			out.writeObject (o);
+			out.close ();
+		} catch (IOException ioex) {
+			throw new IllegalArgumentException (ioex.getMessage (), ioex);
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.binary;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.bluenimble.platform.cluster.ClusterSerializer;
+
+/**
+ * Compact, schema-less binary encoding of json objects, arrays and primitives (MessagePack like).
+ * 
+ * Small integers take a single byte, numbers are varints, object keys and short strings are written once per value
+ * then referenced by index. Values of other types are java serialized, and only deserialized if their classes are allowed
+ * (see FilteredObjectInputStream).
+ * 
+ * write / read work on ByteBuffers directly, so callers can encode into their own frame buffers.
+ */
+public class BinarySerializer implements ClusterSerializer {
+
+	public static final String Name = "binary";
+	
+	private static final int InitialSize = 256;
+	
+	private Collection<String> allowed;
+	
+	public BinarySerializer () {
+		this (null);
+	}
+	
+	public BinarySerializer (Collection<String> allowed) {
+		this.allowed = allowed;
+	}
+	
+	@Override
+	public String name () {
+		return Name;
+	}
+
+	@Override
+	public Object toObject (byte [] bytes, int pos, int len) {
+		return read (ByteBuffer.wrap (bytes, pos, len));
+	}
+
+	@Override
+	public byte [] toBytes (Object o) {
+		ByteBuffer buffer = write (o, ByteBuffer.allocate (InitialSize));
+		if (buffer.position () == buffer.capacity ()) {
+			return buffer.array ();
+		}
+		return Arrays.copyOf (buffer.array (), buffer.position ());
+	}
+	
+	// writes at the buffer position. Returns the buffer holding the result, a larger one if the given one was too small
+	public ByteBuffer write (Object o, ByteBuffer buffer) {
+		Encoder encoder = new Encoder (buffer);
+		encoder.write (o);
+		return encoder.buffer ();
+	}
+	
+	// reads one value from the buffer position
+	public Object read (ByteBuffer buffer) {
+		return new Decoder (buffer, allowed).read ();
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.bluenimble.platform.cluster.impls.FilteredObjectInputStream;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Reads a value from the current position of a ByteBuffer. Heap buffers are decoded in place.
+ */
+class Decoder {
+	
+	private ByteBuffer 			buffer;
+	private List<String> 		interned;
+	private Collection<String> 	allowed;
+	
+	Decoder (ByteBuffer buffer, Collection<String> allowed) {
+		this.buffer 	= buffer;
+		this.allowed 	= allowed;
+	}
+	
+	Object read () {
+		byte tag = buffer.get ();
+		if ((tag & Tag.FixInt) != 0) {
+			return tag & Tag.FixIntMax;
+		}
+		switch (tag) {
+			case Tag.Null:
+				return null;
+			case Tag.True:
+				return true;
+			case Tag.False:
+				return false;
+			case Tag.Integer:
+				long value = readZigZag ();
+				if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					return (int)value;
+				}
+				return value;
+			case Tag.Double:
+				return buffer.getDouble ();
+			case Tag.Float:
+				return buffer.getFloat ();
+			case Tag.Decimal:
+				return new BigDecimal (readString (buffer.get ()));
+			case Tag.BigInteger:
+				return new BigInteger (readString (buffer.get ()));
+			case Tag.String:
+			case Tag.StringDef:
+			case Tag.StringRef:
+				return readString (tag);
+			case Tag.Object:
+				int count = readCount ();
+				JsonObject object = new JsonObject ();
+				for (int i = 0; i < count; i++) {
+					String key = readString (buffer.get ());
+					object.put (key, read ());
+				}
+				return object;
+			case Tag.Array:
+				count = readCount ();
+				JsonArray array = new JsonArray ();
+				for (int i = 0; i < count; i++) {
+					array.add (read ());
+				}
+				return array;
+			case Tag.Bytes:
+				byte [] bytes = new byte [readCount ()];
+				buffer.get (bytes);
+				return bytes;
+			case Tag.Date:
+				return new Date (readZigZag ());
+			case Tag.Serializable:
+				return deserialize (readCount ());
+			default:
+				throw new IllegalArgumentException ("unknown value tag " + tag);
+		}
+	}
+	
+	private String readString (byte tag) {
+		if (tag == Tag.StringRef) {
+			long index = readVarLong ();
+			if (interned == null || index < 0 || index >= interned.size ()) {
+				throw new IllegalArgumentException ("unknown string reference " + index);
+			}
+			return interned.get ((int)index);
+		}
+		if (tag != Tag.String && tag != Tag.StringDef) {
+			throw new IllegalArgumentException ("string expected, found tag " + tag);
+		}
+		int length = readCount ();
+		String value;
+		if (buffer.hasArray ()) {
+			value = new String (buffer.array (), buffer.arrayOffset () + buffer.position (), length, StandardCharsets.UTF_8);
+			buffer.position (buffer.position () + length);
+		} else {
+			byte [] bytes = new byte [length];
+			buffer.get (bytes);
+			value = new String (bytes, StandardCharsets.UTF_8);
+		}
+		if (tag == Tag.StringDef) {
+			if (interned == null) {
+				interned = new ArrayList<String> ();
+			}
+			interned.add (value);
+		}
+		return value;
+	}
+	
+	private long readZigZag () {
+		long value = readVarLong ();
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	// lengths and element counts, each element takes at least a byte so neither can exceed what's left in the frame.
+	// A forged count is rejected before anything is allocated
+	private int readCount () {
+		long count = readVarLong ();
+		if (count < 0 || count > buffer.remaining ()) {
+			throw new IllegalArgumentException ("invalid count " + count);
+		}
+		return (int)count;
+	}
+	
+	private long readVarLong () {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get ();
+			value |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException ("malformed varint");
+	}
+	
+	private Object deserialize (int length) {
+		byte [] bytes = new byte [length];
+		buffer.get (bytes);
+		try {
+			ObjectInputStream in = new FilteredObjectInputStream (new ByteArrayInputStream (bytes), allowed);
+			return in.readObject ();
+		} catch (IOException | ClassNotFoundException ex) {
+			throw new IllegalArgumentException (ex.getMessage (), ex);
+		}
+	}
+	
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.json.JsonArray;
+
+/**
+ * Writes a value straight into a ByteBuffer, replacing it by a larger one when full.
+ * Object keys and short strings are written once, later occurrences are a reference to the first one.
+ */
+class Encoder {
+	
+	private static final int InternMax = 32;
+	
+	private ByteBuffer 				buffer;
+	private Map<String, Integer> 	interned;
+	
+	Encoder (ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+	
+	ByteBuffer buffer () {
+		return buffer;
+	}
+	
+	void write (Object value) {
+		if (value == null || Lang.Null.equals (value)) {
+			put (Tag.Null);
+		} else if (value instanceof String) {
+			writeString ((String)value, ((String)value).length () <= InternMax);
+		} else if (value instanceof Boolean) {
+			put ((Boolean)value ? Tag.True : Tag.False);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			long v = ((Number)value).longValue ();
+			if (v >= 0 && v <= Tag.FixIntMax) {
+				put ((byte)(Tag.FixInt | v));
+			} else {
+				put (Tag.Integer);
+				writeVarLong ((v << 1) ^ (v >> 63));
+			}
+		} else if (value instanceof Double) {
+			ensure (9);
+			buffer.put (Tag.Double).putDouble ((Double)value);
+		} else if (value instanceof Float) {
+			ensure (5);
+			buffer.put (Tag.Float).putFloat ((Float)value);
+		} else if (value instanceof BigDecimal) {
+			put (Tag.Decimal);
+			writeString (value.toString (), false);
+		} else if (value instanceof BigInteger) {
+			put (Tag.BigInteger);
+			writeString (value.toString (), false);
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>)value;
+			put (Tag.Object);
+			writeVarLong (map.size ());
+			Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet ().iterator ();
+			while (entries.hasNext ()) {
+				Map.Entry<?, ?> entry = entries.next ();
+				writeString (String.valueOf (entry.getKey ()), true);
+				write (entry.getValue ());
+			}
+		} else if (value instanceof JsonArray) {
+			JsonArray array = (JsonArray)value;
+			put (Tag.Array);
+			writeVarLong (array.count ());
+			for (int i = 0; i < array.count (); i++) {
+				write (array.get (i));
+			}
+		} else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>)value;
+			put (Tag.Array);
+			writeVarLong (collection.size ());
+			for (Object o : collection) {
+				write (o);
+			}
+		} else if (value instanceof byte []) {
+			byte [] bytes = (byte [])value;
+			put (Tag.Bytes);
+			writeVarLong (bytes.length);
+			ensure (bytes.length);
+			buffer.put (bytes);
+		} else if (value instanceof Date) {
+			long millis = ((Date)value).getTime ();
+			put (Tag.Date);
+			writeVarLong ((millis << 1) ^ (millis >> 63));
+		} else if (value instanceof java.io.Serializable) {
+			byte [] bytes = serialize (value);
+			put (Tag.Serializable);
+			writeVarLong (bytes.length);
+			ensure (bytes.length);
+			buffer.put (bytes);
+		} else {
+			writeString (String.valueOf (value), false);
+		}
+	}
+	
+	private void writeString (String value, boolean intern) {
+		if (intern) {
+			if (interned == null) {
+				interned = new HashMap<String, Integer> ();
+			}
+			Integer index = interned.get (value);
+			if (index != null) {
+				put (Tag.StringRef);
+				writeVarLong (index);
+				return;
+			}
+			interned.put (value, interned.size ());
+		}
+		
+		int length = value.length ();
+		int utf8 = utf8Length (value);
+		
+		put (intern ? Tag.StringDef : Tag.String);
+		writeVarLong (utf8);
+		ensure (utf8);
+		
+		if (utf8 == length) {
+			for (int i = 0; i < length; i++) {
+				buffer.put ((byte)value.charAt (i));
+			}
+			return;
+		}
+		
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt (i);
+			if (c < 0x80) {
+				buffer.put ((byte)c);
+			} else if (c < 0x800) {
+				buffer.put ((byte)(0xc0 | (c >> 6)));
+				buffer.put ((byte)(0x80 | (c & 0x3f)));
+			} else if (Character.isHighSurrogate (c) && i + 1 < length && Character.isLowSurrogate (value.charAt (i + 1))) {
+				int cp = Character.toCodePoint (c, value.charAt (++i));
+				buffer.put ((byte)(0xf0 | (cp >> 18)));
+				buffer.put ((byte)(0x80 | ((cp >> 12) & 0x3f)));
+				buffer.put ((byte)(0x80 | ((cp >> 6) & 0x3f)));
+				buffer.put ((byte)(0x80 | (cp & 0x3f)));
+			} else if (Character.isSurrogate (c)) {
+				buffer.put ((byte)'?');
+			} else {
+				buffer.put ((byte)(0xe0 | (c >> 12)));
+				buffer.put ((byte)(0x80 | ((c >> 6) & 0x3f)));
+				buffer.put ((byte)(0x80 | (c & 0x3f)));
+			}
+		}
+	}
+	
+	private static int utf8Length (String value) {
+		int length = value.length ();
+		int utf8 = length;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt (i);
+			if (c < 0x80) {
+				continue;
+			}
+			if (c < 0x800) {
+				utf8 += 1;
+			} else if (Character.isHighSurrogate (c) && i + 1 < length && Character.isLowSurrogate (value.charAt (i + 1))) {
+				// 2 chars, 4 bytes
+				utf8 += 2;
+				i++;
+			} else if (Character.isSurrogate (c)) {
+				// malformed, written as '?'
+			} else {
+				utf8 += 2;
+			}
+		}
+		return utf8;
+	}
+	
+	private void writeVarLong (long value) {
+		ensure (10);
+		while ((value & ~0x7FL) != 0) {
+			buffer.put ((byte)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put ((byte)value);
+	}
+	
+	private void put (byte b) {
+		ensure (1);
+		buffer.put (b);
+	}
+	
+	private void ensure (int size) {
+		if (buffer.remaining () >= size) {
+			return;
+		}
+		int capacity = Math.max (buffer.capacity () * 2, buffer.position () + size);
+		ByteBuffer larger = buffer.isDirect () ? ByteBuffer.allocateDirect (capacity) : ByteBuffer.allocate (capacity);
+		buffer.flip ();
+		larger.put (buffer);
+		buffer = larger;
+	}
+	
+	private static byte [] serialize (Object value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+		try {
+			ObjectOutputStream out = new ObjectOutputStream (bytes);
+			out.writeObject (value);
+			out.close ();
+		} catch (IOException ioex) {
+			throw new IllegalArgumentException (ioex.getMessage (), ioex);
+		}
+		return bytes.toByteArray ();
+	}
+	
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.binary;
+
+/**
+ * Value tags of the binary serializer. 
+ * A tag byte with the high bit set is an integer between 0 and 127 (fixint), no extra byte.
+ */
+interface Tag {
+	byte 	Null 			= 0;
+	byte 	True 			= 1;
+	byte 	False 			= 2;
+	// zigzag varint
+	byte 	Integer 		= 3;
+	byte 	Double 			= 4;
+	byte 	Float 			= 5;
+	byte 	Decimal 		= 6;
+	byte 	BigInteger 		= 7;
+	// varint utf-8 length, bytes
+	byte 	String 			= 8;
+	// same as String, added to the strings of the value
+	byte 	StringDef 		= 9;
+	// varint index of a StringDef already read
+	byte 	StringRef 		= 10;
+	// varint count, key / value pairs
+	byte 	Object 			= 11;
+	byte 	Array 			= 12;
+	byte 	Bytes 			= 13;
+	// zigzag varint millis
+	byte 	Date 			= 14;
+	// java serialization of anything else
+	byte 	Serializable 	= 15;
+	
+	int 	FixInt 			= 0x80;
+	int 	FixIntMax 		= 0x7f;
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.tcp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Authenticates the frames of a connection with the secret shared by the cluster members.
+ * 
+ * The accepting side sends a random challenge once the connection is open. The connecting side follows each frame 
+ * with HMAC-SHA256 (challenge | sequence | frame), frames can't be forged, replayed on another connection or reordered.
+ * 
+ * Only used by the peer selector thread.
+ */
+final class FrameAuthenticator {
+	
+	private static final String Algorithm = "HmacSHA256";
+	
+	static final int 			ChallengeSize 	= 16;
+	static final int 			MacSize 		= 32;
+	
+	private Mac 				mac;
+	private SecureRandom 		random 			= new SecureRandom ();
+	private ByteBuffer 			sequenceBytes 	= ByteBuffer.allocate (8);
+	private byte [] 			expected 		= new byte [MacSize];
+	private byte [] 			received 		= new byte [MacSize];
+	
+	FrameAuthenticator (String secret) throws GeneralSecurityException {
+		mac = Mac.getInstance (Algorithm);
+		mac.init (new SecretKeySpec (secret.getBytes (StandardCharsets.UTF_8), Algorithm));
+	}
+	
+	byte [] challenge () {
+		byte [] challenge = new byte [ChallengeSize];
+		random.nextBytes (challenge);
+		return challenge;
+	}
+	
+	// appends the mac of the frame to the buffer
+	void sign (byte [] challenge, long sequence, byte [] frame, ByteBuffer out) {
+		update (challenge, sequence);
+		mac.update (frame);
+		try {
+			mac.doFinal (expected, 0);
+		} catch (GeneralSecurityException gsex) {
+			throw new IllegalStateException (gsex);
+		}
+		out.put (expected);
+	}
+	
+	// the frame is 'length' bytes at the buffer position, followed by its mac. Positions are left unchanged
+	boolean verify (byte [] challenge, long sequence, ByteBuffer buffer, int length) {
+		int start = buffer.position ();
+		
+		update (challenge, sequence);
+		ByteBuffer frame = buffer.duplicate ();
+		frame.limit (start + length);
+		mac.update (frame);
+		try {
+			mac.doFinal (expected, 0);
+		} catch (GeneralSecurityException gsex) {
+			throw new IllegalStateException (gsex);
+		}
+		
+		ByteBuffer signature = buffer.duplicate ();
+		signature.position (start + length);
+		signature.get (received);
+		
+		return MessageDigest.isEqual (expected, received);
+	}
+	
+	private void update (byte [] challenge, long sequence) {
+		mac.update (challenge);
+		sequenceBytes.clear ();
+		sequenceBytes.putLong (sequence).flip ();
+		mac.update (sequenceBytes);
+	}
+	
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.tcp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.bluenimble.platform.cluster.impls.binary.BinarySerializer;
+
+/**
+ * Wire format of the tcp peer
+ * 
+ * frame 		: length (int) | type (byte) | body
+ * heartbeat 	: id (utf) | address (utf) | count (short) | member addresses (utf)
+ * message 		: task (utf) | serializer (utf) | payload
+ */
+final class Frames {
+	
+	static final byte 	Heartbeat 	= 1;
+	static final byte 	Message 	= 2;
+	
+	static final int 	LengthSize 	= 4;
+	
+	static byte [] heartbeat (String id, String address, Collection<String> members) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream (64 + members.size () * 24);
+			DataOutputStream out = start (buffer, Heartbeat);
+			out.writeUTF (id);
+			out.writeUTF (address);
+			out.writeShort (members.size ());
+			for (String member : members) {
+				out.writeUTF (member);
+			}
+			return end (buffer);
+		} catch (IOException ioex) {
+			// in memory
+			throw new IllegalStateException (ioex);
+		}
+	}
+	
+	static byte [] message (String task, String serializer, byte [] payload) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream (payload.length + task.length () + serializer.length () + 16);
+			DataOutputStream out = start (buffer, Message);
+			out.writeUTF (task);
+			out.writeUTF (serializer);
+			out.write (payload);
+			return end (buffer);
+		} catch (IOException ioex) {
+			// in memory
+			throw new IllegalStateException (ioex);
+		}
+	}
+	
+	// the payload is encoded right after the header, no intermediate copy
+	static byte [] message (String task, BinarySerializer serializer, Object object) {
+		byte [] header;
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream (task.length () + 16);
+			DataOutputStream out = start (buffer, Message);
+			out.writeUTF (task);
+			out.writeUTF (serializer.name ());
+			header = buffer.toByteArray ();
+		} catch (IOException ioex) {
+			// in memory
+			throw new IllegalStateException (ioex);
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate (header.length + 256);
+		buffer.put (header);
+		buffer = serializer.write (object, buffer);
+		buffer.putInt (0, buffer.position () - LengthSize);
+		
+		if (buffer.position () == buffer.capacity ()) {
+			return buffer.array ();
+		}
+		return Arrays.copyOf (buffer.array (), buffer.position ());
+	}
+	
+	static Heartbeat readHeartbeat (byte [] body) throws IOException {
+		DataInputStream in = new DataInputStream (new ByteArrayInputStream (body));
+		Heartbeat heartbeat = new Heartbeat ();
+		heartbeat.id 		= in.readUTF ();
+		heartbeat.address 	= in.readUTF ();
+		int count = in.readShort ();
+		heartbeat.members 	= new ArrayList<String> (count);
+		for (int i = 0; i < count; i++) {
+			heartbeat.members.add (in.readUTF ());
+		}
+		return heartbeat;
+	}
+	
+	static Message readMessage (byte [] body) throws IOException {
+		ByteArrayInputStream bytes = new ByteArrayInputStream (body);
+		DataInputStream in = new DataInputStream (bytes);
+		Message message = new Message ();
+		message.task 		= in.readUTF ();
+		message.serializer 	= in.readUTF ();
+		message.payload 	= body;
+		message.offset 		= body.length - bytes.available ();
+		return message;
+	}
+	
+	private static DataOutputStream start (ByteArrayOutputStream buffer, byte type) throws IOException {
+		DataOutputStream out = new DataOutputStream (buffer);
+		// length placeholder
+		out.writeInt (0);
+		out.writeByte (type);
+		return out;
+	}
+	
+	private static byte [] end (ByteArrayOutputStream buffer) {
+		byte [] frame = buffer.toByteArray ();
+		int length = frame.length - LengthSize;
+		frame [0] = (byte)(length >>> 24);
+		frame [1] = (byte)(length >>> 16);
+		frame [2] = (byte)(length >>> 8);
+		frame [3] = (byte)length;
+		return frame;
+	}
+	
+	static class Heartbeat {
+		String 			id;
+		String 			address;
+		List<String> 	members;
+	}
+	
+	static class Message {
+		String 	task;
+		String 	serializer;
+		byte [] payload;
+		int 	offset;
+	}
+	
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.tcp;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * A remote node as seen by this peer.
+ * 
+ * Frames sent to a member are batched until the peer flushes them in a single write. 
+ * A coalescable message identical to the last one waiting in the batch isn't queued twice, the order of messages is kept.
+ * Channel and state fields are only touched by the peer selector thread.
+ */
+class Member {
+	
+	enum State {
+		Joining,
+		Alive,
+		Down
+	}
+	
+	interface Describe {
+		String Id 			= "id";
+		String Address 		= "address";
+		String State 		= "state";
+		String LastSeen 	= "lastSeen";
+		String Pending 		= "pending";
+		String Sent 		= "sent";
+		String Coalesced 	= "coalesced";
+		String Dropped 		= "dropped";
+	}
+	
+	final String 				address;
+	final InetSocketAddress 	socketAddress;
+	// listed in the peer config, never removed
+	final boolean 				configured;
+	
+	volatile String 			id;
+	volatile State 				state = State.Joining;
+	volatile long 				lastSeen;
+	
+	long 						since;
+	long 						nextConnect;
+	
+	SocketChannel 				channel;
+	volatile boolean 			connected;
+	ByteBuffer 					writing;
+	
+	// challenge received from the member when frames are authenticated, and the sequence of the next frame
+	ByteBuffer 					challenge;
+	long 						sequence;
+	
+	// batch, guarded by this
+	private List<byte []> 		batch 		= new ArrayList<byte []> ();
+	private byte [] 			last;
+	private int 				batchBytes;
+	private long 				batchStart;
+	
+	private AtomicLong 			sent 		= new AtomicLong ();
+	private AtomicLong 			coalesced 	= new AtomicLong ();
+	private AtomicLong 			dropped 	= new AtomicLong ();
+	
+	Member (String address, boolean configured, long now) {
+		this.address 		= address;
+		this.configured 	= configured;
+		this.since 			= now;
+		int indexOfColon = address.lastIndexOf (Lang.COLON);
+		this.socketAddress 	= new InetSocketAddress (address.substring (0, indexOfColon), Integer.parseInt (address.substring (indexOfColon + 1)));
+	}
+	
+	// returns the pending bytes, or -1 if the frame was dropped
+	synchronized int enqueue (byte [] frame, boolean coalescable, int maxPending) {
+		if (state == State.Down) {
+			dropped.incrementAndGet ();
+			return -1;
+		}
+		if (coalescable && last != null && Arrays.equals (last, frame)) {
+			coalesced.incrementAndGet ();
+			return batchBytes;
+		}
+		if (batchBytes + frame.length > maxPending) {
+			dropped.incrementAndGet ();
+			return -1;
+		}
+		if (batch.isEmpty ()) {
+			batchStart = System.currentTimeMillis ();
+		}
+		batch.add (frame);
+		batchBytes += frame.length;
+		last = frame;
+		return batchBytes;
+	}
+	
+	// true if the batch should be written now
+	synchronized boolean ready (long now, long linger, int batchSize) {
+		return !batch.isEmpty () && (batchBytes >= batchSize || now - batchStart >= linger);
+	}
+	
+	// the whole batch in one buffer, each frame followed by its mac if frames are authenticated
+	synchronized ByteBuffer drain (FrameAuthenticator authenticator) {
+		if (batch.isEmpty ()) {
+			return null;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate (batchBytes + (authenticator == null ? 0 : batch.size () * FrameAuthenticator.MacSize));
+		for (byte [] frame : batch) {
+			buffer.put (frame);
+			if (authenticator != null) {
+				authenticator.sign (challenge.array (), sequence++, frame, buffer);
+			}
+		}
+		buffer.flip ();
+		sent.addAndGet (batch.size ());
+		batch.clear ();
+		last = null;
+		batchBytes = 0;
+		return buffer;
+	}
+	
+	synchronized void clear () {
+		dropped.addAndGet (batch.size ());
+		batch.clear ();
+		last = null;
+		batchBytes = 0;
+		writing = null;
+	}
+	
+	synchronized JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Describe.Id, id);
+		describe.set (Describe.Address, address);
+		describe.set (Describe.State, state.name ());
+		describe.set (Describe.LastSeen, lastSeen);
+		describe.set (Describe.Pending, batch.size ());
+		describe.set (Describe.Sent, sent.get ());
+		describe.set (Describe.Coalesced, coalesced.get ());
+		describe.set (Describe.Dropped, dropped.get ());
+		return describe;
+	}
+	
+}
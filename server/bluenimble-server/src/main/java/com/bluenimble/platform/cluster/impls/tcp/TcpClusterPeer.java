@@ -0,0 +1,744 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.tcp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.tracing.Tracer;
+import com.bluenimble.platform.cluster.ClusterException;
+import com.bluenimble.platform.cluster.ClusterMessage;
+import com.bluenimble.platform.cluster.ClusterPeer;
+import com.bluenimble.platform.cluster.ClusterSerializer;
+import com.bluenimble.platform.cluster.ClusterTask;
+import com.bluenimble.platform.cluster.impls.binary.BinarySerializer;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.server.ApiServer;
+
+/**
+ * Full mesh of tcp connections driven by a single selector thread.
+ * 
+ * Each node opens one outbound connection (Direction.Out) to every member and writes heartbeats and messages to it.
+ * Inbound connections (Direction.In) are only read. 
+ * A member is Down if nothing was received from it for 'failureTimeout' millis. Messages to a Down member are dropped.
+ * 
+ * With seeds discovery, members learn each other from the member list carried by the heartbeats.
+ * Messages are only accepted on connections whose heartbeat comes from a member. 
+ * With a 'secret', every frame is authenticated (see FrameAuthenticator).
+ * 
+ * Received messages are handed to the named ClusterTask of this node on 'workers' threads. Messages of a connection run 
+ * one after the other in the order they were sent, whatever the number of workers, different connections run in parallel.
+ */
+public class TcpClusterPeer implements ClusterPeer, Runnable {
+
+	private static final long serialVersionUID = -2446017946112052470L;
+	
+	interface Describe {
+		String Id 			= "id";
+		String Address 		= "address";
+		String Discovery 	= "discovery";
+		String Members 		= "members";
+		String Received 	= "received";
+		String Failed 		= "failed";
+		String Rejected 	= "rejected";
+		String Authenticated= "authenticated";
+	}
+	
+	private static final int ReadBuffer = 64 * 1024;
+	
+	private transient ApiServer 					server;
+	private transient Tracer 						tracer;
+	
+	private String 									id;
+	private String 									address;
+	
+	private boolean 								seeds;
+	private long 									heartbeat;
+	private long 									failureTimeout;
+	private long 									linger;
+	private int 									batchSize;
+	private int 									maxPending;
+	private int 									maxFrameSize;
+	
+	private transient Map<String, Member> 			members 	= new ConcurrentHashMap<String, Member> ();
+	
+	private transient Selector 						selector;
+	private transient ServerSocketChannel 			acceptor;
+	private transient Thread 						thread;
+	private transient ExecutorService 				workers;
+	private volatile boolean 						running 	= true;
+	
+	private transient long 							nextHeartbeat;
+	
+	private transient FrameAuthenticator 			authenticator;
+	
+	private AtomicLong 								received 	= new AtomicLong ();
+	private AtomicLong 								failed 		= new AtomicLong ();
+	private AtomicLong 								rejected 	= new AtomicLong ();
+	
+	public TcpClusterPeer (ApiServer server, TcpClusterPeerFactory config) throws ClusterException {
+		this.server 		= server;
+		this.tracer 		= server.tracer ();
+		
+		this.seeds 			= TcpClusterPeerFactory.Discovery.Seeds.equalsIgnoreCase (config.getDiscovery ());
+		this.heartbeat 		= config.getHeartbeat ();
+		this.failureTimeout = config.getFailureTimeout ();
+		this.linger 		= config.getLinger ();
+		this.batchSize 		= config.getBatchSize ();
+		this.maxPending 	= config.getMaxPending ();
+		this.maxFrameSize 	= config.getMaxFrameSize ();
+		
+		if (!Lang.isNullOrEmpty (config.getSecret ())) {
+			try {
+				authenticator = new FrameAuthenticator (config.getSecret ());
+			} catch (GeneralSecurityException gsex) {
+				throw new ClusterException ("CantAuthenticateFrames", gsex);
+			}
+		}
+		
+		try {
+			address = advertised (config);
+			
+			// unique in the cluster, unlike the server id which is the same on every node by default
+			id = Lang.isNullOrEmpty (config.getId ()) ? address : config.getId ();
+			
+			selector = Selector.open ();
+			
+			acceptor = ServerSocketChannel.open ();
+			acceptor.setOption (StandardSocketOptions.SO_REUSEADDR, true);
+			acceptor.bind (new InetSocketAddress (config.getHost (), config.getPort ()));
+			acceptor.configureBlocking (false);
+			acceptor.register (selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException ioex) {
+			throw new ClusterException ("CantListen[" + config.getHost () + Lang.COLON + config.getPort () + "]", ioex);
+		}
+		
+		long now = System.currentTimeMillis ();
+		
+		JsonArray configured = config.getMembers ();
+		if (configured != null) {
+			for (int i = 0; i < configured.count (); i++) {
+				String member = String.valueOf (configured.get (i)).trim ();
+				if (!member.equals (address)) {
+					members.put (member, new Member (member, true, now));
+				}
+			}
+		}
+		
+		workers = Executors.newFixedThreadPool (Math.max (1, config.getWorkers ()), new PeerThreadFactory ("cluster-worker"));
+		
+		thread = new PeerThreadFactory ("cluster-peer").newThread (this);
+		thread.start ();
+		
+		tracer.log (Tracer.Level.Info, "Cluster peer {0} listening @ {1}, {2} discovery, members {3}", id, address, seeds ? "seeds" : "static", members.keySet ());
+		if (authenticator == null) {
+			tracer.log (Tracer.Level.Warning, "Cluster peer {0} has no secret, frames are not authenticated", id);
+		}
+	}
+	
+	@Override
+	public String id () {
+		return id;
+	}
+
+	@Override
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Describe.Id, id);
+		describe.set (Describe.Address, address);
+		describe.set (Describe.Discovery, seeds ? TcpClusterPeerFactory.Discovery.Seeds : TcpClusterPeerFactory.Discovery.Static);
+		describe.set (Describe.Received, received.get ());
+		describe.set (Describe.Failed, failed.get ());
+		describe.set (Describe.Rejected, rejected.get ());
+		describe.set (Describe.Authenticated, authenticator != null);
+		JsonArray aMembers = new JsonArray ();
+		for (Member member : members.values ()) {
+			aMembers.add (member.describe ());
+		}
+		describe.set (Describe.Members, aMembers);
+		return describe;
+	}
+
+	@Override
+	public Collection<String> members () {
+		List<String> alive = new ArrayList<String> (members.size ());
+		for (Member member : members.values ()) {
+			if (member.state == Member.State.Alive) {
+				alive.add (member.id);
+			}
+		}
+		return alive;
+	}
+
+	@Override
+	public void send (ClusterMessage message) throws ClusterException {
+		send (frame (message), message.coalescable (), members.values ());
+	}
+
+	@Override
+	public void send (String id, ClusterMessage message) throws ClusterException {
+		for (Member member : members.values ()) {
+			if (id.equals (member.id)) {
+				send (frame (message), message.coalescable (), Collections.singletonList (member));
+				return;
+			}
+		}
+		throw new ClusterException ("member " + id + " not found");
+	}
+	
+	private void send (byte [] frame, boolean coalescable, Collection<Member> targets) {
+		boolean wakeup = linger <= 0;
+		for (Member member : targets) {
+			if (member.enqueue (frame, coalescable, maxPending) >= batchSize) {
+				wakeup = true;
+			}
+		}
+		if (wakeup) {
+			selector.wakeup ();
+		}
+	}
+	
+	private byte [] frame (ClusterMessage message) throws ClusterException {
+		ClusterSerializer serializer = message.serializer ();
+		if (serializer == null) {
+			throw new ClusterException ("message serializer not found");
+		}
+		ClusterTask task = message.task ();
+		if (task == null) {
+			throw new ClusterException ("message task not found");
+		}
+		
+		// serialized once for all members
+		byte [] frame;
+		if (serializer instanceof BinarySerializer) {
+			frame = Frames.message (task.name (), (BinarySerializer)serializer, message.object ());
+		} else {
+			frame = Frames.message (task.name (), serializer.name (), serializer.toBytes (message.object ()));
+		}
+		if (frame.length > maxFrameSize) {
+			throw new ClusterException ("message too large [" + frame.length + " > " + maxFrameSize + "]");
+		}
+		return frame;
+	}
+
+	@Override
+	public void disconnect () {
+		running = false;
+		if (selector != null) {
+			selector.wakeup ();
+		}
+		try {
+			thread.join (heartbeat * 2);
+		} catch (InterruptedException iex) {
+			Thread.currentThread ().interrupt ();
+		}
+		workers.shutdown ();
+	}
+	
+	@Override
+	public void run () {
+		long tick = Math.max (1, linger > 0 ? Math.min (linger, heartbeat) : heartbeat);
+		try {
+			while (running) {
+				selector.select (tick);
+				
+				Iterator<SelectionKey> keys = selector.selectedKeys ().iterator ();
+				while (keys.hasNext ()) {
+					SelectionKey key = keys.next ();
+					keys.remove ();
+					try {
+						process (key);
+					} catch (IOException ioex) {
+						close (key);
+					}
+				}
+				
+				long now = System.currentTimeMillis ();
+				if (now >= nextHeartbeat) {
+					heartbeat (now);
+					nextHeartbeat = now + heartbeat;
+				}
+				flush (now, false);
+			}
+		} catch (ClosedSelectorException csex) {
+			// shutdown
+		} catch (Throwable th) {
+			tracer.log (Tracer.Level.Error, "Cluster peer stopped", th);
+		} finally {
+			shutdown ();
+		}
+	}
+	
+	private void process (SelectionKey key) throws IOException {
+		if (!key.isValid ()) {
+			return;
+		}
+		if (key.isAcceptable ()) {
+			accept ();
+			return;
+		}
+		if (key.isConnectable ()) {
+			connected ((Member)key.attachment ());
+			return;
+		}
+		if (key.isReadable ()) {
+			if (key.attachment () instanceof Inbound) {
+				read (key, (Inbound)key.attachment ());
+			} else if (!((Member)key.attachment ()).connected && ((Member)key.attachment ()).challenge != null) {
+				challenged ((Member)key.attachment ());
+			} else if (((SocketChannel)key.channel ()).read (ByteBuffer.allocate (1)) < 0) {
+				// outbound connections are write only once challenged, this is the remote closing
+				throw new IOException ("closed by peer");
+			}
+		}
+		if (key.isValid () && key.isWritable ()) {
+			write ((Member)key.attachment ());
+		}
+	}
+	
+	private void accept () throws IOException {
+		SocketChannel channel = acceptor.accept ();
+		if (channel == null) {
+			return;
+		}
+		channel.configureBlocking (false);
+		channel.setOption (StandardSocketOptions.TCP_NODELAY, true);
+		
+		Inbound inbound = new Inbound ();
+		if (authenticator != null) {
+			inbound.challenge = authenticator.challenge ();
+			// a few bytes on a new connection, the socket buffer is empty
+			ByteBuffer challenge = ByteBuffer.wrap (inbound.challenge);
+			channel.write (challenge);
+			if (challenge.hasRemaining ()) {
+				channel.close ();
+				return;
+			}
+		}
+		channel.register (selector, SelectionKey.OP_READ, inbound);
+	}
+	
+	private void connect (Member member, long now) {
+		member.nextConnect = now + heartbeat;
+		SocketChannel channel = null;
+		try {
+			channel = SocketChannel.open ();
+			channel.configureBlocking (false);
+			channel.setOption (StandardSocketOptions.TCP_NODELAY, true);
+			member.channel = channel;
+			if (channel.connect (member.socketAddress)) {
+				channel.register (selector, SelectionKey.OP_READ, member);
+				connected (member);
+			} else {
+				channel.register (selector, SelectionKey.OP_CONNECT, member);
+			}
+		} catch (IOException ioex) {
+			disconnected (member);
+		}
+	}
+	
+	private void connected (Member member) throws IOException {
+		SocketChannel channel = member.channel;
+		if (channel.isConnectionPending () && !channel.finishConnect ()) {
+			return;
+		}
+		channel.keyFor (selector).interestOps (SelectionKey.OP_READ);
+		if (authenticator != null) {
+			// frames are sent once the challenge of the member is received
+			member.challenge = ByteBuffer.allocate (FrameAuthenticator.ChallengeSize);
+			return;
+		}
+		established (member);
+	}
+	
+	private void challenged (Member member) throws IOException {
+		if (member.channel.read (member.challenge) < 0) {
+			throw new IOException ("closed by peer");
+		}
+		if (!member.challenge.hasRemaining ()) {
+			member.sequence = 0;
+			established (member);
+		}
+	}
+	
+	private void established (Member member) throws IOException {
+		member.connected = true;
+		if (member.state == Member.State.Down) {
+			// give it a chance to answer our heartbeats
+			member.state = Member.State.Joining;
+			member.since = System.currentTimeMillis ();
+		}
+		member.enqueue (heartbeatFrame (), false, Integer.MAX_VALUE);
+		write (member);
+	}
+	
+	private void disconnected (Member member) {
+		if (member.channel != null) {
+			SelectionKey key = member.channel.keyFor (selector);
+			if (key != null) {
+				key.cancel ();
+			}
+			try {
+				member.channel.close ();
+			} catch (IOException ioex) {
+				// ignore
+			}
+		}
+		member.channel 		= null;
+		member.connected 	= false;
+		member.writing 		= null;
+		member.challenge 	= null;
+		member.sequence 	= 0;
+	}
+	
+	private void close (SelectionKey key) {
+		key.cancel ();
+		if (key.attachment () instanceof Member) {
+			disconnected ((Member)key.attachment ());
+			return;
+		}
+		try {
+			key.channel ().close ();
+		} catch (IOException ioex) {
+			// ignore
+		}
+	}
+	
+	private void write (Member member) throws IOException {
+		if (!member.connected) {
+			return;
+		}
+		SocketChannel channel = member.channel;
+		while (true) {
+			if (member.writing == null || !member.writing.hasRemaining ()) {
+				member.writing = member.drain (authenticator);
+				if (member.writing == null) {
+					break;
+				}
+			}
+			channel.write (member.writing);
+			if (member.writing.hasRemaining ()) {
+				// socket buffer full, wait until writable
+				channel.keyFor (selector).interestOps (SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return;
+			}
+		}
+		member.writing = null;
+		channel.keyFor (selector).interestOps (SelectionKey.OP_READ);
+	}
+	
+	private void flush (long now, boolean force) {
+		for (Member member : members.values ()) {
+			if (!member.connected || member.writing != null || !member.ready (now, force ? 0 : linger, force ? 0 : batchSize)) {
+				continue;
+			}
+			try {
+				write (member);
+			} catch (IOException ioex) {
+				disconnected (member);
+			}
+		}
+	}
+	
+	private void read (SelectionKey key, Inbound inbound) throws IOException {
+		SocketChannel channel = (SocketChannel)key.channel ();
+		
+		int read = channel.read (inbound.buffer);
+		if (read < 0) {
+			throw new IOException ("closed by peer");
+		}
+		
+		int macSize = authenticator == null ? 0 : FrameAuthenticator.MacSize;
+		
+		ByteBuffer buffer = inbound.buffer;
+		buffer.flip ();
+		while (buffer.remaining () >= Frames.LengthSize) {
+			int length = buffer.getInt (buffer.position ());
+			if (length <= 0 || length > maxFrameSize) {
+				throw new IOException ("invalid frame length " + length);
+			}
+			if (buffer.remaining () < Frames.LengthSize + length + macSize) {
+				break;
+			}
+			if (authenticator != null && !authenticator.verify (inbound.challenge, inbound.sequence++, buffer, Frames.LengthSize + length)) {
+				rejected.incrementAndGet ();
+				throw new IOException ("frame authentication failed");
+			}
+			buffer.position (buffer.position () + Frames.LengthSize);
+			byte type = buffer.get ();
+			byte [] body = new byte [length - 1];
+			buffer.get (body);
+			buffer.position (buffer.position () + macSize);
+			onFrame (inbound, type, body);
+		}
+		buffer.compact ();
+		
+		// grow for large frames
+		if (!buffer.hasRemaining ()) {
+			ByteBuffer larger = ByteBuffer.allocate (Math.min (buffer.capacity () * 2, maxFrameSize + Frames.LengthSize + macSize));
+			if (larger.capacity () == buffer.capacity ()) {
+				throw new IOException ("frame exceeds " + maxFrameSize);
+			}
+			buffer.flip ();
+			larger.put (buffer);
+			inbound.buffer = larger;
+		}
+	}
+	
+	private void onFrame (Inbound inbound, byte type, byte [] body) throws IOException {
+		if (type == Frames.Heartbeat) {
+			onHeartbeat (inbound, Frames.readHeartbeat (body));
+		} else if (type == Frames.Message) {
+			if (inbound.member == null) {
+				// no heartbeat from a member on this connection yet
+				rejected.incrementAndGet ();
+				return;
+			}
+			inbound.member.lastSeen = System.currentTimeMillis ();
+			deliver (inbound, Frames.readMessage (body));
+		} else {
+			throw new IOException ("unknown frame type " + type);
+		}
+	}
+	
+	private void onHeartbeat (Inbound inbound, Frames.Heartbeat heartbeat) {
+		long now = System.currentTimeMillis ();
+		
+		Member member = members.get (heartbeat.address);
+		if (member == null && seeds) {
+			member = join (heartbeat.address, now);
+		}
+		inbound.member = member;
+		if (member == null) {
+			// not a member of a static cluster, its messages are rejected
+			if (!inbound.warned) {
+				tracer.log (Tracer.Level.Warning, "Cluster peer {0} @ {1} isn't a member", heartbeat.id, heartbeat.address);
+				inbound.warned = true;
+			}
+			return;
+		}
+		
+		member.id 		= heartbeat.id;
+		member.lastSeen = now;
+		if (member.state != Member.State.Alive) {
+			tracer.log (Tracer.Level.Info, "Cluster member {0} @ {1} is Alive", member.id, member.address);
+			member.state = Member.State.Alive;
+		}
+		
+		if (!seeds) {
+			return;
+		}
+		for (String address : heartbeat.members) {
+			if (!members.containsKey (address)) {
+				join (address, now);
+			}
+		}
+	}
+	
+	private Member join (String address, long now) {
+		if (address.equals (this.address)) {
+			return null;
+		}
+		Member member = new Member (address, false, now);
+		members.put (address, member);
+		tracer.log (Tracer.Level.Info, "Cluster member {0} discovered", address);
+		return member;
+	}
+	
+	private void deliver (Inbound inbound, final Frames.Message message) {
+		final ClusterTask task = server.getTask (message.task);
+		final ClusterSerializer serializer = server.getSerializer (message.serializer);
+		if (task == null || serializer == null) {
+			failed.incrementAndGet ();
+			tracer.log (Tracer.Level.Warning, "Cluster message dropped, task {0} or serializer {1} not registered", message.task, message.serializer);
+			return;
+		}
+		received.incrementAndGet ();
+		inbound.delivery.execute (new Runnable () {
+			@Override
+			public void run () {
+				try {
+					task.execute (serializer.toObject (message.payload, message.offset, message.payload.length - message.offset));
+				} catch (Throwable th) {
+					failed.incrementAndGet ();
+					tracer.log (Tracer.Level.Error, "Cluster task " + message.task + " failed", th);
+				}
+			}
+		});
+	}
+	
+	private void heartbeat (long now) {
+		byte [] frame = heartbeatFrame ();
+		
+		List<Member> removed = null;
+		
+		for (Member member : members.values ()) {
+			
+			// failure detection
+			if (member.state != Member.State.Down && now - Math.max (member.lastSeen, member.since) > failureTimeout) {
+				if (member.state == Member.State.Alive) {
+					tracer.log (Tracer.Level.Warning, "Cluster member {0} @ {1} is Down", member.id, member.address);
+				}
+				member.state = Member.State.Down;
+				member.since = now;
+				member.clear ();
+				disconnected (member);
+			}
+			
+			// learned members that stay down are forgotten
+			if (member.state == Member.State.Down && !member.configured && now - member.since > failureTimeout * 10) {
+				if (removed == null) {
+					removed = new ArrayList<Member> ();
+				}
+				removed.add (member);
+				continue;
+			}
+			
+			if (member.channel == null) {
+				if (now >= member.nextConnect) {
+					connect (member, now);
+				}
+			} else if (member.connected) {
+				member.enqueue (frame, false, Integer.MAX_VALUE);
+			}
+		}
+		
+		if (removed != null) {
+			for (Member member : removed) {
+				members.remove (member.address);
+			}
+		}
+		
+		flush (now, true);
+	}
+	
+	private byte [] heartbeatFrame () {
+		List<String> alive = new ArrayList<String> ();
+		if (seeds) {
+			for (Member member : members.values ()) {
+				if (member.state == Member.State.Alive) {
+					alive.add (member.address);
+				}
+			}
+		}
+		return Frames.heartbeat (id, address, alive);
+	}
+	
+	private void shutdown () {
+		for (SelectionKey key : selector.keys ()) {
+			try {
+				key.channel ().close ();
+			} catch (IOException ioex) {
+				// ignore
+			}
+		}
+		try {
+			selector.close ();
+		} catch (IOException ioex) {
+			// ignore
+		}
+	}
+	
+	private String advertised (TcpClusterPeerFactory config) throws IOException {
+		if (!Lang.isNullOrEmpty (config.getAddress ())) {
+			return config.getAddress ();
+		}
+		String host = config.getHost ();
+		if (Lang.isNullOrEmpty (host) || InetAddress.getByName (host).isAnyLocalAddress ()) {
+			host = InetAddress.getLocalHost ().getHostAddress ();
+		}
+		return host + Lang.COLON + config.getPort ();
+	}
+	
+	private class Inbound {
+		ByteBuffer 	buffer 		= ByteBuffer.allocate (ReadBuffer);
+		Member 		member;
+		byte [] 	challenge;
+		long 		sequence;
+		boolean 	warned;
+		Delivery 	delivery 	= new Delivery ();
+	}
+	
+	// runs the messages of a connection in order on the workers, at most one worker at a time
+	private class Delivery implements Runnable {
+		private Queue<Runnable> 	queue 		= new ConcurrentLinkedQueue<Runnable> ();
+		private AtomicBoolean 		scheduled 	= new AtomicBoolean ();
+		
+		void execute (Runnable message) {
+			queue.add (message);
+			if (scheduled.compareAndSet (false, true)) {
+				workers.execute (this);
+			}
+		}
+		
+		@Override
+		public void run () {
+			while (true) {
+				Runnable message;
+				while ((message = queue.poll ()) != null) {
+					message.run ();
+				}
+				scheduled.set (false);
+				// a message added after the last poll and before the flag was reset
+				if (queue.isEmpty () || !scheduled.compareAndSet (false, true)) {
+					return;
+				}
+			}
+		}
+	}
+	
+	private static class PeerThreadFactory implements ThreadFactory {
+		private String 			name;
+		private AtomicInteger 	count = new AtomicInteger ();
+		PeerThreadFactory (String name) {
+			this.name = name;
+		}
+		@Override
+		public Thread newThread (Runnable runnable) {
+			Thread thread = new Thread (runnable, name + Lang.DASH + count.incrementAndGet ());
+			thread.setDaemon (true);
+			return thread;
+		}
+	}
+	
+}
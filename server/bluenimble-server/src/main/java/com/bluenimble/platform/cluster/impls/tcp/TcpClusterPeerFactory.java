@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.tcp;
+
+import com.bluenimble.platform.cluster.ClusterException;
+import com.bluenimble.platform.cluster.ClusterPeer;
+import com.bluenimble.platform.cluster.ClusterPeerFactory;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.server.ApiServer;
+
+/**
+ * "clusterPeerFactory": {
+ * 		"class": "com.bluenimble.platform.cluster.impls.tcp.TcpClusterPeerFactory",
+ * 		"properties": {
+ * 			"host": "0.0.0.0", "port": 7900, "discovery": "static", "members": ["10.0.0.2:7900", "10.0.0.3:7900"],
+ * 			"heartbeat": 1000, "failureTimeout": 5000, "linger": 2, "batchSize": 65536,
+ * 			"secret": "shared by all the members"
+ * 		}
+ * }
+ * 
+ * Without a secret, frames are not authenticated and any host reaching the port of a seeds cluster can join it.
+ */
+public class TcpClusterPeerFactory implements ClusterPeerFactory {
+
+	private static final long serialVersionUID = 4103425373366467133L;
+	
+	public interface Discovery {
+		// only the listed members
+		String Static 	= "static";
+		// listed members are seeds, others are learned from their heartbeats
+		String Seeds 	= "seeds";
+	}
+	
+	// defaults to the advertised address
+	private String 		id;
+	private String 		host 			= "0.0.0.0";
+	private int 		port 			= 7900;
+	// host:port other members connect to, defaults to host:port
+	private String 		address;
+	
+	private String 		discovery 		= Discovery.Static;
+	private JsonArray 	members;
+	
+	private int 		heartbeat 		= 1000;
+	private int 		failureTimeout 	= 5000;
+	
+	private int 		linger 			= 2;
+	private int 		batchSize 		= 64 * 1024;
+	private int 		maxPending 		= 8 * 1024 * 1024;
+	private int 		maxFrameSize 	= 4 * 1024 * 1024;
+	
+	// messages of a member are always run in order, more workers run the messages of different members in parallel
+	private int 		workers 		= 1;
+	
+	// authenticates the frames exchanged by the members
+	private String 		secret;
+	
+	@Override
+	public ClusterPeer create (ApiServer server) throws ClusterException {
+		return new TcpClusterPeer (server, this);
+	}
+
+	public String getId () {
+		return id;
+	}
+	public void setId (String id) {
+		this.id = id;
+	}
+
+	public String getHost () {
+		return host;
+	}
+	public void setHost (String host) {
+		this.host = host;
+	}
+
+	public int getPort () {
+		return port;
+	}
+	public void setPort (int port) {
+		this.port = port;
+	}
+
+	public String getAddress () {
+		return address;
+	}
+	public void setAddress (String address) {
+		this.address = address;
+	}
+
+	public String getDiscovery () {
+		return discovery;
+	}
+	public void setDiscovery (String discovery) {
+		this.discovery = discovery;
+	}
+
+	public JsonArray getMembers () {
+		return members;
+	}
+	public void setMembers (JsonArray members) {
+		this.members = members;
+	}
+
+	public int getHeartbeat () {
+		return heartbeat;
+	}
+	public void setHeartbeat (int heartbeat) {
+		this.heartbeat = heartbeat;
+	}
+
+	public int getFailureTimeout () {
+		return failureTimeout;
+	}
+	public void setFailureTimeout (int failureTimeout) {
+		this.failureTimeout = failureTimeout;
+	}
+
+	public int getLinger () {
+		return linger;
+	}
+	public void setLinger (int linger) {
+		this.linger = linger;
+	}
+
+	public int getBatchSize () {
+		return batchSize;
+	}
+	public void setBatchSize (int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public int getMaxPending () {
+		return maxPending;
+	}
+	public void setMaxPending (int maxPending) {
+		this.maxPending = maxPending;
+	}
+
+	public int getMaxFrameSize () {
+		return maxFrameSize;
+	}
+	public void setMaxFrameSize (int maxFrameSize) {
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	public String getSecret () {
+		return secret;
+	}
+	public void setSecret (String secret) {
+		this.secret = secret;
+	}
+
+	public int getWorkers () {
+		return workers;
+	}
+	public void setWorkers (int workers) {
+		this.workers = workers;
+	}
+
+}
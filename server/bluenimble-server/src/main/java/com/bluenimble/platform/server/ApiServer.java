@@ -41,6 +41,7 @@ import com.bluenimble.platform.plugins.PluginsRegistry;
 import com.bluenimble.platform.security.KeyPair;
 import com.bluenimble.platform.server.interceptor.ApiInterceptor;
 import com.bluenimble.platform.server.maps.MapProvider;
+import com.bluenimble.platform.server.metrics.PipelineMetrics;
 import com.bluenimble.platform.server.tracking.ServerRequestTracker;
 
 public interface ApiServer extends Traceable, Manageable {
@@ -127,6 +128,8 @@ public interface ApiServer extends Traceable, Manageable {
 	ApiRequestVisitor		getRequestVisitor		();
 	void 					setRequestVisitor 		(ApiRequestVisitor requestVisitor);
 	
+	PipelineMetrics			getPipelineMetrics		();
+	
 	KeyStoreManager			getKeyStoreManager		();
 	void					setKeyStoreManager		(KeyStoreManager keyStoreManager);
 
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.admission;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Permits held by a single request on its space and api limiters.
+ * Released exactly once, either by the worker running the request or by the caller if the executor refused it.
+ */
+public class Admission {
+
+	private ConcurrencyLimiter 	space;
+	private ConcurrencyLimiter 	api;
+
+	private ConcurrencyLimiter 	rejectedBy;
+
+	private long 				admittedAt;
+
+	private AtomicBoolean 		released = new AtomicBoolean ();
+
+	public Admission (ConcurrencyLimiter space, ConcurrencyLimiter api) {
+		this.space 	= space;
+		this.api 	= api;
+	}
+
+	public boolean acquire () {
+		if (space != null && !space.tryAcquire ()) {
+			rejectedBy = space;
+			return false;
+		}
+		if (api != null && !api.tryAcquire ()) {
+			if (space != null) {
+				space.release (0, false);
+			}
+			rejectedBy = api;
+			return false;
+		}
+		admittedAt = System.nanoTime ();
+		return true;
+	}
+
+	// true if the request waited in the executor queue longer than the deadline of its space or api
+	public boolean expired () {
+		long waited = System.nanoTime () - admittedAt;
+		if (expired (space, waited)) {
+			rejectedBy = space;
+			return true;
+		}
+		if (expired (api, waited)) {
+			rejectedBy = api;
+			return true;
+		}
+		return false;
+	}
+
+	public void release (boolean completed) {
+		if (!released.compareAndSet (false, true)) {
+			return;
+		}
+		long rtt = System.nanoTime () - admittedAt;
+		if (space != null) {
+			space.release (rtt, completed);
+		}
+		if (api != null) {
+			api.release (rtt, completed);
+		}
+	}
+
+	public boolean rejectedBySpace () {
+		return rejectedBy != null && rejectedBy == space;
+	}
+	
+	public int retryAfter () {
+		if (rejectedBy == null) {
+			return 1;
+		}
+		return rejectedBy.retryAfter ();
+	}
+
+	private boolean expired (ConcurrencyLimiter limiter, long waited) {
+		if (limiter == null || limiter.queueTimeout () <= 0 || waited <= limiter.queueTimeout ()) {
+			return false;
+		}
+		limiter.dropped ();
+		return true;
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Concurrency limit of a space or an api.
+ *
+ * A fixed limiter admits up to 'limit' in-flight requests.
+ * An adaptive limiter moves the limit between minLimit and maxLimit using the gradient between
+ * the long term (no load) latency and the latency observed in the last sampling window.
+ *
+ * "admission": {
+ * 		"limit": 100, "adaptive": true, "minLimit": 10, "maxLimit": 1000,
+ * 		"queueTimeout": 5000, "retryAfter": 1
+ * }
+ */
+public class ConcurrencyLimiter {
+
+	public interface Spec {
+		String Enabled 		= "enabled";
+		String Limit 		= "limit";
+		String Adaptive 	= "adaptive";
+		String MinLimit 	= "minLimit";
+		String MaxLimit 	= "maxLimit";
+		String Window 		= "window";
+		String Tolerance 	= "tolerance";
+		String Smoothing 	= "smoothing";
+		String QueueTimeout = "queueTimeout";
+		String RetryAfter 	= "retryAfter";
+	}
+
+	interface Describe {
+		String InFlight 	= "inFlight";
+		String Rejected 	= "rejected";
+		String Dropped 		= "dropped";
+		String Rtt 			= "rtt";
+		String RttNoLoad 	= "rttNoLoad";
+	}
+
+	private static final int 	LongWindow 	= 600;
+	private static final long 	Millis 		= 1000000L;
+
+	private AtomicInteger 	inFlight 	= new AtomicInteger ();
+	private AtomicLong 		rejected 	= new AtomicLong ();
+	private AtomicLong 		dropped 	= new AtomicLong ();
+
+	private volatile int 	limit;
+
+	private boolean 		adaptive;
+	private int 			minLimit;
+	private int 			maxLimit;
+	private int 			window;
+	private double 			tolerance;
+	private double 			smoothing;
+
+	private long 			queueTimeout;
+	private int 			retryAfter;
+
+	// sampling window, guarded by this
+	private int 			samples;
+	private long 			windowRtt;
+	private int 			windowMaxInFlight;
+	private double 			shortRtt;
+	private double 			longRtt;
+
+	public static ConcurrencyLimiter create (JsonObject spec) {
+		if (Json.isNullOrEmpty (spec) || !Json.getBoolean (spec, Spec.Enabled, true)) {
+			return null;
+		}
+		return new ConcurrencyLimiter (spec);
+	}
+
+	public ConcurrencyLimiter (JsonObject spec) {
+		limit 			= Json.getInteger (spec, Spec.Limit, 100);
+		adaptive 		= Json.getBoolean (spec, Spec.Adaptive, false);
+		minLimit 		= Json.getInteger (spec, Spec.MinLimit, Math.min (limit, 10));
+		maxLimit 		= Json.getInteger (spec, Spec.MaxLimit, Math.max (limit, 1000));
+		window 			= Json.getInteger (spec, Spec.Window, 100);
+		tolerance 		= Json.getDouble (spec, Spec.Tolerance, 1.5);
+		smoothing 		= Json.getDouble (spec, Spec.Smoothing, 0.2);
+		queueTimeout 	= Json.getLong (spec, Spec.QueueTimeout, 0) * Millis;
+		retryAfter 		= Json.getInteger (spec, Spec.RetryAfter, 1);
+	}
+
+	public boolean tryAcquire () {
+		while (true) {
+			int current = inFlight.get ();
+			if (current >= limit) {
+				rejected.incrementAndGet ();
+				return false;
+			}
+			if (inFlight.compareAndSet (current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release (long rtt, boolean sample) {
+		int current = inFlight.getAndDecrement ();
+		if (!adaptive || !sample) {
+			return;
+		}
+		synchronized (this) {
+			samples++;
+			windowRtt += rtt;
+			if (current > windowMaxInFlight) {
+				windowMaxInFlight = current;
+			}
+			if (samples < window) {
+				return;
+			}
+			adapt ((double)windowRtt / samples, windowMaxInFlight);
+			samples 			= 0;
+			windowRtt 			= 0;
+			windowMaxInFlight 	= 0;
+		}
+	}
+
+	public void dropped () {
+		dropped.incrementAndGet ();
+	}
+
+	public long queueTimeout () {
+		return queueTimeout;
+	}
+
+	public int retryAfter () {
+		return retryAfter;
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Spec.Limit, limit);
+		describe.set (Spec.Adaptive, adaptive);
+		describe.set (Describe.InFlight, inFlight.get ());
+		describe.set (Describe.Rejected, rejected.get ());
+		describe.set (Describe.Dropped, dropped.get ());
+		if (adaptive) {
+			describe.set (Describe.Rtt, (long)shortRtt / Millis);
+			describe.set (Describe.RttNoLoad, (long)longRtt / Millis);
+		}
+		return describe;
+	}
+
+	private void adapt (double rtt, int maxInFlight) {
+		shortRtt = rtt;
+		if (longRtt == 0) {
+			longRtt = rtt;
+		} else {
+			longRtt = longRtt * (LongWindow - 1) / LongWindow + rtt / LongWindow;
+		}
+
+		// don't grow the limit if the load never reached it
+		if (maxInFlight < limit / 2) {
+			return;
+		}
+
+		double gradient = Math.max (0.5, Math.min (1.0, tolerance * longRtt / shortRtt));
+		double newLimit = limit * gradient + Math.sqrt (limit);
+		newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+
+		limit = (int)Math.max (minLimit, Math.min (maxLimit, newLimit));
+	}
+
+}
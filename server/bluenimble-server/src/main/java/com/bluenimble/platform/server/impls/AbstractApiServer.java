@@ -25,7 +25,9 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.bluenimble.platform.Feature;
 import com.bluenimble.platform.Json;
@@ -44,6 +46,8 @@ import com.bluenimble.platform.api.CodeExecutor;
 import com.bluenimble.platform.api.CodeExecutorException;
 import com.bluenimble.platform.api.DescribeOption;
 import com.bluenimble.platform.api.impls.AbstractApiRequest;
+import com.bluenimble.platform.api.impls.ApiImpl;
+import com.bluenimble.platform.api.impls.ApiSpaceImpl;
 import com.bluenimble.platform.api.impls.ContainerApiRequest;
 import com.bluenimble.platform.api.impls.ContainerApiResponse;
 import com.bluenimble.platform.api.impls.SpaceThread;
@@ -57,6 +61,7 @@ import com.bluenimble.platform.api.validation.ApiServiceValidator;
 import com.bluenimble.platform.cluster.ClusterPeer;
 import com.bluenimble.platform.cluster.ClusterSerializer;
 import com.bluenimble.platform.cluster.ClusterTask;
+import com.bluenimble.platform.cluster.impls.binary.BinarySerializer;
 import com.bluenimble.platform.instance.InstanceDescriber;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
@@ -67,8 +72,10 @@ import com.bluenimble.platform.server.ApiServer;
 import com.bluenimble.platform.server.FeatureNotFoundException;
 import com.bluenimble.platform.server.KeyStoreManager;
 import com.bluenimble.platform.server.ServerFeature;
+import com.bluenimble.platform.server.admission.Admission;
 import com.bluenimble.platform.server.interceptor.ApiInterceptor;
 import com.bluenimble.platform.server.maps.MapProvider;
+import com.bluenimble.platform.server.metrics.PipelineMetrics;
 import com.bluenimble.platform.server.tracking.BlankApiRequestTracker;
 import com.bluenimble.platform.server.tracking.ServerRequestTracker;
 import com.bluenimble.platform.server.utils.ApiUtils;
@@ -116,6 +123,8 @@ public abstract class AbstractApiServer implements ApiServer {
 	
 	protected KeyStoreManager				keyStoreManager;
 	
+	protected PipelineMetrics				pipelineMetrics;
+	
 	protected ApiMediaProcessorRegistry		mediaProcessorRegistry;
 	
 	private Map<String, ServerRequestTracker> 	
@@ -142,6 +151,11 @@ public abstract class AbstractApiServer implements ApiServer {
 	protected InstanceDescriber				instanceDescriber;
 	
 	protected Tracer 						tracer 				= NoTracing.Instance;
+	
+	public AbstractApiServer () {
+		// built-in cluster serializer. java serialized values are only read for the classes allowed by the 'serializable' config
+		registerSerializer (new BinarySerializer ());
+	}
 
 	@Override
 	public void	registerSerializer (ClusterSerializer serializer) {
@@ -245,6 +259,11 @@ public abstract class AbstractApiServer implements ApiServer {
 			}
 		}
 		
+		// pipeline stages latency
+		if (pipelineMetrics != null && opts.containsKey (DescribeOption.Option.metrics)) {
+			describe.set (DescribeOption.Option.metrics.name (), pipelineMetrics.describe ());
+		}
+		
 		// spaces
 		if (opts.containsKey (DescribeOption.Option.spaces)) {
 			Collection<ApiSpace> spaces = spaces ();
@@ -403,6 +422,11 @@ public abstract class AbstractApiServer implements ApiServer {
 		return requestVisitor;
 	}	
 	
+	@Override
+	public PipelineMetrics getPipelineMetrics () {
+		return pipelineMetrics;
+	}	
+	
 	@Override
 	public KeyStoreManager getKeyStoreManager () {
 		return keyStoreManager;
@@ -419,9 +443,13 @@ public abstract class AbstractApiServer implements ApiServer {
 		ApiSpace 	space 	= null;
 		Api 		api 	= null;
 		
+		long 		visit 	= 0;
+		
 		try {
 			if (!(request instanceof ContainerApiRequest)) {
+				long start = System.nanoTime ();
 				requestVisitor.visit ((AbstractApiRequest)request);
+				visit = System.nanoTime () - start;
 			}
 			
 			if (request.get (ApiRequest.Reject) != null) {
@@ -490,31 +518,75 @@ public abstract class AbstractApiServer implements ApiServer {
 			return;
 		} 
 			
+		// admission control, reject early if the space or the api is overloaded
+		final Admission admission = admission (request, space, api);
+		if (admission != null && !admission.acquire ()) {
+			sendError (
+				response, ApiResponse.SERVICE_UNAVAILABLE, 
+				admission.rejectedBySpace () ? "space " + request.getSpace () + " is overloaded" : "api " + request.getApi () + " is overloaded", 
+				admission.retryAfter ()
+			);
+			request.destroy ();
+			return;
+		}
+			
+		final PipelineMetrics.Timings timings = pipelineMetrics == null ? null : pipelineMetrics.timings (api, null);
+		if (timings != null && visit > 0) {
+			timings.record (PipelineMetrics.Stage.Visit, visit);
+		}
+		
+		final long 		queued = System.nanoTime ();
+		
 		final Api 		fApi = api;
+		
+		// claimed by whoever gets there first, the task when it starts or the caller when it gives up on a task not started yet
+		final AtomicBoolean started = new AtomicBoolean ();
 		try {
 			space.executor ().execute (new Callable<Void> () {
 				@Override
 				public Void call () {
-					if (Thread.currentThread () instanceof SpaceThread) {
-						final SpaceThread currentThread = (SpaceThread)Thread.currentThread ();
-				        currentThread.setRequest (request);
+					if (!started.compareAndSet (false, true)) {
+						// the caller gave up, the response was already sent
+						return null;
+					}
+					if (timings != null) {
+						timings.record (PipelineMetrics.Stage.Queue, System.nanoTime () - queued);
 					}
+					if (admission != null && admission.expired ()) {
+						admission.release (false);
+						sendError (response, ApiResponse.SERVICE_UNAVAILABLE, "request " + request.getId () + " expired in queue", admission.retryAfter ());
+						request.destroy ();
+						return null;
+					}
+					SpaceThread.bind (request);
 			        try {
 						interceptor.intercept (fApi, request, response);	
 			        } finally {
-						if (Thread.currentThread () instanceof SpaceThread) {
-				        	((SpaceThread)Thread.currentThread ()).setRequest (null);
-						}
+			        	SpaceThread.bind (null);
+			        	if (admission != null) {
+			        		admission.release (true);
+			        	}
 			        }
 			        return null;
 				}
 			}, mode);
 		} catch (CodeExecutorException aaee) {
+			// a task already running (the caller stopped waiting for it) releases when it's done
+			if (admission != null && started.compareAndSet (false, true)) {
+				admission.release (false);
+			}
+			
 			Throwable e = aaee.getCause ();
 			
 			String error = "Generic";
 			ApiResponse.Status status = ApiResponse.BAD_REQUEST;
 			
+			if (e instanceof RejectedExecutionException) {
+				sendError (response, ApiResponse.SERVICE_UNAVAILABLE, "space " + request.getSpace () + " is overloaded", admission == null ? 1 : admission.retryAfter ());
+				request.destroy ();
+				return;
+			}
+			
 	   		if (e.getClass ().equals (CancellationException.class)) {
 	   			status = ApiResponse.INSUFFICIENT_SPACE_ON_RESOURCE;
 	   			error = "Cancellation";
@@ -631,6 +703,29 @@ public abstract class AbstractApiServer implements ApiServer {
 		spaces.put (space.getNamespace (), space);
 	}
 
+	private Admission admission (ApiRequest request, ApiSpace space, Api api) {
+		// internal calls run under the admission of their parent request
+		if (request instanceof ContainerApiRequest) {
+			return null;
+		}
+		if (!(space instanceof ApiSpaceImpl) || !(api instanceof ApiImpl)) {
+			return null;
+		}
+		ApiSpaceImpl 	spaceImpl 	= (ApiSpaceImpl)space;
+		ApiImpl 		apiImpl 	= (ApiImpl)api;
+		if (spaceImpl.limiter () == null && apiImpl.limiter () == null) {
+			return null;
+		}
+		return new Admission (spaceImpl.limiter (), apiImpl.limiter ());
+	}
+
+	private void sendError (ApiResponse response, Status status, String message, int retryAfter) {
+		if (!(response instanceof ContainerApiResponse)) {
+			response.set (ApiHeaders.RetryAfter, String.valueOf (retryAfter));
+		}
+		sendError (response, status, message);
+	}
+
 	private void sendError (ApiResponse response, Status status, String message) {
 		if (response instanceof ContainerApiResponse) {
 			((ContainerApiResponse)response).setException (
@@ -30,6 +30,8 @@ public class ApiServiceSet implements Serializable {
 	
 	private Map<String, ApiService> services = new HashMap<String, ApiService> ();
 	
+	private transient volatile ApiServiceTrie trie;
+	
 	public ApiServiceSet () {
 	}
 	
@@ -37,20 +39,32 @@ public class ApiServiceSet implements Serializable {
 		return services.get (endpoint);
 	}
 	
-	public void remove (String endpoint) {
+	public ApiService find (String [] resource) {
+		ApiServiceTrie trie = this.trie;
+		if (trie == null) {
+			trie = compile ();
+		}
+		return trie.find (resource);
+	}
+	
+	// mutators share the lock of compile, a trie built from a stale view is never installed
+	public synchronized void remove (String endpoint) {
 		services.remove (endpoint);
+		trie = null;
 	}
 	
-	public void add (ApiService service) {
+	public synchronized void add (ApiService service) {
 		services.put (service.getEndpoint (), service);
+		trie = null;
 	}
 	
 	public boolean isEmpty () {
 		return services.isEmpty ();
 	}
 	
-	public void clear () {
+	public synchronized void clear () {
 		services.clear ();
+		trie = null;
 	}
 	
 	public Iterator<String> endpoints () {
@@ -70,4 +84,11 @@ public class ApiServiceSet implements Serializable {
 		} 
 	}
 	
+	private synchronized ApiServiceTrie compile () {
+		if (trie == null) {
+			trie = new ApiServiceTrie (services.values ());
+		}
+		return trie;
+	}
+	
 }
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.impls.fs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.ApiService;
+import com.bluenimble.platform.regex.WildcardCompiler;
+
+/**
+ * Routing tree of the services of a single verb. 
+ * 
+ * Lookup priority at each segment is literal, then '*' (:param), then '**' (::tail).
+ * Endpoints which can't be split into plain segments are matched last using their precompiled wildcard.
+ */
+public class ApiServiceTrie {
+
+	private static final String Param 	= Lang.STAR;
+	private static final String Tail 	= Lang.STAR + Lang.STAR;
+	private static final String Escape 	= "\\";
+	
+	private static final String [] NoSegments = new String [0];
+
+	private Node 					root 		= new Node ();
+
+	private List<CompiledService> 	irregulars;
+
+	public ApiServiceTrie (Collection<ApiService> services) {
+		for (ApiService service : services) {
+			add (service);
+		}
+	}
+
+	public ApiService find (String [] resource) {
+		if (resource == null) {
+			resource = NoSegments;
+		}
+
+		ApiService service = root.find (resource, 0);
+		if (service != null || irregulars == null) {
+			return service;
+		}
+
+		String path = Lang.SLASH;
+		if (resource.length > 0) {
+			path += Lang.join (resource, Lang.SLASH);
+		}
+
+		Map<String, String> groups = new HashMap<String, String> ();
+		for (CompiledService cs : irregulars) {
+			groups.clear ();
+			if (WildcardCompiler.match (groups, path, cs.expression)) {
+				return cs.service;
+			}
+		}
+
+		return null;
+	}
+
+	private void add (ApiService service) {
+		String endpoint = service.getEndpoint ();
+		if (endpoint == null) {
+			return;
+		}
+
+		if (!endpoint.startsWith (Lang.SLASH) || endpoint.indexOf (Escape) >= 0) {
+			addIrregular (service);
+			return;
+		}
+
+		String [] segments = Lang.split (endpoint, Lang.SLASH);
+
+		for (String segment : segments) {
+			if (segment.indexOf (Lang.STAR) >= 0 && !Param.equals (segment) && !Tail.equals (segment)) {
+				addIrregular (service);
+				return;
+			}
+		}
+
+		Node node = root;
+		for (String segment : segments) {
+			node = node.child (segment);
+		}
+
+		if (node.service == null) {
+			node.service = service;
+		}
+	}
+
+	private void addIrregular (ApiService service) {
+		if (irregulars == null) {
+			irregulars = new ArrayList<CompiledService> ();
+		}
+		irregulars.add (new CompiledService (WildcardCompiler.compile (service.getEndpoint ()), service));
+	}
+
+	private static class Node {
+
+		Map<String, Node> 	literals;
+		Node 				param;
+		Node 				tail;
+
+		ApiService 			service;
+
+		Node child (String segment) {
+			if (Param.equals (segment)) {
+				if (param == null) {
+					param = new Node ();
+				}
+				return param;
+			}
+			if (Tail.equals (segment)) {
+				if (tail == null) {
+					tail = new Node ();
+				}
+				return tail;
+			}
+			if (literals == null) {
+				literals = new HashMap<String, Node> ();
+			}
+			Node child = literals.get (segment);
+			if (child == null) {
+				child = new Node ();
+				literals.put (segment, child);
+			}
+			return child;
+		}
+
+		ApiService find (String [] resource, int index) {
+			if (index == resource.length) {
+				return service;
+			}
+
+			ApiService found = null;
+
+			if (literals != null) {
+				Node child = literals.get (resource [index]);
+				if (child != null) {
+					found = child.find (resource, index + 1);
+					if (found != null) {
+						return found;
+					}
+				}
+			}
+
+			if (param != null) {
+				found = param.find (resource, index + 1);
+				if (found != null) {
+					return found;
+				}
+			}
+
+			if (tail != null) {
+				// segments declared after the tail win over the tail consuming the whole resource
+				for (int end = resource.length - 1; end > index; end--) {
+					found = tail.find (resource, end);
+					if (found != null) {
+						return found;
+					}
+				}
+				return tail.service;
+			}
+
+			return null;
+		}
+
+	}
+
+	private static class CompiledService {
+		int [] 		expression;
+		ApiService 	service;
+		CompiledService (int [] expression, ApiService service) {
+			this.expression = expression;
+			this.service 	= service;
+		}
+	}
+
+}
@@ -19,10 +19,12 @@ package com.bluenimble.platform.server.impls.fs;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.bluenimble.platform.ArchiveUtils;
@@ -49,6 +51,9 @@ import com.bluenimble.platform.api.validation.ApiServiceValidator;
 import com.bluenimble.platform.api.validation.impls.DefaultApiServiceValidator;
 import com.bluenimble.platform.cluster.ClusterPeerFactory;
 import com.bluenimble.platform.cluster.impls.DefaultClusterPeerFactory;
+import com.bluenimble.platform.cluster.impls.JavaSerializer;
+import com.bluenimble.platform.cluster.impls.binary.BinarySerializer;
+import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.plugins.PluginsRegistry;
 import com.bluenimble.platform.reflect.BeanUtils;
@@ -59,6 +64,7 @@ import com.bluenimble.platform.server.interceptor.ApiInterceptor;
 import com.bluenimble.platform.server.interceptor.impls.DefaultApiInterceptor;
 import com.bluenimble.platform.server.maps.MapProvider;
 import com.bluenimble.platform.server.maps.impls.DefaultMapProvider;
+import com.bluenimble.platform.server.metrics.PipelineMetrics;
 import com.bluenimble.platform.server.security.impls.DefaultApiRequestSigner;
 import com.bluenimble.platform.server.utils.ConfigKeys;
 import com.bluenimble.platform.server.utils.InstallUtils;
@@ -177,22 +183,40 @@ public class FileSystemApiServer extends AbstractApiServer {
 			
 			tracer.log (Tracer.Level.Info, "Instance Config:\n{0}", descriptor);
 			
-			mapProvider = (MapProvider)BeanUtils.create (serverClassLoader, Json.getObject (descriptor, ConfigKeys.MapProvider), pluginsRegistry);
-			if (mapProvider == null) {
-				mapProvider = new DefaultMapProvider ();
-			}			
-
+			// classes (or packages ending with .*) cluster peers are allowed to java deserialize
+			JsonArray serializable = Json.getArray (descriptor, ConfigKeys.Serializable);
+			if (!Json.isNullOrEmpty (serializable)) {
+				List<String> allowed = new ArrayList<String> ();
+				for (int i = 0; i < serializable.count (); i++) {
+					allowed.add (String.valueOf (serializable.get (i)));
+				}
+				registerSerializer (new BinarySerializer (allowed));
+				registerSerializer (new JavaSerializer (allowed));
+			}
+			
 			ClusterPeerFactory clusterPeerFactory = (ClusterPeerFactory)BeanUtils.create (serverClassLoader, Json.getObject (descriptor, ConfigKeys.ClusterPeerFactory), pluginsRegistry);
 			if (clusterPeerFactory == null) {
 				clusterPeerFactory = new DefaultClusterPeerFactory ();
 			}			
-			peer = clusterPeerFactory.create ();
+			peer = clusterPeerFactory.create (this);
+
+			// after the peer, partitioned maps rely on it
+			mapProvider = (MapProvider)BeanUtils.create (serverClassLoader, Json.getObject (descriptor, ConfigKeys.MapProvider), pluginsRegistry);
+			if (mapProvider == null) {
+				mapProvider = new DefaultMapProvider ();
+			}			
+			mapProvider.init (this);
 
 			mediaProcessorRegistry = (ApiMediaProcessorRegistry)BeanUtils.create (serverClassLoader, Json.getObject (descriptor, ConfigKeys.MediaProcessorRegistry), pluginsRegistry);
 			if (mediaProcessorRegistry == null) {
 				mediaProcessorRegistry = new DefaultApiMediaProcessorRegistry ();
 			}			
 
+			pipelineMetrics = PipelineMetrics.create (Json.getObject (descriptor, ConfigKeys.Metrics));
+			if (pipelineMetrics != null) {
+				pipelineMetrics.start ();
+			}
+
 			interceptor = (ApiInterceptor)BeanUtils.create (serverClassLoader, Json.getObject (descriptor, ConfigKeys.Interceptor), pluginsRegistry);
 			if (interceptor == null) {
 				interceptor = new DefaultApiInterceptor ();
@@ -458,6 +482,14 @@ public class FileSystemApiServer extends AbstractApiServer {
 			pluginsRegistry.shutdown ();
 		}
 		
+		if (peer != null) {
+			peer.disconnect ();
+		}
+		
+		if (pipelineMetrics != null) {
+			pipelineMetrics.stop ();
+		}
+		
 		tracer.onShutdown (this);
 		
 	}
@@ -39,11 +39,16 @@ import com.bluenimble.platform.api.security.ApiAuthenticationException;
 import com.bluenimble.platform.api.security.ApiConsumer;
 import com.bluenimble.platform.api.security.ApiConsumerResolver;
 import com.bluenimble.platform.api.tracing.Tracer.Level;
+import com.bluenimble.platform.api.validation.ApiServiceValidator;
 import com.bluenimble.platform.api.validation.ApiServiceValidatorException;
+import com.bluenimble.platform.api.validation.impls.DefaultApiServiceValidator;
+import com.bluenimble.platform.api.validation.impls.ValidationPlan;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.server.ApiServer;
 import com.bluenimble.platform.server.interceptor.ApiInterceptor;
+import com.bluenimble.platform.server.metrics.PipelineMetrics;
+import com.bluenimble.platform.server.metrics.PipelineMetrics.Stage;
 import com.bluenimble.platform.server.security.impls.DefaultApiConsumer;
 import com.bluenimble.platform.server.tracking.ServerRequestTrack;
 import com.bluenimble.platform.server.utils.ApiUtils;
@@ -64,7 +69,9 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 	@Override
 	public void intercept (Api api, ApiRequest request, ApiResponse response) {
 		
-		logDebug (api, "<" + request.getId () + "> Process Request \n" + request.toString ());
+		if (isDebug (api)) {
+			logDebug (api, "<" + request.getId () + "> Process Request \n" + request.toString ());
+		}
 		
 		ServerRequestTrack track = 
 				server.getRequestTracker (Json.getString (api.getTracking (), Api.Spec.Tracking.Tracker)).create (api, request);
@@ -79,6 +86,12 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 
 		ApiConsumer consumer = null;
 		ApiService service = null;
+		
+		// stage timings, recorded once the service is resolved
+		PipelineMetrics.Timings timings = null;
+		long started 	= System.nanoTime ();
+		long lap 		= started;
+		
 		try {
 			
 			// api life cycle - onRequest
@@ -121,6 +134,10 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 				return;
 			}
 			
+			if (server.getPipelineMetrics () != null) {
+				timings = server.getPipelineMetrics ().timings (api, service);
+			}
+			
 			((AbstractApiRequest)request).setService (service);
 			
 			// Lookup media processor
@@ -128,12 +145,18 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 			
 			track.update (service);
 	
-			logInfo (api, "<" + request.getId () + "> Using service " + service.getVerb () + Lang.SPACE + Json.getString (service.toJson (), ApiService.Spec.Endpoint) + Lang.SPACE + Lang.PARENTH_OPEN + service.getName () + Lang.PARENTH_CLOSE);
+			if (isInfo (api)) {
+				logInfo (api, "<" + request.getId () + "> Using service " + service.getVerb () + Lang.SPACE + Json.getString (service.toJson (), ApiService.Spec.Endpoint) + Lang.SPACE + Lang.PARENTH_OPEN + service.getName () + Lang.PARENTH_CLOSE);
+			}
 			
 			// api life cycle - onService
 			api.getSpi ().onService (api, service, request, response);
 			
-			logInfo (api, "<" + request.getId () + "> Interceptor will use media.processor [" + mediaProcessor.getClass ().getSimpleName () + "]");
+			lap = lap (timings, Stage.Lookup, lap);
+			
+			if (isInfo (api)) {
+				logInfo (api, "<" + request.getId () + "> Interceptor will use media.processor [" + mediaProcessor.getClass ().getSimpleName () + "]");
+			}
 			
 			JsonObject apiSecMethods = Json.getObject (api.getSecurity (), Api.Spec.Security.Schemes);
 			if (apiSecMethods == null) {
@@ -191,9 +214,17 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 				);
 				return;
 			}
+			
+			lap = lap (timings, Stage.Consumer, lap);
 
 			try {
-				server.getServiceValidator ().validate (api, Json.getObject (service.toJson (), ApiService.Spec.Spec), consumer, request);
+				ApiServiceValidator validator = server.getServiceValidator ();
+				ValidationPlan plan = (ValidationPlan)service.getHelper (ValidationPlan.Helper);
+				if (plan != null && validator instanceof DefaultApiServiceValidator) {
+					((DefaultApiServiceValidator)validator).validate (api, plan, consumer, request);
+				} else {
+					validator.validate (api, Json.getObject (service.toJson (), ApiService.Spec.Spec), consumer, request);
+				}
 			} catch (ApiServiceValidatorException e) {
 				if (response instanceof ContainerApiResponse) {
 					((ContainerApiResponse)response).setException (
@@ -219,12 +250,16 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 				return;
 			}
 			
+			lap = lap (timings, Stage.Validation, lap);
+			
 			ApiOutput output = null;
 			
 			JsonObject mock = Json.getObject (service.toJson (), ApiService.Spec.Mock);
 			if (mock != null && Json.getBoolean (mock, ConfigKeys.Enabled, false)) {
 				output = new JsonApiOutput (Json.getObject (mock, ApiService.Spec.Output));
-				logInfo (api, "<" + request.getId () + "> Service using mock output");
+				if (isInfo (api)) {
+					logInfo (api, "<" + request.getId () + "> Service using mock output");
+				}
 			} else {
 				// api life cycle - onExecute
 				api.getSpi ().onExecute (api, consumer, service, request, response);
@@ -235,6 +270,8 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 				api.getSpi ().afterExecute (api, consumer, service, request, response);
 			}
 			
+			lap = lap (timings, Stage.Execute, lap);
+			
 			request.finish ();
 			
 			if (request instanceof ContainerApiRequest) {
@@ -243,7 +280,9 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 				response.set (ApiHeaders.ExecutionTime, (System.currentTimeMillis () - request.getTimestamp ().getTime ()));
 				
 				if (response.isCommitted ()) {
-					logInfo (api, "<" + request.getId () + "> Response already committed. No media processing required");
+					if (isInfo (api)) {
+						logInfo (api, "<" + request.getId () + "> Response already committed. No media processing required");
+					}
 					long time = System.currentTimeMillis () - request.getTimestamp ().getTime ();
 					track.finish (
 						(JsonObject)	
@@ -253,11 +292,15 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 							ApiResponse.Error.Message, time
 						)
 					);
-					logInfo (api, " <" + request.getId () + "> ExecTime-Cancel: Service " + Json.getString (service.toJson (), ApiService.Spec.Endpoint) + " - Time " + time + " millis");
+					if (isInfo (api)) {
+						logInfo (api, " <" + request.getId () + "> ExecTime-Cancel: Service " + Json.getString (service.toJson (), ApiService.Spec.Endpoint) + " - Time " + time + " millis");
+					}
 					return;
 				}
 			
 				mediaProcessor.process (api, service, consumer, output, request, response);
+				
+				lap (timings, Stage.Media, lap);
 			}
 			
 			int iStatus = ApiResponse.OK.getCode ();
@@ -277,7 +320,9 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 				)
 			);
 			
-			logInfo (api, "<" + request.getId () + "> ExecTime-Success: Service " + Json.getString (service.toJson (), ApiService.Spec.Endpoint) + " - Time " + time + " millis");
+			if (isInfo (api)) {
+				logInfo (api, "<" + request.getId () + "> ExecTime-Success: Service " + Json.getString (service.toJson (), ApiService.Spec.Endpoint) + " - Time " + time + " millis");
+			}
 			
 		} catch (Throwable th) {
 			
@@ -343,11 +388,23 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 			}
 			
 		} finally {
+			if (timings != null) {
+				timings.record (Stage.Total, System.nanoTime () - started);
+			}
 			request.destroy ();
 		}
 		
 	}
 	
+	private long lap (PipelineMetrics.Timings timings, Stage stage, long since) {
+		if (timings == null) {
+			return since;
+		}
+		long now = System.nanoTime ();
+		timings.record (stage, now - since);
+		return now;
+	}
+	
 	private void writeValidationError (Api api, ApiConsumer consumer, ApiService service, ApiRequest request, ApiResponse response, 
 			ApiMediaProcessor mediaProcessor, ApiServiceValidatorException e) {
 		Object err = null;
@@ -360,6 +417,15 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 		writeError (mediaProcessor, api, consumer, service, request, response); 
 	}
 
+	// guards the hot path logs, messages are built only if the level is enabled
+	private boolean isDebug (Api api) {
+		return api.tracer ().isEnabled (Level.Debug);
+	}
+	
+	private boolean isInfo (Api api) {
+		return api.tracer ().isEnabled (Level.Info);
+	}
+	
 	private void logDebug (Api api, Object o) {
 		api.tracer ().log (Level.Debug, o);
 	}
@@ -390,12 +456,16 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 			}
 			ApiUtils.logError (api, response, server.tracer ());
 			long time = System.currentTimeMillis () - request.getTimestamp ().getTime ();
-			logInfo (api, "<" + request.getId () + "> ExecTime-Error: " + (service != null ? Json.getString (service.toJson (), ApiService.Spec.Endpoint) : "Unknown Service") + " - ExecutionTime " + time + " millis");
+			if (isInfo (api)) {
+				logInfo (api, "<" + request.getId () + "> ExecTime-Error: " + (service != null ? Json.getString (service.toJson (), ApiService.Spec.Endpoint) : "Unknown Service") + " - ExecutionTime " + time + " millis");
+			}
 			return;
 		}
 			
 		try {
-			logError (api, "<" + request.getId () + "> Send Error Response\n" + response.getError ().toString (2), null);
+			if (api.tracer ().isEnabled (Level.Error)) {
+				logError (api, "<" + request.getId () + "> Send Error Response\n" + response.getError ().toString (2), null);
+			}
 			mediaProcessor.process (api, service, consumer, null, request, response);
 		} catch (Exception mex) {
 			logError (api, "\tMediaProcessor - Writing Error - caused an error\n", mex);
@@ -408,7 +478,9 @@ public class DefaultApiInterceptor implements ApiInterceptor {
 			}
 		} finally {
 			long time = System.currentTimeMillis () - request.getTimestamp ().getTime ();
-			logInfo (api, "<" + request.getId () + "> ExecTime-Error: " + (service != null ? Json.getString (service.toJson (), ApiService.Spec.Endpoint) : "Unknown Service") + " - ExecutionTime " + time + " millis");
+			if (isInfo (api)) {
+				logInfo (api, "<" + request.getId () + "> ExecTime-Error: " + (service != null ? Json.getString (service.toJson (), ApiService.Spec.Endpoint) : "Unknown Service") + " - ExecutionTime " + time + " millis");
+			}
 		}
 		
 	}
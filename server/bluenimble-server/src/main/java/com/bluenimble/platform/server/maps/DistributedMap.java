@@ -18,6 +18,7 @@ package com.bluenimble.platform.server.maps;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 public interface DistributedMap<U, V> extends Serializable {
@@ -25,6 +26,10 @@ public interface DistributedMap<U, V> extends Serializable {
 	void 			put 		(U k, V v);
 	V 				get 		(U k);
 	
+	// bulk, found keys only
+	Map<U, V> 		getAll 		(Collection<U> keys);
+	void 			putAll 		(Map<U, V> entries);
+	
 	void 			remove 		(U k);
 	
 	boolean 		containsKey	(U k);
@@ -18,8 +18,12 @@ package com.bluenimble.platform.server.maps;
 
 import java.io.Serializable;
 
+import com.bluenimble.platform.server.ApiServer;
+
 public interface MapProvider extends Serializable {
 
-	<U, V> DistributedMap<U, V> get (String name);
+	void 						init 	(ApiServer server);
+	
+	<U, V> DistributedMap<U, V> get 	(String name);
 	
 }
@@ -17,10 +17,12 @@
 package com.bluenimble.platform.server.maps.impls;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.bluenimble.platform.server.ApiServer;
 import com.bluenimble.platform.server.maps.DistributedMap;
 import com.bluenimble.platform.server.maps.MapProvider;
 
@@ -28,9 +30,25 @@ public class DefaultMapProvider implements MapProvider {
 
 	private static final long serialVersionUID = -697111085841838176L;
 	
+	// named maps, local to this node
+	private Map<String, DistributedMap<?, ?>> maps = new ConcurrentHashMap<String, DistributedMap<?, ?>> ();
+	
+	@Override
+	public void init (ApiServer server) {
+	}
+	
+	@SuppressWarnings("unchecked")
 	@Override
 	public <U, V> DistributedMap<U, V> get (String name) {
-		return create (new ConcurrentHashMap<U, V> ());
+		DistributedMap<?, ?> map = maps.get (name);
+		if (map == null) {
+			map = create (new ConcurrentHashMap<U, V> ());
+			DistributedMap<?, ?> existing = maps.putIfAbsent (name, map);
+			if (existing != null) {
+				map = existing;
+			}
+		}
+		return (DistributedMap<U, V>)map;
 	}
 	
 	protected <U, V> DistributedMap<U, V> create (final Map<U, V> proxy) {
@@ -48,6 +66,23 @@ public class DefaultMapProvider implements MapProvider {
 				return proxy.get (k);
 			}
 
+			@Override
+			public Map<U, V> getAll (Collection<U> keys) {
+				Map<U, V> entries = new LinkedHashMap<U, V> ();
+				for (U k : keys) {
+					V v = proxy.get (k);
+					if (v != null) {
+						entries.put (k, v);
+					}
+				}
+				return entries;
+			}
+
+			@Override
+			public void putAll (Map<U, V> entries) {
+				proxy.putAll (entries);
+			}
+
 			@Override
 			public void remove (U k) {
 				proxy.remove (k);
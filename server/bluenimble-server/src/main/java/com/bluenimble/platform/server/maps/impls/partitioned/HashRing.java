@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.maps.impls.partitioned;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hashing of keys over node ids. Each node is placed 'virtualNodes' times on the ring,
+ * the owners of a key are the first 'replicas' distinct nodes found clockwise from the key hash.
+ */
+class HashRing {
+	
+	private Set<String> 			nodes;
+	private TreeMap<Integer, String> ring = new TreeMap<Integer, String> ();
+	
+	HashRing (Collection<String> nodes, int virtualNodes) {
+		this.nodes = new TreeSet<String> (nodes);
+		for (String node : this.nodes) {
+			for (int i = 0; i < virtualNodes; i++) {
+				ring.put (hash (node + '#' + i), node);
+			}
+		}
+	}
+	
+	Set<String> nodes () {
+		return nodes;
+	}
+	
+	// primary first
+	List<String> owners (Object key, int replicas) {
+		int count = Math.min (replicas, nodes.size ());
+		List<String> owners = new ArrayList<String> (count);
+		if (count == 0) {
+			return owners;
+		}
+		int hash = hash (String.valueOf (key));
+		for (Map.Entry<Integer, String> entry : ring.tailMap (hash).entrySet ()) {
+			if (add (owners, entry.getValue (), count)) {
+				return owners;
+			}
+		}
+		for (Map.Entry<Integer, String> entry : ring.entrySet ()) {
+			if (add (owners, entry.getValue (), count)) {
+				break;
+			}
+		}
+		return owners;
+	}
+	
+	String primary (Object key) {
+		List<String> owners = owners (key, 1);
+		return owners.isEmpty () ? null : owners.get (0);
+	}
+	
+	private static boolean add (List<String> owners, String node, int count) {
+		if (!owners.contains (node)) {
+			owners.add (node);
+		}
+		return owners.size () >= count;
+	}
+	
+	// fnv-1a, murmur3 finalizer, stable across jvms
+	private static int hash (String value) {
+		int h = 0x811c9dc5;
+		for (byte b : value.getBytes (StandardCharsets.UTF_8)) {
+			h ^= b;
+			h *= 0x01000193;
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+	
+}
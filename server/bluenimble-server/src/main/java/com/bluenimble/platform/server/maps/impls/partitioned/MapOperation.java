@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.maps.impls.partitioned;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Message exchanged by the partitioned maps of the cluster nodes
+ */
+class MapOperation implements Serializable {
+
+	private static final long serialVersionUID = -4121962787112745834L;
+
+	enum Type {
+		// writes, applied by the owners, invalidate near caches on the others
+		Put,
+		Remove,
+		Clear,
+		// owner changed, always stored by the receiver
+		Handoff,
+		// requests, answered with a Reply
+		Get,
+		Entries,
+		Reply
+	}
+	
+	Type 					type;
+	String 					map;
+	
+	long 					request;
+	String 					origin;
+	
+	Collection<Object> 		keys;
+	Map<Object, Object> 	entries;
+	
+	MapOperation (Type type, String map) {
+		this.type 	= type;
+		this.map 	= map;
+	}
+	
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.maps.impls.partitioned;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded lru of values owned by other nodes. Entries expire after 'ttl' millis, which bounds staleness 
+ * if an invalidation is lost.
+ */
+class NearCache {
+	
+	private int 						capacity;
+	private long 						ttl;
+	private LinkedHashMap<Object, Entry> entries;
+	
+	NearCache (final int capacity, long ttl) {
+		this.capacity 	= capacity;
+		this.ttl 		= ttl;
+		this.entries 	= new LinkedHashMap<Object, Entry> (16, 0.75f, true) {
+			private static final long serialVersionUID = 6285136380834815237L;
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<Object, Entry> eldest) {
+				return size () > capacity;
+			}
+		};
+	}
+	
+	boolean enabled () {
+		return capacity > 0;
+	}
+	
+	synchronized Object get (Object key) {
+		Entry entry = entries.get (key);
+		if (entry == null) {
+			return null;
+		}
+		if (ttl > 0 && entry.expires < System.currentTimeMillis ()) {
+			entries.remove (key);
+			return null;
+		}
+		return entry.value;
+	}
+	
+	synchronized void put (Object key, Object value) {
+		if (capacity <= 0) {
+			return;
+		}
+		entries.put (key, new Entry (value, System.currentTimeMillis () + ttl));
+	}
+	
+	synchronized void remove (Object key) {
+		entries.remove (key);
+	}
+	
+	synchronized void clear () {
+		entries.clear ();
+	}
+	
+	synchronized int size () {
+		return entries.size ();
+	}
+	
+	private static class Entry {
+		Object 	value;
+		long 	expires;
+		Entry (Object value, long expires) {
+			this.value 		= value;
+			this.expires 	= expires;
+		}
+	}
+	
+}
@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.maps.impls.partitioned;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.bluenimble.platform.server.maps.DistributedMap;
+
+class PartitionedMap<U, V> implements DistributedMap<U, V> {
+
+	private static final long serialVersionUID = -1960785301226883608L;
+
+	private transient PartitionedMapProvider 		provider;
+	private String 									name;
+	
+	// entries this node owns, as primary or replica
+	private transient Map<Object, Object> 			store = new ConcurrentHashMap<Object, Object> ();
+	private transient NearCache 					near;
+	
+	PartitionedMap (PartitionedMapProvider provider, String name, NearCache near) {
+		this.provider 	= provider;
+		this.name 		= name;
+		this.near 		= near;
+	}
+	
+	@Override
+	public void put (U k, V v) {
+		if (v == null) {
+			remove (k);
+			return;
+		}
+		Map<Object, Object> entries = new HashMap<Object, Object> (2);
+		entries.put (k, v);
+		write (entries);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get (U k) {
+		HashRing ring = provider.ring ();
+		
+		List<String> owners = ring.owners (k, provider.replicas ());
+		if (owners.contains (provider.id ())) {
+			return (V)store.get (k);
+		}
+		
+		Object v = near.get (k);
+		if (v != null) {
+			return (V)v;
+		}
+		
+		// the primary, then the replicas if it can't be reached
+		for (String owner : owners) {
+			MapOperation operation = new MapOperation (MapOperation.Type.Get, name);
+			operation.keys = Collections.singletonList ((Object)k);
+			
+			Set<String> failed = new HashSet<String> (1);
+			v = provider.request (Collections.singletonMap (owner, operation), failed).get (k);
+			if (failed.isEmpty ()) {
+				break;
+			}
+		}
+		if (v != null) {
+			near.put (k, v);
+		}
+		return (V)v;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<U, V> getAll (Collection<U> keys) {
+		HashRing ring = provider.ring ();
+		String self = provider.id ();
+		
+		Map<U, V> result = new LinkedHashMap<U, V> ();
+		
+		// keys to fetch from other nodes and their owners
+		Map<Object, List<String>> missing = new LinkedHashMap<Object, List<String>> ();
+		
+		for (U k : keys) {
+			List<String> owners = ring.owners (k, provider.replicas ());
+			Object v = owners.contains (self) ? store.get (k) : near.get (k);
+			if (v != null) {
+				result.put (k, (V)v);
+				continue;
+			}
+			if (owners.contains (self)) {
+				continue;
+			}
+			missing.put (k, owners);
+		}
+		
+		// one request per primary owner, the keys of the owners which failed go to their next replica
+		for (int attempt = 0; !missing.isEmpty (); attempt++) {
+			Map<String, MapOperation> operations = new HashMap<String, MapOperation> ();
+			for (Map.Entry<Object, List<String>> entry : missing.entrySet ()) {
+				List<String> owners = entry.getValue ();
+				if (attempt >= owners.size ()) {
+					continue;
+				}
+				String owner = owners.get (attempt);
+				MapOperation operation = operations.get (owner);
+				if (operation == null) {
+					operation = new MapOperation (MapOperation.Type.Get, name);
+					operation.keys = new ArrayList<Object> ();
+					operations.put (owner, operation);
+				}
+				operation.keys.add (entry.getKey ());
+			}
+			if (operations.isEmpty ()) {
+				break;
+			}
+			
+			Set<String> failed = new HashSet<String> ();
+			Map<Object, Object> remote = provider.request (operations, failed);
+			for (Map.Entry<Object, Object> entry : remote.entrySet ()) {
+				near.put (entry.getKey (), entry.getValue ());
+				result.put ((U)entry.getKey (), (V)entry.getValue ());
+			}
+			
+			Map<Object, List<String>> retry = new LinkedHashMap<Object, List<String>> ();
+			for (String owner : failed) {
+				for (Object k : operations.get (owner).keys) {
+					retry.put (k, missing.get (k));
+				}
+			}
+			missing = retry;
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll (Map<U, V> entries) {
+		if (entries == null || entries.isEmpty ()) {
+			return;
+		}
+		write (new HashMap<Object, Object> (entries));
+	}
+
+	@Override
+	public void remove (U k) {
+		store.remove (k);
+		near.remove (k);
+		
+		MapOperation operation = new MapOperation (MapOperation.Type.Remove, name);
+		operation.keys = Collections.singletonList ((Object)k);
+		provider.broadcast (operation);
+	}
+
+	@Override
+	public boolean containsKey (U k) {
+		return get (k) != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<U> keySet () {
+		return (Set<U>)Collections.unmodifiableSet (entries ().keySet ());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Collection<V> values () {
+		return (Collection<V>)Collections.unmodifiableCollection (entries ().values ());
+	}
+
+	@Override
+	public void clear () {
+		store.clear ();
+		near.clear ();
+		provider.broadcast (new MapOperation (MapOperation.Type.Clear, name));
+	}
+
+	@Override
+	public boolean isEmpty () {
+		return entries ().isEmpty ();
+	}
+	
+	void onPut (Map<Object, Object> entries, boolean handoff) {
+		HashRing ring = provider.ring ();
+		for (Map.Entry<Object, Object> entry : entries.entrySet ()) {
+			Object k = entry.getKey ();
+			if (handoff || ring.owners (k, provider.replicas ()).contains (provider.id ())) {
+				store.put (k, entry.getValue ());
+			} else {
+				near.remove (k);
+			}
+		}
+	}
+	
+	void onRemove (Collection<Object> keys) {
+		for (Object k : keys) {
+			store.remove (k);
+			near.remove (k);
+		}
+	}
+	
+	void onClear () {
+		store.clear ();
+		near.clear ();
+	}
+	
+	Map<Object, Object> local (Collection<Object> keys) {
+		Map<Object, Object> entries = new HashMap<Object, Object> ();
+		for (Object k : keys) {
+			Object v = store.get (k);
+			if (v != null) {
+				entries.put (k, v);
+			}
+		}
+		return entries;
+	}
+	
+	// entries this node is the primary owner of
+	Map<Object, Object> primaries () {
+		HashRing ring = provider.ring ();
+		String self = provider.id ();
+		Map<Object, Object> entries = new HashMap<Object, Object> ();
+		for (Map.Entry<Object, Object> entry : store.entrySet ()) {
+			if (self.equals (ring.primary (entry.getKey ()))) {
+				entries.put (entry.getKey (), entry.getValue ());
+			}
+		}
+		return entries;
+	}
+	
+	// hands the entries over to their new owners, drops the ones this node doesn't own anymore
+	void rebalance (HashRing previous, HashRing next) {
+		String self = provider.id ();
+		int replicas = provider.replicas ();
+		
+		near.clear ();
+		
+		Map<String, MapOperation> handoffs = new HashMap<String, MapOperation> ();
+		
+		for (Map.Entry<Object, Object> entry : store.entrySet ()) {
+			Object k = entry.getKey ();
+			
+			List<String> owners = next.owners (k, replicas);
+			
+			// the first previous owner still alive does the handoff
+			String handler = null;
+			for (String owner : previous.owners (k, replicas)) {
+				if (next.nodes ().contains (owner)) {
+					handler = owner;
+					break;
+				}
+			}
+			
+			if (self.equals (handler)) {
+				List<String> before = previous.owners (k, replicas);
+				for (String owner : owners) {
+					if (owner.equals (self) || before.contains (owner)) {
+						continue;
+					}
+					MapOperation handoff = handoffs.get (owner);
+					if (handoff == null) {
+						handoff = new MapOperation (MapOperation.Type.Handoff, name);
+						handoff.entries = new HashMap<Object, Object> ();
+						handoffs.put (owner, handoff);
+					}
+					handoff.entries.put (k, entry.getValue ());
+				}
+			}
+			
+			if (!owners.contains (self)) {
+				store.remove (k);
+			}
+		}
+		
+		for (Map.Entry<String, MapOperation> handoff : handoffs.entrySet ()) {
+			provider.send (handoff.getKey (), handoff.getValue ());
+		}
+	}
+	
+	private void write (Map<Object, Object> entries) {
+		provider.check (entries);
+		
+		HashRing ring = provider.ring ();
+		String self = provider.id ();
+		
+		for (Map.Entry<Object, Object> entry : entries.entrySet ()) {
+			if (ring.owners (entry.getKey (), provider.replicas ()).contains (self)) {
+				store.put (entry.getKey (), entry.getValue ());
+			} else {
+				// read your writes without a round trip
+				near.put (entry.getKey (), entry.getValue ());
+			}
+		}
+		
+		if (ring.nodes ().size () == 1) {
+			return;
+		}
+		
+		if (provider.nearCaching ()) {
+			// every node may hold a near copy
+			MapOperation operation = new MapOperation (MapOperation.Type.Put, name);
+			operation.entries = entries;
+			provider.broadcast (operation);
+			return;
+		}
+		
+		// owners only
+		Map<String, MapOperation> operations = new HashMap<String, MapOperation> ();
+		for (Map.Entry<Object, Object> entry : entries.entrySet ()) {
+			for (String owner : ring.owners (entry.getKey (), provider.replicas ())) {
+				if (owner.equals (self)) {
+					continue;
+				}
+				MapOperation operation = operations.get (owner);
+				if (operation == null) {
+					operation = new MapOperation (MapOperation.Type.Put, name);
+					operation.entries = new HashMap<Object, Object> ();
+					operations.put (owner, operation);
+				}
+				operation.entries.put (entry.getKey (), entry.getValue ());
+			}
+		}
+		for (Map.Entry<String, MapOperation> operation : operations.entrySet ()) {
+			provider.send (operation.getKey (), operation.getValue ());
+		}
+	}
+	
+	private Map<Object, Object> entries () {
+		Map<Object, Object> entries = primaries ();
+		
+		Collection<String> members = provider.members ();
+		if (members.isEmpty ()) {
+			return entries;
+		}
+		
+		Map<String, MapOperation> operations = new HashMap<String, MapOperation> ();
+		for (String member : members) {
+			operations.put (member, new MapOperation (MapOperation.Type.Entries, name));
+		}
+		entries.putAll (provider.request (operations));
+		return entries;
+	}
+	
+}
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.maps.impls.partitioned;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.api.tracing.Tracer;
+import com.bluenimble.platform.cluster.ClusterException;
+import com.bluenimble.platform.cluster.ClusterPeer;
+import com.bluenimble.platform.cluster.ClusterTask;
+import com.bluenimble.platform.cluster.impls.DefaultClusterMessage;
+import com.bluenimble.platform.cluster.impls.JavaSerializer;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.server.ApiServer;
+import com.bluenimble.platform.server.maps.DistributedMap;
+import com.bluenimble.platform.server.maps.MapProvider;
+
+/**
+ * Named maps partitioned over the cluster nodes with consistent hashing. 
+ * 
+ * Each key is stored by 'replicas' nodes. Reads of keys owned by other nodes go to the primary owner, 
+ * then to the next replica when an owner fails or doesn't reply within 'timeout', and are kept in a near cache. 
+ * Writes are sent to every node, owners store them while the others drop their near cached copy.
+ * 
+ * A read follows the writes made before it on the same node (read your writes) as long as the cluster peer runs 
+ * the messages of a node in the order they were sent (TcpClusterPeer does, whatever its number of workers). 
+ * Map messages are never coalesced, with coalescing put (k, v1), put (k, v2), put (k, v1) could lose the last write.
+ * 
+ * Keys and values are java serialized. Strings, numbers, dates, json values and common collections are accepted, 
+ * other classes must be listed in 'serializable' (class names or packages ending with .*). A put of a value outside 
+ * of the list fails on the writing node with an IllegalArgumentException.
+ * 
+ * Members are checked every 'rebalanceInterval' millis. When members join or leave, the first live previous owner 
+ * of a key hands it over to its new owners.
+ * 
+ * "mapProvider": {
+ * 		"class": "com.bluenimble.platform.server.maps.impls.partitioned.PartitionedMapProvider",
+ * 		"properties": {
+ * 			"replicas": 2, "virtualNodes": 64, "nearCache": 1000, "nearCacheTtl": 30000, "timeout": 3000, "rebalanceInterval": 1000,
+ * 			"serializable": ["com.acme.model.*"]
+ * 		}
+ * }
+ */
+public class PartitionedMapProvider implements MapProvider, ClusterTask {
+
+	private static final long serialVersionUID = 2867460931584045237L;
+	
+	public static final String Task = "maps.partitioned";
+	
+	// map messages
+	private static final List<String> Messages = Arrays.asList (
+		MapOperation.class.getName (), MapOperation.Type.class.getName (), "java.util.Collections$SingletonList"
+	);
+	
+	private int 		replicas 		= 2;
+	private int 		virtualNodes 	= 64;
+	private int 		nearCache 		= 1000;
+	private int 		nearCacheTtl 	= 30000;
+	private int 		timeout 		= 3000;
+	private int 		rebalanceInterval 
+										= 1000;
+	// key and value classes
+	private JsonArray 	serializable;
+
+	private transient JavaSerializer 
+									serializer;
+	private transient ApiServer 	server;
+	private transient ClusterPeer 	peer;
+	private transient Tracer 		tracer;
+	
+	private transient volatile HashRing 	
+									ring;
+	
+	private transient Map<String, PartitionedMap<?, ?>> 	
+									maps 		= new ConcurrentHashMap<String, PartitionedMap<?, ?>> ();
+	
+	private transient Map<Long, CompletableFuture<Map<Object, Object>>> 
+									requests 	= new ConcurrentHashMap<Long, CompletableFuture<Map<Object, Object>>> ();
+	private transient AtomicLong 	sequence 	= new AtomicLong ();
+	
+	private transient ScheduledExecutorService 
+									rebalancer;
+	
+	@Override
+	public void init (ApiServer server) {
+		this.server = server;
+		this.peer 	= server.getPeer ();
+		this.tracer = server.tracer ();
+		
+		List<String> allowed = new ArrayList<String> (Messages);
+		if (serializable != null) {
+			for (int i = 0; i < serializable.count (); i++) {
+				allowed.add (String.valueOf (serializable.get (i)));
+			}
+		}
+		serializer = new JavaSerializer (Task, allowed);
+		server.registerSerializer (serializer);
+		server.registerTask (this);
+		
+		ring ();
+		
+		if (rebalanceInterval > 0) {
+			rebalancer = Executors.newSingleThreadScheduledExecutor (new ThreadFactory () {
+				@Override
+				public Thread newThread (Runnable runnable) {
+					Thread thread = new Thread (runnable, "maps-rebalancer");
+					thread.setDaemon (true);
+					return thread;
+				}
+			});
+			rebalancer.scheduleWithFixedDelay (new Runnable () {
+				@Override
+				public void run () {
+					try {
+						ring ();
+					} catch (Throwable th) {
+						tracer.log (Tracer.Level.Error, "Partitioned maps rebalance failed", th);
+					}
+				}
+			}, rebalanceInterval, rebalanceInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public <U, V> DistributedMap<U, V> get (String name) {
+		PartitionedMap<?, ?> map = maps.get (name);
+		if (map == null) {
+			map = new PartitionedMap<U, V> (this, name, new NearCache (nearCache, nearCacheTtl));
+			PartitionedMap<?, ?> existing = maps.putIfAbsent (name, map);
+			if (existing != null) {
+				map = existing;
+			}
+		}
+		return (DistributedMap<U, V>)map;
+	}
+
+	@Override
+	public String name () {
+		return Task;
+	}
+
+	@Override
+	public void execute (Object o) {
+		MapOperation operation = (MapOperation)o;
+		
+		if (operation.type == MapOperation.Type.Reply) {
+			CompletableFuture<Map<Object, Object>> request = requests.remove (operation.request);
+			if (request != null) {
+				request.complete (operation.entries);
+			}
+			return;
+		}
+		
+		PartitionedMap<?, ?> map = (PartitionedMap<?, ?>)get (operation.map);
+		
+		switch (operation.type) {
+			case Put:
+				map.onPut (operation.entries, false);
+				break;
+			case Handoff:
+				map.onPut (operation.entries, true);
+				break;
+			case Remove:
+				map.onRemove (operation.keys);
+				break;
+			case Clear:
+				map.onClear ();
+				break;
+			case Get:
+				reply (operation, map.local (operation.keys));
+				break;
+			case Entries:
+				reply (operation, map.primaries ());
+				break;
+			default:
+				break;
+		}
+	}
+	
+	String id () {
+		return peer.id ();
+	}
+	
+	int replicas () {
+		return replicas;
+	}
+	
+	boolean nearCaching () {
+		return nearCache > 0;
+	}
+	
+	// current ring, rebuilt and rebalanced when the live members changed
+	HashRing ring () {
+		HashRing current = ring;
+		Collection<String> members = peer.members ();
+		if (current != null && current.nodes ().size () == members.size () + 1 && current.nodes ().containsAll (members)) {
+			return current;
+		}
+		synchronized (this) {
+			current = ring;
+			Set<String> nodes = new HashSet<String> (members);
+			nodes.add (peer.id ());
+			if (current != null && current.nodes ().equals (nodes)) {
+				return current;
+			}
+			HashRing next = new HashRing (nodes, virtualNodes);
+			ring = next;
+			if (current != null) {
+				tracer.log (Tracer.Level.Info, "Partitioned maps, members changed {0} -> {1}", current.nodes (), next.nodes ());
+				for (PartitionedMap<?, ?> map : maps.values ()) {
+					map.rebalance (current, next);
+				}
+			}
+			return next;
+		}
+	}
+	
+	void broadcast (MapOperation operation) {
+		try {
+			peer.send (message (operation));
+		} catch (ClusterException cex) {
+			tracer.log (Tracer.Level.Error, "Partitioned map " + operation.map + " " + operation.type + " not sent", cex);
+		}
+	}
+	
+	void send (String member, MapOperation operation) {
+		try {
+			peer.send (member, message (operation));
+		} catch (ClusterException cex) {
+			tracer.log (Tracer.Level.Error, "Partitioned map " + operation.map + " " + operation.type + " not sent to " + member, cex);
+		}
+	}
+	
+	// fails if a key or a value can't be sent to the other nodes
+	void check (Map<Object, Object> entries) {
+		for (Map.Entry<Object, Object> entry : entries.entrySet ()) {
+			check (entry.getKey ());
+			check (entry.getValue ());
+		}
+	}
+	
+	Map<Object, Object> request (Map<String, MapOperation> operations) {
+		return request (operations, null);
+	}
+	
+	// sends the request to each member, waits for all the replies and merges them. 
+	// Members which couldn't be reached or didn't reply in time are added to 'failed'
+	Map<Object, Object> request (Map<String, MapOperation> operations, Set<String> failed) {
+		Map<String, CompletableFuture<Map<Object, Object>>> pending = new LinkedHashMap<String, CompletableFuture<Map<Object, Object>>> ();
+		for (Map.Entry<String, MapOperation> entry : operations.entrySet ()) {
+			MapOperation operation = entry.getValue ();
+			operation.request 	= sequence.incrementAndGet ();
+			operation.origin 	= peer.id ();
+			CompletableFuture<Map<Object, Object>> future = new CompletableFuture<Map<Object, Object>> ();
+			requests.put (operation.request, future);
+			try {
+				peer.send (entry.getKey (), message (operation));
+				pending.put (entry.getKey (), future);
+			} catch (ClusterException cex) {
+				requests.remove (operation.request);
+				tracer.log (Tracer.Level.Warning, "Partitioned map {0} request to {1} failed, {2}", operation.map, entry.getKey (), cex.getMessage ());
+				if (failed != null) {
+					failed.add (entry.getKey ());
+				}
+			}
+		}
+		
+		Map<Object, Object> result = new LinkedHashMap<Object, Object> ();
+		
+		long deadline = System.currentTimeMillis () + timeout;
+		for (Map.Entry<String, CompletableFuture<Map<Object, Object>>> entry : pending.entrySet ()) {
+			try {
+				Map<Object, Object> entries = entry.getValue ().get (Math.max (1, deadline - System.currentTimeMillis ()), TimeUnit.MILLISECONDS);
+				if (entries != null) {
+					result.putAll (entries);
+				}
+			} catch (TimeoutException | ExecutionException ex) {
+				tracer.log (Tracer.Level.Warning, "Partitioned map request to {0} timed out", entry.getKey ());
+				if (failed != null) {
+					failed.add (entry.getKey ());
+				}
+			} catch (InterruptedException iex) {
+				Thread.currentThread ().interrupt ();
+				break;
+			}
+		}
+		
+		for (MapOperation operation : operations.values ()) {
+			requests.remove (operation.request);
+		}
+		
+		return result;
+	}
+	
+	Collection<String> members () {
+		List<String> members = new ArrayList<String> (ring ().nodes ());
+		members.remove (peer.id ());
+		return members;
+	}
+	
+	private void check (Object o) {
+		if (o == null || o instanceof String || o instanceof Integer || o instanceof Long || o instanceof Boolean) {
+			return;
+		}
+		serializer.check (o);
+	}
+	
+	private void reply (MapOperation operation, Map<Object, Object> entries) {
+		MapOperation reply = new MapOperation (MapOperation.Type.Reply, operation.map);
+		reply.request = operation.request;
+		reply.entries = entries;
+		send (operation.origin, reply);
+	}
+	
+	private DefaultClusterMessage message (MapOperation operation) {
+		return new DefaultClusterMessage (server, operation, Task, Task);
+	}
+
+	public int getReplicas () {
+		return replicas;
+	}
+	public void setReplicas (int replicas) {
+		this.replicas = replicas;
+	}
+
+	public int getVirtualNodes () {
+		return virtualNodes;
+	}
+	public void setVirtualNodes (int virtualNodes) {
+		this.virtualNodes = virtualNodes;
+	}
+
+	public int getNearCache () {
+		return nearCache;
+	}
+	public void setNearCache (int nearCache) {
+		this.nearCache = nearCache;
+	}
+
+	public int getNearCacheTtl () {
+		return nearCacheTtl;
+	}
+	public void setNearCacheTtl (int nearCacheTtl) {
+		this.nearCacheTtl = nearCacheTtl;
+	}
+
+	public int getRebalanceInterval () {
+		return rebalanceInterval;
+	}
+	public void setRebalanceInterval (int rebalanceInterval) {
+		this.rebalanceInterval = rebalanceInterval;
+	}
+
+	public JsonArray getSerializable () {
+		return serializable;
+	}
+	public void setSerializable (JsonArray serializable) {
+		this.serializable = serializable;
+	}
+
+	public int getTimeout () {
+		return timeout;
+	}
+	public void setTimeout (int timeout) {
+		this.timeout = timeout;
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Log-linear latency histogram, recording is lock free.
+ *
+ * Values are recorded in microseconds. Each power of two is split in 32 linear sub buckets,
+ * a recorded value is reported within 3% of its actual value. Values above ~38 hours are clamped.
+ */
+public class LatencyHistogram {
+
+	interface Describe {
+		String Count 	= "count";
+		String Mean 	= "mean";
+		String Max 		= "max";
+		String P50 		= "p50";
+		String P90 		= "p90";
+		String P99 		= "p99";
+		String P999 	= "p999";
+	}
+
+	private static final int 	SubBits 	= 5;
+	private static final int 	SubBuckets 	= 1 << SubBits;
+	private static final int 	MaxExponent = 36;
+	private static final long 	MaxValue 	= (1L << (MaxExponent + 1)) - 1;
+	private static final int 	Buckets 	= (MaxExponent - SubBits + 2) * SubBuckets;
+
+	private static final double Millis 		= 1000.0;
+
+	private AtomicLongArray 	buckets 	= new AtomicLongArray (Buckets);
+	private LongAdder 			count 		= new LongAdder ();
+	private LongAdder 			sum 		= new LongAdder ();
+	private AtomicLong 			max 		= new AtomicLong ();
+
+	public void record (long nanos) {
+		long micros = nanos / 1000;
+		if (micros < 0) {
+			micros = 0;
+		} else if (micros > MaxValue) {
+			micros = MaxValue;
+		}
+		buckets.incrementAndGet (index (micros));
+		count.increment ();
+		sum.add (micros);
+		if (micros > max.get ()) {
+			max.accumulateAndGet (micros, Math::max);
+		}
+	}
+
+	public long count () {
+		return count.sum ();
+	}
+
+	// in milliseconds
+	public double percentile (double percentile) {
+		long total = count.sum ();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long)Math.ceil (total * Math.min (100, Math.max (0, percentile)) / 100);
+		if (rank < 1) {
+			rank = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < Buckets; i++) {
+			seen += buckets.get (i);
+			if (seen >= rank) {
+				return Math.min (middle (i), max.get ()) / Millis;
+			}
+		}
+		return max.get () / Millis;
+	}
+
+	public void reset () {
+		for (int i = 0; i < Buckets; i++) {
+			buckets.set (i, 0);
+		}
+		count.reset ();
+		sum.reset ();
+		max.set (0);
+	}
+
+	public JsonObject describe () {
+		long total = count.sum ();
+		JsonObject describe = new JsonObject ();
+		describe.set (Describe.Count, total);
+		describe.set (Describe.Mean, total == 0 ? 0 : round (sum.sum () / Millis / total));
+		describe.set (Describe.Max, round (max.get () / Millis));
+		describe.set (Describe.P50, round (percentile (50)));
+		describe.set (Describe.P90, round (percentile (90)));
+		describe.set (Describe.P99, round (percentile (99)));
+		describe.set (Describe.P999, round (percentile (99.9)));
+		return describe;
+	}
+
+	static int index (long value) {
+		if (value < SubBuckets) {
+			return (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros (value);
+		int shift = exponent - SubBits;
+		return (shift + 1) * SubBuckets + (int)((value >>> shift) - SubBuckets);
+	}
+
+	// middle of the range of values of a bucket
+	static long middle (int index) {
+		if (index < SubBuckets) {
+			return index;
+		}
+		int shift = index / SubBuckets - 1;
+		long lower = (long)(SubBuckets + index % SubBuckets) << shift;
+		return lower + ((1L << shift) >> 1);
+	}
+
+	private static double round (double value) {
+		return Math.round (value * 1000) / 1000.0;
+	}
+
+}
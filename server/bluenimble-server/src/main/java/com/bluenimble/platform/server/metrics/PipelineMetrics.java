@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.Api;
+import com.bluenimble.platform.api.ApiService;
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Latency of the request pipeline stages, per space, api and service.
+ *
+ * The stages preceding the service lookup (visit and queue) are recorded under the service '*' of the api.
+ * Histograms are exposed through the server describe (option 'metrics') and JMX.
+ *
+ * "metrics": {
+ * 		"enabled": true, "jmx": true
+ * }
+ */
+public class PipelineMetrics implements PipelineMetricsMBean {
+
+	public static final String Helper = "PipelineMetrics";
+
+	public static final String AnyService = Lang.STAR;
+
+	public interface Spec {
+		String Enabled 	= "enabled";
+		String Jmx 		= "jmx";
+	}
+
+	public enum Stage {
+		Visit,
+		Queue,
+		Lookup,
+		Consumer,
+		Validation,
+		Execute,
+		Media,
+		Total
+	}
+
+	private static final String ObjectName = "com.bluenimble.platform:type=PipelineMetrics";
+
+	private Map<String, Timings> 	timings = new ConcurrentHashMap<String, Timings> ();
+
+	private boolean 				jmx;
+
+	public static PipelineMetrics create (JsonObject spec) {
+		if (!Json.getBoolean (spec, Spec.Enabled, true)) {
+			return null;
+		}
+		return new PipelineMetrics (Json.getBoolean (spec, Spec.Jmx, true));
+	}
+
+	public PipelineMetrics (boolean jmx) {
+		this.jmx = jmx;
+	}
+
+	public void start () throws Exception {
+		if (!jmx) {
+			return;
+		}
+		MBeanServer mbs = ManagementFactory.getPlatformMBeanServer ();
+		ObjectName name = new ObjectName (ObjectName);
+		if (!mbs.isRegistered (name)) {
+			mbs.registerMBean (this, name);
+		}
+	}
+
+	public void stop () {
+		if (!jmx) {
+			return;
+		}
+		try {
+			MBeanServer mbs = ManagementFactory.getPlatformMBeanServer ();
+			ObjectName name = new ObjectName (ObjectName);
+			if (mbs.isRegistered (name)) {
+				mbs.unregisterMBean (name);
+			}
+		} catch (Exception ex) {
+			// ignore
+		}
+	}
+
+	// timings of a service, or of the api if service is null. Cached as a helper of the service (or api)
+	public Timings timings (Api api, ApiService service) {
+		Timings t = (Timings)(service == null ? api.getHelper (Helper) : service.getHelper (Helper));
+		if (t != null) {
+			return t;
+		}
+		String key = 
+			api.space ().getNamespace () + Lang.SLASH + api.getNamespace () + Lang.SLASH + 
+			(service == null ? AnyService : service.getVerb ().name () + Lang.SPACE + Json.getString (service.toJson (), ApiService.Spec.Endpoint));
+		t = timings.computeIfAbsent (key, k -> new Timings ());
+		if (service == null) {
+			api.setHelper (Helper, t);
+		} else {
+			service.setHelper (Helper, t);
+		}
+		return t;
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		for (Map.Entry<String, Timings> entry : timings.entrySet ()) {
+			String [] key = Lang.split (entry.getKey (), Lang.SLASH);
+			JsonObject oSpace = Json.getObject (describe, key [0]);
+			if (oSpace == null) {
+				oSpace = new JsonObject ();
+				describe.set (key [0], oSpace);
+			}
+			JsonObject oApi = Json.getObject (oSpace, key [1]);
+			if (oApi == null) {
+				oApi = new JsonObject ();
+				oSpace.set (key [1], oApi);
+			}
+			oApi.set (entry.getKey ().substring (key [0].length () + key [1].length () + 2), entry.getValue ().describe ());
+		}
+		return describe;
+	}
+
+	@Override
+	public String [] getKeys () {
+		return timings.keySet ().toArray (new String [timings.size ()]);
+	}
+
+	@Override
+	public String describe (String key) {
+		Timings t = timings.get (key);
+		return t == null ? null : t.describe ().toString ();
+	}
+
+	@Override
+	public long count (String key, String stage) {
+		LatencyHistogram histogram = histogram (key, stage);
+		return histogram == null ? 0 : histogram.count ();
+	}
+
+	@Override
+	public double percentile (String key, String stage, double percentile) {
+		LatencyHistogram histogram = histogram (key, stage);
+		return histogram == null ? 0 : histogram.percentile (percentile);
+	}
+
+	@Override
+	public void reset () {
+		for (Timings t : timings.values ()) {
+			t.reset ();
+		}
+	}
+
+	private LatencyHistogram histogram (String key, String stage) {
+		Timings t = timings.get (key);
+		if (t == null) {
+			return null;
+		}
+		for (Stage s : Stage.values ()) {
+			if (s.name ().equalsIgnoreCase (stage)) {
+				return t.histograms.get (s.ordinal ());
+			}
+		}
+		return null;
+	}
+
+	public static class Timings {
+
+		private AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<LatencyHistogram> (Stage.values ().length);
+
+		public void record (Stage stage, long nanos) {
+			LatencyHistogram histogram = histograms.get (stage.ordinal ());
+			if (histogram == null) {
+				histograms.compareAndSet (stage.ordinal (), null, new LatencyHistogram ());
+				histogram = histograms.get (stage.ordinal ());
+			}
+			histogram.record (nanos);
+		}
+
+		void reset () {
+			for (int i = 0; i < histograms.length (); i++) {
+				LatencyHistogram histogram = histograms.get (i);
+				if (histogram != null) {
+					histogram.reset ();
+				}
+			}
+		}
+
+		JsonObject describe () {
+			JsonObject describe = new JsonObject ();
+			for (Stage stage : Stage.values ()) {
+				LatencyHistogram histogram = histograms.get (stage.ordinal ());
+				if (histogram != null) {
+					describe.set (stage.name ().toLowerCase (), histogram.describe ());
+				}
+			}
+			return describe;
+		}
+
+	}
+
+}
@@ -63,6 +63,8 @@ public interface ConfigKeys {
 	String VariablesFile	= "variables.json";
 
 	String Executor			= "executor";
+	String Admission		= "admission";
+	String Metrics			= "metrics";
 	
 	String Tracer			= "tracer";
 	String StatusManager	= "statusManager";
@@ -94,6 +96,7 @@ public interface ConfigKeys {
 	String MediaProcessorRegistry	
 							= "mediaProcessorRegistry";
 	String MapProvider		= "mapProvider";
+	String Serializable		= "serializable";
 	String Interceptor 		= "interceptor";
 	String Authenticator	= "authenticator";
 	String ServiceValidator = "serviceValidator";
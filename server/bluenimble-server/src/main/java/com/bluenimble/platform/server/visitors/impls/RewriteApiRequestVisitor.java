@@ -234,7 +234,9 @@ public class RewriteApiRequestVisitor extends SelectiveApiRequestVisitor {
 				conditionValue 		= condition.substring (indexOfColon + 1).trim ();
 				
 				RewriteConditionChecker checker = Checkers.get (checkerId);
-				server.tracer ().log (Level.Info, "\tRule checker {0}", checker);
+				if (server.tracer ().isEnabled (Level.Info)) {
+					server.tracer ().log (Level.Info, "\tRule checker {0}", checker);
+				}
 				
 				apply = (checker == null) || checker.check (value, conditionValue);
 				
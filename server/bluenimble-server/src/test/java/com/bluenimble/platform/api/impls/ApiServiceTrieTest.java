@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.api.impls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.api.ApiService;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.server.impls.fs.ApiServiceTrie;
+
+public class ApiServiceTrieTest {
+
+	@Test
+	public void literalBeatsParam () {
+		ApiServiceImpl byId 	= service ("/users/:id");
+		ApiServiceImpl me 		= service ("/users/me");
+		ApiServiceTrie trie 	= new ApiServiceTrie (Arrays.<ApiService>asList (byId, me));
+		
+		assertSame (me, trie.find (resource ("/users/me")));
+		assertSame (byId, trie.find (resource ("/users/42")));
+	}
+
+	@Test
+	public void paramBeatsTail () {
+		ApiServiceImpl file 	= service ("/files/::path");
+		ApiServiceImpl folder 	= service ("/files/:folder");
+		ApiServiceImpl meta 	= service ("/files/::path/meta");
+		ApiServiceTrie trie 	= new ApiServiceTrie (Arrays.<ApiService>asList (file, folder, meta));
+		
+		assertSame (folder, trie.find (resource ("/files/docs")));
+		assertSame (file, trie.find (resource ("/files/docs/a/b.txt")));
+		assertSame (meta, trie.find (resource ("/files/docs/a/meta")));
+	}
+
+	@Test
+	public void noMatch () {
+		ApiServiceTrie trie = new ApiServiceTrie (Arrays.<ApiService>asList (service ("/users/:id")));
+		
+		assertNull (trie.find (resource ("/users")));
+		assertNull (trie.find (resource ("/users/42/roles")));
+		assertNull (trie.find (resource ("/groups/42")));
+	}
+
+	@Test
+	public void paramCapture () {
+		ApiServiceImpl service = service ("/users/:user/files/::path");
+		ApiServiceTrie trie 	= new ApiServiceTrie (Arrays.<ApiService>asList (service));
+		
+		String [] resource = resource ("/users/42/files/docs/a.txt");
+		assertSame (service, trie.find (resource));
+		
+		ApiServiceImpl.Accessor [] parameters = service.parameters ();
+		assertEquals (2, parameters.length);
+		
+		assertEquals ("user", parameters [0].name);
+		assertEquals ("42", resource [parameters [0].index]);
+		
+		assertEquals ("path", parameters [1].name);
+		assertEquals ("docs/a.txt", Lang.join (Lang.moveLeft (resource, parameters [1].index), Lang.SLASH));
+	}
+
+	private ApiServiceImpl service (String endpoint) {
+		JsonObject source = new JsonObject ();
+		source.set (ApiService.Spec.Id, endpoint);
+		source.set (ApiService.Spec.Endpoint, endpoint);
+		return new ApiServiceImpl (null, source, null);
+	}
+	
+	private String [] resource (String path) {
+		return Lang.split (path, Lang.SLASH);
+	}
+	
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.bluenimble.platform.cluster.impls.JavaSerializer;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+public class BinarySerializerTest {
+	
+	private BinarySerializer serializer = new BinarySerializer ();
+	
+	@Test
+	public void constants () {
+		assertNull (roundTrip (null, Tag.Null));
+		assertEquals (true, roundTrip (true, Tag.True));
+		assertEquals (false, roundTrip (false, Tag.False));
+	}
+	
+	@Test
+	public void numbers () {
+		assertEquals (0, roundTrip (0, Tag.FixInt));
+		assertEquals (127, roundTrip (127, Tag.FixInt));
+		assertEquals (128, roundTrip (128, Tag.Integer));
+		assertEquals (-1, roundTrip (-1, Tag.Integer));
+		assertEquals (Integer.MIN_VALUE, roundTrip (Integer.MIN_VALUE, Tag.Integer));
+		assertEquals (Long.MAX_VALUE, roundTrip (Long.MAX_VALUE, Tag.Integer));
+		assertEquals (Long.MIN_VALUE, roundTrip (Long.MIN_VALUE, Tag.Integer));
+		assertEquals (3.25d, roundTrip (3.25d, Tag.Double));
+		assertEquals (1.5f, roundTrip (1.5f, Tag.Float));
+		assertEquals (new BigDecimal ("12345678901234567890.123"), roundTrip (new BigDecimal ("12345678901234567890.123"), Tag.Decimal));
+		assertEquals (new BigInteger ("-98765432109876543210"), roundTrip (new BigInteger ("-98765432109876543210"), Tag.BigInteger));
+	}
+	
+	@Test
+	public void strings () {
+		assertEquals ("short", roundTrip ("short", Tag.StringDef));
+		
+		String large = new String (new char [100]).replace ('\0', 'x');
+		assertEquals (large, roundTrip (large, Tag.String));
+		
+		String unicode = "héllo 世界 😀";
+		assertEquals (unicode, roundTrip (unicode, Tag.StringDef));
+	}
+	
+	@Test
+	public void stringReferences () {
+		JsonArray array = new JsonArray ();
+		array.add ("same");
+		array.add ("same");
+		
+		byte [] bytes = serializer.toBytes (array);
+		// array tag, count, StringDef 'same', StringRef 0
+		assertEquals (Tag.StringRef, bytes [2 + 1 + 1 + 4]);
+		
+		JsonArray decoded = (JsonArray)serializer.toObject (bytes, 0, bytes.length);
+		assertEquals (2, decoded.count ());
+		assertEquals ("same", decoded.get (0));
+		assertEquals ("same", decoded.get (1));
+	}
+	
+	@Test
+	public void structures () {
+		JsonObject object = new JsonObject ();
+		object.set ("name", "Alpha");
+		object.set ("count", 300);
+		object.set ("tags", new JsonArray ().push ("a").push (1));
+		object.set ("nested", new JsonObject ().set ("name", "Beta"));
+		
+		JsonObject decoded = (JsonObject)roundTrip (object, Tag.Object);
+		assertEquals (object.toString (), decoded.toString ());
+		
+		JsonArray list = (JsonArray)roundTrip (Arrays.asList ("a", "b"), Tag.Array);
+		assertEquals (2, list.count ());
+		assertEquals ("b", list.get (1));
+	}
+	
+	@Test
+	public void bytesAndDates () {
+		byte [] bytes = new byte [] { 1, 0, -1 };
+		assertArrayEquals (bytes, (byte [])roundTrip (bytes, Tag.Bytes));
+		
+		Date date = new Date (1500000000123L);
+		assertEquals (date, roundTrip (date, Tag.Date));
+		assertEquals (new Date (-5000L), roundTrip (new Date (-5000L), Tag.Date));
+	}
+	
+	@Test
+	public void allowedSerializable () {
+		BinarySerializer allowing = new BinarySerializer (Arrays.asList (Point.class.getName ()));
+		
+		byte [] bytes = allowing.toBytes (new Point (3, 4));
+		assertEquals (Tag.Serializable, bytes [0]);
+		
+		Point point = (Point)allowing.toObject (bytes, 0, bytes.length);
+		assertEquals (3, point.x);
+		assertEquals (4, point.y);
+	}
+	
+	@Test
+	public void allowedPackage () {
+		BinarySerializer allowing = new BinarySerializer (Arrays.asList (Point.class.getPackage ().getName () + ".*"));
+		
+		byte [] bytes = allowing.toBytes (new Point [] { new Point (1, 2) });
+		Point [] points = (Point [])allowing.toObject (bytes, 0, bytes.length);
+		assertEquals (2, points [0].y);
+	}
+	
+	@Test
+	public void rejectedSerializable () {
+		byte [] bytes = serializer.toBytes (new Point (3, 4));
+		assertEquals (Tag.Serializable, bytes [0]);
+		
+		try {
+			serializer.toObject (bytes, 0, bytes.length);
+			fail ("class outside of the allowlist deserialized");
+		} catch (IllegalArgumentException iaex) {
+			assertTrue (iaex.getCause () instanceof InvalidClassException);
+		}
+		
+		// arrays are checked on their component type
+		bytes = serializer.toBytes (new Point [] { new Point (1, 2) });
+		try {
+			serializer.toObject (bytes, 0, bytes.length);
+			fail ("array of a class outside of the allowlist deserialized");
+		} catch (IllegalArgumentException iaex) {
+			assertTrue (iaex.getCause () instanceof InvalidClassException);
+		}
+	}
+	
+	@Test
+	public void rejectedByJavaSerializer () {
+		JavaSerializer java = new JavaSerializer (Arrays.asList ("java.util.concurrent.*"));
+		
+		byte [] bytes = new JavaSerializer (Arrays.asList (Point.class.getName ())).toBytes (new Point (3, 4));
+		try {
+			java.toObject (bytes, 0, bytes.length);
+			fail ("class outside of the allowlist deserialized");
+		} catch (IllegalArgumentException iaex) {
+			assertTrue (iaex.getCause () instanceof InvalidClassException);
+		}
+		
+		bytes = java.toBytes (new JsonObject ().set ("name", "Alpha"));
+		assertEquals ("Alpha", ((JsonObject)java.toObject (bytes, 0, bytes.length)).get ("name"));
+	}
+	
+	@Test
+	public void rejectedOnSend () {
+		JavaSerializer java = new JavaSerializer (Arrays.asList ("java.util.concurrent.*"));
+		
+		JsonObject object = new JsonObject ();
+		object.set ("point", new Point (3, 4));
+		try {
+			java.check (object);
+			fail ("class outside of the allowlist accepted for sending");
+		} catch (IllegalArgumentException iaex) {
+			assertTrue (iaex.getCause () instanceof InvalidClassException);
+		}
+		try {
+			java.toBytes (Arrays.asList (new Point (3, 4)));
+			fail ("class outside of the allowlist serialized");
+		} catch (IllegalArgumentException iaex) {
+			assertTrue (iaex.getCause () instanceof InvalidClassException);
+		}
+		
+		java.check (new java.util.concurrent.atomic.AtomicLong (1));
+	}
+	
+	@Test
+	public void forgedLengths () {
+		// a varint of Integer.MAX_VALUE, then nothing
+		byte [] huge = new byte [] { (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07 };
+		for (byte tag : new byte [] { Tag.Bytes, Tag.Serializable, Tag.String, Tag.Object, Tag.Array }) {
+			byte [] bytes = new byte [huge.length + 1];
+			bytes [0] = tag;
+			System.arraycopy (huge, 0, bytes, 1, huge.length);
+			try {
+				serializer.toObject (bytes, 0, bytes.length);
+				fail ("forged length accepted for tag " + tag);
+			} catch (IllegalArgumentException iaex) {
+				assertTrue (iaex.getMessage ().startsWith ("invalid count"));
+			}
+		}
+		
+		// within the frame but past its end
+		byte [] bytes = new byte [] { Tag.Bytes, 3, 1, 2 };
+		try {
+			serializer.toObject (bytes, 0, bytes.length);
+			fail ("length past the end of the frame accepted");
+		} catch (IllegalArgumentException iaex) {
+			// expected
+		}
+	}
+	
+	private Object roundTrip (Object value, int tag) {
+		byte [] bytes = serializer.toBytes (value);
+		if (tag == Tag.FixInt) {
+			assertTrue ((bytes [0] & Tag.FixInt) != 0);
+		} else {
+			assertEquals (tag, bytes [0]);
+		}
+		return serializer.toObject (bytes, 0, bytes.length);
+	}
+	
+	static class Point implements Serializable {
+		private static final long serialVersionUID = 1L;
+		int x;
+		int y;
+		Point (int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+	
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.cluster.impls.tcp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MemberTest {
+	
+	private static final int MaxPending = 1024 * 1024;
+	
+	@Test
+	public void coalescesOnlyTheLastFrame () {
+		Member member = new Member ("127.0.0.1:7900", true, System.currentTimeMillis ());
+		
+		byte [] v1 = frame ("put k v1");
+		byte [] v2 = frame ("put k v2");
+		
+		member.enqueue (v1, true, MaxPending);
+		member.enqueue (v2, true, MaxPending);
+		// same as a frame waiting in the batch, but not the last one
+		member.enqueue (frame ("put k v1"), true, MaxPending);
+		// same as the last one
+		member.enqueue (frame ("put k v1"), true, MaxPending);
+		
+		List<String> sent = frames (member.drain (null), 0);
+		assertEquals (3, sent.size ());
+		assertEquals ("put k v1", sent.get (0));
+		assertEquals ("put k v2", sent.get (1));
+		assertEquals ("put k v1", sent.get (2));
+	}
+	
+	@Test
+	public void coalescingIsOptIn () {
+		Member member = new Member ("127.0.0.1:7900", true, System.currentTimeMillis ());
+		
+		member.enqueue (frame ("incr k"), false, MaxPending);
+		member.enqueue (frame ("incr k"), false, MaxPending);
+		
+		assertEquals (2, frames (member.drain (null), 0).size ());
+	}
+	
+	@Test
+	public void authenticatedFrames () throws Exception {
+		FrameAuthenticator sender 	= new FrameAuthenticator ("secret");
+		FrameAuthenticator receiver = new FrameAuthenticator ("secret");
+		FrameAuthenticator intruder = new FrameAuthenticator ("guess");
+		
+		byte [] challenge = receiver.challenge ();
+		
+		Member member = new Member ("127.0.0.1:7900", true, System.currentTimeMillis ());
+		member.challenge = ByteBuffer.wrap (challenge);
+		member.enqueue (frame ("first"), false, MaxPending);
+		member.enqueue (frame ("second"), false, MaxPending);
+		
+		ByteBuffer buffer = member.drain (sender);
+		
+		int first = buffer.getInt (0) + Frames.LengthSize;
+		assertTrue (receiver.verify (challenge, 0, buffer, first));
+		// wrong secret, replayed with another sequence or on another connection
+		assertFalse (intruder.verify (challenge, 0, buffer, first));
+		assertFalse (receiver.verify (challenge, 1, buffer, first));
+		assertFalse (receiver.verify (receiver.challenge (), 0, buffer, first));
+		
+		buffer.position (first + FrameAuthenticator.MacSize);
+		int second = buffer.getInt (buffer.position ()) + Frames.LengthSize;
+		assertTrue (receiver.verify (challenge, 1, buffer, second));
+		
+		// tampered
+		buffer.put (buffer.position () + Frames.LengthSize + 1, (byte)'X');
+		assertFalse (receiver.verify (challenge, 1, buffer, second));
+	}
+	
+	private static byte [] frame (String text) {
+		return Frames.message ("task", "test", text.getBytes ());
+	}
+	
+	private static List<String> frames (ByteBuffer buffer, int macSize) {
+		List<String> frames = new ArrayList<String> ();
+		while (buffer.hasRemaining ()) {
+			byte [] body = new byte [buffer.getInt () - 1];
+			buffer.get ();
+			buffer.get (body);
+			buffer.position (buffer.position () + macSize);
+			try {
+				Frames.Message message = Frames.readMessage (body);
+				frames.add (new String (message.payload, message.offset, message.payload.length - message.offset));
+			} catch (Exception ex) {
+				throw new IllegalStateException (ex);
+			}
+		}
+		return frames;
+	}
+	
+}
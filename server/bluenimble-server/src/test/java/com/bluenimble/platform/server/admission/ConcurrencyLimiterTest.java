@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.server.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonObject;
+
+public class ConcurrencyLimiterTest {
+	
+	private static final long Millis = 1000000L;
+
+	@Test
+	public void disabled () {
+		assertNull (ConcurrencyLimiter.create (null));
+		assertNull (ConcurrencyLimiter.create ((JsonObject)new JsonObject ().set (ConcurrencyLimiter.Spec.Enabled, false)));
+	}
+
+	@Test
+	public void fixedLimit () {
+		ConcurrencyLimiter limiter = limiter (2, false);
+		
+		assertTrue (limiter.tryAcquire ());
+		assertTrue (limiter.tryAcquire ());
+		assertFalse (limiter.tryAcquire ());
+		
+		limiter.release (0, true);
+		assertTrue (limiter.tryAcquire ());
+		
+		assertEquals (1, Json.getLong (limiter.describe (), ConcurrencyLimiter.Describe.Rejected, 0));
+	}
+
+	@Test
+	public void spaceRejection () {
+		ConcurrencyLimiter space 	= limiter (1, false);
+		ConcurrencyLimiter api 		= limiter (10, false);
+		
+		assertTrue (new Admission (space, api).acquire ());
+		
+		Admission admission = new Admission (space, api);
+		assertFalse (admission.acquire ());
+		assertTrue (admission.rejectedBySpace ());
+	}
+
+	@Test
+	public void apiRejectionReleasesSpace () {
+		ConcurrencyLimiter space 	= limiter (10, false);
+		ConcurrencyLimiter api 		= limiter (1, false);
+		
+		Admission first = new Admission (space, api);
+		assertTrue (first.acquire ());
+		
+		Admission admission = new Admission (space, api);
+		assertFalse (admission.acquire ());
+		assertFalse (admission.rejectedBySpace ());
+		
+		// only the first request holds a space permit
+		assertEquals (1, Json.getInteger (space.describe (), ConcurrencyLimiter.Describe.InFlight, -1));
+		
+		first.release (true);
+		first.release (true);
+		assertEquals (0, Json.getInteger (space.describe (), ConcurrencyLimiter.Describe.InFlight, -1));
+		assertEquals (0, Json.getInteger (api.describe (), ConcurrencyLimiter.Describe.InFlight, -1));
+	}
+
+	@Test
+	public void adaptiveLimit () {
+		ConcurrencyLimiter limiter = limiter (100, true);
+		
+		// a loaded window at no load latency grows the limit
+		window (limiter, 60, 1 * Millis);
+		int grown = Json.getInteger (limiter.describe (), ConcurrencyLimiter.Spec.Limit, 0);
+		assertTrue (grown > 100);
+		
+		// latency ten times the no load one shrinks it
+		window (limiter, 60, 10 * Millis);
+		assertTrue (Json.getInteger (limiter.describe (), ConcurrencyLimiter.Spec.Limit, 0) < grown);
+	}
+	
+	private void window (ConcurrencyLimiter limiter, int inFlight, long rtt) {
+		for (int i = 0; i < inFlight; i++) {
+			assertTrue (limiter.tryAcquire ());
+		}
+		for (int i = 0; i < inFlight; i++) {
+			limiter.release (rtt, true);
+		}
+	}
+	
+	private ConcurrencyLimiter limiter (int limit, boolean adaptive) {
+		JsonObject spec = new JsonObject ();
+		spec.set (ConcurrencyLimiter.Spec.Limit, limit);
+		spec.set (ConcurrencyLimiter.Spec.Adaptive, adaptive);
+		spec.set (ConcurrencyLimiter.Spec.Window, 10);
+		return new ConcurrencyLimiter (spec);
+	}
+	
+}
@@ -26,4 +26,8 @@ public interface BinaryClientCallback {
 	void onChunk 	(byte [] chunk) 				throws IOException;
 	void onFinish 	() 								throws IOException;
 	
+	default void onError (Throwable error) throws IOException {
+		// callbacks not interested in failures only miss onFinish
+	}
+	
 }
\ No newline at end of file
@@ -17,127 +17,263 @@
 package com.bluenimble.platform.tools.binary.impls.netty;
 
 import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.tools.binary.BinaryClient;
 import com.bluenimble.platform.tools.binary.BinaryClientCallback;
 import com.bluenimble.platform.tools.binary.BinaryClientException;
+import com.bluenimble.platform.tools.binary.protocol.Frame;
+import com.bluenimble.platform.tools.binary.protocol.FrameDecoder;
+import com.bluenimble.platform.tools.binary.protocol.FrameEncoder;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
 
+/**
+ * A single connection shared by many concurrent requests.
+ * 
+ * Each request gets its own stream id, requests are pipelined and the response frames are routed back to
+ * the callback registered for their stream. Callbacks are called from the connection event loop.
+ * 
+ * A request not finished within 'timeout' milliseconds gets an onError (TimeoutException), late frames are dropped.
+ * 
+ * The connection is opened asynchronously, send never blocks. It is safe to send from a callback running on the event loop.
+ */
 public class NettyBinaryClient implements BinaryClient {
 
 	private static final long serialVersionUID = -7191583878115216336L;
+	
+	private static final FrameEncoder Encoder = new FrameEncoder ();
 
-	private ChannelHandlerContext 	context;
-	private DefaultHandler			handler;
-
-	private EventLoopGroup 			group;
+	private transient Bootstrap 		bootstrap;
+	private transient volatile ChannelFuture connection;
 	
-	public NettyBinaryClient (String host, int port) throws BinaryClientException {
-		
-		handler = new DefaultHandler ();
+	private String 						host;
+	private int 						port;
+	
+	private long 						timeout;
+	private boolean 					compact;
+	
+	private AtomicInteger 				streams = new AtomicInteger ();
+	
+	private Map<Integer, Pending> 		pending = new ConcurrentHashMap<Integer, Pending> ();
+	
+	public NettyBinaryClient (Bootstrap bootstrap, String host, int port, final int maxFrameSize, long timeout, boolean compact) {
+		this.host 		= host;
+		this.port 		= port;
+		this.timeout 	= timeout;
+		this.compact 	= compact;
 		
-		group = new NioEventLoopGroup ();
-		Bootstrap b = new Bootstrap ();
-		b.group (group).channel(NioSocketChannel.class).handler(new ChannelInitializer<SocketChannel>() {
+		this.bootstrap = bootstrap.clone ().handler (new ChannelInitializer<SocketChannel> () {
 			@Override
-			public void initChannel(SocketChannel ch) throws Exception {
-				ChannelPipeline p = ch.pipeline();
-				/*if (sslCtx != null) {
-					p.addLast(sslCtx.newHandler(ch.alloc(), host, port));
-				}*/
-				p.addLast (
-					new ObjectEncoder (), 
-					new ObjectDecoder (ClassResolvers.cacheDisabled (null)),
-					handler
+			public void initChannel (SocketChannel ch) throws Exception {
+				ch.pipeline ().addLast (
+					Encoder, 
+					new FrameDecoder (maxFrameSize),
+					new ResponseHandler ()
 				);
 			}
 		});
+	}
 
+	@Override
+	public void send (final JsonObject request, final BinaryClientCallback callback) {
+		ChannelFuture connection = null;
 		try {
-			b.connect (host, port).sync ();
-		} catch (InterruptedException e) {
-			throw new BinaryClientException (e.getMessage (), e);
+			connection = connection ();
+		} catch (Exception ex) {
+			error (callback, ex);
+			return;
+		}
+		
+		if (connection.isSuccess ()) {
+			send (connection.channel (), request, callback);
+			return;
 		}
+		
+		// still connecting, the request is written once connected
+		connection.addListener (new ChannelFutureListener () {
+			@Override
+			public void operationComplete (ChannelFuture future) throws Exception {
+				if (future.isSuccess ()) {
+					send (future.channel (), request, callback);
+				} else {
+					error (callback, new BinaryClientException ("can't connect to " + host + ":" + port, future.cause ()));
+				}
+			}
+		});
 	}
 
-	@Override
-	public void send (JsonObject request, BinaryClientCallback callback) {
-		handler.callback = callback;
-		context.writeAndFlush (request.toString ().getBytes ());
+	private void send (Channel channel, JsonObject request, BinaryClientCallback callback) {
+		final int stream = streams.incrementAndGet () & Integer.MAX_VALUE;
+		
+		final Pending p = new Pending (callback);
+		pending.put (stream, p);
+		
+		if (timeout > 0) {
+			p.timeout = channel.eventLoop ().schedule (new Runnable () {
+				@Override
+				public void run () {
+					fail (stream, new TimeoutException ("request " + stream + " timed out after " + timeout + " millis"));
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+		}
+		
+		channel.writeAndFlush (Frame.request (stream, request, compact)).addListener (new ChannelFutureListener () {
+			@Override
+			public void operationComplete (ChannelFuture future) throws Exception {
+				if (!future.isSuccess ()) {
+					fail (stream, future.cause ());
+				}
+			}
+		});
 	}
 
 	@Override
 	public void recycle () {
-		handler.callback = null;
+		// shared by all callers, closed by the factory
+	}
+	
+	public int inFlight () {
+		return pending.size ();
 	}
 	
 	public void destroy () {
-		group.shutdownGracefully ();
-        group = null;
+		ChannelFuture connection = this.connection;
+		if (connection != null) {
+			connection.channel ().close ();
+		}
+		failAll (new ClosedChannelException ());
 	}
 	
-	class DefaultHandler extends ChannelInboundHandlerAdapter {
-		
-		BinaryClientCallback callback = null;
-
-		@Override
-	    public void channelActive (ChannelHandlerContext context) {
-			NettyBinaryClient.this.context = context;
-	    }
+	// pending or open connection, a new one is started once the previous failed or got closed
+	private ChannelFuture connection () {
+		ChannelFuture connection = this.connection;
+		if (usable (connection)) {
+			return connection;
+		}
+		synchronized (this) {
+			if (usable (this.connection)) {
+				return this.connection;
+			}
+			this.connection = bootstrap.connect (host, port);
+			return this.connection;
+		}
+	}
+	
+	private static boolean usable (ChannelFuture connection) {
+		if (connection == null) {
+			return false;
+		}
+		if (!connection.isDone ()) {
+			return true;
+		}
+		return connection.isSuccess () && connection.channel ().isActive ();
+	}
+	
+	private void fail (int stream, Throwable error) {
+		Pending p = pending.remove (stream);
+		if (p == null) {
+			return;
+		}
+		p.cancel ();
+		error (p.callback, error);
+	}
+	
+	private void failAll (Throwable error) {
+		Iterator<Integer> streams = pending.keySet ().iterator ();
+		while (streams.hasNext ()) {
+			fail (streams.next (), error);
+		}
+	}
+	
+	private void error (BinaryClientCallback callback, Throwable error) {
+		try {
+			callback.onError (error);
+		} catch (IOException e) {
+			// nothing else to notify
+		}
+	}
+	
+	class ResponseHandler extends SimpleChannelInboundHandler<Frame> {
 
-	    @SuppressWarnings("unchecked")
+		@SuppressWarnings("unchecked")
 		@Override
-	    public void channelRead (ChannelHandlerContext ctx, Object msg) {
-	    	if (callback == null) {
-	    		return;
-	    	}
-	    	try {
-		    	if (msg instanceof Integer) {
-			    	callback.onStatus ((Integer)msg);
-		    	} else if (msg instanceof Map) {
-			    	callback.onHeaders ((Map<String, Object>)msg);
-		    	} else if (msg instanceof byte []) {
-					callback.onChunk ((byte [])msg);
-		    	} 
-			} catch (IOException e) {
-				throw new RuntimeException (e.getMessage (), e);
+		protected void channelRead0 (ChannelHandlerContext ctx, Frame frame) {
+			int stream = frame.stream ();
+			
+			Pending p = pending.get (stream);
+			if (p == null) {
+				// timed out or failed
+				return;
 			}
-	    }
-
-	    @Override
-	    public void channelReadComplete (ChannelHandlerContext ctx) {
-	    	if (callback == null) {
-	    		return;
-	    	}
-	    	try {
-	    		callback.onFinish ();
-			} catch (IOException e) {
-				throw new RuntimeException (e.getMessage (), e);
+			
+			try {
+				switch (frame.type ()) {
+					case Frame.Type.Status:
+						p.callback.onStatus ((Integer)frame.value ());
+						break;
+					case Frame.Type.Headers:
+						p.callback.onHeaders ((Map<String, Object>)frame.value ());
+						break;
+					case Frame.Type.Chunk:
+						p.callback.onChunk ((byte [])frame.value ());
+						break;
+					case Frame.Type.End:
+						if (pending.remove (stream) != null) {
+							p.cancel ();
+							p.callback.onFinish ();
+						}
+						break;
+					default:
+						break;
+				}
+			} catch (Exception ex) {
+				fail (stream, ex);
 			}
-    		ctx.flush ();
-    		callback = null;
-	    }
-
-	    @Override
-	    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-	        cause.printStackTrace();
-	        ctx.close ();
-	    }
+		}
+		
+		@Override
+		public void channelInactive (ChannelHandlerContext ctx) throws Exception {
+			failAll (new ClosedChannelException ());
+			super.channelInactive (ctx);
+		}
 
+		@Override
+		public void exceptionCaught (ChannelHandlerContext ctx, Throwable cause) {
+			failAll (cause);
+			ctx.close ();
+		}
+		
 	}
-
+	
+	static class Pending {
+		BinaryClientCallback 	callback;
+		ScheduledFuture<?> 		timeout;
+		
+		Pending (BinaryClientCallback callback) {
+			this.callback = callback;
+		}
+		
+		void cancel () {
+			if (timeout != null) {
+				timeout.cancel (false);
+			}
+		}
+	}
+	
 }
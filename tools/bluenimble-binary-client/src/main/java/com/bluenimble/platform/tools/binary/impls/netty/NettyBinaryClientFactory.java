@@ -16,35 +16,74 @@
  */
 package com.bluenimble.platform.tools.binary.impls.netty;
 
-import com.bluenimble.platform.pooling.ObjectPool;
-import com.bluenimble.platform.pooling.PoolConfig;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.tools.binary.BinaryClient;
 import com.bluenimble.platform.tools.binary.BinaryClientFactory;
-import com.bluenimble.platform.tools.binary.impls.netty.pool.BinaryClientPoolFactory;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.EventLoopGroup;
+
+/**
+ * Spreads requests over a few multiplexed connections sharing one event loop group.
+ * Transport settings (native, threads, pooled, direct, writeBufferLow/High) are read from the same spec, see NettyTransport.
+ * 
+ * "spec": {
+ * 		"connections": 2, "threads": 0, "timeout": 30000, "maxFrameSize": 20971520, "compact": false, "native": true
+ * }
+ */
 public class NettyBinaryClientFactory implements BinaryClientFactory {
 
 	private static final long serialVersionUID = 5335634635854424930L;
 	
-	private ObjectPool<BinaryClient> pool;
+	public interface Spec {
+		String Connections 	= "connections";
+		String Threads 		= "threads";
+		String Timeout 		= "timeout";
+		String MaxFrameSize = "maxFrameSize";
+		String Compact 		= "compact";
+	}
+	
+	private transient EventLoopGroup 	group;
 	
-	public NettyBinaryClientFactory (String host, int port, PoolConfig config) {
-		pool = new ObjectPool<BinaryClient> (config, new BinaryClientPoolFactory (host, port));
+	private NettyBinaryClient [] 		clients;
+	
+	private AtomicInteger 				next = new AtomicInteger ();
+	
+	public NettyBinaryClientFactory (String host, int port, JsonObject spec) {
+		
+		NettyTransport transport = new NettyTransport (spec);
+		
+		group = transport.workers ();
+		
+		Bootstrap bootstrap = transport.configure (new Bootstrap ().group (group));
+		
+		int 	maxFrameSize 	= Json.getInteger (spec, Spec.MaxFrameSize, 20 * 1024 * 1024);
+		long 	timeout 		= Json.getLong (spec, Spec.Timeout, 30000);
+		boolean compact 		= Json.getBoolean (spec, Spec.Compact, false);
+		
+		clients = new NettyBinaryClient [Math.max (1, Json.getInteger (spec, Spec.Connections, 2))];
+		for (int i = 0; i < clients.length; i++) {
+			clients [i] = new NettyBinaryClient (bootstrap, host, port, maxFrameSize, timeout, compact);
+		}
 	}
 	
 	@Override
 	public BinaryClient create () {
-		return (NettyBinaryClient)pool.borrowObject ().getObject ();
+		// connections are lazy, pick the next one
+		return clients [(next.getAndIncrement () & Integer.MAX_VALUE) % clients.length];
 	}
 
 	@Override
 	public void shutdown () {
-		if (pool != null) {
-			try {
-				pool.shutdown ();
-			} catch (InterruptedException e) {
-				// ignore
-			}
+		for (NettyBinaryClient client : clients) {
+			client.destroy ();
+		}
+		if (group != null) {
+			group.shutdownGracefully ();
+			group = null;
 		}
 	}
 
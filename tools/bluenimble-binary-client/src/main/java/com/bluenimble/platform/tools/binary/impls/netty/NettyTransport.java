@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.tools.binary.impls.netty;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.json.JsonObject;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * Transport settings shared by the binary server and client.
+ * 
+ * The native epoll transport is used when requested and available on the platform, nio otherwise.
+ * With epoll, 'acceptors' server channels can bind the same port (SO_REUSEPORT) so the kernel spreads accepts across them.
+ * 
+ * "transport": {
+ * 		"native": true, "threads": 0, "acceptors": 1, "reusePort": false,
+ * 		"pooled": true, "direct": true, "writeBufferLow": 32768, "writeBufferHigh": 65536
+ * }
+ */
+public class NettyTransport {
+	
+	public interface Spec {
+		String Native 			= "native";
+		String Threads 			= "threads";
+		String Acceptors 		= "acceptors";
+		String ReusePort 		= "reusePort";
+		String Pooled 			= "pooled";
+		String Direct 			= "direct";
+		String WriteBufferLow 	= "writeBufferLow";
+		String WriteBufferHigh 	= "writeBufferHigh";
+	}
+	
+	private boolean 			epoll;
+	private int 				threads;
+	private int 				acceptors;
+	private boolean 			reusePort;
+	
+	private ByteBufAllocator 	allocator;
+	private WriteBufferWaterMark waterMark;
+	
+	// created on first use
+	private static class HeapAllocators {
+		static final ByteBufAllocator Pooled 	= new PooledByteBufAllocator (false);
+		static final ByteBufAllocator Unpooled 	= new UnpooledByteBufAllocator (false);
+	}
+	
+	public NettyTransport (JsonObject spec) {
+		epoll 		= Json.getBoolean (spec, Spec.Native, true) && Epoll.isAvailable ();
+		threads 	= Json.getInteger (spec, Spec.Threads, 0);
+		reusePort 	= epoll && Json.getBoolean (spec, Spec.ReusePort, false);
+		acceptors 	= reusePort ? Math.max (1, Json.getInteger (spec, Spec.Acceptors, 1)) : 1;
+		
+		// allocators are shared by every transport, a pooled one holds its own arenas
+		boolean direct = Json.getBoolean (spec, Spec.Direct, true);
+		if (Json.getBoolean (spec, Spec.Pooled, true)) {
+			allocator = direct ? PooledByteBufAllocator.DEFAULT : HeapAllocators.Pooled;
+		} else {
+			allocator = direct ? UnpooledByteBufAllocator.DEFAULT : HeapAllocators.Unpooled;
+		}
+		
+		waterMark = new WriteBufferWaterMark (
+			Json.getInteger (spec, Spec.WriteBufferLow, 32 * 1024), 
+			Json.getInteger (spec, Spec.WriteBufferHigh, 64 * 1024)
+		);
+	}
+	
+	public boolean isNative () {
+		return epoll;
+	}
+	
+	public int acceptors () {
+		return acceptors;
+	}
+	
+	// 0 threads, netty default (2 * cores)
+	public EventLoopGroup group (int threads) {
+		return epoll ? new EpollEventLoopGroup (threads) : new NioEventLoopGroup (threads);
+	}
+	
+	public EventLoopGroup workers () {
+		return group (threads);
+	}
+	
+	public Class<? extends ServerChannel> serverChannel () {
+		return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+	}
+	
+	public Class<? extends Channel> channel () {
+		return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+	}
+	
+	public ServerBootstrap configure (ServerBootstrap bootstrap) {
+		bootstrap
+			.channel (serverChannel ())
+			.option (ChannelOption.ALLOCATOR, allocator)
+			.childOption (ChannelOption.ALLOCATOR, allocator)
+			.childOption (ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark)
+			.childOption (ChannelOption.TCP_NODELAY, true);
+		if (reusePort) {
+			bootstrap.option (EpollChannelOption.SO_REUSEPORT, true);
+		}
+		return bootstrap;
+	}
+	
+	public Bootstrap configure (Bootstrap bootstrap) {
+		return bootstrap
+			.channel (channel ())
+			.option (ChannelOption.ALLOCATOR, allocator)
+			.option (ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark)
+			.option (ChannelOption.TCP_NODELAY, true);
+	}
+	
+}
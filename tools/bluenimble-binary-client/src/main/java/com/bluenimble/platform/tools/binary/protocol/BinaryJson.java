@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.tools.binary.protocol;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.CorruptedFrameException;
+
+/**
+ * Compact binary encoding of json values, used for frame headers and compact request payloads.
+ * 
+ * Every value starts with a one byte tag. Integers are zigzag varints, strings are a varint length followed by UTF-8 bytes,
+ * objects and arrays a varint count followed by their entries.
+ */
+public class BinaryJson {
+	
+	interface Tag {
+		byte Null 		= 0;
+		byte True 		= 1;
+		byte False 		= 2;
+		byte Integer 	= 3;
+		byte Double 	= 4;
+		byte Decimal 	= 5;
+		byte String 	= 6;
+		byte Object 	= 7;
+		byte Array 		= 8;
+		byte Bytes 		= 9;
+	}
+	
+	public static void write (ByteBuf buff, Object value) {
+		if (value == null || Lang.Null.equals (value)) {
+			buff.writeByte (Tag.Null);
+		} else if (value instanceof String) {
+			buff.writeByte (Tag.String);
+			writeString (buff, (String)value);
+		} else if (value instanceof Boolean) {
+			buff.writeByte ((Boolean)value ? Tag.True : Tag.False);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			buff.writeByte (Tag.Integer);
+			writeVarLong (buff, zigzag (((Number)value).longValue ()));
+		} else if (value instanceof Double || value instanceof Float) {
+			buff.writeByte (Tag.Double);
+			buff.writeDouble (((Number)value).doubleValue ());
+		} else if (value instanceof BigDecimal || value instanceof BigInteger) {
+			buff.writeByte (Tag.Decimal);
+			writeString (buff, value.toString ());
+		} else if (value instanceof Map) {
+			buff.writeByte (Tag.Object);
+			writeMap (buff, (Map<?, ?>)value);
+		} else if (value instanceof JsonArray) {
+			JsonArray array = (JsonArray)value;
+			buff.writeByte (Tag.Array);
+			writeVarLong (buff, array.count ());
+			for (int i = 0; i < array.count (); i++) {
+				write (buff, array.get (i));
+			}
+		} else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>)value;
+			buff.writeByte (Tag.Array);
+			writeVarLong (buff, collection.size ());
+			for (Object o : collection) {
+				write (buff, o);
+			}
+		} else if (value instanceof byte []) {
+			byte [] bytes = (byte [])value;
+			buff.writeByte (Tag.Bytes);
+			writeVarLong (buff, bytes.length);
+			buff.writeBytes (bytes);
+		} else {
+			buff.writeByte (Tag.String);
+			writeString (buff, String.valueOf (value));
+		}
+	}
+	
+	public static Object read (ByteBuf buff) {
+		byte tag = buff.readByte ();
+		switch (tag) {
+			case Tag.Null:
+				return null;
+			case Tag.True:
+				return true;
+			case Tag.False:
+				return false;
+			case Tag.Integer:
+				long value = unzigzag (readVarLong (buff));
+				if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					return (int)value;
+				}
+				return value;
+			case Tag.Double:
+				return buff.readDouble ();
+			case Tag.Decimal:
+				return new BigDecimal (readString (buff));
+			case Tag.String:
+				return readString (buff);
+			case Tag.Object:
+				return readObject (buff);
+			case Tag.Array:
+				int count = readCount (buff);
+				JsonArray array = new JsonArray ();
+				for (int i = 0; i < count; i++) {
+					array.add (read (buff));
+				}
+				return array;
+			case Tag.Bytes:
+				byte [] bytes = new byte [readCount (buff)];
+				buff.readBytes (bytes);
+				return bytes;
+			default:
+				throw new CorruptedFrameException ("unknown value tag " + tag);
+		}
+	}
+	
+	public static void writeObject (ByteBuf buff, JsonObject object) {
+		writeMap (buff, object);
+	}
+	
+	public static JsonObject readObject (ByteBuf buff) {
+		int count = readCount (buff);
+		JsonObject object = new JsonObject ();
+		for (int i = 0; i < count; i++) {
+			String key = readString (buff);
+			object.set (key, read (buff));
+		}
+		return object;
+	}
+	
+	private static void writeMap (ByteBuf buff, Map<?, ?> map) {
+		writeVarLong (buff, map.size ());
+		if (map instanceof JsonObject) {
+			JsonObject object = (JsonObject)map;
+			Iterator<String> keys = object.keys ();
+			while (keys.hasNext ()) {
+				String key = keys.next ();
+				writeString (buff, key);
+				write (buff, object.get (key));
+			}
+			return;
+		}
+		for (Map.Entry<?, ?> entry : map.entrySet ()) {
+			writeString (buff, String.valueOf (entry.getKey ()));
+			write (buff, entry.getValue ());
+		}
+	}
+	
+	static void writeString (ByteBuf buff, String value) {
+		writeVarLong (buff, ByteBufUtil.utf8Bytes (value));
+		ByteBufUtil.writeUtf8 (buff, value);
+	}
+	
+	static String readString (ByteBuf buff) {
+		int length = readCount (buff);
+		String value = buff.toString (buff.readerIndex (), length, StandardCharsets.UTF_8);
+		buff.skipBytes (length);
+		return value;
+	}
+	
+	private static int readCount (ByteBuf buff) {
+		long count = readVarLong (buff);
+		if (count < 0 || count > buff.readableBytes ()) {
+			throw new CorruptedFrameException ("invalid length " + count);
+		}
+		return (int)count;
+	}
+	
+	private static void writeVarLong (ByteBuf buff, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buff.writeByte ((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buff.writeByte ((int)value);
+	}
+	
+	private static long readVarLong (ByteBuf buff) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buff.readByte ();
+			value |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new CorruptedFrameException ("malformed varint");
+	}
+	
+	private static long zigzag (long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+	
+	private static long unzigzag (long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+}
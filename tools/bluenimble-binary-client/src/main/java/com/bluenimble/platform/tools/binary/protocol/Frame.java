@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.tools.binary.protocol;
+
+import java.util.Map;
+
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * A message of the bnb protocol.
+ * 
+ * Wire format, all numbers big endian:
+ * 
+ * 	length 	int 	size of what follows
+ * 	version byte 	protocol version
+ * 	type 	byte 	Request, Status, Headers, Chunk or End
+ * 	flags 	byte 	Compact if the payload json is binary encoded
+ * 	stream 	int 	request id, the same for all frames of a request and its response
+ * 	payload
+ * 
+ * A response is a sequence of Status, Headers, Chunk frames of the same stream, closed by an End frame.
+ */
+public class Frame {
+	
+	public static final byte Version = 1;
+	
+	public interface Type {
+		byte Request 	= 1;
+		byte Status 	= 2;
+		byte Headers 	= 3;
+		byte Chunk 		= 4;
+		byte End 		= 5;
+	}
+	
+	public interface Flags {
+		byte None 		= 0;
+		byte Compact 	= 1;
+	}
+	
+	// version + type + flags + stream
+	static final int HeaderSize = 7;
+	
+	private byte 	type;
+	private byte 	flags;
+	private int 	stream;
+	private Object 	value;
+	
+	public Frame (byte type, byte flags, int stream, Object value) {
+		this.type 	= type;
+		this.flags 	= flags;
+		this.stream = stream;
+		this.value 	= value;
+	}
+	
+	public static Frame request (int stream, JsonObject request, boolean compact) {
+		return new Frame (Type.Request, compact ? Flags.Compact : Flags.None, stream, request);
+	}
+	
+	public static Frame status (int stream, int status) {
+		return new Frame (Type.Status, Flags.None, stream, status);
+	}
+	
+	public static Frame headers (int stream, Map<String, Object> headers) {
+		return new Frame (Type.Headers, Flags.None, stream, headers);
+	}
+	
+	public static Frame chunk (int stream, byte [] chunk) {
+		return new Frame (Type.Chunk, Flags.None, stream, chunk);
+	}
+	
+	public static Frame end (int stream) {
+		return new Frame (Type.End, Flags.None, stream, null);
+	}
+	
+	public byte type () {
+		return type;
+	}
+	
+	public int stream () {
+		return stream;
+	}
+	
+	public boolean isCompact () {
+		return (flags & Flags.Compact) != 0;
+	}
+	
+	public byte flags () {
+		return flags;
+	}
+	
+	public Object value () {
+		return value;
+	}
+	
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.tools.binary.protocol;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import com.bluenimble.platform.json.JsonException;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.json.JsonParser;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+/**
+ * Decodes frames straight from the received buffers, payloads are read from a slice of the cumulated buffer without copying the frame.
+ */
+public class FrameDecoder extends LengthFieldBasedFrameDecoder {
+	
+	public FrameDecoder (int maxFrameSize) {
+		super (maxFrameSize, 0, 4, 0, 4);
+	}
+	
+	@Override
+	protected Object decode (ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+		ByteBuf buff = (ByteBuf)super.decode (ctx, in);
+		if (buff == null) {
+			return null;
+		}
+		try {
+			if (buff.readableBytes () < Frame.HeaderSize) {
+				throw new CorruptedFrameException ("frame too short " + buff.readableBytes ());
+			}
+			byte version = buff.readByte ();
+			if (version != Frame.Version) {
+				throw new CorruptedFrameException ("unsupported protocol version " + version);
+			}
+			byte type 	= buff.readByte ();
+			byte flags 	= buff.readByte ();
+			int stream 	= buff.readInt ();
+			
+			Object value = null;
+			
+			switch (type) {
+				case Frame.Type.Request:
+					if ((flags & Frame.Flags.Compact) != 0) {
+						value = BinaryJson.readObject (buff);
+					} else {
+						try {
+							value = new JsonObject (new JsonParser (new InputStreamReader (new ByteBufInputStream (buff), StandardCharsets.UTF_8)));
+						} catch (JsonException jex) {
+							throw new CorruptedFrameException (jex.getMessage (), jex);
+						}
+					}
+					break;
+				case Frame.Type.Status:
+					value = buff.readInt ();
+					break;
+				case Frame.Type.Headers:
+					value = BinaryJson.read (buff);
+					break;
+				case Frame.Type.Chunk:
+					value = ByteBufUtil.getBytes (buff);
+					break;
+				case Frame.Type.End:
+					break;
+				default:
+					throw new CorruptedFrameException ("unknown frame type " + type);
+			}
+			
+			return new Frame (type, flags, stream, value);
+		} finally {
+			buff.release ();
+		}
+	}
+	
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.tools.binary.protocol;
+
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.json.StreamEmitter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+@Sharable
+public class FrameEncoder extends MessageToByteEncoder<Frame> {
+	
+	@Override
+	protected void encode (ChannelHandlerContext ctx, Frame frame, ByteBuf out) throws Exception {
+		int start = out.writerIndex ();
+		
+		// length, set once the payload is written
+		out.writeInt (0);
+		
+		out.writeByte (Frame.Version);
+		out.writeByte (frame.type ());
+		out.writeByte (frame.flags ());
+		out.writeInt (frame.stream ());
+		
+		Object value = frame.value ();
+		
+		switch (frame.type ()) {
+			case Frame.Type.Request:
+				if (frame.isCompact ()) {
+					BinaryJson.writeObject (out, (JsonObject)value);
+				} else {
+					StreamEmitter emitter = new StreamEmitter (new ByteBufOutputStream (out));
+					((JsonObject)value).write (emitter);
+					emitter.close ();
+				}
+				break;
+			case Frame.Type.Status:
+				out.writeInt ((Integer)value);
+				break;
+			case Frame.Type.Headers:
+				BinaryJson.write (out, value);
+				break;
+			case Frame.Type.Chunk:
+				out.writeBytes ((byte [])value);
+				break;
+			default:
+				break;
+		}
+		
+		out.setInt (start, out.writerIndex () - start - 4);
+	}
+	
+}
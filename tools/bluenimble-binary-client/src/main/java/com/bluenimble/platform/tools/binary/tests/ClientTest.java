@@ -20,7 +20,6 @@ import java.util.Map;
 
 import com.bluenimble.platform.api.ApiRequest;
 import com.bluenimble.platform.json.JsonObject;
-import com.bluenimble.platform.pooling.PoolConfig;
 import com.bluenimble.platform.tools.binary.BinaryClientCallback;
 import com.bluenimble.platform.tools.binary.BinaryClientFactory;
 import com.bluenimble.platform.tools.binary.impls.netty.NettyBinaryClientFactory;
@@ -31,11 +30,9 @@ public class ClientTest {
 		
 		BinaryClientFactory factory = new NettyBinaryClientFactory (
 			"localhost", 7070, 
-			new PoolConfig ()
-				.setPartitionSize (5)
-				.setMinSize (5)
-				.setMaxSize (10)
-				.setMaxIdleMilliseconds(60 * 1000 * 5)
+			(JsonObject)new JsonObject ()
+				.set (NettyBinaryClientFactory.Spec.Connections, 2)
+				.set (NettyBinaryClientFactory.Spec.Timeout, 5000)
 		);
 		
 		factory.create ().send (
@@ -56,6 +53,10 @@ public class ClientTest {
 					System.out.println ("Chunk: \n" + bytes);
 				}
 				@Override
+				public void onError (Throwable error) {
+					System.out.println ("Error: " + error.getMessage ());
+				}
+				@Override
 				public void onFinish () {
 					System.out.println ("Done! ");
 				}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bluenimble.platform.tools.binary.protocol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+
+public class FrameTest {
+	
+	private static final int MaxFrameSize = 1024 * 1024;
+	
+	@Test
+	public void request () {
+		JsonObject request = sample ();
+		
+		Frame frame = roundTrip (Frame.request (7, request, false));
+		assertEquals (Frame.Type.Request, frame.type ());
+		assertEquals (7, frame.stream ());
+		assertFalse (frame.isCompact ());
+		assertEquals (request.toString (), frame.value ().toString ());
+	}
+	
+	@Test
+	public void compactRequest () {
+		JsonObject request = sample ();
+		
+		Frame frame = roundTrip (Frame.request (8, request, true));
+		assertEquals (Frame.Type.Request, frame.type ());
+		assertTrue (frame.isCompact ());
+		assertEquals (request.toString (), frame.value ().toString ());
+	}
+	
+	@Test
+	public void status () {
+		Frame frame = roundTrip (Frame.status (9, 404));
+		assertEquals (Frame.Type.Status, frame.type ());
+		assertEquals (9, frame.stream ());
+		assertEquals (404, frame.value ());
+	}
+	
+	@Test
+	public void headers () {
+		Map<String, Object> headers = new LinkedHashMap<String, Object> ();
+		headers.put ("Content-Type", "application/json");
+		headers.put ("Content-Length", 120);
+		
+		Frame frame = roundTrip (Frame.headers (10, headers));
+		assertEquals (Frame.Type.Headers, frame.type ());
+		JsonObject decoded = (JsonObject)frame.value ();
+		assertEquals ("application/json", decoded.get ("Content-Type"));
+		assertEquals (120, decoded.get ("Content-Length"));
+	}
+	
+	@Test
+	public void chunkAndEnd () {
+		byte [] chunk = new byte [] { 0, 1, 2, (byte)0xFF };
+		
+		Frame frame = roundTrip (Frame.chunk (11, chunk));
+		assertEquals (Frame.Type.Chunk, frame.type ());
+		assertArrayEquals (chunk, (byte [])frame.value ());
+		
+		frame = roundTrip (Frame.end (11));
+		assertEquals (Frame.Type.End, frame.type ());
+		assertEquals (11, frame.stream ());
+		assertNull (frame.value ());
+	}
+	
+	@Test
+	public void splitDelivery () {
+		ByteBuf encoded = encode (Frame.status (12, 200));
+		
+		EmbeddedChannel decoder = new EmbeddedChannel (new FrameDecoder (MaxFrameSize));
+		// a frame arriving in two reads is decoded once complete
+		assertFalse (decoder.writeInbound (encoded.readRetainedSlice (5)));
+		assertTrue (decoder.writeInbound (encoded.readRetainedSlice (encoded.readableBytes ())));
+		encoded.release ();
+		
+		Frame frame = decoder.readInbound ();
+		assertEquals (12, frame.stream ());
+		assertEquals (200, frame.value ());
+		decoder.finishAndReleaseAll ();
+	}
+	
+	@Test
+	public void unsupportedVersion () {
+		ByteBuf encoded = encode (Frame.end (13));
+		// version byte follows the length
+		encoded.setByte (4, Frame.Version + 1);
+		
+		EmbeddedChannel decoder = new EmbeddedChannel (new FrameDecoder (MaxFrameSize));
+		try {
+			decoder.writeInbound (encoded);
+			fail ("frame with an unknown version decoded");
+		} catch (DecoderException dex) {
+			// expected
+		} finally {
+			decoder.finishAndReleaseAll ();
+		}
+	}
+	
+	private static JsonObject sample () {
+		JsonObject request = new JsonObject ();
+		request.set ("verb", "POST");
+		request.set ("endpoint", "/orders/12");
+		request.set ("count", 3);
+		request.set ("price", 12.5);
+		request.set ("paid", true);
+		request.set ("tags", new JsonArray ().push ("a").push ("b"));
+		request.set ("customer", new JsonObject ().set ("name", "Alpha"));
+		return request;
+	}
+	
+	private static ByteBuf encode (Frame frame) {
+		EmbeddedChannel encoder = new EmbeddedChannel (new FrameEncoder ());
+		assertTrue (encoder.writeOutbound (frame));
+		ByteBuf encoded = encoder.readOutbound ();
+		encoder.finishAndReleaseAll ();
+		return encoded;
+	}
+	
+	private static Frame roundTrip (Frame frame) {
+		EmbeddedChannel decoder = new EmbeddedChannel (new FrameDecoder (MaxFrameSize));
+		assertTrue (decoder.writeInbound (encode (frame)));
+		Frame decoded = decoder.readInbound ();
+		assertFalse (decoder.finishAndReleaseAll ());
+		return decoded;
+	}
+	
+}
@@ -7,5 +7,6 @@ public interface Message {
 	String Data 		= "data";
 	String Reason 		= "reason";
 	String Timestamp 	= "timestamp";
+	String Offset 		= "offset";
 
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.bluenimble.platform.servers.broker;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Set;
 
 import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.servers.broker.fanout.FanOut;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIONamespace;
 import com.corundumstudio.socketio.SocketIOServer;
@@ -48,14 +50,17 @@ public interface Peer extends Serializable {
 	
 	Set<String> joined 			();
 	
-	void		init 			(SocketIOServer server, SocketIONamespace namespace, SocketIOClient client);
+	void		init 			(SocketIOServer server, SocketIONamespace namespace, SocketIOClient client, FanOut fanOut);
+	FanOut		fanOut 			();
 	
 	void		trigger 		(String event, Object... message);
 	
 	void		join 			(String channel);
+	void		join 			(String channel, long offset, long timestamp);
 	void		leave 			(String channel);
 	
 	void 		broadcast 		(String channel, Object data);
+	void 		publish 		(Collection<String> channels, Object data);
 	
 	boolean 	canJoin			(String channel);
 	
@@ -0,0 +1,78 @@
+package com.bluenimble.platform.servers.broker.fanout;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.servers.broker.Peer;
+
+/**
+ * Members and counters of a channel within a namespace.
+ * Membership is copy-on-write, joins and leaves are rare compared to publishes.
+ */
+public class Channel {
+
+	interface Describe {
+		String Namespace 	= "namespace";
+		String Name 		= "name";
+		String Subscribers 	= "subscribers";
+		String Published 	= "published";
+		String Delivered 	= "delivered";
+		String Dropped 		= "dropped";
+		String Pending 		= "pending";
+		String Rate 		= "rate";
+	}
+
+	private String 				namespace;
+	private String 				name;
+
+	Set<Peer> 					members 	= new CopyOnWriteArraySet<Peer> ();
+
+	AtomicLong 					published 	= new AtomicLong ();
+	AtomicLong 					delivered 	= new AtomicLong ();
+	AtomicLong 					dropped 	= new AtomicLong ();
+	AtomicInteger 				pending 	= new AtomicInteger ();
+
+	// publishes per second, computed by the fan out ticker
+	private volatile long 		rate;
+	private long 				lastPublished;
+
+	public Channel (String namespace, String name) {
+		this.namespace 	= namespace;
+		this.name 		= name;
+	}
+
+	public String namespace () {
+		return namespace;
+	}
+
+	public String name () {
+		return name;
+	}
+
+	void tick (long elapsed) {
+		long current = published.get ();
+		rate = elapsed <= 0 ? 0 : (current - lastPublished) * 1000 / elapsed;
+		lastPublished = current;
+	}
+
+	boolean idle () {
+		return members.isEmpty () && pending.get () == 0 && rate == 0;
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Describe.Namespace, namespace);
+		describe.set (Describe.Name, name);
+		describe.set (Describe.Subscribers, members.size ());
+		describe.set (Describe.Published, published.get ());
+		describe.set (Describe.Delivered, delivered.get ());
+		describe.set (Describe.Dropped, dropped.get ());
+		describe.set (Describe.Pending, pending.get ());
+		describe.set (Describe.Rate, rate);
+		return describe;
+	}
+
+}
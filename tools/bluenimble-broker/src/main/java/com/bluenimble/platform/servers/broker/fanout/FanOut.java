@@ -0,0 +1,354 @@
+package com.bluenimble.platform.servers.broker.fanout;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.servers.broker.Message;
+import com.bluenimble.platform.servers.broker.Peer;
+import com.bluenimble.platform.servers.broker.log.ChannelLog;
+import com.bluenimble.platform.servers.broker.log.ChannelLogs;
+import com.bluenimble.platform.servers.broker.server.Broker.Spec;
+import com.corundumstudio.socketio.protocol.JsonSupport;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+
+/**
+ * Broadcasts published messages to the members of one or many channels.
+ *
+ * A payload is rendered to json once per publish and handed to every connection as a raw value.
+ * Channel members are indexed by namespace and channel, each connection has an outbox drained by the dispatcher threads.
+ *
+ * Messages of logged channels are appended to the channel log before delivery and carry their offset and timestamp
+ * as a second argument, a peer can join such a channel from an offset or a timestamp to get what it missed.
+ *
+ * "fanout": {
+ * 		"threads": 4, "maxQueue": 1000, "batch": 64, "report": 0
+ * }
+ * report: log stats every 'report' seconds, 0 to disable
+ */
+public class FanOut {
+
+	private static final Logger logger = LoggerFactory.getLogger (FanOut.class);
+
+	interface Describe {
+		String Connections 	= "connections";
+		String Pending 		= "pending";
+		String Channels 	= "channels";
+		String Logs 		= "logs";
+	}
+
+	private static final long Tick = 1000;
+
+	private int 							threads;
+	private int 							maxQueue;
+	private int 							batch;
+	private int 							report;
+
+	private Map<String, Channel> 			channels 	= new ConcurrentHashMap<String, Channel> ();
+	private Map<Peer, Outbox> 				outboxes 	= new ConcurrentHashMap<Peer, Outbox> ();
+
+	private ChannelLogs 					logs;
+
+	private JsonSupport 					json;
+
+	private ExecutorService 				dispatcher;
+	private ScheduledExecutorService 		ticker;
+
+	private long 							lastTick;
+	private int 							ticks;
+
+	public FanOut (JsonObject spec, ChannelLogs logs) {
+		this.logs 	= logs;
+		threads 	= Json.getInteger (spec, Spec.FanOut.Threads, Runtime.getRuntime ().availableProcessors ());
+		maxQueue 	= Json.getInteger (spec, Spec.FanOut.MaxQueue, 1000);
+		batch 		= Json.getInteger (spec, Spec.FanOut.Batch, 64);
+		report 		= Json.getInteger (spec, Spec.FanOut.Report, 0);
+	}
+
+	public void start (JsonSupport json) {
+		this.json = json;
+
+		dispatcher = Executors.newFixedThreadPool (threads, new Factory ("broker-fanout"));
+
+		lastTick = System.currentTimeMillis ();
+		ticker = Executors.newSingleThreadScheduledExecutor (new Factory ("broker-fanout-ticker"));
+		ticker.scheduleAtFixedRate (new Runnable () {
+			@Override
+			public void run () {
+				tick ();
+			}
+		}, Tick, Tick, TimeUnit.MILLISECONDS);
+	}
+
+	public void stop () {
+		if (ticker != null) {
+			ticker.shutdownNow ();
+		}
+		if (dispatcher != null) {
+			dispatcher.shutdownNow ();
+		}
+		if (logs != null) {
+			logs.close ();
+		}
+	}
+
+	public void join (String namespace, String channel, Peer peer) {
+		add (namespace, channel, peer);
+	}
+
+	// join and replay the log from 'offset' or 'timestamp', whichever is set (>= 0)
+	public void join (String namespace, String channel, Peer peer, long offset, long timestamp) {
+		ChannelLog log = (offset < 0 && timestamp < 0) || logs == null ? null : logs.get (namespace, channel);
+		if (log == null) {
+			add (namespace, channel, peer);
+			return;
+		}
+		// no publish to this channel until the peer is a member, nothing missed nor delivered twice
+		synchronized (log) {
+			List<ChannelLog.Entry> entries = offset >= 0 ? log.read (offset, logs.maxReplay ()) : log.since (timestamp, logs.maxReplay ());
+			Channel oChannel = add (namespace, channel, peer);
+			Outbox outbox = outbox (peer);
+			for (ChannelLog.Entry entry : entries) {
+				outbox.offer (
+					oChannel, 
+					new Object [] { new RawValue (new String (entry.payload (), CharsetUtil.UTF_8)), meta (channel, entry.offset (), entry.timestamp ()) },
+					Integer.MAX_VALUE
+				);
+			}
+		}
+	}
+
+	public void leave (String namespace, String channel, Peer peer) {
+		Channel oChannel = channels.get (key (namespace, channel));
+		if (oChannel == null) {
+			return;
+		}
+		oChannel.members.remove (peer);
+		Outbox outbox = outboxes.get (peer);
+		if (outbox != null) {
+			outbox.channels.remove (oChannel);
+		}
+	}
+
+	// connection closed
+	public void leave (Peer peer) {
+		Outbox outbox = outboxes.remove (peer);
+		if (outbox == null) {
+			return;
+		}
+		for (Channel channel : outbox.channels) {
+			channel.members.remove (peer);
+		}
+		outbox.discard ();
+	}
+
+	public void publish (String namespace, Collection<String> channels, Object data) {
+		Payload payload = new Payload (data);
+		for (String channel : channels) {
+			ChannelLog log = logs == null ? null : logs.get (namespace, channel);
+			byte [] bytes = log == null ? null : payload.bytes ();
+			if (bytes == null) {
+				deliver (this.channels.get (key (namespace, channel)), payload, null);
+				continue;
+			}
+			synchronized (log) {
+				long timestamp = System.currentTimeMillis ();
+				JsonObject meta = null;
+				try {
+					meta = meta (channel, log.append (bytes, timestamp), timestamp);
+				} catch (IOException ioex) {
+					logger.warn ("Can't log message of channel " + channel + ": " + ioex.getMessage ());
+				}
+				deliver (this.channels.get (key (namespace, channel)), payload, meta);
+			}
+		}
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		int pending = 0;
+		for (Outbox outbox : outboxes.values ()) {
+			pending += outbox.size ();
+		}
+		describe.set (Describe.Connections, outboxes.size ());
+		describe.set (Describe.Pending, pending);
+		JsonArray aChannels = new JsonArray ();
+		for (Channel channel : channels.values ()) {
+			aChannels.add (channel.describe ());
+		}
+		describe.set (Describe.Channels, aChannels);
+		if (logs != null) {
+			describe.set (Describe.Logs, logs.describe ());
+		}
+		return describe;
+	}
+
+	int batch () {
+		return batch;
+	}
+
+	void dispatch (Outbox outbox) {
+		try {
+			dispatcher.execute (outbox);
+		} catch (RejectedExecutionException rex) {
+			// stopping
+			outbox.discard ();
+		}
+	}
+
+	private Channel add (String namespace, String channel, Peer peer) {
+		Channel oChannel = channels.compute (key (namespace, channel), (k, c) -> {
+			if (c == null) {
+				c = new Channel (namespace, channel);
+			}
+			c.members.add (peer);
+			return c;
+		});
+		outbox (peer).channels.add (oChannel);
+		return oChannel;
+	}
+
+	private void deliver (Channel channel, Payload payload, JsonObject meta) {
+		if (channel == null) {
+			return;
+		}
+		channel.published.incrementAndGet ();
+		Object [] args = null;
+		for (Peer peer : channel.members) {
+			if (args == null) {
+				args = meta == null ? new Object [] { payload.value () } : new Object [] { payload.value (), meta };
+			}
+			Outbox outbox = outboxes.get (peer);
+			if (outbox != null) {
+				outbox.offer (channel, args, maxQueue);
+			}
+		}
+	}
+
+	private JsonObject meta (String channel, long offset, long timestamp) {
+		JsonObject meta = new JsonObject ();
+		meta.set (Message.Channel, channel);
+		meta.set (Message.Offset, offset);
+		meta.set (Message.Timestamp, timestamp);
+		return meta;
+	}
+
+	private Outbox outbox (Peer peer) {
+		return outboxes.computeIfAbsent (peer, p -> new Outbox (this, p));
+	}
+
+	// json of a payload, null if it can't be rendered once (binary payloads are left to socket-io attachments)
+	private String render (Object data) {
+		if (json == null || data == null) {
+			return null;
+		}
+		ByteBuf buffer = Unpooled.buffer ();
+		try {
+			json.writeValue (new ByteBufOutputStream (buffer), data);
+			if (!json.getArrays ().isEmpty ()) {
+				return null;
+			}
+			return buffer.toString (CharsetUtil.UTF_8);
+		} catch (Exception ex) {
+			logger.warn ("Can't render payload, fallback to per connection encoding: " + ex.getMessage ());
+			return null;
+		} finally {
+			buffer.release ();
+		}
+	}
+
+	private void tick () {
+		long now = System.currentTimeMillis ();
+		long elapsed = now - lastTick;
+		lastTick = now;
+
+		Iterator<String> keys = channels.keySet ().iterator ();
+		while (keys.hasNext ()) {
+			// atomic with joins on the same channel
+			channels.computeIfPresent (keys.next (), (k, c) -> {
+				c.tick (elapsed);
+				return c.idle () ? null : c;
+			});
+		}
+
+		if (logs != null) {
+			logs.tick ();
+		}
+
+		if (report > 0 && ++ticks % report == 0) {
+			logger.info ("FanOut " + describe ());
+		}
+	}
+
+	private static String key (String namespace, String channel) {
+		return namespace + Lang.SPACE + channel;
+	}
+
+	// rendered once per publish, whatever the number of channels and members
+	private class Payload {
+		private Object 	data;
+		private boolean rendered;
+		private String 	json;
+		private Object 	value;
+		private byte [] bytes;
+		Payload (Object data) {
+			this.data = data;
+		}
+		private String json () {
+			if (!rendered) {
+				json = render (data);
+				rendered = true;
+			}
+			return json;
+		}
+		Object value () {
+			if (value == null) {
+				value = json () == null ? data : new RawValue (json ());
+			}
+			return value;
+		}
+		byte [] bytes () {
+			if (bytes == null && json () != null) {
+				bytes = json ().getBytes (CharsetUtil.UTF_8);
+			}
+			return bytes;
+		}
+	}
+
+	private static class Factory implements ThreadFactory {
+		private String 			name;
+		private AtomicInteger 	count = new AtomicInteger ();
+		Factory (String name) {
+			this.name = name;
+		}
+		@Override
+		public Thread newThread (Runnable runnable) {
+			Thread thread = new Thread (runnable, name + Lang.DASH + count.incrementAndGet ());
+			thread.setDaemon (true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.bluenimble.platform.servers.broker.fanout;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bluenimble.platform.servers.broker.Peer;
+import com.bluenimble.platform.servers.broker.listeners.EventListener;
+
+/**
+ * Pending deliveries of a single connection.
+ *
+ * At most one dispatcher thread drains an outbox at a time, writing up to 'batch' messages back to back
+ * before giving the thread away. Deliveries are dropped once 'maxQueue' messages are pending (slow consumer).
+ */
+class Outbox implements Runnable {
+
+	private FanOut 					fanOut;
+	private Peer 					peer;
+
+	private Queue<Delivery> 		queue 		= new ConcurrentLinkedQueue<Delivery> ();
+	private AtomicInteger 			size 		= new AtomicInteger ();
+	private AtomicBoolean 			scheduled 	= new AtomicBoolean ();
+
+	// channels this peer is a member of
+	Set<Channel> 					channels 	= ConcurrentHashMap.newKeySet ();
+
+	Outbox (FanOut fanOut, Peer peer) {
+		this.fanOut = fanOut;
+		this.peer 	= peer;
+	}
+
+	boolean offer (Channel channel, Object [] args, int maxQueue) {
+		if (size.get () >= maxQueue) {
+			channel.dropped.incrementAndGet ();
+			return false;
+		}
+		size.incrementAndGet ();
+		channel.pending.incrementAndGet ();
+		queue.add (new Delivery (channel, args));
+		schedule ();
+		return true;
+	}
+
+	int size () {
+		return size.get ();
+	}
+
+	void discard () {
+		Delivery delivery;
+		while ((delivery = queue.poll ()) != null) {
+			size.decrementAndGet ();
+			delivery.channel.pending.decrementAndGet ();
+			delivery.channel.dropped.incrementAndGet ();
+		}
+	}
+
+	@Override
+	public void run () {
+		int batch = fanOut.batch ();
+		Delivery delivery;
+		for (int i = 0; i < batch && (delivery = queue.poll ()) != null; i++) {
+			size.decrementAndGet ();
+			delivery.channel.pending.decrementAndGet ();
+			try {
+				peer.trigger (EventListener.Default.message.name (), delivery.args);
+				delivery.channel.delivered.incrementAndGet ();
+			} catch (Exception ex) {
+				delivery.channel.dropped.incrementAndGet ();
+			}
+		}
+		scheduled.set (false);
+		if (!queue.isEmpty ()) {
+			schedule ();
+		}
+	}
+
+	private void schedule () {
+		if (scheduled.compareAndSet (false, true)) {
+			fanOut.dispatch (this);
+		}
+	}
+
+	private static class Delivery {
+		Channel 	channel;
+		Object [] 	args;
+		Delivery (Channel channel, Object [] args) {
+			this.channel 	= channel;
+			this.args 		= args;
+		}
+	}
+
+}
@@ -1,12 +1,17 @@
 package com.bluenimble.platform.servers.broker.impls;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.servers.broker.Peer;
+import com.bluenimble.platform.servers.broker.fanout.FanOut;
 import com.bluenimble.platform.servers.broker.listeners.EventListener;
 import com.corundumstudio.socketio.BroadcastOperations;
 import com.corundumstudio.socketio.SocketIOClient;
@@ -21,6 +26,8 @@ public class PeerImpl implements Peer {
 	
 	private static final Set<String> EmptySet = new HashSet<String> ();
 	
+	private static final int MaxAccessEntries = 1024;
+	
 	interface Spec {
 		String UUID 		= "uuid";
 		String Type 		= "type";
@@ -40,6 +47,12 @@ public class PeerImpl implements Peer {
 	private SocketIONamespace 	namespace;
 	private SocketIOClient 		client;
 	
+	private transient FanOut 	fanOut;
+	
+	// access checks per channel, channels of a peer don't change once connected
+	private transient Map<String, Boolean> 
+								access = new ConcurrentHashMap<String, Boolean> ();
+	
 	public String id () {
 		return id;
 	}
@@ -106,10 +119,26 @@ public class PeerImpl implements Peer {
 			channels = new HashSet<String> ();
 		}
 		channels.add (channel);
+		access.clear ();
 	}
 	
 	@Override
 	public boolean hasAccess (String channel) {
+		if (Lang.isNullOrEmpty (channel)) {
+			return false;
+		}
+		Boolean hasAccess = access.get (channel);
+		if (hasAccess == null) {
+			hasAccess = resolveAccess (channel);
+			if (access.size () >= MaxAccessEntries) {
+				access.clear ();
+			}
+			access.put (channel, hasAccess);
+		}
+		return hasAccess;
+	}
+	
+	private boolean resolveAccess (String channel) {
 		// no defined channels, peer has right to all channels to execute actions
 		if (channels == null || channels.isEmpty ()) {
 			return false;
@@ -140,10 +169,16 @@ public class PeerImpl implements Peer {
 	}
 
 	@Override
-	public void init (SocketIOServer server, SocketIONamespace namespace, SocketIOClient client) {
+	public void init (SocketIOServer server, SocketIONamespace namespace, SocketIOClient client, FanOut fanOut) {
 		this.server = server;
 		this.namespace = namespace;
 		this.client = client;
+		this.fanOut = fanOut;
+	}
+	
+	@Override
+	public FanOut fanOut () {
+		return fanOut;
 	}
 	
 	@Override
@@ -156,12 +191,23 @@ public class PeerImpl implements Peer {
 
 	@Override
 	public void join (String channel) {
+		join (channel, -1, -1);
+	}
+
+	@Override
+	public void join (String channel, long offset, long timestamp) {
 		client.joinRoom (channel);
+		if (fanOut != null) {
+			fanOut.join (namespace (), channel, this, offset, timestamp);
+		}
 	}
 
 	@Override
 	public void leave (String channel) {
 		client.leaveRoom (channel);
+		if (fanOut != null) {
+			fanOut.leave (namespace (), channel, this);
+		}
 	}
 
 	@Override
@@ -216,6 +262,10 @@ public class PeerImpl implements Peer {
 
 	@Override
 	public void broadcast (String channel, Object data) {
+		if (fanOut != null) {
+			fanOut.publish (namespace (), Collections.singleton (channel), data);
+			return;
+		}
 		BroadcastOperations ops = namespace == null ? server.getRoomOperations (channel) : namespace.getRoomOperations (channel);
 		if (ops == null) {
 			return;
@@ -223,6 +273,21 @@ public class PeerImpl implements Peer {
 		ops.sendEvent (EventListener.Default.message.name (), data);
 	}
 
+	@Override
+	public void publish (Collection<String> channels, Object data) {
+		if (fanOut != null) {
+			fanOut.publish (namespace (), channels, data);
+			return;
+		}
+		for (String channel : channels) {
+			broadcast (channel, data);
+		}
+	}
+	
+	private String namespace () {
+		return namespace == null ? Lang.SLASH : namespace.getName ();
+	}
+
 	@Override
 	public JsonObject info () {
 		JsonObject info = new JsonObject ();
@@ -13,7 +13,8 @@ public interface EventListener<T> extends Serializable {
 		publish,
 		message,
 		error,
-		peer
+		peer,
+		stats
 	}
 	
 	void 		process (Peer peer, T message, PeerAck ack);
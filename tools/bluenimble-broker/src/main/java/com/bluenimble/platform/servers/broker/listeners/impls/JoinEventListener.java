@@ -3,6 +3,7 @@ package com.bluenimble.platform.servers.broker.listeners.impls;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.bluenimble.platform.Json;
 import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
@@ -25,12 +26,16 @@ public class JoinEventListener implements EventListener<JsonObject> {
 			return;
 		}
 		
+		// resume from an offset (a number or an object of channel offsets) or a timestamp
+		Object oOffset 	= message.get (Message.Offset);
+		long timestamp 	= Json.getLong (message, Message.Timestamp, -1);
+		
 		if (oChannel instanceof String) {
 			if (!peer.canJoin ((String)oChannel)) {
 				peer.trigger (Default.error.name (), new JsonObject ().set (Message.Status, Response.Error).set (Message.Reason, "Unauthorized action"));
 				return;
 			}
-			peer.join ((String)oChannel);
+			peer.join ((String)oChannel, offset (oOffset, (String)oChannel), timestamp);
 		} else if (oChannel instanceof JsonArray) {
 			JsonArray channels = (JsonArray)oChannel;
 			if (channels.isEmpty ()) {
@@ -39,13 +44,13 @@ public class JoinEventListener implements EventListener<JsonObject> {
 			}
 			List<String> cantJoin = null;
 			for (Object oc : channels) {
-				if (!peer.canJoin ((String)oChannel)) {
+				if (!peer.canJoin (String.valueOf (oc))) {
 					if (cantJoin == null) {
 						cantJoin = new ArrayList<String> ();
 					}
 					cantJoin.add (String.valueOf (oc));
 				} else {
-					peer.join (String.valueOf (oc));
+					peer.join (String.valueOf (oc), offset (oOffset, String.valueOf (oc)), timestamp);
 				}
 			}
 			if (cantJoin != null) {
@@ -55,6 +60,16 @@ public class JoinEventListener implements EventListener<JsonObject> {
 		
 	}
 
+	private long offset (Object oOffset, String channel) {
+		if (oOffset instanceof JsonObject) {
+			return Json.getLong ((JsonObject)oOffset, channel, -1);
+		}
+		if (oOffset instanceof Number) {
+			return ((Number)oOffset).longValue ();
+		}
+		return -1;
+	}
+
 	@Override
 	public Class<?> dataType () {
 		return JsonObject.class;
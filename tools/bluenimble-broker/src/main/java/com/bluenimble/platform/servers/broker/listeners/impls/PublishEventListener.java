@@ -48,19 +48,24 @@ public class PublishEventListener implements EventListener<JsonObject> {
 				return;
 			}
 			
-			List<String> cantJoin = null;
+			List<String> allowed 		= new ArrayList<String> (channels.size ());
+			List<String> cantPublish 	= null;
 			for (Object oc : channels) {
-				if (!peer.canJoin ((String)oc)) {
-					if (cantJoin == null) {
-						cantJoin = new ArrayList<String> ();
+				String channel = String.valueOf (oc);
+				if (!peer.canPublish (channel)) {
+					if (cantPublish == null) {
+						cantPublish = new ArrayList<String> ();
 					}
-					cantJoin.add (String.valueOf (oc));
+					cantPublish.add (channel);
 				} else {
-					peer.broadcast (String.valueOf (oc), message.get (Message.Data));
+					allowed.add (channel);
 				}
 			}
-			if (cantJoin != null) {
-				peer.trigger (Default.error.name (), new JsonObject ().set (Message.Status, Response.Error).set (Message.Reason, "Cant pubish to " + Lang.join (cantJoin)));
+			if (!allowed.isEmpty ()) {
+				peer.publish (allowed, message.get (Message.Data));
+			}
+			if (cantPublish != null) {
+				peer.trigger (Default.error.name (), new JsonObject ().set (Message.Status, Response.Error).set (Message.Reason, "Cant pubish to " + Lang.join (cantPublish)));
 			}
 		}
 		
@@ -0,0 +1,37 @@
+package com.bluenimble.platform.servers.broker.listeners.impls;
+
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.servers.broker.Message;
+import com.bluenimble.platform.servers.broker.Peer;
+import com.bluenimble.platform.servers.broker.PeerAck;
+import com.bluenimble.platform.servers.broker.Response;
+import com.bluenimble.platform.servers.broker.listeners.EventListener;
+
+public class StatsEventListener implements EventListener<JsonObject> {
+
+	private static final long serialVersionUID = -2038521739526375311L;
+
+	@Override
+	public void process (Peer peer, JsonObject message, PeerAck ack) {
+		
+		if (peer.fanOut () == null) {
+			peer.trigger (Default.error.name (), new JsonObject ().set (Message.Status, Response.Error).set (Message.Reason, "Stats not available"));
+			return;
+		}
+		
+		JsonObject stats = peer.fanOut ().describe ();
+		
+		if (ack.requested ()) {
+			ack.notify (stats);
+		} else {
+			peer.trigger (Default.stats.name (), stats);
+		}
+		
+	}
+
+	@Override
+	public Class<?> dataType () {
+		return JsonObject.class;
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.bluenimble.platform.servers.broker.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.bluenimble.platform.json.JsonObject;
+
+/**
+ * Append only log of the messages published to a channel.
+ *
+ * The log is a sequence of memory mapped segments of 'segmentSize' bytes. A new segment is rolled when the
+ * active one is full, the oldest segments are deleted once the log exceeds 'maxSize' bytes or their last
+ * record is older than 'maxAge' milliseconds. Appends are serialized on the log instance, reads aren't locked.
+ */
+public class ChannelLog {
+
+	interface Describe {
+		String First 		= "first";
+		String Next 		= "next";
+		String Segments 	= "segments";
+		String Size 		= "size";
+	}
+
+	public static class Entry {
+		private long 	offset;
+		private long 	timestamp;
+		private byte [] payload;
+		Entry (long offset, long timestamp, byte [] payload) {
+			this.offset 	= offset;
+			this.timestamp 	= timestamp;
+			this.payload 	= payload;
+		}
+		public long offset () {
+			return offset;
+		}
+		public long timestamp () {
+			return timestamp;
+		}
+		public byte [] payload () {
+			return payload;
+		}
+	}
+
+	private File 								folder;
+	private int 								segmentSize;
+	private long 								maxSize;
+	private long 								maxAge;
+
+	private ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<Long, Segment> ();
+	private volatile Segment 					active;
+
+	private boolean 							dirty;
+
+	public ChannelLog (File folder, int segmentSize, long maxSize, long maxAge) throws IOException {
+		this.folder 		= folder;
+		this.segmentSize 	= segmentSize;
+		this.maxSize 		= maxSize;
+		this.maxAge 		= maxAge;
+
+		if (!folder.exists () && !folder.mkdirs ()) {
+			throw new IOException ("can't create log folder " + folder.getAbsolutePath ());
+		}
+
+		File [] files = folder.listFiles ((dir, name) -> name.endsWith (Segment.Extension));
+		if (files != null) {
+			Arrays.sort (files);
+			for (File file : files) {
+				Segment segment = Segment.open (file);
+				segments.put (segment.base (), segment);
+			}
+		}
+		if (segments.isEmpty ()) {
+			Segment segment = Segment.create (folder, 0, segmentSize);
+			segments.put (segment.base (), segment);
+		}
+		active = segments.lastEntry ().getValue ();
+	}
+
+	public synchronized long append (byte [] payload, long timestamp) throws IOException {
+		if (Segment.size (payload.length) > segmentSize) {
+			throw new IOException ("message of " + payload.length + " bytes exceeds log segment size");
+		}
+		if (!active.fits (payload.length)) {
+			roll ();
+		}
+		dirty = true;
+		return active.append (payload, timestamp);
+	}
+
+	// records starting at 'offset', from the first retained one if 'offset' was deleted by retention
+	public List<Entry> read (long offset, int max) {
+		List<Entry> entries = new ArrayList<Entry> ();
+		Long start = segments.floorKey (offset);
+		if (start == null) {
+			start = segments.firstKey ();
+		}
+		for (Segment segment : segments.tailMap (start).values ()) {
+			if (entries.size () >= max) {
+				break;
+			}
+			segment.read (offset, 0, max, entries);
+		}
+		return entries;
+	}
+
+	// records published at or after 'timestamp'
+	public List<Entry> since (long timestamp, int max) {
+		List<Entry> entries = new ArrayList<Entry> ();
+		for (Segment segment : segments.values ()) {
+			if (entries.size () >= max) {
+				break;
+			}
+			if (segment.isEmpty () || segment.lastTimestamp () < timestamp) {
+				continue;
+			}
+			segment.read (0, timestamp, max, entries);
+		}
+		return entries;
+	}
+
+	public long first () {
+		return segments.firstKey ();
+	}
+
+	public long next () {
+		return active.next ();
+	}
+
+	public synchronized void flush () {
+		if (!dirty) {
+			return;
+		}
+		active.flush ();
+		dirty = false;
+	}
+
+	public synchronized void retain () {
+		long expiry = maxAge > 0 ? System.currentTimeMillis () - maxAge : 0;
+		long size = (long)segments.size () * segmentSize;
+		while (segments.size () > 1) {
+			Map.Entry<Long, Segment> oldest = segments.firstEntry ();
+			Segment segment = oldest.getValue ();
+			if (size <= maxSize && (expiry == 0 || segment.lastTimestamp () >= expiry)) {
+				break;
+			}
+			segments.remove (oldest.getKey ());
+			segment.delete ();
+			size -= segmentSize;
+		}
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		describe.set (Describe.First, first ());
+		describe.set (Describe.Next, next ());
+		describe.set (Describe.Segments, segments.size ());
+		describe.set (Describe.Size, (long)(segments.size () - 1) * segmentSize + active.end ());
+		return describe;
+	}
+
+	private void roll () throws IOException {
+		active.flush ();
+		Segment segment = Segment.create (folder, active.next (), segmentSize);
+		segments.put (segment.base (), segment);
+		active = segment;
+		retain ();
+	}
+
+}
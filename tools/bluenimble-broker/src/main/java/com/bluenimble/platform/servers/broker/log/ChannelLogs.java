@@ -0,0 +1,135 @@
+package com.bluenimble.platform.servers.broker.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bluenimble.platform.Json;
+import com.bluenimble.platform.Lang;
+import com.bluenimble.platform.json.JsonArray;
+import com.bluenimble.platform.json.JsonObject;
+import com.bluenimble.platform.servers.broker.server.Broker.Spec;
+
+/**
+ * Channel logs of the broker, one folder per namespace and channel under 'folder'.
+ * Only channels matching one of the 'channels' wildcards are logged.
+ *
+ * "log": {
+ * 		"folder": "channels", "channels": ["*"],
+ * 		"segmentSize": 16, "maxSize": 256, "maxAge": 86400, "flush": 1, "maxReplay": 1000
+ * }
+ * sizes in mb, maxAge and flush in seconds
+ */
+public class ChannelLogs {
+
+	private static final Logger logger = LoggerFactory.getLogger (ChannelLogs.class);
+
+	private static final int Mb = 1024 * 1024;
+
+	private File 						folder;
+	private Set<String> 				channels;
+	private int 						segmentSize;
+	private long 						maxSize;
+	private long 						maxAge;
+	private int 						flush;
+	private int 						maxReplay;
+
+	private Map<String, ChannelLog> 	logs = new ConcurrentHashMap<String, ChannelLog> ();
+
+	private int 						ticks;
+
+	public ChannelLogs (JsonObject spec) {
+		folder 		= new File (Json.getString (spec, Spec.Log.Folder, "channels"));
+		segmentSize = Json.getInteger (spec, Spec.Log.SegmentSize, 16) * Mb;
+		maxSize 	= Json.getLong (spec, Spec.Log.MaxSize, 256) * Mb;
+		maxAge 		= Json.getLong (spec, Spec.Log.MaxAge, 86400) * 1000;
+		flush 		= Json.getInteger (spec, Spec.Log.Flush, 1);
+		maxReplay 	= Json.getInteger (spec, Spec.Log.MaxReplay, 1000);
+
+		channels = new HashSet<String> ();
+		JsonArray aChannels = Json.getArray (spec, Spec.Log.Channels);
+		if (Json.isNullOrEmpty (aChannels)) {
+			channels.add (Lang.STAR);
+		} else {
+			for (Object o : aChannels) {
+				channels.add (String.valueOf (o));
+			}
+		}
+	}
+
+	// the log of a channel, null if the channel isn't logged
+	public ChannelLog get (String namespace, String channel) {
+		String key = namespace + Lang.SPACE + channel;
+		ChannelLog log = logs.get (key);
+		if (log != null || !accepts (channel)) {
+			return log;
+		}
+		return logs.computeIfAbsent (key, k -> {
+			try {
+				return new ChannelLog (new File (new File (folder, encode (namespace)), encode (channel)), segmentSize, maxSize, maxAge);
+			} catch (IOException ioex) {
+				logger.error ("Can't open log of channel " + channel + " in namespace " + namespace, ioex);
+				return null;
+			}
+		});
+	}
+
+	public int maxReplay () {
+		return maxReplay;
+	}
+
+	// called every second
+	public void tick () {
+		ticks++;
+		for (ChannelLog log : logs.values ()) {
+			if (flush > 0 && ticks % flush == 0) {
+				log.flush ();
+			}
+			log.retain ();
+		}
+	}
+
+	public void close () {
+		for (ChannelLog log : logs.values ()) {
+			log.flush ();
+		}
+	}
+
+	public JsonObject describe () {
+		JsonObject describe = new JsonObject ();
+		for (Map.Entry<String, ChannelLog> entry : logs.entrySet ()) {
+			describe.set (entry.getKey (), entry.getValue ().describe ());
+		}
+		return describe;
+	}
+
+	private boolean accepts (String channel) {
+		if (channels.contains (Lang.STAR) || channels.contains (channel)) {
+			return true;
+		}
+		for (String wildcard : channels) {
+			if (Lang.wmatches (wildcard, channel)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String encode (String name) {
+		try {
+			// dots too, a channel can't point outside of the log folder
+			return URLEncoder.encode (name, "UTF-8").replace (Lang.DOT, "%2E");
+		} catch (UnsupportedEncodingException ueex) {
+			throw new RuntimeException (ueex.getMessage (), ueex);
+		}
+	}
+
+}
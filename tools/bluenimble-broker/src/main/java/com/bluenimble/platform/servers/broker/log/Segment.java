@@ -0,0 +1,251 @@
+package com.bluenimble.platform.servers.broker.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * A memory mapped, fixed size file holding consecutive records of a channel log.
+ * The file name is the offset of its first record.
+ *
+ * record: length (int), crc (int), offset (long), timestamp (long), payload (length bytes)
+ *
+ * Readers pin the segment while they walk the mapping, a deleted segment is unmapped and its file removed
+ * once the last reader is done. Touching an unmapped buffer crashes the vm, not only the reader.
+ */
+class Segment {
+
+	static final String 	Extension 	= ".log";
+
+	private static final int Header 	= 4 + 4 + 8 + 8;
+
+	private File 				file;
+	private long 				base;
+	private MappedByteBuffer 	buffer;
+
+	// 1 for the log owning the segment plus 1 per reader, the mapping is released when it drops to 0
+	private final AtomicInteger	pins 		= new AtomicInteger (1);
+	private volatile boolean 	deleted;
+
+	// written by the appender only, read by anyone
+	private volatile int 		end;
+	private volatile long 		next;
+	private volatile long 		firstTimestamp;
+	private volatile long 		lastTimestamp;
+
+	static Segment create (File folder, long base, int size) throws IOException {
+		return new Segment (new File (folder, String.format ("%020d", base) + Extension), base, size);
+	}
+
+	static Segment open (File file) throws IOException {
+		String name = file.getName ();
+		long base = Long.parseLong (name.substring (0, name.length () - Extension.length ()));
+		return new Segment (file, base, (int)file.length ());
+	}
+
+	private Segment (File file, long base, int size) throws IOException {
+		this.file 	= file;
+		this.base 	= base;
+		this.next 	= base;
+		try (RandomAccessFile raf = new RandomAccessFile (file, "rw")) {
+			buffer = raf.getChannel ().map (FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+		recover ();
+	}
+
+	// find the end of the last complete record
+	private void recover () {
+		ByteBuffer view = buffer.duplicate ();
+		int position = 0;
+		while (position + Header <= view.capacity ()) {
+			int length = view.getInt (position);
+			if (length <= 0 || position + Header + length > view.capacity ()) {
+				break;
+			}
+			int crc 		= view.getInt (position + 4);
+			long offset 	= view.getLong (position + 8);
+			long timestamp 	= view.getLong (position + 16);
+			if (offset != next || crc != crc (view, position + Header, length)) {
+				break;
+			}
+			if (position == 0) {
+				firstTimestamp = timestamp;
+			}
+			lastTimestamp = timestamp;
+			next++;
+			position += Header + length;
+		}
+		end = position;
+	}
+
+	boolean fits (int length) {
+		return end + Header + length <= buffer.capacity ();
+	}
+
+	static int size (int length) {
+		return Header + length;
+	}
+
+	// single appender, guarded by the log
+	long append (byte [] payload, long timestamp) {
+		int position = end;
+		long offset = next;
+
+		ByteBuffer view = buffer.duplicate ();
+		view.position (position + Header);
+		view.put (payload);
+
+		CRC32 crc = new CRC32 ();
+		crc.update (payload, 0, payload.length);
+
+		view.putInt (position + 4, (int)crc.getValue ());
+		view.putLong (position + 8, offset);
+		view.putLong (position + 16, timestamp);
+		// length last, a record is readable once its length is set
+		view.putInt (position, payload.length);
+
+		if (position == 0) {
+			firstTimestamp = timestamp;
+		}
+		lastTimestamp = timestamp;
+		next = offset + 1;
+		end = position + Header + payload.length;
+		return offset;
+	}
+
+	// reads records from 'offset' (or the first one with a timestamp >= 'timestamp') until 'max' are collected
+	void read (long offset, long timestamp, int max, List<ChannelLog.Entry> entries) {
+		if (!pin ()) {
+			// deleted by retention
+			return;
+		}
+		try {
+			int limit = end;
+			ByteBuffer view = buffer.duplicate ();
+			int position = 0;
+			while (position < limit && entries.size () < max) {
+				int length 		= view.getInt (position);
+				long rOffset 	= view.getLong (position + 8);
+				long rTimestamp = view.getLong (position + 16);
+				if (rOffset >= offset && rTimestamp >= timestamp) {
+					byte [] payload = new byte [length];
+					view.position (position + Header);
+					view.get (payload);
+					entries.add (new ChannelLog.Entry (rOffset, rTimestamp, payload));
+				}
+				position += Header + length;
+			}
+		} finally {
+			unpin ();
+		}
+	}
+
+	void flush () {
+		if (!pin ()) {
+			return;
+		}
+		try {
+			buffer.force ();
+		} finally {
+			unpin ();
+		}
+	}
+
+	// drops the log's pin, the file goes away now or when the last reader unpins
+	void delete () {
+		if (deleted) {
+			return;
+		}
+		deleted = true;
+		unpin ();
+	}
+
+	private boolean pin () {
+		while (true) {
+			int count = pins.get ();
+			if (count == 0) {
+				return false;
+			}
+			if (pins.compareAndSet (count, count + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private void unpin () {
+		if (pins.decrementAndGet () > 0) {
+			return;
+		}
+		unmap (buffer);
+		buffer = null;
+		file.delete ();
+	}
+
+	long base () {
+		return base;
+	}
+
+	long next () {
+		return next;
+	}
+
+	int end () {
+		return end;
+	}
+
+	boolean isEmpty () {
+		return end == 0;
+	}
+
+	long firstTimestamp () {
+		return firstTimestamp;
+	}
+
+	long lastTimestamp () {
+		return lastTimestamp;
+	}
+
+	// release the mapping now rather than on gc, an open mapping keeps the disk space (and on windows the file)
+	private static void unmap (MappedByteBuffer buffer) {
+		try {
+			// java 9+
+			Class<?> type = Class.forName ("sun.misc.Unsafe");
+			Method invokeCleaner = type.getMethod ("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = type.getDeclaredField ("theUnsafe");
+			theUnsafe.setAccessible (true);
+			invokeCleaner.invoke (theUnsafe.get (null), buffer);
+			return;
+		} catch (NoSuchMethodException nsme) {
+			// java 8, below
+		} catch (Exception ex) {
+			return;
+		}
+		try {
+			Method cleaner = buffer.getClass ().getMethod ("cleaner");
+			cleaner.setAccessible (true);
+			Object instance = cleaner.invoke (buffer);
+			if (instance != null) {
+				instance.getClass ().getMethod ("clean").invoke (instance);
+			}
+		} catch (Exception ex) {
+			// left to the gc
+		}
+	}
+
+	private static int crc (ByteBuffer view, int position, int length) {
+		view.limit (position + length).position (position);
+		CRC32 crc = new CRC32 ();
+		crc.update (view);
+		view.clear ();
+		return (int)crc.getValue ();
+	}
+
+}
@@ -36,6 +36,25 @@ public interface Broker extends Serializable {
 		
 		String UseNativeEpoll			= "useNativeEpoll";
 		
+		String Enabled					= "enabled";
+		
+		interface FanOut {
+			String Threads				= "threads";
+			String MaxQueue				= "maxQueue";
+			String Batch				= "batch";
+			String Report				= "report";
+		}
+		
+		interface Log {
+			String Folder				= "folder";
+			String Channels				= "channels";
+			String SegmentSize			= "segmentSize";
+			String MaxSize				= "maxSize";
+			String MaxAge				= "maxAge";
+			String Flush				= "flush";
+			String MaxReplay			= "maxReplay";
+		}
+		
 		interface Ssl {
 			String Protocol				= "protocol";	 
 			String Store				= "store";
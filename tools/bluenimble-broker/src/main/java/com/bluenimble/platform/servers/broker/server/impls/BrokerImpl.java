@@ -16,6 +16,8 @@ import com.bluenimble.platform.Lang;
 import com.bluenimble.platform.json.JsonArray;
 import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.reflect.BeanUtils;
+import com.bluenimble.platform.servers.broker.fanout.FanOut;
+import com.bluenimble.platform.servers.broker.log.ChannelLogs;
 import com.bluenimble.platform.servers.broker.listeners.EventListener;
 import com.bluenimble.platform.servers.broker.security.SelectiveAuthorizationListener;
 import com.bluenimble.platform.servers.broker.server.Broker;
@@ -40,6 +42,8 @@ public class BrokerImpl implements Broker {
 	private Configuration 					config;
 	private SocketIOServer 					server;
 	
+	private FanOut 							fanOut;
+	
 	public BrokerImpl (JsonObject spec) throws Exception {
 		
 		this.spec = spec;
@@ -86,6 +90,15 @@ public class BrokerImpl implements Broker {
 			Runtime.getRuntime ().addShutdownHook (new Thread (server::stop));
 		}
 		
+		// durable channels
+		ChannelLogs logs = null;
+		JsonObject log = Json.getObject (spec, Spec.Log.class.getSimpleName ().toLowerCase ());
+		if (!Json.isNullOrEmpty (log) && Json.getBoolean (log, Spec.Enabled, true)) {
+			logs = new ChannelLogs (log);
+		}
+		
+		fanOut = new FanOut (Json.getObject (spec, Spec.FanOut.class.getSimpleName ().toLowerCase ()), logs);
+		
 		authListener = new SelectiveAuthorizationListener (config.getContext ());
 		
 		config.setAuthorizationListener (authListener);
@@ -97,6 +110,8 @@ public class BrokerImpl implements Broker {
 
 		server = new SocketIOServer (config);
 		
+		fanOut.start (server.getConfiguration ().getJsonSupport ());
+		
 		// load namespaces
 		try {
 			load ();
@@ -111,6 +126,7 @@ public class BrokerImpl implements Broker {
 	@Override
 	public void stop () {
 		server.stop ();
+		fanOut.stop ();
 	}
 	
 	private void load () throws Exception {
@@ -171,11 +187,11 @@ public class BrokerImpl implements Broker {
 		
 		// add connect/disconnect listeners
 		if (isGlobal) {
-			server.addConnectListener (new OnConnectListener (server, null));
-			server.addDisconnectListener (new OnDisconnectListener (server, null));
+			server.addConnectListener (new OnConnectListener (server, null, fanOut));
+			server.addDisconnectListener (new OnDisconnectListener (server, null, fanOut));
 		} else {
-			namespace.addConnectListener (new OnConnectListener (null, namespace));
-			namespace.addDisconnectListener (new OnDisconnectListener (null, namespace));
+			namespace.addConnectListener (new OnConnectListener (null, namespace, fanOut));
+			namespace.addDisconnectListener (new OnDisconnectListener (null, namespace, fanOut));
 		}
 		
 		Iterator<String> lstKeys = oListeners.keys ();
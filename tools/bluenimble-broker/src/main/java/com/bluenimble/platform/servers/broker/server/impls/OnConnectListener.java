@@ -4,6 +4,7 @@ import com.bluenimble.platform.json.JsonObject;
 import com.bluenimble.platform.servers.broker.Message;
 import com.bluenimble.platform.servers.broker.Peer;
 import com.bluenimble.platform.servers.broker.Response;
+import com.bluenimble.platform.servers.broker.fanout.FanOut;
 import com.bluenimble.platform.servers.broker.listeners.EventListener;
 import com.bluenimble.platform.servers.broker.utils.PeerUtils;
 import com.corundumstudio.socketio.SocketIOClient;
@@ -15,10 +16,12 @@ public class OnConnectListener implements ConnectListener {
 	
 	private SocketIONamespace namespace;
 	private SocketIOServer server;
+	private FanOut fanOut;
 	
-	public OnConnectListener (SocketIOServer server, SocketIONamespace namespace) {
+	public OnConnectListener (SocketIOServer server, SocketIONamespace namespace, FanOut fanOut) {
 		this.server 	= server;
 		this.namespace 	= namespace;
+		this.fanOut 	= fanOut;
 	}
 	
 	@Override
@@ -29,7 +32,7 @@ public class OnConnectListener implements ConnectListener {
 			return;
 		}
 		
-		peer.init (server, namespace, client);
+		peer.init (server, namespace, client, fanOut);
 		
 		client.set (Peer.Key, peer);
 		
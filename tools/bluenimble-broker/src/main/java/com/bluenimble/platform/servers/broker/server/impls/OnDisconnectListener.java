@@ -1,5 +1,8 @@
 package com.bluenimble.platform.servers.broker.server.impls;
 
+import com.bluenimble.platform.servers.broker.Peer;
+import com.bluenimble.platform.servers.broker.fanout.FanOut;
+import com.bluenimble.platform.servers.broker.utils.PeerUtils;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIONamespace;
 import com.corundumstudio.socketio.SocketIOServer;
@@ -7,11 +10,19 @@ import com.corundumstudio.socketio.listener.DisconnectListener;
 
 public class OnDisconnectListener implements DisconnectListener {
 	
-	public OnDisconnectListener (SocketIOServer server, SocketIONamespace namespace) {
+	private FanOut fanOut;
+	
+	public OnDisconnectListener (SocketIOServer server, SocketIONamespace namespace, FanOut fanOut) {
+		this.fanOut = fanOut;
 	}
 
 	@Override
 	public void onDisconnect (final SocketIOClient client) {
+		Peer peer = PeerUtils.peer (client);
+		if (peer == null) {
+			return;
+		}
+		fanOut.leave (peer);
     }
 
-}
\ No newline at end of file
+}
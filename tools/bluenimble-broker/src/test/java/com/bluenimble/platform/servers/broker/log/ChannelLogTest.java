@@ -0,0 +1,121 @@
+package com.bluenimble.platform.servers.broker.log;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChannelLogTest {
+
+	// 2 records of 40 bytes per segment
+	private static final int 	SegmentSize = 2 * (24 + 40);
+
+	@Rule
+	public TemporaryFolder 		temp 		= new TemporaryFolder ();
+
+	@Test
+	public void appendAndRead () throws IOException {
+		ChannelLog log = new ChannelLog (temp.newFolder (), SegmentSize, Long.MAX_VALUE, 0);
+		for (int i = 0; i < 5; i++) {
+			assertEquals (i, log.append (payload (i), 1000 + i));
+		}
+		assertEquals (0, log.first ());
+		assertEquals (5, log.next ());
+
+		List<ChannelLog.Entry> entries = log.read (1, 10);
+		assertEquals (4, entries.size ());
+		for (int i = 0; i < 4; i++) {
+			assertEquals (i + 1, entries.get (i).offset ());
+			assertEquals (1000 + i + 1, entries.get (i).timestamp ());
+			assertArrayEquals (payload (i + 1), entries.get (i).payload ());
+		}
+
+		assertEquals (2, log.read (0, 2).size ());
+		assertEquals (0, log.read (5, 10).size ());
+	}
+
+	@Test
+	public void since () throws IOException {
+		ChannelLog log = new ChannelLog (temp.newFolder (), SegmentSize, Long.MAX_VALUE, 0);
+		for (int i = 0; i < 5; i++) {
+			log.append (payload (i), 1000 + i * 10);
+		}
+		List<ChannelLog.Entry> entries = log.since (1025, 10);
+		assertEquals (2, entries.size ());
+		assertEquals (3, entries.get (0).offset ());
+		assertEquals (4, entries.get (1).offset ());
+	}
+
+	@Test
+	public void reopen () throws IOException {
+		File folder = temp.newFolder ();
+		ChannelLog log = new ChannelLog (folder, SegmentSize, Long.MAX_VALUE, 0);
+		for (int i = 0; i < 3; i++) {
+			log.append (payload (i), 1000 + i);
+		}
+		log.flush ();
+
+		log = new ChannelLog (folder, SegmentSize, Long.MAX_VALUE, 0);
+		assertEquals (3, log.next ());
+		assertEquals (3, log.append (payload (3), 1003));
+		assertEquals (4, log.read (0, 10).size ());
+	}
+
+	@Test
+	public void retainBySize () throws IOException {
+		File folder = temp.newFolder ();
+		ChannelLog log = new ChannelLog (folder, SegmentSize, 2 * SegmentSize, 0);
+		for (int i = 0; i < 10; i++) {
+			log.append (payload (i), 1000 + i);
+		}
+		// 5 segments written, the 2 newest are retained
+		assertEquals (6, log.first ());
+		assertEquals (2, segments (folder));
+
+		// a deleted offset reads from the first retained record
+		List<ChannelLog.Entry> entries = log.read (1, 10);
+		assertEquals (4, entries.size ());
+		assertEquals (6, entries.get (0).offset ());
+		assertArrayEquals (payload (6), entries.get (0).payload ());
+	}
+
+	@Test
+	public void retainByAge () throws IOException {
+		File folder = temp.newFolder ();
+		ChannelLog log = new ChannelLog (folder, SegmentSize, Long.MAX_VALUE, 60000);
+		long now = System.currentTimeMillis ();
+		for (int i = 0; i < 4; i++) {
+			log.append (payload (i), now - 120000);
+		}
+		log.append (payload (4), now);
+
+		log.retain ();
+		assertEquals (4, log.first ());
+		assertEquals (1, segments (folder));
+		assertEquals (1, log.read (0, 10).size ());
+
+		// the active segment is never deleted
+		log.retain ();
+		assertTrue (log.read (4, 10).size () == 1);
+	}
+
+	private static int segments (File folder) {
+		return folder.list ((dir, name) -> name.endsWith (Segment.Extension)).length;
+	}
+
+	private static byte [] payload (int i) {
+		byte [] payload = new byte [40];
+		for (int b = 0; b < payload.length; b++) {
+			payload [b] = (byte)(i + b);
+		}
+		return payload;
+	}
+
+}